@@ -909,6 +909,14 @@ public interface EbeanServer {
    */
   <T> void findEachWhile(Query<T> query, QueryEachWhileConsumer<T> consumer, Transaction transaction);
 
+  /**
+   * Execute the query in parallel partitions (each with its own transaction) processing the beans
+   * one at a time via a thread safe consumer.
+   *
+   * @see Query#findEachParallel(ParallelConfig, QueryEachConsumer)
+   */
+  <T> void findEachParallel(Query<T> query, ParallelConfig config, QueryEachConsumer<T> consumer);
+
   /**
    * Return versions of a @History entity bean.
    * <p>
@@ -1074,6 +1082,14 @@ public interface EbeanServer {
    */
   <T> PagedList<T> findPagedList(Query<T> query, Transaction transaction);
 
+  /**
+   * Return a keyset (seek) PagedList for the query given the order by values of the last row of
+   * the prior page (null for the first page).
+   *
+   * @see Query#findKeysetPagedList(Object[], int)
+   */
+  <T> KeysetPagedList<T> findKeysetPagedList(Query<T> query, Transaction transaction, Object[] afterValues, int pageSize);
+
   /**
    * Execute the query returning a set of entity beans.
    * <p>
@@ -1241,6 +1257,31 @@ public interface EbeanServer {
   @Nullable
   SqlRow findUnique(SqlQuery query, Transaction transaction);
 
+  /**
+   * Execute the sql query processing each row one at a time.
+   * <p>
+   * Generally you are able to use {@link SqlQuery#findEach(QueryEachConsumer)} rather than
+   * explicitly calling this method. You could use this method if you wish to explicitly control
+   * the transaction used for the query.
+   * </p>
+   *
+   * @param query       the query to execute.
+   * @param consumer    the consumer to process each row.
+   * @param transaction the transaction to use (can be null).
+   * @see SqlQuery#findEach(QueryEachConsumer)
+   */
+  void findEach(SqlQuery query, QueryEachConsumer<SqlRow> consumer, Transaction transaction);
+
+  /**
+   * Execute the sql query processing each row until the consumer returns false.
+   *
+   * @param query       the query to execute.
+   * @param consumer    the consumer to process each row returning false to stop processing.
+   * @param transaction the transaction to use (can be null).
+   * @see SqlQuery#findEachWhile(QueryEachWhileConsumer)
+   */
+  void findEachWhile(SqlQuery query, QueryEachWhileConsumer<SqlRow> consumer, Transaction transaction);
+
   /**
    * Either Insert or Update the bean depending on its state.
    * <p>
@@ -1946,6 +1987,28 @@ public interface EbeanServer {
    */
   <T> List<T> publish(Query<T> query);
 
+  /**
+   * Publish the beans that match the query using set based statements returning the number of
+   * beans published.
+   * <p>
+   * Rather than loading the draft and live beans into memory the live rows are updated and
+   * inserted from the draft rows via a few statements per chunk of Id values (and the @DraftDirty
+   * and @DraftReset properties reset on the draft rows). This is used for publishing large numbers
+   * of beans.
+   * </p>
+   * <p>
+   * When the bean type requires per bean processing on publish (persist controller, persist
+   * listener, change log, document store or draftable relationships such as @DraftableElement
+   * children) this falls back to publishing bean by bean as per {@link #publish(Query, Transaction)}.
+   * </p>
+   *
+   * @param <T>         the type of the entity bean
+   * @param query       the query used to select the draft beans to publish
+   * @param transaction the transaction the publish process should use (can be null)
+   * @return the number of beans published
+   */
+  <T> int publishBulk(Query<T> query, Transaction transaction);
+
   /**
    * Restore the draft bean back to the live state.
    * <p>
@@ -143,6 +143,13 @@ public interface ExpressionList<T> extends Serializable {
    */
   void findEach(QueryEachConsumer<T> consumer);
 
+  /**
+   * Execute the query in parallel partitions processing the beans one at a time.
+   *
+   * @see Query#findEachParallel(ParallelConfig, QueryEachConsumer)
+   */
+  void findEachParallel(ParallelConfig config, QueryEachConsumer<T> consumer);
+
   /**
    * Execute the query processing the beans one at a time with the ability to
    * stop processing before reading all the beans.
@@ -296,6 +303,13 @@ public interface ExpressionList<T> extends Serializable {
    */
   PagedList<T> findPagedList();
 
+  /**
+   * Return a keyset (seek) paged list for this query.
+   *
+   * @see Query#findKeysetPagedList(Object[], int)
+   */
+  KeysetPagedList<T> findKeysetPagedList(Object[] afterValues, int pageSize);
+
   /**
    * Return versions of a @History entity bean.
    * <p>
@@ -0,0 +1,93 @@
+package com.avaje.ebean;
+
+import java.util.List;
+import java.util.concurrent.Future;
+
+/**
+ * A page of results using keyset (seek) pagination.
+ * <p>
+ * Rather than skipping the rows of the prior pages (limit offset) the query includes a predicate
+ * selecting the rows after the order by values of the last row of the prior page. As such every
+ * page has the same cost no matter how deep the page is. The order by must be unique which is
+ * ensured by appending the id property to the order by when it is not already included.
+ * </p>
+ *
+ * <pre>{@code
+ *
+ *   // first page
+ *   KeysetPagedList<Order> page = ebeanServer.find(Order.class)
+ *     .where().eq("status", Order.Status.NEW)
+ *     .order().asc("orderDate")
+ *     .findKeysetPagedList(null, 100);
+ *
+ *   List<Order> orders = page.getList();
+ *
+ *   // the order by values of the last row (orderDate and id)
+ *   Object[] nextKeyset = page.getNextKeyset();
+ *
+ *   // next page
+ *   KeysetPagedList<Order> next = ebeanServer.find(Order.class)
+ *     .where().eq("status", Order.Status.NEW)
+ *     .order().asc("orderDate")
+ *     .findKeysetPagedList(nextKeyset, 100);
+ *
+ * }</pre>
+ * <p>
+ * Each page fetches one extra row to determine hasNext() so the total row count query is only
+ * executed if getTotalRowCount() or getTotalPageCount() are used. Unlike {@link PagedList} the
+ * position of the page (page index) is not known with keyset pagination.
+ * </p>
+ *
+ * @param <T> the entity bean type
+ * @see Query#findKeysetPagedList(Object[], int)
+ */
+public interface KeysetPagedList<T> {
+
+  /**
+   * Initiate the loading of the total row count in the background.
+   */
+  void loadRowCount();
+
+  /**
+   * Return the Future for the total row count.
+   */
+  Future<Integer> getFutureRowCount();
+
+  /**
+   * Return the list of entities for this page.
+   */
+  List<T> getList();
+
+  /**
+   * Return the total row count for all pages (executes the row count query if not already).
+   */
+  int getTotalRowCount();
+
+  /**
+   * Return the total number of pages based on the page size and total row count.
+   */
+  int getTotalPageCount();
+
+  /**
+   * Return the page size used for this query.
+   */
+  int getPageSize();
+
+  /**
+   * Return true if there is a next page.
+   */
+  boolean hasNext();
+
+  /**
+   * Return true if there is a previous page (this is not the first page).
+   */
+  boolean hasPrev();
+
+  /**
+   * Return the order by values of the last row of this page (null if there are no more rows).
+   * <p>
+   * Pass these to findKeysetPagedList() to fetch the next page.
+   * </p>
+   */
+  Object[] getNextKeyset();
+}
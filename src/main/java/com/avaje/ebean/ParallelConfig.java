@@ -0,0 +1,110 @@
+package com.avaje.ebean;
+
+import java.io.Serializable;
+
+/**
+ * Defines the options for processing a query in parallel via
+ * {@link Query#findEachParallel(ParallelConfig, QueryEachConsumer)}.
+ * <p>
+ * The query is split into partitions (by the modulo of the id value) with each partition executed
+ * on its own connection and transaction. The consumer is invoked from multiple threads so it must
+ * be thread safe.
+ * </p>
+ *
+ * <pre>{@code
+ *
+ *   Ebean.find(Order.class)
+ *     .where().eq("status", Order.Status.NEW)
+ *     .findEachParallel(new ParallelConfig().parallelism(4), (Order order) -> {
+ *       // CPU heavy processing of the order
+ *       ...
+ *     });
+ *
+ * }</pre>
+ * <p>
+ * By default the partitions are read by one thread each and the beans are handed off to a bounded
+ * pool of worker threads that invoke the consumer (so the consumer is not limited by the rate the
+ * partition results are read). With <code>ordered()</code> the consumer is instead invoked by the
+ * partition reader threads such that the beans of each partition are processed in the query order
+ * (but the partitions are processed concurrently).
+ * </p>
+ * <p>
+ * Queries with firstRow or maxRows set, and bean types without a single integer id, are not split
+ * into partitions (only the consumer invocation is parallel).
+ * </p>
+ */
+public class ParallelConfig implements Serializable {
+
+  private static final long serialVersionUID = 1L;
+
+  private int parallelism = Runtime.getRuntime().availableProcessors();
+
+  private int partitions;
+
+  private boolean ordered;
+
+  private int queueSize = 1000;
+
+  /**
+   * Set the number of threads invoking the consumer (defaults to the number of processors).
+   */
+  public ParallelConfig parallelism(int parallelism) {
+    this.parallelism = Math.max(1, parallelism);
+    return this;
+  }
+
+  /**
+   * Set the number of partitions the query is split into (defaults to the parallelism).
+   */
+  public ParallelConfig partitions(int partitions) {
+    this.partitions = partitions;
+    return this;
+  }
+
+  /**
+   * Invoke the consumer in query order for each partition (from the partition reader threads).
+   */
+  public ParallelConfig ordered() {
+    this.ordered = true;
+    return this;
+  }
+
+  /**
+   * Set the maximum number of read beans waiting for a worker thread (defaults to 1000).
+   * <p>
+   * When the queue is full the partition reader invokes the consumer itself (slowing reading).
+   * </p>
+   */
+  public ParallelConfig queueSize(int queueSize) {
+    this.queueSize = Math.max(1, queueSize);
+    return this;
+  }
+
+  /**
+   * Return the number of threads invoking the consumer.
+   */
+  public int getParallelism() {
+    return parallelism;
+  }
+
+  /**
+   * Return the number of partitions the query is split into.
+   */
+  public int getPartitions() {
+    return partitions > 0 ? partitions : parallelism;
+  }
+
+  /**
+   * Return true if the consumer is invoked in query order per partition.
+   */
+  public boolean isOrdered() {
+    return ordered;
+  }
+
+  /**
+   * Return the maximum number of read beans waiting for a worker thread.
+   */
+  public int getQueueSize() {
+    return queueSize;
+  }
+}
@@ -630,6 +630,30 @@ public interface Query<T> {
    */
   void findEachWhile(QueryEachWhileConsumer<T> consumer);
 
+  /**
+   * Execute the query in parallel partitions processing the beans one at a time.
+   * <p>
+   * The query is split into partitions (by id modulo) that are executed concurrently on separate
+   * connections and transactions with the consumer invoked from multiple threads. Use this when
+   * the processing of each bean is CPU heavy.
+   * </p>
+   *
+   * <pre>{@code
+   *
+   *  ebeanServer.find(Customer.class)
+   *     .where().eq("status", Status.NEW)
+   *     .findEachParallel(new ParallelConfig().parallelism(4), (Customer customer) -> {
+   *
+   *       // thread safe processing of customer
+   *     });
+   *
+   * }</pre>
+   *
+   * @param config   the parallelism, partitions and ordering options
+   * @param consumer the thread safe consumer used to process the queried beans.
+   */
+  void findEachParallel(ParallelConfig config, QueryEachConsumer<T> consumer);
+
   /**
    * Execute the query returning the list of objects.
    * <p>
@@ -896,6 +920,36 @@ public interface Query<T> {
    */
   PagedList<T> findPagedList();
 
+  /**
+   * Return a keyset (seek) paged list for this query.
+   * <p>
+   * Rather than skipping the rows of prior pages (limit offset) the query selects the rows after
+   * the order by values of the last row of the prior page. Deep pages are then as cheap as the
+   * first page. The id property is appended to the order by if it is not already included such
+   * that the order is unique.
+   * </p>
+   *
+   * <pre>{@code
+   *
+   *   KeysetPagedList<Order> page = ebeanServer.find(Order.class)
+   *     .where().eq("status", Order.Status.NEW)
+   *     .order().asc("orderDate")
+   *     .findKeysetPagedList(lastKeyset, 100);
+   *
+   *   List<Order> orders = page.getList();
+   *   if (page.hasNext()) {
+   *     // pass this to fetch the next page
+   *     lastKeyset = page.getNextKeyset();
+   *   }
+   *
+   * }</pre>
+   *
+   * @param afterValues the order by values of the last row of the prior page (null for the first page)
+   * @param pageSize    the number of beans to return per page
+   * @return The KeysetPagedList
+   */
+  KeysetPagedList<T> findKeysetPagedList(Object[] afterValues, int pageSize);
+
   /**
    * Set a named bind parameter. Named parameters have a colon to prefix the name.
    * 
@@ -70,6 +70,34 @@ public interface SqlQuery extends Serializable {
    */
   SqlRow findUnique();
 
+  /**
+   * Execute the query processing each row one at a time.
+   * <p>
+   * Rows are read from the JDBC ResultSet as they are processed so the query result does not need
+   * to be held in memory. Use this for large (reporting) queries.
+   * </p>
+   *
+   * <pre>{@code
+   *
+   *  Ebean.createSqlQuery("select id, name from o_customer")
+   *    .findEach((SqlRow row) -> {
+   *      Long id = row.getLong("id");
+   *      ...
+   *    });
+   *
+   * }</pre>
+   *
+   * @see #setReuseRow(boolean)
+   */
+  void findEach(QueryEachConsumer<SqlRow> consumer);
+
+  /**
+   * Execute the query processing each row until the consumer returns false.
+   *
+   * @see #findEach(QueryEachConsumer)
+   */
+  void findEachWhile(QueryEachWhileConsumer<SqlRow> consumer);
+
   /**
    * Execute find list SQL query in a background thread.
    * <p>
@@ -106,6 +134,18 @@ public interface SqlQuery extends Serializable {
    */
   SqlQuery setListener(SqlQueryListener queryListener);
 
+  /**
+   * Set to true to reuse the same SqlRow instance for every row processed by findEach() and
+   * findEachWhile().
+   * <p>
+   * The rows of findEach() share the column names of the result set and hold their values in an
+   * array (with a fixed set of keys). With reuse the values of the single SqlRow instance are
+   * replaced as each row is read so the consumer must not hold onto the row (or put it into a
+   * collection) after processing it.
+   * </p>
+   */
+  SqlQuery setReuseRow(boolean reuseRow);
+
   /**
    * Set the index of the first row of the results to return.
    */
@@ -25,7 +25,7 @@ import java.util.Set;
  */
 public final class EntityBeanIntercept implements Serializable {
 
-  private static final long serialVersionUID = -3664031775464862649L;
+  private static final long serialVersionUID = -2385127309347201857L;
 
   private static final int STATE_NEW = 0;
   private static final int STATE_REFERENCE = 1;
@@ -69,23 +69,24 @@ public final class EntityBeanIntercept implements Serializable {
   private boolean lazyLoadFailure;
 
   /**
-   * Used when a bean is partially filled.
+   * Bitset of the loaded properties (bit i of word i &gt;&gt; 6 for property i). Used when a
+   * bean is partially filled.
    */
-  private final boolean[] loadedProps;
+  private final long[] loadedProps;
   
   private boolean fullyLoadedBean;
 
   /**
-   * Set of changed properties.
+   * Bitset of changed properties (null when no property has been changed).
    */
-  private boolean[] changedProps;
+  private long[] changedProps;
   
   /**
-   * Flags indicating if a property is a dirty embedded bean. Used to distingush
+   * Bitset indicating if a property is a dirty embedded bean. Used to distingush
    * between an embedded bean being completely overwritten and one of its
    * embedded properties being made dirty.
    */
-  private boolean[] embeddedDirty;
+  private long[] embeddedDirty;
 
   private Object[] origValues;
 
@@ -101,7 +102,37 @@ public final class EntityBeanIntercept implements Serializable {
    */
   public EntityBeanIntercept(Object ownerBean) {
     this.owner = (EntityBean) ownerBean;
-    this.loadedProps = new boolean[owner._ebean_getPropertyNames().length];
+    this.loadedProps = newBits(owner._ebean_getPropertyNames().length);
+  }
+
+  /**
+   * Create a bitset for the given number of properties.
+   */
+  private static long[] newBits(int size) {
+    return new long[(size + 63) >>> 6];
+  }
+
+  private static boolean isSet(long[] bits, int index) {
+    return (bits[index >>> 6] & (1L << index)) != 0;
+  }
+
+  private static void set(long[] bits, int index) {
+    bits[index >>> 6] |= (1L << index);
+  }
+
+  private static void clear(long[] bits, int index) {
+    bits[index >>> 6] &= ~(1L << index);
+  }
+
+  /**
+   * Return the bitset as an array of flags.
+   */
+  private static boolean[] toFlags(long[] bits, int size) {
+    boolean[] flags = new boolean[size];
+    for (int i = 0; i < size; i++) {
+      flags[i] = isSet(bits, i);
+    }
+    return flags;
   }
 
   /**
@@ -223,12 +254,19 @@ public final class EntityBeanIntercept implements Serializable {
    * Check each property to see if the bean is partially loaded.
    */
   public boolean isPartial() {
-    for (int i = 0; i < loadedProps.length; i++) {
-      if (!loadedProps[i]) {
+    int size = getPropertyLength();
+    if (size == 0) {
+      return false;
+    }
+    int last = loadedProps.length - 1;
+    for (int i = 0; i < last; i++) {
+      if (loadedProps[i] != -1L) {
         return true;
       }
     }
-    return false;
+    // mask of the properties in the last word
+    long mask = -1L >>> (64 - (size - (last << 6)));
+    return (loadedProps[last] & mask) != mask;
   }
 
   /**
@@ -270,10 +308,9 @@ public final class EntityBeanIntercept implements Serializable {
    */
   public boolean hasIdOnly(int idIndex) {
     for (int i = 0; i < loadedProps.length; i++) {
-      if (i == idIndex) {
-        if (!loadedProps[i]) return false;
-      } else if (loadedProps[i]) {
-        return false; 
+      long expected = (idIndex >>> 6 == i) ? (1L << idIndex) : 0L;
+      if (loadedProps[i] != expected) {
+        return false;
       }
     }
     return true;
@@ -294,10 +331,12 @@ public final class EntityBeanIntercept implements Serializable {
     if (idPos > -1) {
       // For cases where properties are set on constructor
       // set every non Id property to unloaded (for lazy loading)
-      for (int i=0; i< loadedProps.length; i++) {
-        if (i != idPos) { 
-          loadedProps[i] = false;
-        }
+      boolean idLoaded = isSet(loadedProps, idPos);
+      for (int i = 0; i < loadedProps.length; i++) {
+        loadedProps[i] = 0L;
+      }
+      if (idLoaded) {
+        set(loadedProps, idPos);
       }
     }
   }
@@ -345,6 +384,22 @@ public final class EntityBeanIntercept implements Serializable {
     this.dirty = false;
   }
 
+  /**
+   * Set the state of a new bean that has been populated from a query result in a single call.
+   * <p>
+   * This is the same as setPersistenceContext(), setLoaded(), setDisableLazyLoad() and
+   * setFullyLoadedBean() but skips resetting the dirty state (a new bean populated via
+   * the field setters has no changed properties or original values).
+   * </p>
+   */
+  public void setLoadedState(PersistenceContext persistenceContext, boolean disableLazyLoad, boolean fullyLoadedBean) {
+    this.persistenceContext = persistenceContext;
+    this.state = STATE_LOADED;
+    this.owner._ebean_setEmbeddedLoaded();
+    this.disableLazyLoad = disableLazyLoad;
+    this.fullyLoadedBean = fullyLoadedBean;
+  }
+
   /**
    * When finished loading for lazy or refresh on an already partially populated
    * bean.
@@ -464,7 +519,11 @@ public final class EntityBeanIntercept implements Serializable {
     if (position == -1) {
       throw new IllegalArgumentException("Property "+propertyName+" not found");
     }
-    loadedProps[position] = loaded;
+    if (loaded) {
+      set(loadedProps, position);
+    } else {
+      clear(loadedProps, position);
+    }
   }
 
   /**
@@ -472,28 +531,28 @@ public final class EntityBeanIntercept implements Serializable {
    * constructor.
    */
   public void setPropertyUnloaded(int propertyIndex) {
-    loadedProps[propertyIndex] = false;
+    clear(loadedProps, propertyIndex);
   }
   
   /**
    * Set the property to be loaded.
    */
   public void setLoadedProperty(int propertyIndex) {
-    loadedProps[propertyIndex] = true;
+    set(loadedProps, propertyIndex);
   }
 
   /**
    * Return true if the property is loaded.
    */
   public boolean isLoadedProperty(int propertyIndex) {
-    return loadedProps[propertyIndex];
+    return isSet(loadedProps, propertyIndex);
   }
 
   /**
    * Return true if the property is considered changed.
    */
   public boolean isChangedProperty(int propertyIndex) {
-    return (changedProps != null && changedProps[propertyIndex]);
+    return (changedProps != null && isSet(changedProps, propertyIndex));
   }
 
   /**
@@ -501,8 +560,8 @@ public final class EntityBeanIntercept implements Serializable {
    * embedded properties is dirty.
    */
   public boolean isDirtyProperty(int propertyIndex) {
-    return (changedProps != null && changedProps[propertyIndex] 
-        || embeddedDirty != null && embeddedDirty[propertyIndex]);
+    return (changedProps != null && isSet(changedProps, propertyIndex)
+        || embeddedDirty != null && isSet(embeddedDirty, propertyIndex));
   }
 
   /**
@@ -515,9 +574,9 @@ public final class EntityBeanIntercept implements Serializable {
   
   public void setChangedProperty(int propertyIndex) {
     if (changedProps == null) {
-      changedProps = new boolean[owner._ebean_getPropertyNames().length];
+      changedProps = newBits(owner._ebean_getPropertyNames().length);
     }
-    changedProps[propertyIndex] = true;
+    set(changedProps, propertyIndex);
   }
 
   /**
@@ -525,9 +584,9 @@ public final class EntityBeanIntercept implements Serializable {
    */
   private void setEmbeddedPropertyDirty(int propertyIndex) {
     if (embeddedDirty == null) {
-      embeddedDirty = new boolean[owner._ebean_getPropertyNames().length];
+      embeddedDirty = newBits(owner._ebean_getPropertyNames().length);
     }
-    embeddedDirty[propertyIndex] = true;
+    set(embeddedDirty, propertyIndex);
   }
   
   private void setOriginalValue(int propertyIndex, Object value) {
@@ -545,13 +604,11 @@ public final class EntityBeanIntercept implements Serializable {
   public void setNewBeanForUpdate() {
   
     if (changedProps == null) {
-      changedProps = new boolean[owner._ebean_getPropertyNames().length];
+      changedProps = newBits(owner._ebean_getPropertyNames().length);
     }
     
-    for (int i=0; i< loadedProps.length; i++) {
-      if (loadedProps[i]) {
-        changedProps[i] = true;        
-      }
+    for (int i = 0; i < loadedProps.length; i++) {
+      changedProps[i] |= loadedProps[i];
     }
     setDirty(true);
   }
@@ -564,10 +621,8 @@ public final class EntityBeanIntercept implements Serializable {
       return null;
     }
     Set<String> props = new LinkedHashSet<String>();
-    for (int i=0; i<loadedProps.length; i++) {
-      if (loadedProps[i]) {
-        props.add(getProperty(i));
-      }
+    for (int i = nextSetBit(loadedProps, 0); i > -1; i = nextSetBit(loadedProps, i + 1)) {
+      props.add(getProperty(i));
     }
     return props;
   }
@@ -576,19 +631,66 @@ public final class EntityBeanIntercept implements Serializable {
    * Return the array of flags indicating the dirty properties.
    */
   public boolean[] getDirtyProperties() {
-    int len = getPropertyLength();
-    boolean[] dirties = new boolean[len];
-    for (int i = 0; i < len; i++) {
-      if (changedProps != null && changedProps[i]) {
-        dirties[i] = true;
-      } else if (embeddedDirty != null && embeddedDirty[i]) {
-        // an embedded property has been changed - recurse
-        dirties[i] = true;
-      }
+    boolean[] dirties = new boolean[getPropertyLength()];
+    for (int i = nextDirtyProperty(0); i > -1; i = nextDirtyProperty(i + 1)) {
+      dirties[i] = true;
     }
     return dirties;
   }
 
+  /**
+   * Return the index of the next dirty property (changed or a dirty embedded bean) at or after
+   * the given index or -1 if there are no more dirty properties.
+   * <p>
+   * This iterates the dirty properties by skipping whole words of the bitsets.
+   * </p>
+   */
+  public int nextDirtyProperty(int fromIndex) {
+    if (changedProps == null && embeddedDirty == null) {
+      return -1;
+    }
+    int wordIndex = fromIndex >>> 6;
+    int words = loadedProps.length;
+    if (wordIndex >= words) {
+      return -1;
+    }
+    long word = dirtyWord(wordIndex) & (-1L << fromIndex);
+    while (true) {
+      if (word != 0) {
+        return (wordIndex << 6) + Long.numberOfTrailingZeros(word);
+      }
+      if (++wordIndex == words) {
+        return -1;
+      }
+      word = dirtyWord(wordIndex);
+    }
+  }
+
+  private long dirtyWord(int wordIndex) {
+    long word = (changedProps == null) ? 0L : changedProps[wordIndex];
+    return (embeddedDirty == null) ? word : word | embeddedDirty[wordIndex];
+  }
+
+  /**
+   * Return the index of the next set bit at or after the given index or -1.
+   */
+  private static int nextSetBit(long[] bits, int fromIndex) {
+    int wordIndex = fromIndex >>> 6;
+    if (wordIndex >= bits.length) {
+      return -1;
+    }
+    long word = bits[wordIndex] & (-1L << fromIndex);
+    while (true) {
+      if (word != 0) {
+        return (wordIndex << 6) + Long.numberOfTrailingZeros(word);
+      }
+      if (++wordIndex == bits.length) {
+        return -1;
+      }
+      word = bits[wordIndex];
+    }
+  }
+
   /**
    * Return the set of dirty properties.
    */
@@ -602,13 +704,12 @@ public final class EntityBeanIntercept implements Serializable {
    * Recursively add dirty properties.
    */
   public void addDirtyPropertyNames(Set<String> props, String prefix) {
-    int len = getPropertyLength();
-    for (int i = 0; i < len; i++) {
-      if (changedProps != null && changedProps[i]) {
+    for (int i = nextDirtyProperty(0); i > -1; i = nextDirtyProperty(i + 1)) {
+      if (isChangedProperty(i)) {
         // the property has been changed on this bean
         String propName = (prefix == null ? getProperty(i) : prefix + getProperty(i));
         props.add(propName);
-      } else if (embeddedDirty != null && embeddedDirty[i]) {
+      } else {
         // an embedded property has been changed - recurse
         EntityBean embeddedBean = (EntityBean)owner._ebean_getField(i);
         embeddedBean._ebean_getIntercept().addDirtyPropertyNames(props, getProperty(i)+".");
@@ -622,17 +723,10 @@ public final class EntityBeanIntercept implements Serializable {
   public boolean hasDirtyProperty(Set<String> propertyNames) {
 
     String[] names = owner._ebean_getPropertyNames();
-    int len = getPropertyLength();
-    for (int i = 0; i < len; i++) {
-      if (changedProps != null && changedProps[i]) {
-        // the property has been changed on this bean
-        if (propertyNames.contains(names[i])) {
-          return true;
-        }
-      } else if (embeddedDirty != null && embeddedDirty[i]) {
-        if (propertyNames.contains(names[i])) {
-          return true;
-        }
+    for (int i = nextDirtyProperty(0); i > -1; i = nextDirtyProperty(i + 1)) {
+      // the property has been changed on this bean or is a dirty embedded bean
+      if (propertyNames.contains(names[i])) {
+        return true;
       }
     }
     return false;
@@ -651,9 +745,8 @@ public final class EntityBeanIntercept implements Serializable {
    * Recursively add dirty properties.
    */
   public void addDirtyPropertyValues(Map<String,ValuePair> dirtyValues, String prefix) {
-    int len = getPropertyLength();
-    for (int i = 0; i < len; i++) {
-      if (changedProps != null && changedProps[i]) {
+    for (int i = nextDirtyProperty(0); i > -1; i = nextDirtyProperty(i + 1)) {
+      if (isChangedProperty(i)) {
         // the property has been changed on this bean
         String propName = (prefix == null ? getProperty(i) : prefix + getProperty(i));
         Object newVal = owner._ebean_getField(i);
@@ -661,7 +754,7 @@ public final class EntityBeanIntercept implements Serializable {
 
         dirtyValues.put(propName, new ValuePair(newVal, oldVal));
         
-      } else if (embeddedDirty != null && embeddedDirty[i]) {
+      } else {
         // an embedded property has been changed - recurse
         EntityBean embeddedBean = (EntityBean)owner._ebean_getField(i);
         embeddedBean._ebean_getIntercept().addDirtyPropertyValues(dirtyValues, getProperty(i) + ".");
@@ -680,12 +773,11 @@ public final class EntityBeanIntercept implements Serializable {
    * Add and return a dirty property hash recursing into embedded beans.
    */
   public int addDirtyPropertyHash(int hash) {
-    int len = getPropertyLength();
-    for (int i = 0; i < len; i++) {
-      if (changedProps != null && changedProps[i]) {
+    for (int i = nextDirtyProperty(0); i > -1; i = nextDirtyProperty(i + 1)) {
+      if (isChangedProperty(i)) {
         // the property has been changed on this bean
         hash = hash * 31 + (i+1);
-      } else if (embeddedDirty != null && embeddedDirty[i]) {
+      } else {
         // an embedded property has been changed - recurse
         EntityBean embeddedBean = (EntityBean)owner._ebean_getField(i);
         hash = hash * 31 + embeddedBean._ebean_getIntercept().addDirtyPropertyHash(hash);
@@ -699,24 +791,39 @@ public final class EntityBeanIntercept implements Serializable {
    */
   public int getLoadedPropertyHash() {
     int hash = 37;
-    int len = getPropertyLength();
-    for (int i = 0; i < len; i++) {
-      if (isLoadedProperty(i)) {
-        hash = hash * 31 + (i+1);
-      }
+    for (int i = nextSetBit(loadedProps, 0); i > -1; i = nextSetBit(loadedProps, i + 1)) {
+      hash = hash * 31 + (i+1);
     }
     return hash;
   }
 
   /**
-   * Return the set of property names for changed properties.
+   * Return flags for the changed properties (null if no properties have been changed).
+   * <p>
+   * This is a copy of the changed state. Use isChangedProperty() or nextDirtyProperty() to check
+   * the changed state without creating the array.
+   * </p>
    */
   public boolean[] getChanged() {
-    return changedProps;
+    return (changedProps == null) ? null : toFlags(changedProps, getPropertyLength());
   }
 
+  /**
+   * Return flags for the loaded properties.
+   * <p>
+   * This is a copy of the loaded state. Use isLoadedProperty() or getLoadedBits() to check
+   * the loaded state without creating the array.
+   * </p>
+   */
   public boolean[] getLoaded() {
-    return loadedProps;
+    return toFlags(loadedProps, getPropertyLength());
+  }
+
+  /**
+   * Return a copy of the loaded state as a bitset (bit i of word i &gt;&gt; 6 for property i).
+   */
+  public long[] getLoadedBits() {
+    return loadedProps.clone();
   }
 
   /**
@@ -764,7 +871,7 @@ public final class EntityBeanIntercept implements Serializable {
    */
   private void loadBeanInternal(int loadProperty, BeanLoader loader) {
 
-    if (loadedProps == null || loadedProps[loadProperty]) {
+    if (isSet(loadedProps, loadProperty)) {
       // race condition where multiple threads calling preGetter concurrently
       return;
     }
@@ -830,7 +937,7 @@ public final class EntityBeanIntercept implements Serializable {
    * Called when a BeanCollection is initialised automatically.
    */
   public void initialisedMany(int propertyIndex) {
-    loadedProps[propertyIndex] = true;
+    set(loadedProps, propertyIndex);
   }
   
   /**
@@ -2,6 +2,9 @@ package com.avaje.ebean.cache;
 
 import com.avaje.ebean.EbeanServer;
 
+import java.util.Map;
+import java.util.Set;
+
 /**
  * Represents part of the "L2" server side cache.
  * <p>
@@ -48,6 +51,24 @@ public interface ServerCache {
    */
   Object put(Object id, Object value);
 
+  /**
+   * Return the values for the given keys.
+   * <p>
+   * The returned map only contains the keys that were found in the cache. This is used to
+   * resolve many beans in a single call (for example the ids of an idIn query) and an
+   * implementation with no bulk operation can implement it as a get per key.
+   * </p>
+   */
+  Map<Object, Object> getAll(Set<Object> keys);
+
+  /**
+   * Put all the given key values in the cache.
+   * <p>
+   * An implementation with no bulk operation can implement this as a put per key.
+   * </p>
+   */
+  void putAll(Map<Object, Object> keyValues);
+
   /**
    * Remove a entry from the cache given its id.
    */
@@ -17,6 +17,11 @@ public class DocStoreConfig {
    */
   boolean dropCreate;
 
+  /**
+   * When true use the embedded in memory document store (when no other implementation is in the class path).
+   */
+  boolean memory;
+
   /**
    * The URL of the Document store server. For example: http://localhost:9200.
    */
@@ -32,6 +37,21 @@ public class DocStoreConfig {
    */
   int bulkBatchSize = 1000;
 
+  /**
+   * When true the updates are coalesced (latest per document) and sent in batches.
+   */
+  boolean coalesce;
+
+  /**
+   * The maximum number of pending updates when coalescing.
+   */
+  int queueCapacity = 10000;
+
+  /**
+   * The maximum time in millis between sending the pending updates when coalescing.
+   */
+  int flushMillis = 200;
+
 
   /**
    * Return true if the Document store (ElasticSearch) integration is active.
@@ -91,6 +111,26 @@ public class DocStoreConfig {
     this.persist = persist;
   }
 
+  /**
+   * Return true if the embedded in memory document store is used.
+   */
+  public boolean isMemory() {
+    return memory;
+  }
+
+  /**
+   * Set to true to use the embedded in memory document store rather than ElasticSearch.
+   * <p>
+   * The in memory document store indexes the beans with a document store mapping in memory and
+   * supports document store queries. It is used when no other document store implementation is
+   * in the class path and is intended for testing and small deployments. Note that the
+   * integration also needs to be active for the indexes to be updated.
+   * </p>
+   */
+  public void setMemory(boolean memory) {
+    this.memory = memory;
+  }
+
   /**
    * Return the URL to the Document store.
    */
@@ -125,14 +165,69 @@ public class DocStoreConfig {
     this.bulkBatchSize = bulkBatchSize;
   }
 
+  /**
+   * Return true if the updates are coalesced and sent in batches.
+   */
+  public boolean isCoalesce() {
+    return coalesce;
+  }
+
+  /**
+   * Set to true to coalesce the updates of committed transactions and send them in batches.
+   * <p>
+   * The pending updates keep only the latest update per document and merge the nested (embedded)
+   * invalidations by path. They are sent when the bulk batch size is reached or after the flush
+   * millis. This reduces the indexing load under write bursts at the cost of some delay.
+   * </p>
+   */
+  public void setCoalesce(boolean coalesce) {
+    this.coalesce = coalesce;
+  }
+
+  /**
+   * Return the maximum number of pending updates when coalescing.
+   */
+  public int getQueueCapacity() {
+    return queueCapacity;
+  }
+
+  /**
+   * Set the maximum number of pending updates when coalescing.
+   * <p>
+   * When the queue is full the committing (background) thread sends the pending updates before
+   * adding its own.
+   * </p>
+   */
+  public void setQueueCapacity(int queueCapacity) {
+    this.queueCapacity = queueCapacity;
+  }
+
+  /**
+   * Return the maximum time in millis between sending the pending updates when coalescing.
+   */
+  public int getFlushMillis() {
+    return flushMillis;
+  }
+
+  /**
+   * Set the maximum time in millis between sending the pending updates when coalescing.
+   */
+  public void setFlushMillis(int flushMillis) {
+    this.flushMillis = flushMillis;
+  }
+
   /**
    * Load settings specified in properties files.
    */
   public void loadSettings(PropertiesWrapper properties) {
 
     active = properties.getBoolean("docstore.active", active);
+    memory = properties.getBoolean("docstore.memory", memory);
     url = properties.get("docstore.url", url);
     persist = properties.getEnum(DocStoreEvent.class, "docstore.persist", persist);
     bulkBatchSize = properties.getInt("docstore.bulkBatchSize", bulkBatchSize);
+    coalesce = properties.getBoolean("docstore.coalesce", coalesce);
+    queueCapacity = properties.getInt("docstore.queueCapacity", queueCapacity);
+    flushMillis = properties.getInt("docstore.flushMillis", flushMillis);
   }
 }
@@ -131,6 +131,26 @@ public class ServerConfig {
    */
   private String classPathReaderClassName;
 
+  /**
+   * Set to false to load every class searched rather than reading class files.
+   */
+  private boolean classPathSearchReadClassFiles = true;
+
+  /**
+   * File used to cache the class file information read from jars.
+   */
+  private String classPathSearchCacheFile;
+
+  /**
+   * Resource holding the build time generated deployment index (null for none).
+   */
+  private String deployIndexResource;
+
+  /**
+   * The number of threads used to deploy the entity beans (0 for the number of processors).
+   */
+  private int deployParallelism;
+
   /**
    * Configuration for the ElasticSearch integration.
    */
@@ -203,6 +223,16 @@ public class ServerConfig {
 
   private int persistBatchSize = 20;
 
+  /**
+   * The number of beans held by a transaction event after which only ids are held (0 for never).
+   */
+  private int transactionEventCompactThreshold;
+
+  /**
+   * The number of ids held by a transaction event after which changes are held by table (0 for never).
+   */
+  private int transactionEventTableThreshold;
+
   /** 
    * The default batch size for lazy loading 
    */
@@ -213,6 +243,21 @@ public class ServerConfig {
    */
   private int queryBatchSize = 100;
 
+  /**
+   * Set to true to adapt the lazy loading batch size based on observed usage.
+   */
+  private boolean lazyLoadBatchSizeAdaptive;
+
+  /**
+   * The minimum batch size used with adaptive lazy loading.
+   */
+  private int lazyLoadBatchSizeMin = 1;
+
+  /**
+   * The maximum batch size used with adaptive lazy loading.
+   */
+  private int lazyLoadBatchSizeMax = 100;
+
   private boolean eagerFetchLobs;
 
   private boolean ddlGenerate;
@@ -294,11 +339,36 @@ public class ServerConfig {
    */
   private boolean updateChangesOnly = true;
 
+  /**
+   * Set to true to update the changed top level keys of JSON Map properties via a JSON patch.
+   */
+  private boolean jsonPatchUpdate;
+
   /**
    * Behaviour of updates in JDBC batch to by default include all properties.
    */
   private boolean updateAllPropertiesInBatch = true;
 
+  /**
+   * The maximum number of update plans (distinct update statements) cached per bean type.
+   */
+  private int updatePlanCacheMaxSize = 1000;
+
+  /**
+   * The maximum number of query plans cached per bean type (0 for no limit).
+   */
+  private int queryPlanCacheMaxSize;
+
+  /**
+   * The maximum number of shared query plan fragments per bean type.
+   */
+  private int queryPlanFragmentsMaxSize = 1000;
+
+  /**
+   * The number of distinct update plans per bean type after which updates include all loaded properties.
+   */
+  private int updatePlanWideningThreshold;
+
   /**
    * Default behaviour for updates when cascade save on a O2M or M2M to delete any missing children.
    */
@@ -350,6 +420,14 @@ public class ServerConfig {
 
   private boolean collectQueryOrigins = true;
 
+  private int queryPlanHistogramSampling = 100;
+
+  private long slowQueryMillis;
+
+  private int slowQueryBufferSize = 100;
+
+  private boolean slowQueryExplain;
+
   /**
    * The default PersistenceContextScope used if one is not explicitly set on a query.
    */
@@ -635,6 +713,52 @@ public class ServerConfig {
     this.persistBatchSize = persistBatchSize;
   }
 
+  /**
+   * Return the number of persisted beans held by a transaction after which beans that only the
+   * L2 cache is interested in are held by id (0 for never).
+   */
+  public int getTransactionEventCompactThreshold() {
+    return transactionEventCompactThreshold;
+  }
+
+  /**
+   * Set the number of persisted beans held by a transaction after which beans that only the
+   * L2 cache is interested in are held by id.
+   * <p>
+   * A transaction holds the persist requests (and hence the beans) until commit in order to
+   * update the L2 cache and notify BeanPersistListeners and the document store. For large batch
+   * transactions this means all the beans are held in memory until commit. When this threshold
+   * is reached the beans without a BeanPersistListener or document store update are released
+   * with only their id values held and the cache is invalidated rather than updated for them.
+   * Defaults to 0 meaning the beans are always held.
+   * </p>
+   */
+  public void setTransactionEventCompactThreshold(int transactionEventCompactThreshold) {
+    this.transactionEventCompactThreshold = transactionEventCompactThreshold;
+  }
+
+  /**
+   * Return the number of ids held by a transaction after which the changes are held by table
+   * (0 for never).
+   */
+  public int getTransactionEventTableThreshold() {
+    return transactionEventTableThreshold;
+  }
+
+  /**
+   * Set the number of ids held by a transaction (after the compact threshold was reached) after
+   * which the changes are held by table rather than by id.
+   * <p>
+   * The L2 cache for the bean types is then invalidated as per bulk table updates. Defaults to
+   * 0 meaning the ids are always held.
+   * </p>
+   *
+   * @see #setTransactionEventCompactThreshold(int)
+   */
+  public void setTransactionEventTableThreshold(int transactionEventTableThreshold) {
+    this.transactionEventTableThreshold = transactionEventTableThreshold;
+  }
+
   /**
    * Gets the query batch size. This defaults to 100.
    * 
@@ -679,6 +803,62 @@ public class ServerConfig {
     this.lazyLoadBatchSize = lazyLoadBatchSize;
   }
 
+  /**
+   * Return true if the lazy loading batch size adapts based on observed usage.
+   */
+  public boolean isLazyLoadBatchSizeAdaptive() {
+    return lazyLoadBatchSizeAdaptive;
+  }
+
+  /**
+   * Set to true to adapt the lazy loading batch size based on observed usage.
+   * <p>
+   * For each ObjectGraphNode (query origin point and path) the number of beans registered for
+   * lazy loading is compared to the number of beans actually lazy loaded. The batch size is then
+   * increased when most beans are used (reducing the number of lazy loading queries) and decreased
+   * when few beans are used (reducing the rows loaded that are not used).
+   * </p>
+   * <p>
+   * This requires origin query points which are collected when AutoTune profiling or query tuning
+   * is on. It does not change batch sizes that are explicitly set via FetchConfig.
+   * </p>
+   * <p>
+   * The current batch size decisions can be retrieved via {@link MetaInfoManager}.
+   * </p>
+   * @see MetaInfoManager#collectNodeBatchSizes()
+   */
+  public void setLazyLoadBatchSizeAdaptive(boolean lazyLoadBatchSizeAdaptive) {
+    this.lazyLoadBatchSizeAdaptive = lazyLoadBatchSizeAdaptive;
+  }
+
+  /**
+   * Return the minimum batch size used with adaptive lazy loading.
+   */
+  public int getLazyLoadBatchSizeMin() {
+    return lazyLoadBatchSizeMin;
+  }
+
+  /**
+   * Set the minimum batch size used with adaptive lazy loading. This defaults to 1.
+   */
+  public void setLazyLoadBatchSizeMin(int lazyLoadBatchSizeMin) {
+    this.lazyLoadBatchSizeMin = lazyLoadBatchSizeMin;
+  }
+
+  /**
+   * Return the maximum batch size used with adaptive lazy loading.
+   */
+  public int getLazyLoadBatchSizeMax() {
+    return lazyLoadBatchSizeMax;
+  }
+
+  /**
+   * Set the maximum batch size used with adaptive lazy loading. This defaults to 100.
+   */
+  public void setLazyLoadBatchSizeMax(int lazyLoadBatchSizeMax) {
+    this.lazyLoadBatchSizeMax = lazyLoadBatchSizeMax;
+  }
+
   /**
    * Set the number of sequences to fetch/preallocate when using DB sequences.
    * <p>
@@ -1797,6 +1977,95 @@ public class ServerConfig {
     this.classPathReaderClassName = classPathReaderClassName;
   }
 
+  /**
+   * Return true if class path search reads class files rather than loading every class.
+   */
+  public boolean isClassPathSearchReadClassFiles() {
+    return classPathSearchReadClassFiles;
+  }
+
+  /**
+   * Set to false to have class path search load every class to check for entities etc.
+   * <p>
+   * By default class path search reads the class files (constant pool and type hierarchy) and
+   * only loads the classes that could be entities, embeddables, listeners etc.
+   * </p>
+   */
+  public void setClassPathSearchReadClassFiles(boolean classPathSearchReadClassFiles) {
+    this.classPathSearchReadClassFiles = classPathSearchReadClassFiles;
+  }
+
+  /**
+   * Return the file used to cache class file information read from jars.
+   */
+  public String getClassPathSearchCacheFile() {
+    return classPathSearchCacheFile;
+  }
+
+  /**
+   * Set a file used to cache the class file information read from jars during class path search.
+   * <p>
+   * The information is keyed by jar and a checksum of the jar entries such that on subsequent
+   * starts unchanged jars do not need their class files read again.
+   * </p>
+   */
+  public void setClassPathSearchCacheFile(String classPathSearchCacheFile) {
+    this.classPathSearchCacheFile = classPathSearchCacheFile;
+  }
+
+  /**
+   * Return the resource holding the build time generated deployment index.
+   */
+  public String getDeployIndexResource() {
+    return deployIndexResource;
+  }
+
+  /**
+   * Set the resource holding the build time generated deployment index (for example
+   * <code>META-INF/ebean-deploy.idx</code>).
+   * <p>
+   * The index is generated by <code>DeployIndex</code> as part of the build and lists the entities,
+   * embeddables, listeners etc along with a checksum of the searched class files. When the index
+   * exists and the checksum matches the class files, the listed classes are loaded by name rather
+   * than each class file being parsed for annotations.
+   * </p>
+   * <p>
+   * Validating the checksum still lists the searched packages and reads each class file that is in
+   * a directory (the CRC of classes in jars is taken from the jar central directory), so the saving
+   * is mostly for classes in jars. Measure before using it. The index only lists the classes, so
+   * the deployment model is still built from the classes at startup.
+   * </p>
+   * <p>
+   * Defaults to null (no index), which means the class path is searched.
+   * </p>
+   */
+  public void setDeployIndexResource(String deployIndexResource) {
+    this.deployIndexResource = deployIndexResource;
+  }
+
+  /**
+   * Return the number of threads used to deploy the entity beans (0 for the number of processors).
+   */
+  public int getDeployParallelism() {
+    return deployParallelism;
+  }
+
+  /**
+   * Set the number of threads used to deploy the entity beans.
+   * <p>
+   * The per entity work of reading annotations and generating the DML is performed in parallel
+   * with the wiring of associations between entities performed afterwards on a single thread.
+   * Defaults to 0 meaning the number of available processors. Set to 1 to deploy on the
+   * calling thread.
+   * </p>
+   * <p>
+   * When deploying in parallel a custom NamingConvention or EncryptDeployManager must be thread safe.
+   * </p>
+   */
+  public void setDeployParallelism(int deployParallelism) {
+    this.deployParallelism = deployParallelism;
+  }
+
   /**
    * Set the list of classes (entities, listeners, scalarTypes etc) that should
    * be used for this server.
@@ -1834,6 +2103,26 @@ public class ServerConfig {
     this.updateChangesOnly = updateChangesOnly;
   }
 
+  /**
+   * Return true if the changed top level keys of JSON Map properties are updated via the platform
+   * JSON patch expression.
+   */
+  public boolean isJsonPatchUpdate() {
+    return jsonPatchUpdate;
+  }
+
+  /**
+   * Set to true to update only the changed top level keys of JSON Map properties rather than
+   * binding the whole document.
+   * <p>
+   * This uses the platform JSON patch expression and is only supported for Postgres jsonb columns
+   * which requires Postgres 9.5 or later. Defaults to false.
+   * </p>
+   */
+  public void setJsonPatchUpdate(boolean jsonPatchUpdate) {
+    this.jsonPatchUpdate = jsonPatchUpdate;
+  }
+
   /**
    * Returns true if updates in JDBC batch default to include all properties by default.
    */
@@ -1853,6 +2142,84 @@ public class ServerConfig {
     this.updateAllPropertiesInBatch = updateAllPropertiesInBatch;
   }
 
+  /**
+   * Return the maximum number of update plans (distinct update statements) cached per bean type.
+   */
+  public int getUpdatePlanCacheMaxSize() {
+    return updatePlanCacheMaxSize;
+  }
+
+  /**
+   * Set the maximum number of update plans (distinct update statements) cached per bean type.
+   * <p>
+   * With updateChangesOnly there is an update plan per distinct set of changed properties. When
+   * the maximum is reached the update plans for the bean type are cleared. Defaults to 1000.
+   * </p>
+   */
+  public void setUpdatePlanCacheMaxSize(int updatePlanCacheMaxSize) {
+    this.updatePlanCacheMaxSize = updatePlanCacheMaxSize;
+  }
+
+  /**
+   * Return the maximum number of query plans cached per bean type (0 for no limit).
+   */
+  public int getQueryPlanCacheMaxSize() {
+    return queryPlanCacheMaxSize;
+  }
+
+  /**
+   * Set the maximum number of query plans cached per bean type.
+   * <p>
+   * When the maximum is reached the query plans for the bean type are cleared along with
+   * their shared fragments (and statistics). Defaults to 0 meaning no limit.
+   * </p>
+   */
+  public void setQueryPlanCacheMaxSize(int queryPlanCacheMaxSize) {
+    this.queryPlanCacheMaxSize = queryPlanCacheMaxSize;
+  }
+
+  /**
+   * Return the maximum number of shared query plan fragments per bean type.
+   */
+  public int getQueryPlanFragmentsMaxSize() {
+    return queryPlanFragmentsMaxSize;
+  }
+
+  /**
+   * Set the maximum number of shared query plan fragments (SQL fragments and property arrays)
+   * per bean type.
+   * <p>
+   * Once the maximum is reached further fragments are used by their query plan without being
+   * shared. The fragments are cleared when the query plans of the bean type are cleared.
+   * Defaults to 1000.
+   * </p>
+   */
+  public void setQueryPlanFragmentsMaxSize(int queryPlanFragmentsMaxSize) {
+    this.queryPlanFragmentsMaxSize = queryPlanFragmentsMaxSize;
+  }
+
+  /**
+   * Return the number of distinct update plans per bean type after which updates include all
+   * loaded properties (0 for never).
+   */
+  public int getUpdatePlanWideningThreshold() {
+    return updatePlanWideningThreshold;
+  }
+
+  /**
+   * Set the number of distinct update plans per bean type after which updates include all
+   * loaded properties rather than only the changed properties.
+   * <p>
+   * For bean types with many columns that are updated in many different combinations this
+   * reduces the number of distinct update statements (improving statement reuse and JDBC
+   * batching) at the cost of binding unchanged values. Defaults to 0 meaning updates are
+   * never widened.
+   * </p>
+   */
+  public void setUpdatePlanWideningThreshold(int updatePlanWideningThreshold) {
+    this.updatePlanWideningThreshold = updatePlanWideningThreshold;
+  }
+
   /**
    * Return true if updates by default delete missing children when cascading save to a OneToMany or
    * ManyToMany. When not set this defaults to true.
@@ -1913,6 +2280,86 @@ public class ServerConfig {
     this.collectQueryOrigins = collectQueryOrigins;
   }
 
+  /**
+   * Return the sampling of query executions for the query plan phase histograms.
+   */
+  public int getQueryPlanHistogramSampling() {
+    return queryPlanHistogramSampling;
+  }
+
+  /**
+   * Set the sampling of query executions for the query plan phase histograms (execute, row read,
+   * bean build and rows per execution).
+   * <p>
+   * Set to 1 to record every execution, N to record 1 in N executions and 0 to not collect the
+   * histograms at all. Defaults to 100. Sampled executions additionally time each move to the
+   * next row of the result set so sampling every execution adds measurable overhead to queries
+   * reading many rows.
+   * </p>
+   * <p>
+   * The histograms of a query plan are only created on its first sampled execution.
+   * </p>
+   *
+   * @see MetaInfoManager#collectQueryPlanStatistics(boolean)
+   */
+  public void setQueryPlanHistogramSampling(int queryPlanHistogramSampling) {
+    this.queryPlanHistogramSampling = queryPlanHistogramSampling;
+  }
+
+  /**
+   * Return the execution time in milliseconds above which queries are recorded as slow queries.
+   */
+  public long getSlowQueryMillis() {
+    return slowQueryMillis;
+  }
+
+  /**
+   * Set the execution time in milliseconds above which queries are recorded as slow queries (0,
+   * the default, to not record slow queries).
+   * <p>
+   * The most recent slow queries are held in a bounded buffer with their sql, bind values, rows and
+   * origin. The threshold can also be set per query plan via MetaInfoManager.
+   * </p>
+   *
+   * @see MetaInfoManager#collectSlowQueries(boolean)
+   * @see MetaInfoManager#setSlowQueryThreshold(String, long)
+   */
+  public void setSlowQueryMillis(long slowQueryMillis) {
+    this.slowQueryMillis = slowQueryMillis;
+  }
+
+  /**
+   * Return the number of recent slow queries held.
+   */
+  public int getSlowQueryBufferSize() {
+    return slowQueryBufferSize;
+  }
+
+  /**
+   * Set the number of recent slow queries held (defaults to 100).
+   */
+  public void setSlowQueryBufferSize(int slowQueryBufferSize) {
+    this.slowQueryBufferSize = slowQueryBufferSize;
+  }
+
+  /**
+   * Return true if the explain is obtained for slow query plans.
+   */
+  public boolean isSlowQueryExplain() {
+    return slowQueryExplain;
+  }
+
+  /**
+   * Set to true to obtain the explain (in the background) the first time a query plan is recorded
+   * as a slow query.
+   * <p>
+   * This is only supported on database platforms that support explain (H2, Postgres, MySql and SQLite).
+   * </p>
+   */
+  public void setSlowQueryExplain(boolean slowQueryExplain) {
+    this.slowQueryExplain = slowQueryExplain;
+  }
+
   /**
    * Returns the resource directory.
    */
@@ -2304,6 +2751,10 @@ public class ServerConfig {
     serverCacheManager = createInstance(p, ServerCacheManager.class, "serverCacheManager", serverCacheManager);
     cacheWarmingDelay = p.getInt("cacheWarmingDelay", cacheWarmingDelay);
     classPathReaderClassName = p.get("classpathreader");
+    classPathSearchReadClassFiles = p.getBoolean("search.readClassFiles", classPathSearchReadClassFiles);
+    classPathSearchCacheFile = p.get("search.cacheFile", classPathSearchCacheFile);
+    deployIndexResource = p.get("search.deployIndex", deployIndexResource);
+    deployParallelism = p.getInt("deployParallelism", deployParallelism);
     
     String jarsProp = p.get("search.jars", p.get("jars", null));
     if (jarsProp != null) {
@@ -2317,9 +2768,18 @@ public class ServerConfig {
 
     collectQueryStatsByNode = p.getBoolean("collectQueryStatsByNode", collectQueryStatsByNode);
     collectQueryOrigins = p.getBoolean("collectQueryOrigins", collectQueryOrigins);
+    queryPlanHistogramSampling = p.getInt("queryPlanHistogramSampling", queryPlanHistogramSampling);
+    slowQueryMillis = p.getLong("slowQueryMillis", slowQueryMillis);
+    slowQueryBufferSize = p.getInt("slowQueryBufferSize", slowQueryBufferSize);
+    slowQueryExplain = p.getBoolean("slowQueryExplain", slowQueryExplain);
 
     updateAllPropertiesInBatch = p.getBoolean("updateAllPropertiesInBatch", updateAllPropertiesInBatch);
+    updatePlanCacheMaxSize = p.getInt("updatePlanCacheMaxSize", updatePlanCacheMaxSize);
+    queryPlanCacheMaxSize = p.getInt("queryPlanCacheMaxSize", queryPlanCacheMaxSize);
+    queryPlanFragmentsMaxSize = p.getInt("queryPlanFragmentsMaxSize", queryPlanFragmentsMaxSize);
+    updatePlanWideningThreshold = p.getInt("updatePlanWideningThreshold", updatePlanWideningThreshold);
     updateChangesOnly = p.getBoolean("updateChangesOnly", updateChangesOnly);
+    jsonPatchUpdate = p.getBoolean("jsonPatchUpdate", jsonPatchUpdate);
     
     boolean defaultDeleteMissingChildren = p.getBoolean("defaultDeleteMissingChildren", updatesDeleteMissingChildren);
     updatesDeleteMissingChildren = p.getBoolean("updatesDeleteMissingChildren", defaultDeleteMissingChildren);
@@ -2333,6 +2793,8 @@ public class ServerConfig {
 
     int batchSize = p.getInt("batch.size", persistBatchSize);
     persistBatchSize = p.getInt("persistBatchSize", batchSize);
+    transactionEventCompactThreshold = p.getInt("transactionEventCompactThreshold", transactionEventCompactThreshold);
+    transactionEventTableThreshold = p.getInt("transactionEventTableThreshold", transactionEventTableThreshold);
 
     persistenceContextScope = PersistenceContextScope.valueOf(p.get("persistenceContextScope", "TRANSACTION"));
 
@@ -2356,6 +2818,9 @@ public class ServerConfig {
 
     lazyLoadBatchSize = p.getInt("lazyLoadBatchSize", lazyLoadBatchSize);
     queryBatchSize = p.getInt("queryBatchSize", queryBatchSize);
+    lazyLoadBatchSizeAdaptive = p.getBoolean("lazyLoadBatchSizeAdaptive", lazyLoadBatchSizeAdaptive);
+    lazyLoadBatchSizeMin = p.getInt("lazyLoadBatchSizeMin", lazyLoadBatchSizeMin);
+    lazyLoadBatchSizeMax = p.getInt("lazyLoadBatchSizeMax", lazyLoadBatchSizeMax);
 
     jsonInclude = p.getEnum(JsonConfig.Include.class, "jsonInclude", jsonInclude);
     String jsonDateTimeFormat = p.get("jsonDateTime", null);
@@ -132,6 +132,49 @@ public class DatabasePlatform {
 
   protected boolean idInExpandedForm;
 
+  /**
+   * Binding of IN expression values as a single array parameter (when supported).
+   */
+  protected MultiValueBind multiValueBind = new MultiValueBind();
+
+  /**
+   * The set based statements used to publish draft rows to live.
+   */
+  protected DraftPublishSql draftPublishSql = new DraftPublishSql();
+
+  /**
+   * The maximum number of values in a single IN list (0 for no limit). Larger IN expressions
+   * are split into multiple IN lists (and for delete by ids into multiple statements).
+   */
+  protected int maxInBinding;
+
+  /**
+   * The maximum number of bind parameters in a statement (0 for no limit). IN expressions are
+   * not padded beyond this and lists of ids are split into multiple statements.
+   */
+  protected int maxBindParameters;
+
+  /**
+   * Set to true for the % modulo operator rather than the mod() function.
+   */
+  protected boolean moduloOperator;
+
+  /**
+   * Set to true if the platform supports (and can use an index for) row value comparison
+   * such as <code>(a, b) &gt; (?, ?)</code>.
+   */
+  protected boolean rowValueComparison;
+
+  /**
+   * The prefix used to explain a query (null if not supported).
+   */
+  protected String explainPrefix;
+
+  /**
+   * The expression used to update the top level keys of a JSON column (null if not supported).
+   */
+  protected String jsonPatch;
+
   protected boolean selectCountWithAlias;
 
   /**
@@ -140,6 +183,11 @@ public class DatabasePlatform {
    */
   protected boolean forwardOnlyHintOnFindIterate;
 
+  /**
+   * The JDBC settings used to stream large query results (findEach, findIterate etc).
+   */
+  protected StreamingConfig streamingConfig = new StreamingConfig();
+
   /**
    * Flag set for SQL Server due to lack of support of getGeneratedKeys in
    * batch mode (meaning for batch inserts you should explicitly turn off
@@ -385,6 +433,104 @@ public class DatabasePlatform {
     return idInExpandedForm;
   }
 
+  /**
+   * Return the binding of IN expression values as a single array parameter.
+   */
+  public MultiValueBind getMultiValueBind() {
+    return multiValueBind;
+  }
+
+  /**
+   * Return the set based statements used to publish draft rows to live.
+   */
+  public DraftPublishSql getDraftPublishSql() {
+    return draftPublishSql;
+  }
+
+  /**
+   * Return the maximum number of values in a single IN list (0 for no limit).
+   */
+  public int getMaxInBinding() {
+    return maxInBinding;
+  }
+
+  /**
+   * Set the maximum number of values in a single IN list (0 for no limit).
+   * <p>
+   * This is a limit on each IN list (like Oracle's 1000) such that larger IN expressions are
+   * split into multiple OR'ed IN lists.
+   * </p>
+   */
+  public void setMaxInBinding(int maxInBinding) {
+    this.maxInBinding = maxInBinding;
+  }
+
+  /**
+   * Return the maximum number of bind parameters in a statement (0 for no limit).
+   */
+  public int getMaxBindParameters() {
+    return maxBindParameters;
+  }
+
+  /**
+   * Set the maximum number of bind parameters in a statement (0 for no limit).
+   * <p>
+   * This is a limit on the statement as a whole (like SQLite's 999 and SQL Server's 2100) so
+   * splitting into multiple IN lists does not help. IN expressions are not padded beyond this
+   * limit and lists of ids (delete by ids, cascade delete and publish) are split into multiple
+   * statements.
+   * </p>
+   */
+  public void setMaxBindParameters(int maxBindParameters) {
+    this.maxBindParameters = maxBindParameters;
+  }
+
+  /**
+   * Return true if the platform supports row value comparison such as <code>(a, b) &gt; (?, ?)</code>.
+   * <p>
+   * This is used for keyset pagination where otherwise the expanded form of the predicate is used.
+   * </p>
+   */
+  public boolean isRowValueComparison() {
+    return rowValueComparison;
+  }
+
+  /**
+   * Return the prefix used to explain a query or null if explain is not supported.
+   * <p>
+   * This is used to obtain the explain for slow queries.
+   * </p>
+   */
+  public String getExplainPrefix() {
+    return explainPrefix;
+  }
+
+  /**
+   * Return the expression used to update the top level keys of a JSON column or null if not supported.
+   * <p>
+   * In the expression <code>${column}</code> is replaced by the column, the first parameter binds
+   * the removed keys as a JSON array and the second parameter binds the changed keys and values as
+   * a JSON object. This is used to update a modified JSON Map without rewriting the whole document
+   * when enabled via {@link com.avaje.ebean.config.ServerConfig#setJsonPatchUpdate(boolean)}.
+   * </p>
+   */
+  public String getJsonPatch() {
+    return jsonPatch;
+  }
+
+  /**
+   * Return the (non negative) remainder of the expression divided by the divisor.
+   * <p>
+   * This is used to split a query into partitions such as for findEachParallel().
+   * </p>
+   */
+  public String modulo(String expression, String divisor) {
+    if (moduloOperator) {
+      return "abs(" + expression + " % " + divisor + ")";
+    }
+    return "abs(mod(" + expression + ", " + divisor + "))";
+  }
+
   /**
    * Return true if the ResultSet TYPE_FORWARD_ONLY Hint should be used on
    * findIterate() and findVisit() PreparedStatements.
@@ -398,9 +544,33 @@ public class DatabasePlatform {
 
   /**
    * Set to true if the ResultSet TYPE_FORWARD_ONLY Hint should be used by default on findIterate PreparedStatements.
+   * <p>
+   * This sets the streaming fetch size to Integer.MIN_VALUE (the MySql streaming hint). Setting
+   * this to false resets that fetch size back to the driver default.
+   * </p>
+   *
+   * @deprecated Use {@link #getStreamingConfig()} instead.
    */
+  @Deprecated
   public void setForwardOnlyHintOnFindIterate(boolean forwardOnlyHintOnFindIterate) {
     this.forwardOnlyHintOnFindIterate = forwardOnlyHintOnFindIterate;
+    if (forwardOnlyHintOnFindIterate) {
+      streamingConfig.setForwardOnly(true);
+      streamingConfig.setFetchSize(Integer.MIN_VALUE);
+    } else if (streamingConfig.getFetchSize() == Integer.MIN_VALUE) {
+      streamingConfig.setFetchSize(0);
+    }
+  }
+
+  /**
+   * Return the JDBC settings used to stream large query results.
+   * <p>
+   * These are used for findEach(), findEachWhile(), findIterate(), findVersions() and
+   * SqlQuery findEach().
+   * </p>
+   */
+  public StreamingConfig getStreamingConfig() {
+    return streamingConfig;
   }
 
   /**
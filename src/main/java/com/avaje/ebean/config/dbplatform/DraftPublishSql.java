@@ -0,0 +1,163 @@
+package com.avaje.ebean.config.dbplatform;
+
+import java.util.List;
+
+/**
+ * Builds the set based statements that publish rows from a draft table to the live table.
+ * <p>
+ * The rows to publish are identified by an Id IN predicate. Existing live rows are updated from
+ * the matching draft rows and then draft rows that have no matching live row are inserted. This
+ * default implementation uses correlated sub-queries for the update which is supported by most
+ * databases. Platforms override this to use their update join syntax.
+ * </p>
+ * <p>
+ * As with publishing bean by bean, only the live rows with a column that differs from the draft
+ * row are updated, so unchanged live rows keep their version and generated (when modified)
+ * values and optimistic locking against them is not affected.
+ * </p>
+ */
+public class DraftPublishSql {
+
+  /**
+   * The tables and columns of a draftable bean type.
+   */
+  public static class Table {
+
+    final String liveTable;
+    final String draftTable;
+    final String idColumn;
+    final List<String> columns;
+    final String versionColumn;
+    final List<String> insertBindColumns;
+    final List<String> updateBindColumns;
+
+    /**
+     * Create the table columns.
+     *
+     * @param liveTable         the live (base) table
+     * @param draftTable        the draft table
+     * @param idColumn          the id column
+     * @param columns           the columns copied from draft to live
+     * @param versionColumn     the (integral) version column or null
+     * @param insertBindColumns the columns set to bind values on insert (generated properties)
+     * @param updateBindColumns the columns set to bind values on update (generated properties)
+     */
+    public Table(String liveTable, String draftTable, String idColumn, List<String> columns, String versionColumn,
+                 List<String> insertBindColumns, List<String> updateBindColumns) {
+      this.liveTable = liveTable;
+      this.draftTable = draftTable;
+      this.idColumn = idColumn;
+      this.columns = columns;
+      this.versionColumn = versionColumn;
+      this.insertBindColumns = insertBindColumns;
+      this.updateBindColumns = updateBindColumns;
+    }
+  }
+
+  /**
+   * Return the statement updating the live rows from the draft rows.
+   * <p>
+   * The update bind columns are bound first followed by the Id values. Only the live rows
+   * that differ from their draft row are updated.
+   * </p>
+   *
+   * @param table the tables and columns
+   * @param idIn  the Id IN predicate (following the id column) such as <code> in (?,?)</code>
+   */
+  public String update(Table table, String idIn) {
+
+    StringBuilder sb = new StringBuilder(200);
+    sb.append("update ").append(table.liveTable).append(" set ");
+    int count = 0;
+    for (String column : table.columns) {
+      if (count++ > 0) {
+        sb.append(", ");
+      }
+      sb.append(column).append(" = (select d.").append(column).append(" from ").append(table.draftTable)
+          .append(" d where d.").append(table.idColumn).append(" = ").append(table.liveTable).append(".").append(table.idColumn).append(")");
+    }
+    appendUpdateSet(sb, table, "", count);
+    sb.append(" where ").append(table.idColumn).append(idIn);
+    sb.append(" and exists (select 1 from ").append(table.draftTable).append(" d where d.").append(table.idColumn)
+        .append(" = ").append(table.liveTable).append(".").append(table.idColumn).append(" and ");
+    appendDiffers(sb, table, table.liveTable + ".", "d.");
+    sb.append(")");
+    return sb.toString();
+  }
+
+  /**
+   * Append the predicate that is true when any of the copied columns differ between the live and
+   * draft rows (treating nulls as equal to each other).
+   */
+  protected void appendDiffers(StringBuilder sb, Table table, String liveAlias, String draftAlias) {
+    if (table.columns.isEmpty()) {
+      // nothing is copied so no live row needs updating
+      sb.append("1 = 0");
+      return;
+    }
+    sb.append("(");
+    int count = 0;
+    for (String column : table.columns) {
+      if (count++ > 0) {
+        sb.append(" or ");
+      }
+      String live = liveAlias + column;
+      String draft = draftAlias + column;
+      sb.append(live).append(" <> ").append(draft)
+          .append(" or (").append(live).append(" is null and ").append(draft).append(" is not null)")
+          .append(" or (").append(live).append(" is not null and ").append(draft).append(" is null)");
+    }
+    sb.append(")");
+  }
+
+  /**
+   * Append the version increment and bind columns to the update set clause.
+   */
+  protected void appendUpdateSet(StringBuilder sb, Table table, String alias, int count) {
+    if (table.versionColumn != null) {
+      if (count++ > 0) {
+        sb.append(", ");
+      }
+      sb.append(alias).append(table.versionColumn).append(" = ").append(alias).append(table.versionColumn).append(" + 1");
+    }
+    for (String column : table.updateBindColumns) {
+      if (count++ > 0) {
+        sb.append(", ");
+      }
+      sb.append(alias).append(column).append(" = ?");
+    }
+  }
+
+  /**
+   * Return the statement inserting the draft rows that do not have matching live rows.
+   * <p>
+   * The insert bind columns are bound first followed by the Id values.
+   * </p>
+   *
+   * @param table the tables and columns
+   * @param idIn  the Id IN predicate (following the id column) such as <code> in (?,?)</code>
+   */
+  public String insert(Table table, String idIn) {
+
+    StringBuilder cols = new StringBuilder(100);
+    StringBuilder values = new StringBuilder(100);
+    cols.append(table.idColumn);
+    values.append("d.").append(table.idColumn);
+    for (String column : table.columns) {
+      cols.append(", ").append(column);
+      values.append(", d.").append(column);
+    }
+    if (table.versionColumn != null) {
+      cols.append(", ").append(table.versionColumn);
+      values.append(", 1");
+    }
+    for (String column : table.insertBindColumns) {
+      cols.append(", ").append(column);
+      values.append(", ?");
+    }
+
+    return "insert into " + table.liveTable + " (" + cols + ") select " + values
+        + " from " + table.draftTable + " d where d." + table.idColumn + idIn
+        + " and not exists (select 1 from " + table.liveTable + " l where l." + table.idColumn + " = d." + table.idColumn + ")";
+  }
+}
@@ -18,6 +18,10 @@ public class MsSqlServer2000Platform extends DatabasePlatform {
   public MsSqlServer2000Platform() {
     super();
     this.name = "mssqlserver2000";
+    // SQL Server limits a statement to 2100 bind parameters
+    this.maxBindParameters = 2100;
+    // no mod() function
+    this.moduloOperator = true;
     this.dbIdentity.setIdType(IdType.IDENTITY);
     this.dbIdentity.setSupportsGetGeneratedKeys(false);
     this.dbIdentity.setSelectLastInsertedIdTemplate("select @@IDENTITY as X");
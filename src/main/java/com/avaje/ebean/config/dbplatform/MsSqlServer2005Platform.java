@@ -19,6 +19,10 @@ public class MsSqlServer2005Platform extends DatabasePlatform {
   public MsSqlServer2005Platform() {
     super();
     this.name = "mssqlserver2005";
+    // SQL Server limits a statement to 2100 bind parameters
+    this.maxBindParameters = 2100;
+    // no mod() function
+    this.moduloOperator = true;
     // effectively disable persistBatchOnCascade mode for SQL Server
     // due to lack of support for getGeneratedKeys in batch mode
     this.disallowBatchOnCascade = true;
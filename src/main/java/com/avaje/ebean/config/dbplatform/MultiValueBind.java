@@ -0,0 +1,44 @@
+package com.avaje.ebean.config.dbplatform;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+
+/**
+ * Binds the values of an IN expression as a single (array) parameter.
+ * <p>
+ * With a single array parameter the SQL is the same regardless of the number of values which
+ * means better statement reuse (and a single database plan). This default implementation does
+ * not support array binding and IN expressions bind one parameter per value (padded to a few
+ * distinct sizes).
+ * </p>
+ */
+public class MultiValueBind {
+
+  /**
+   * Return true if values of the given JDBC type can be bound as a single array parameter.
+   */
+  public boolean isTypeSupported(int jdbcType) {
+    return false;
+  }
+
+  /**
+   * Return the SQL expression (following the column) for the array parameter.
+   *
+   * @param not true for a NOT IN expression
+   */
+  public String getInExpression(boolean not) {
+    throw new UnsupportedOperationException("Array binding is not supported");
+  }
+
+  /**
+   * Bind the values as a single array parameter at the given position.
+   *
+   * @param pstmt    the statement to bind to
+   * @param position the parameter position
+   * @param jdbcType the JDBC type of the values
+   * @param values   the values (already converted to JDBC types)
+   */
+  public void bindMultiValues(PreparedStatement pstmt, int position, int jdbcType, Object[] values) throws SQLException {
+    throw new UnsupportedOperationException("Array binding is not supported");
+  }
+}
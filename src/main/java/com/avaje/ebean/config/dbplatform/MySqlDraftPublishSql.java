@@ -0,0 +1,26 @@
+package com.avaje.ebean.config.dbplatform;
+
+/**
+ * MySql update from draft to live using <code>update ... join</code>.
+ */
+public class MySqlDraftPublishSql extends DraftPublishSql {
+
+  @Override
+  public String update(Table table, String idIn) {
+
+    StringBuilder sb = new StringBuilder(200);
+    sb.append("update ").append(table.liveTable).append(" t join ").append(table.draftTable).append(" d on d.")
+        .append(table.idColumn).append(" = t.").append(table.idColumn).append(" set ");
+    int count = 0;
+    for (String column : table.columns) {
+      if (count++ > 0) {
+        sb.append(", ");
+      }
+      sb.append("t.").append(column).append(" = d.").append(column);
+    }
+    appendUpdateSet(sb, table, "t.", count);
+    sb.append(" where t.").append(table.idColumn).append(idIn).append(" and ");
+    appendDiffers(sb, table, "t.", "d.");
+    return sb.toString();
+  }
+}
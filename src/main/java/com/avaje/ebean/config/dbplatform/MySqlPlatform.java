@@ -37,6 +37,11 @@ public class MySqlPlatform extends DatabasePlatform {
     this.closeQuote = "`";
 
     this.forwardOnlyHintOnFindIterate = true;
+    // stream results row by row
+    this.streamingConfig.setFetchSize(Integer.MIN_VALUE);
+    this.rowValueComparison = true;
+    this.explainPrefix = "explain ";
+    this.draftPublishSql = new MySqlDraftPublishSql();
     this.booleanDbType = Types.BIT;
 
     dbTypeMap.put(Types.BIT, new DbType("tinyint(1) default 0"));
@@ -14,6 +14,10 @@ public class OraclePlatform extends DatabasePlatform {
   public OraclePlatform() {
     super();
     this.name = "oracle";
+    // Oracle limits IN expressions to 1000 values
+    this.maxInBinding = 1000;
+    // the driver fetches only 10 rows per round trip by default
+    this.streamingConfig.setFetchSize(100);
     this.maxTableNameLength = 30;
     this.maxConstraintNameLength = 30;
     this.dbEncrypt = new OracleDbEncrypt();
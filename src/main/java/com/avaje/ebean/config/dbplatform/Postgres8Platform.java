@@ -15,6 +15,7 @@ public class Postgres8Platform extends PostgresPlatform {
     this.dbIdentity.setSupportsSequence(true);
     this.dbIdentity.setSupportsIdentity(true);
     this.columnAliasPrefix = "as c";
+    this.jsonPatch = null;
   }
 
 }
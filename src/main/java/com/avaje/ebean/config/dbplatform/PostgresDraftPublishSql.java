@@ -0,0 +1,42 @@
+package com.avaje.ebean.config.dbplatform;
+
+/**
+ * Postgres update from draft to live using <code>update ... from</code>.
+ */
+public class PostgresDraftPublishSql extends DraftPublishSql {
+
+  @Override
+  public String update(Table table, String idIn) {
+
+    StringBuilder sb = new StringBuilder(200);
+    sb.append("update ").append(table.liveTable).append(" t set ");
+    int count = 0;
+    for (String column : table.columns) {
+      if (count++ > 0) {
+        sb.append(", ");
+      }
+      sb.append(column).append(" = d.").append(column);
+    }
+    // set columns can not be qualified with the table alias
+    appendPostgresSet(sb, table, count);
+    sb.append(" from ").append(table.draftTable).append(" d where d.").append(table.idColumn).append(" = t.").append(table.idColumn)
+        .append(" and t.").append(table.idColumn).append(idIn).append(" and ");
+    appendDiffers(sb, table, "t.", "d.");
+    return sb.toString();
+  }
+
+  private void appendPostgresSet(StringBuilder sb, Table table, int count) {
+    if (table.versionColumn != null) {
+      if (count++ > 0) {
+        sb.append(", ");
+      }
+      sb.append(table.versionColumn).append(" = t.").append(table.versionColumn).append(" + 1");
+    }
+    for (String column : table.updateBindColumns) {
+      if (count++ > 0) {
+        sb.append(", ");
+      }
+      sb.append(column).append(" = ?");
+    }
+  }
+}
@@ -0,0 +1,46 @@
+package com.avaje.ebean.config.dbplatform;
+
+import java.sql.Array;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Types;
+
+/**
+ * Postgres array binding for IN expressions using <code>= any(?)</code>.
+ */
+public class PostgresMultiValueBind extends MultiValueBind {
+
+  @Override
+  public boolean isTypeSupported(int jdbcType) {
+    return arrayType(jdbcType) != null;
+  }
+
+  @Override
+  public String getInExpression(boolean not) {
+    return not ? " != all(?) " : " = any(?) ";
+  }
+
+  @Override
+  public void bindMultiValues(PreparedStatement pstmt, int position, int jdbcType, Object[] values) throws SQLException {
+    Array array = pstmt.getConnection().createArrayOf(arrayType(jdbcType), values);
+    pstmt.setArray(position, array);
+  }
+
+  /**
+   * Return the Postgres array element type for the JDBC type (or null if not supported).
+   */
+  private String arrayType(int jdbcType) {
+    switch (jdbcType) {
+      case Types.INTEGER:
+        return "integer";
+      case Types.BIGINT:
+        return "bigint";
+      case Types.SMALLINT:
+        return "smallint";
+      case Types.VARCHAR:
+        return "varchar";
+      default:
+        return null;
+    }
+  }
+}
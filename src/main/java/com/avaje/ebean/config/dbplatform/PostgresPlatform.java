@@ -24,6 +24,16 @@ public class PostgresPlatform extends DatabasePlatform {
     this.blobDbType = Types.LONGVARBINARY;
     this.clobDbType = Types.VARCHAR;
     this.nativeUuidType = true;
+    this.multiValueBind = new PostgresMultiValueBind();
+    // cursor based fetch requires a fetch size and no auto commit
+    this.streamingConfig.setFetchSize(500);
+    this.streamingConfig.setCursorRequiresTransaction(true);
+    this.rowValueComparison = true;
+    this.explainPrefix = "explain ";
+    this.draftPublishSql = new PostgresDraftPublishSql();
+    // jsonb_object_agg() and the jsonb || operator (Postgres 9.5+)
+    this.jsonPatch = "(select coalesce(jsonb_object_agg(key, value), '{}') from jsonb_each(${column})"
+        + " where key <> all(array(select jsonb_array_elements_text(cast(? as jsonb))))) || cast(? as jsonb)";
 
     this.dbEncrypt = new PostgresDbEncrypt();
     this.historySupport = new PostgresHistorySupport();
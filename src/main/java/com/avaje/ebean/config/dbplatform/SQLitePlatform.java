@@ -9,6 +9,11 @@ public class SQLitePlatform extends DatabasePlatform {
   public SQLitePlatform() {
     super();
     this.name = "sqlite";
+    // SQLite limits a statement to 999 bind parameters by default
+    this.maxBindParameters = 999;
+    // no mod() function
+    this.moduloOperator = true;
+    this.explainPrefix = "explain query plan ";
     this.platformDdl = new SQLiteDdl(dbTypeMap, dbIdentity);
 
     this.dbIdentity.setIdType(IdType.IDENTITY);
@@ -0,0 +1,116 @@
+package com.avaje.ebean.config.dbplatform;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * The JDBC settings used to stream (rather than buffer) large query results.
+ * <p>
+ * This is used for findEach(), findEachWhile(), findIterate() and findVersions() along with
+ * SqlQuery findEach(). Whether a JDBC driver streams the results or reads the entire result
+ * into memory depends on driver specific settings. For example:
+ * </p>
+ * <ul>
+ * <li>MySQL streams the results row by row with a fetch size of Integer.MIN_VALUE and a
+ * TYPE_FORWARD_ONLY, CONCUR_READ_ONLY statement</li>
+ * <li>Postgres uses a cursor (fetching fetch size rows at a time) when a fetch size is set and
+ * the connection is not in auto commit mode</li>
+ * <li>Oracle fetches 10 rows per round trip by default</li>
+ * </ul>
+ */
+public class StreamingConfig {
+
+  private static final Logger logger = LoggerFactory.getLogger(StreamingConfig.class);
+
+  private int fetchSize;
+
+  private boolean forwardOnly = true;
+
+  private boolean cursorRequiresTransaction;
+
+  private volatile boolean warnedAutoCommit;
+
+  /**
+   * Return the fetch size used when streaming (0 for the driver default).
+   */
+  public int getFetchSize() {
+    return fetchSize;
+  }
+
+  /**
+   * Set the fetch size used when streaming (0 for the driver default).
+   * <p>
+   * A fetch size explicitly set on the query (bufferFetchSizeHint) takes precedence.
+   * </p>
+   */
+  public void setFetchSize(int fetchSize) {
+    this.fetchSize = fetchSize;
+  }
+
+  /**
+   * Return true if the statement is explicitly created with ResultSet.TYPE_FORWARD_ONLY and
+   * ResultSet.CONCUR_READ_ONLY.
+   */
+  public boolean isForwardOnly() {
+    return forwardOnly;
+  }
+
+  /**
+   * Set to true to explicitly create the statement with ResultSet.TYPE_FORWARD_ONLY and
+   * ResultSet.CONCUR_READ_ONLY.
+   */
+  public void setForwardOnly(boolean forwardOnly) {
+    this.forwardOnly = forwardOnly;
+  }
+
+  /**
+   * Return true if the driver only streams results when the connection is not in auto commit
+   * mode (cursor based fetching).
+   */
+  public boolean isCursorRequiresTransaction() {
+    return cursorRequiresTransaction;
+  }
+
+  /**
+   * Set to true if the driver only streams results when the connection is not in auto commit mode.
+   */
+  public void setCursorRequiresTransaction(boolean cursorRequiresTransaction) {
+    this.cursorRequiresTransaction = cursorRequiresTransaction;
+  }
+
+  /**
+   * Create the prepared statement for streaming the query results.
+   *
+   * @param conn          the connection
+   * @param sql           the query sql
+   * @param fetchSizeHint the fetch size explicitly set on the query (0 if not set)
+   */
+  public PreparedStatement prepareStatement(Connection conn, String sql, int fetchSizeHint) throws SQLException {
+
+    PreparedStatement pstmt;
+    if (forwardOnly) {
+      pstmt = conn.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+    } else {
+      pstmt = conn.prepareStatement(sql);
+    }
+
+    int size = fetchSizeHint > 0 ? fetchSizeHint : fetchSize;
+    if (size != 0) {
+      pstmt.setFetchSize(size);
+    }
+    if (cursorRequiresTransaction && !warnedAutoCommit && conn.getAutoCommit()) {
+      warnedAutoCommit = true;
+      logger.warn("Connection is in auto commit mode so the JDBC driver will read the entire query result into memory rather than stream it");
+    }
+    return pstmt;
+  }
+
+  public String toString() {
+    return "fetchSize:" + fetchSize + " forwardOnly:" + forwardOnly + " cursorRequiresTransaction:" + cursorRequiresTransaction;
+  }
+}
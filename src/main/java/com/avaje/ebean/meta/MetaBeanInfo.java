@@ -14,4 +14,14 @@ public interface MetaBeanInfo {
    */  
   List<MetaQueryPlanStatistic> collectAllQueryPlanStatistics(boolean reset);
 
+  /**
+   * Return the statistics of the update plan cache.
+   */
+  MetaUpdatePlanStatistic getUpdatePlanStatistic(boolean reset);
+
+  /**
+   * Return the estimated memory held by the query plans.
+   */
+  MetaQueryPlanMemory getQueryPlanMemory();
+
 }
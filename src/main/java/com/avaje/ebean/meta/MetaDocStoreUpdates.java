@@ -0,0 +1,56 @@
+package com.avaje.ebean.meta;
+
+/**
+ * Metrics of the coalescing document store update pipeline.
+ * <p>
+ * Document store updates from committed transactions are held in a bounded queue keeping only
+ * the latest update per document and merging nested (embedded) invalidations. They are sent
+ * to the document store in batches when the batch size is reached or the flush interval elapses.
+ * </p>
+ *
+ * @see MetaInfoManager#getDocStoreUpdates()
+ * @see com.avaje.ebean.config.DocStoreConfig#setCoalesce(boolean)
+ */
+public interface MetaDocStoreUpdates {
+
+  /**
+   * Return the number of pending updates (documents, nested invalidations and queue entries).
+   */
+  int getQueueDepth();
+
+  /**
+   * Return the age in milliseconds of the oldest pending update (0 when there are none).
+   */
+  long getLagMillis();
+
+  /**
+   * Return the age in milliseconds of the oldest update when the last batch was sent.
+   */
+  long getLastFlushLagMillis();
+
+  /**
+   * Return the number of updates received from committed transactions.
+   */
+  long getReceivedCount();
+
+  /**
+   * Return the number of received updates that were merged into an already pending update.
+   */
+  long getCoalescedCount();
+
+  /**
+   * Return the number of updates sent to the document store.
+   */
+  long getProcessedCount();
+
+  /**
+   * Return the number of batches sent to the document store.
+   */
+  long getFlushCount();
+
+  /**
+   * Return the number of times the queue was full such that the committing thread sent the
+   * pending updates before adding its own.
+   */
+  long getBackPressureCount();
+}
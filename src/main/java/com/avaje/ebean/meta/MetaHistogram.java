@@ -0,0 +1,35 @@
+package com.avaje.ebean.meta;
+
+/**
+ * A snapshot of a histogram with power of 2 buckets (such as query latency in microseconds).
+ * <p>
+ * Bucket 0 holds the value 0 and bucket i holds the values from 2^(i-1) to 2^i - 1 such that
+ * percentiles are accurate to within a factor of 2 (reported as the upper bound of the bucket
+ * limited to the maximum recorded value).
+ * </p>
+ *
+ * @see MetaQueryPlanStatistic#getExecuteHistogram()
+ */
+public interface MetaHistogram {
+
+  /**
+   * Return the number of values recorded.
+   */
+  long getCount();
+
+  /**
+   * Return the maximum value recorded (0 if no values have been recorded).
+   */
+  long getMax();
+
+  /**
+   * Return the (approximate) value at the given percentile (0 to 100).
+   */
+  long getPercentile(double percentile);
+
+  /**
+   * Return the counts per bucket.
+   */
+  long[] getBucketCounts();
+
+}
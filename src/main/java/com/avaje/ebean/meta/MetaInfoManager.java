@@ -39,4 +39,56 @@ public interface MetaInfoManager {
    */
   List<MetaObjectGraphNodeStats> collectNodeStatistics(boolean reset);
 
+  /**
+   * Collect and return the adaptive lazy loading batch sizes by ObjectGraphNode.
+   * <p>
+   * This is only populated when adaptive lazy loading batch size is turned on and shows the
+   * batch size currently used for a given origin point and relative path along with the
+   * observed usage that determined it.
+   * </p>
+   *
+   * @see com.avaje.ebean.config.ServerConfig#setLazyLoadBatchSizeAdaptive(boolean)
+   */
+  List<MetaObjectGraphNodeBatchSize> collectNodeBatchSizes();
+
+  /**
+   * Collect and return the update plan cache statistics for the bean types that have update plans.
+   *
+   * @param reset Set to true to reset the hit and miss counts after collection.
+   */
+  List<MetaUpdatePlanStatistic> collectUpdatePlanStatistics(boolean reset);
+
+  /**
+   * Collect and return the estimated query plan memory for the bean types that have query plans.
+   */
+  List<MetaQueryPlanMemory> collectQueryPlanMemory();
+
+  /**
+   * Return the recent query executions that exceeded the slow query threshold (oldest first).
+   *
+   * @param clear Set to true to clear the slow queries after collection.
+   */
+  List<MetaSlowQuery> collectSlowQueries(boolean clear);
+
+  /**
+   * Set the slow query threshold in milliseconds for all query plans (0 to turn off).
+   */
+  void setSlowQueryThreshold(long millis);
+
+  /**
+   * Set the slow query threshold in milliseconds for a query plan (0 to record every execution of the
+   * query plan and -1 to use the global threshold).
+   *
+   * @param queryPlanHash The query plan hash as per MetaQueryPlanStatistic getQueryPlanHash()
+   */
+  void setSlowQueryThreshold(String queryPlanHash, long millis);
+
+  /**
+   * Return the metrics of the coalescing document store update pipeline or null when the
+   * pipeline is not used.
+   *
+   * @see com.avaje.ebean.config.DocStoreConfig#setCoalesce(boolean)
+   */
+  MetaDocStoreUpdates getDocStoreUpdates();
+
 }
@@ -0,0 +1,46 @@
+package com.avaje.ebean.meta;
+
+import com.avaje.ebean.bean.ObjectGraphNode;
+
+/**
+ * The adaptive lazy loading batch size for a given object graph origin and path.
+ * <p>
+ * This shows the batch size currently used for lazy loading at this node along with the
+ * observed usage that was used to determine it.
+ * </p>
+ *
+ * @see MetaInfoManager#collectNodeBatchSizes()
+ */
+public interface MetaObjectGraphNodeBatchSize {
+
+  /**
+   * Return the ObjectGraphNode which has the origin point and relative path.
+   */
+  ObjectGraphNode getNode();
+
+  /**
+   * Return the batch size currently used for lazy loading at this node.
+   */
+  int getBatchSize();
+
+  /**
+   * Return the total number of beans registered for lazy loading at this node.
+   */
+  long getRegisteredCount();
+
+  /**
+   * Return the total number of beans that were loaded by lazy loading at this node.
+   */
+  long getLoadedCount();
+
+  /**
+   * Return the estimated fraction (0 to 1) of beans at this node that are actually used.
+   */
+  double getUsage();
+
+  /**
+   * Return the number of times the batch size has been adjusted.
+   */
+  long getAdjustCount();
+
+}
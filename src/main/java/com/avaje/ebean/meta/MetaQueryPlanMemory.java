@@ -0,0 +1,45 @@
+package com.avaje.ebean.meta;
+
+/**
+ * The estimated memory held by the query plans of a given bean type.
+ * <p>
+ * The select clause, from clause and SqlTree structures are shared by the query plans of the bean
+ * type (and reported as shared) with the remaining memory per query plan being mostly the full SQL
+ * statement. These are estimates based on string lengths rather than a measured heap size.
+ * </p>
+ *
+ * @see MetaInfoManager#collectQueryPlanMemory()
+ */
+public interface MetaQueryPlanMemory {
+
+  /**
+   * Return the bean type.
+   */
+  Class<?> getBeanType();
+
+  /**
+   * Return the number of query plans.
+   */
+  int getPlanCount();
+
+  /**
+   * Return the estimated bytes held by the query plans excluding the shared fragments.
+   */
+  long getPlanBytes();
+
+  /**
+   * Return the number of shared SQL fragments (select and from clauses etc).
+   */
+  int getSharedFragmentCount();
+
+  /**
+   * Return the estimated bytes of the shared SQL fragments.
+   */
+  long getSharedFragmentBytes();
+
+  /**
+   * Return the total estimated bytes (plans and shared fragments).
+   */
+  long getTotalBytes();
+
+}
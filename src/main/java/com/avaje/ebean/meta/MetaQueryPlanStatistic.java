@@ -88,4 +88,28 @@ public interface MetaQueryPlanStatistic {
    */
   List<MetaQueryPlanOriginCount> getOrigins();
 
+  /**
+   * Return the histogram of the time (micros) to prepare, bind and execute the statement.
+   * <p>
+   * The phase histograms are recorded for a sample of the executions (and are null when
+   * turned off) via ServerConfig queryPlanHistogramSampling.
+   * </p>
+   */
+  MetaHistogram getExecuteHistogram();
+
+  /**
+   * Return the histogram of the time (micros) spent moving to the next row of the result set.
+   */
+  MetaHistogram getRowReadHistogram();
+
+  /**
+   * Return the histogram of the time (micros) spent reading the columns and building the beans.
+   */
+  MetaHistogram getBeanBuildHistogram();
+
+  /**
+   * Return the histogram of the number of rows read per execution.
+   */
+  MetaHistogram getRowsHistogram();
+
 }
@@ -0,0 +1,83 @@
+package com.avaje.ebean.meta;
+
+import com.avaje.ebean.bean.CallStack;
+
+/**
+ * A query execution that exceeded the slow query threshold.
+ * <p>
+ * The most recent slow queries are held in a bounded buffer (the oldest are overwritten).
+ * </p>
+ *
+ * @see MetaInfoManager#collectSlowQueries(boolean)
+ * @see com.avaje.ebean.config.ServerConfig#setSlowQueryMillis(long)
+ */
+public interface MetaSlowQuery {
+
+  /**
+   * Return the time (epoch millis) the query executed.
+   */
+  long getTimestamp();
+
+  /**
+   * Return the bean type queried.
+   */
+  Class<?> getBeanType();
+
+  /**
+   * Return the query plan hash (as per MetaQueryPlanStatistic).
+   */
+  String getQueryPlanHash();
+
+  /**
+   * Return the sql executed.
+   */
+  String getSql();
+
+  /**
+   * Return the bind values (as logged).
+   */
+  String getBindLog();
+
+  /**
+   * Return the number of rows read.
+   */
+  long getRows();
+
+  /**
+   * Return the number of beans loaded.
+   */
+  long getBeans();
+
+  /**
+   * Return the total execution time in microseconds.
+   */
+  long getTimeMicros();
+
+  /**
+   * Return the time (micros) to prepare, bind and execute the statement.
+   */
+  long getExecuteMicros();
+
+  /**
+   * Return the time (micros) moving to the next row of the result set or -1 if the
+   * execution was not sampled for the phase timings.
+   */
+  long getRowReadMicros();
+
+  /**
+   * Return the time (micros) reading the columns and building the beans or -1 if the
+   * execution was not sampled for the phase timings.
+   */
+  long getBeanBuildMicros();
+
+  /**
+   * Return the origin of the query (null if query origins are not collected).
+   */
+  CallStack getOrigin();
+
+  /**
+   * Return the explain output for the query plan (null if not collected or not yet executed).
+   */
+  String getExplain();
+
+}
@@ -0,0 +1,53 @@
+package com.avaje.ebean.meta;
+
+/**
+ * Statistics of the cache of update plans (dynamic update statements) for a given bean type.
+ * <p>
+ * When only changed properties are included in updates there is an update plan (and update
+ * statement) per distinct set of changed properties.
+ * </p>
+ *
+ * @see MetaInfoManager#collectUpdatePlanStatistics(boolean)
+ */
+public interface MetaUpdatePlanStatistic {
+
+  /**
+   * Return the bean type.
+   */
+  Class<?> getBeanType();
+
+  /**
+   * Return the number of update plans currently cached.
+   */
+  int getSize();
+
+  /**
+   * Return the maximum number of update plans cached.
+   */
+  int getMaxSize();
+
+  /**
+   * Return the number of updates that used a cached update plan.
+   */
+  long getHitCount();
+
+  /**
+   * Return the number of updates that built a new update plan.
+   */
+  long getMissCount();
+
+  /**
+   * Return the number of times the cache was cleared due to reaching the maximum size.
+   */
+  long getClearCount();
+
+  /**
+   * Return true if updates are widened to include all loaded properties.
+   * <p>
+   * This occurs when widening is enabled and the number of update plans built has
+   * exceeded the widening threshold.
+   * </p>
+   */
+  boolean isWidening();
+
+}
@@ -0,0 +1,84 @@
+package com.avaje.ebean.meta;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Adapter that flattens the query plan statistics into named values for pull style metrics
+ * registries (that poll for the current values).
+ * <p>
+ * Each query plan with executions produces values named
+ * <code>prefix.beanType.planHash.metric</code> such as:
+ * </p>
+ * <pre>
+ *   ebean.query.Customer.1234_0_1.count
+ *   ebean.query.Customer.1234_0_1.micros.total
+ *   ebean.query.Customer.1234_0_1.micros.max
+ *   ebean.query.Customer.1234_0_1.execute.p50
+ *   ebean.query.Customer.1234_0_1.execute.p95
+ *   ebean.query.Customer.1234_0_1.execute.p99
+ *   ebean.query.Customer.1234_0_1.execute.max
+ *   ...  (likewise for rowRead, beanBuild and rows)
+ * </pre>
+ * <p>
+ * Collecting with reset means each poll reports the values since the prior poll.
+ * </p>
+ *
+ * <pre>{@code
+ *
+ *   QueryPlanMetrics metrics = new QueryPlanMetrics(ebeanServer.getMetaInfoManager(), "ebean.query");
+ *
+ *   // on each poll by the metrics registry
+ *   for (Map.Entry<String, Long> entry : metrics.collect(true).entrySet()) {
+ *     registry.gauge(entry.getKey(), entry.getValue());
+ *   }
+ *
+ * }</pre>
+ */
+public class QueryPlanMetrics {
+
+  private final MetaInfoManager metaInfoManager;
+
+  private final String prefix;
+
+  /**
+   * Create with the MetaInfoManager of the server and the prefix of the metric names.
+   */
+  public QueryPlanMetrics(MetaInfoManager metaInfoManager, String prefix) {
+    this.metaInfoManager = metaInfoManager;
+    this.prefix = prefix;
+  }
+
+  /**
+   * Collect the metrics of the query plans that have executions.
+   *
+   * @param reset Set to true to reset the underlying statistics after collection.
+   */
+  public Map<String, Long> collect(boolean reset) {
+
+    List<MetaQueryPlanStatistic> statistics = metaInfoManager.collectQueryPlanStatistics(reset);
+
+    Map<String, Long> metrics = new LinkedHashMap<String, Long>();
+    for (MetaQueryPlanStatistic statistic : statistics) {
+      String name = prefix + "." + statistic.getBeanType().getSimpleName() + "." + statistic.getQueryPlanHash() + ".";
+      metrics.put(name + "count", statistic.getExecutionCount());
+      metrics.put(name + "micros.total", statistic.getTotalTimeMicros());
+      metrics.put(name + "micros.max", statistic.getMaxTimeMicros());
+      add(metrics, name + "execute.", statistic.getExecuteHistogram());
+      add(metrics, name + "rowRead.", statistic.getRowReadHistogram());
+      add(metrics, name + "beanBuild.", statistic.getBeanBuildHistogram());
+      add(metrics, name + "rows.", statistic.getRowsHistogram());
+    }
+    return metrics;
+  }
+
+  private void add(Map<String, Long> metrics, String name, MetaHistogram histogram) {
+    if (histogram != null && histogram.getCount() > 0) {
+      metrics.put(name + "p50", histogram.getPercentile(50));
+      metrics.put(name + "p95", histogram.getPercentile(95));
+      metrics.put(name + "p99", histogram.getPercentile(99));
+      metrics.put(name + "max", histogram.getMax());
+    }
+  }
+}
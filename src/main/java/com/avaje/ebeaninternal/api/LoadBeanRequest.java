@@ -157,9 +157,9 @@ public class LoadBeanRequest extends LoadRequest {
     for (int i = 0; i < list.size(); i++) {
       EntityBean loadedBean = (EntityBean) list.get(i);
       loadedIds.add(desc.getId(loadedBean));
-      if (isLoadCache()) {
-        desc.cacheBeanPutData(loadedBean);
-      }
+    }
+    if (isLoadCache()) {
+      desc.cacheBeanPutAll(list);
     }
 
     if (lazyLoadProperty != null) {
@@ -13,8 +13,10 @@ import com.avaje.ebean.config.ServerConfig;
 import com.avaje.ebean.config.dbplatform.DatabasePlatform;
 import com.avaje.ebean.event.readaudit.ReadAuditLogger;
 import com.avaje.ebean.event.readaudit.ReadAuditPrepare;
+import com.avaje.ebeaninternal.server.core.CObjectGraphNodeBatchSize;
 import com.avaje.ebeaninternal.server.deploy.BeanDescriptor;
 import com.avaje.ebeaninternal.server.query.CQuery;
+import com.avaje.ebeaninternal.server.query.SlowQueryRecorder;
 import com.avaje.ebeaninternal.server.transaction.RemoteTransactionEvent;
 
 import java.util.List;
@@ -34,6 +36,11 @@ public interface SpiEbeanServer extends EbeanServer, BeanLoader, BeanCollectionL
    */
   boolean isCollectQueryOrigins();
 
+  /**
+   * Return the recorder of slow query executions.
+   */
+  SlowQueryRecorder getSlowQueryRecorder();
+
   /**
    * Return true if updates in JDBC batch should include all columns if unspecified on the transaction.
    */
@@ -177,6 +184,14 @@ public interface SpiEbeanServer extends EbeanServer, BeanLoader, BeanCollectionL
    */
   void collectQueryStats(ObjectGraphNode objectGraphNode, long loadedBeanCount, long timeMicros);
 
+  /**
+   * Return the adaptive lazy loading batch size for the given node.
+   * <p>
+   * Returns null when adaptive batch sizing is not on or the node has no origin point.
+   * </p>
+   */
+  CObjectGraphNodeBatchSize getAdaptiveBatchSize(ObjectGraphNode objectGraphNode, int defaultBatchSize);
+
   /**
    * Return the ReadAuditLogger to use for logging all read audit events.
    */
@@ -1,5 +1,6 @@
 package com.avaje.ebeaninternal.api;
 
+import com.avaje.ebean.config.dbplatform.DatabasePlatform;
 import com.avaje.ebeaninternal.server.core.JsonExpressionHandler;
 import com.avaje.ebeaninternal.server.core.SpiOrmQueryRequest;
 import com.avaje.ebeaninternal.server.deploy.BeanDescriptor;
@@ -26,6 +27,11 @@ public interface SpiExpressionRequest {
 	 */
 	BeanDescriptor<?> getBeanDescriptor();
 	
+  /**
+   * Return the database platform (null when not executing a query).
+   */
+  DatabasePlatform getDatabasePlatform();
+
 	/**
 	 * Return the associated QueryRequest.
 	 */
@@ -25,6 +25,11 @@ public interface SpiSqlQuery extends SqlQuery {
    */
   SqlQueryListener getListener();
 
+  /**
+   * Return true if the same SqlRow instance is reused for each row of findEach.
+   */
+  boolean isReuseRow();
+
   /**
    * Return the first row to fetch.
    */
@@ -32,11 +32,31 @@ public class TransactionEvent implements Serializable {
 
   private transient DeleteByIdMap deleteByIdMap;
 
+  private transient TransactionEventIds eventIds;
+
+  private final transient int compactThreshold;
+
+  private final transient int tableThreshold;
+
   /**
    * Create the TransactionEvent, one per Transaction.
    */
   public TransactionEvent() {
+    this(0, 0);
+  }
+
+  /**
+   * Create the TransactionEvent with thresholds for holding the changes in compact form.
+   *
+   * @param compactThreshold the number of held persist requests after which requests only
+   *                         the cache is interested in are held by id (0 for never)
+   * @param tableThreshold   the number of held ids after which the changes are held by table
+   *                         (0 for never)
+   */
+  public TransactionEvent(int compactThreshold, int tableThreshold) {
     this.local = true;
+    this.compactThreshold = compactThreshold;
+    this.tableThreshold = tableThreshold;
   }
 
   public void addDeleteById(BeanDescriptor<?> desc, Object id) {
@@ -72,6 +92,13 @@ public class TransactionEvent implements Serializable {
     return (eventBeans == null) ? null : eventBeans.getRequests();
   }
 
+  /**
+   * Return the compact form of the bean changes (null unless the compact threshold was reached).
+   */
+  public TransactionEventIds getEventIds() {
+    return eventIds;
+  }
+
   public TransactionEventTable getEventTables() {
     return eventTables;
   }
@@ -97,10 +124,19 @@ public class TransactionEvent implements Serializable {
 
     if (request.isNotify()) {
       // either a BeanListener or Cache is interested
+      if (eventIds != null && request.isNotifyCacheOnly()) {
+        request.addToEventIds(eventIds);
+        return;
+      }
       if (eventBeans == null) {
         eventBeans = new TransactionEventBeans();
       }
       eventBeans.add(request);
+      if (eventIds == null && compactThreshold > 0 && eventBeans.getRequests().size() >= compactThreshold) {
+        // large transaction so only hold ids for the requests just the cache is interested in
+        eventIds = new TransactionEventIds(tableThreshold);
+        eventBeans.compact(eventIds);
+      }
     }
   }
 
@@ -116,6 +152,9 @@ public class TransactionEvent implements Serializable {
     if (eventBeans != null) {
       eventBeans.notifyCache();
     }
+    if (eventIds != null) {
+      eventIds.notifyCache();
+    }
     if (deleteByIdMap != null) {
       deleteByIdMap.notifyCache();
     }
@@ -31,6 +31,25 @@ public class TransactionEventBeans {
 		requests.add(request);
 	}
 	
+	/**
+	 * Move the requests that only the cache is interested in to the compact form
+	 * releasing the requests (and their beans).
+	 */
+	public void compact(TransactionEventIds eventIds) {
+
+		int keep = 0;
+		for (int i = 0; i < requests.size(); i++) {
+			PersistRequestBean<?> request = requests.get(i);
+			if (request.isNotifyCacheOnly()) {
+				request.addToEventIds(eventIds);
+			} else {
+				requests.set(keep++, request);
+			}
+		}
+		requests.subList(keep, requests.size()).clear();
+		requests.trimToSize();
+	}
+
 	public void notifyCache() {
 		for (int i = 0; i < requests.size(); i++) {
 			requests.get(i).notifyCache();
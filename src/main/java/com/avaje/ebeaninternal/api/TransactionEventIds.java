@@ -0,0 +1,251 @@
+package com.avaje.ebeaninternal.api;
+
+import com.avaje.ebeaninternal.server.core.PersistRequest;
+import com.avaje.ebeaninternal.server.deploy.BeanDescriptor;
+import com.avaje.ebeaninternal.server.deploy.BeanPropertyAssocMany;
+import com.avaje.ebeaninternal.server.deploy.BeanPropertyAssocOne;
+import com.avaje.ebeaninternal.server.transaction.BeanPersistIdMap;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Compact form of the inserted updated and deleted beans of a large transaction.
+ * <p>
+ * Used for persist requests that only the L2 cache is interested in (no BeanPersistListener
+ * or document store update). Rather than holding the requests (and hence the beans) until
+ * commit just the id values are held per bean type with Long and Integer ids held in long
+ * arrays. When the number of ids reaches the table threshold the ids are dropped and the
+ * changes are held as table level inserts, updates and deletes invalidating the cache by table.
+ * </p>
+ */
+public class TransactionEventIds {
+
+  private final Map<String, BeanIds> beanMap = new LinkedHashMap<String, BeanIds>();
+
+  private final int tableThreshold;
+
+  private TransactionEventTable tables;
+
+  private int size;
+
+  /**
+   * Create with the number of ids after which table level changes are used (0 for never).
+   */
+  public TransactionEventIds(int tableThreshold) {
+    this.tableThreshold = tableThreshold;
+  }
+
+  public String toString() {
+    return (tables != null) ? tables.toString() : beanMap.toString();
+  }
+
+  /**
+   * Return the number of ids held.
+   */
+  public int size() {
+    return size;
+  }
+
+  /**
+   * Return true if the changes are held at the table level.
+   */
+  public boolean isTableLevel() {
+    return tables != null;
+  }
+
+  /**
+   * Return the table level changes (null unless the table threshold has been reached).
+   */
+  public TransactionEventTable getTables() {
+    return tables;
+  }
+
+  /**
+   * Add an inserted updated or deleted bean holding only its id value (or table).
+   */
+  public void add(BeanDescriptor<?> desc, PersistRequest.Type type, Object id) {
+
+    if (tables != null) {
+      addTable(desc, type);
+      return;
+    }
+    BeanIds beanIds = beanMap.get(desc.getFullName());
+    if (beanIds == null) {
+      beanIds = new BeanIds(desc);
+      beanMap.put(desc.getFullName(), beanIds);
+    }
+    beanIds.add(type, id);
+    if (++size >= tableThreshold && tableThreshold > 0) {
+      toTables();
+    }
+  }
+
+  /**
+   * Drop the ids and instead hold the changes at the table level.
+   */
+  private void toTables() {
+    tables = new TransactionEventTable();
+    for (BeanIds beanIds : beanMap.values()) {
+      tables.add(beanIds.desc.getBaseTable(), !beanIds.inserts.isEmpty(), !beanIds.updates.isEmpty(), !beanIds.deletes.isEmpty());
+    }
+    beanMap.clear();
+    size = 0;
+  }
+
+  private void addTable(BeanDescriptor<?> desc, PersistRequest.Type type) {
+    switch (type) {
+      case INSERT:
+        tables.add(desc.getBaseTable(), true, false, false);
+        break;
+      case UPDATE:
+        tables.add(desc.getBaseTable(), false, true, false);
+        break;
+      default:
+        tables.add(desc.getBaseTable(), false, false, true);
+    }
+  }
+
+  /**
+   * Notify the cache of the bean changes held by id.
+   * <p>
+   * The table level changes are processed separately via the BeanDescriptorManager.
+   * </p>
+   */
+  public void notifyCache() {
+    for (BeanIds beanIds : beanMap.values()) {
+      beanIds.notifyCache();
+    }
+  }
+
+  /**
+   * Add the ids to the BeanPersistIdMap for sending to the cluster.
+   */
+  public void addToPersistMap(BeanPersistIdMap persistIdMap) {
+    for (BeanIds beanIds : beanMap.values()) {
+      beanIds.addToPersistMap(persistIdMap);
+    }
+  }
+
+  /**
+   * The inserted, updated and deleted ids of a bean type.
+   */
+  private static final class BeanIds {
+
+    private final BeanDescriptor<?> desc;
+
+    private final IdList inserts = new IdList();
+    private final IdList updates = new IdList();
+    private final IdList deletes = new IdList();
+
+    BeanIds(BeanDescriptor<?> desc) {
+      this.desc = desc;
+    }
+
+    public String toString() {
+      return desc.getFullName() + " inserts:" + inserts.size() + " updates:" + updates.size() + " deletes:" + deletes.size();
+    }
+
+    void add(PersistRequest.Type type, Object id) {
+      switch (type) {
+        case INSERT:
+          inserts.add(id);
+          break;
+        case UPDATE:
+          updates.add(id);
+          break;
+        default:
+          deletes.add(id);
+      }
+    }
+
+    /**
+     * Invalidate the cache for the changes as the persist requests (with the changed
+     * properties) are not available. Deleted beans are removed from the cache via postDelete().
+     */
+    void notifyCache() {
+
+      desc.queryCacheClear();
+      if (!inserts.isEmpty()) {
+        // inserted beans can be in the cached collections of their parents
+        for (BeanPropertyAssocOne<?> one : desc.propertiesOneImported()) {
+          one.cacheClear();
+        }
+      }
+      if (!updates.isEmpty()) {
+        // the natural key may have changed and is not known without the request
+        desc.cacheNaturalKeyClear();
+        BeanPropertyAssocMany<?>[] manys = desc.isBeanCaching() ? desc.propertiesMany() : new BeanPropertyAssocMany<?>[0];
+        for (int i = 0; i < updates.size(); i++) {
+          Object id = updates.get(desc, i);
+          desc.cacheBeanRemove(id);
+          for (BeanPropertyAssocMany<?> many : manys) {
+            desc.cacheManyPropRemove(id, many.getName());
+          }
+        }
+      }
+    }
+
+    void addToPersistMap(BeanPersistIdMap persistIdMap) {
+      add(persistIdMap, PersistRequest.Type.INSERT, inserts);
+      add(persistIdMap, PersistRequest.Type.UPDATE, updates);
+      add(persistIdMap, PersistRequest.Type.DELETE, deletes);
+    }
+
+    private void add(BeanPersistIdMap persistIdMap, PersistRequest.Type type, IdList ids) {
+      for (int i = 0; i < ids.size(); i++) {
+        persistIdMap.add(desc, type, ids.get(desc, i));
+      }
+    }
+  }
+
+  /**
+   * List of id values with Long and Integer ids held in a long array.
+   */
+  static final class IdList {
+
+    private long[] longIds = new long[0];
+
+    private int longCount;
+
+    private ArrayList<Object> otherIds;
+
+    /**
+     * Add an id value.
+     */
+    void add(Object id) {
+      if (id instanceof Long || id instanceof Integer) {
+        if (longCount == longIds.length) {
+          longIds = Arrays.copyOf(longIds, Math.max(16, longCount * 2));
+        }
+        longIds[longCount++] = ((Number) id).longValue();
+      } else {
+        if (otherIds == null) {
+          otherIds = new ArrayList<Object>();
+        }
+        otherIds.add(id);
+      }
+    }
+
+    boolean isEmpty() {
+      return size() == 0;
+    }
+
+    int size() {
+      return longCount + (otherIds == null ? 0 : otherIds.size());
+    }
+
+    /**
+     * Return the id value at the index converted to the id type of the bean descriptor.
+     */
+    Serializable get(BeanDescriptor<?> desc, int index) {
+      if (index < longCount) {
+        return (Serializable) desc.convertId(longIds[index]);
+      }
+      return (Serializable) otherIds.get(index - longCount);
+    }
+  }
+}
@@ -9,14 +9,17 @@ public class CachedBeanData {
 
   private final long whenCreated;
   private final Object sharableBean;
-  private final boolean[] loaded;
+  /**
+   * Bitset of the loaded properties (bit i of word i &gt;&gt; 6 for property i).
+   */
+  private final long[] loaded;
   private final Object[] data;
   
   private final boolean naturalKeyUpdate;
   private final Object naturalKey;
   private final Object oldNaturalKey;
 
-  public CachedBeanData(Object sharableBean, boolean[] loaded, Object[] data, Object naturalKey, Object oldNaturalKey) {
+  public CachedBeanData(Object sharableBean, long[] loaded, Object[] data, Object naturalKey, Object oldNaturalKey) {
     this.whenCreated = System.currentTimeMillis();
     this.sharableBean = sharableBean;
     this.loaded = loaded;
@@ -42,10 +45,22 @@ public class CachedBeanData {
   /**
    * Return a copy of the loaded status for the properties.
    */
-  public boolean[] copyLoaded() {
-    boolean[] dest = new boolean[data.length];
-    System.arraycopy(loaded, 0, dest, 0, dest.length);
-    return dest;
+  public long[] copyLoaded() {
+    return loaded.clone();
+  }
+
+  /**
+   * Set the property as loaded in the given loaded bitset.
+   */
+  public static void setLoaded(long[] loaded, int i) {
+    loaded[i >>> 6] |= (1L << i);
+  }
+
+  /**
+   * Create a loaded bitset for the given number of properties.
+   */
+  public static long[] newLoaded(int propertyCount) {
+    return new long[(propertyCount + 63) >>> 6];
   }
 
   /**
@@ -94,7 +109,7 @@ public class CachedBeanData {
    * Return true if the property is contained in this data.
    */
   public boolean isLoaded(int i) {
-    return loaded[i];
+    return (loaded[i >>> 6] & (1L << i)) != 0;
   }
 
 }
@@ -0,0 +1,196 @@
+package com.avaje.ebeaninternal.server.cache;
+
+import com.avaje.ebeaninternal.server.deploy.BeanDescriptor;
+import com.avaje.ebeaninternal.server.deploy.BeanProperty;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Binary form of CachedBeanData for a given bean type.
+ * <p>
+ * This is a compact versioned format built on the ScalarType readData() and writeData() of each
+ * property. It is groundwork for moving cached bean data out of the heap such as for a
+ * distributed L2 cache, cluster messages or spilling to disk. The bean cache and the cluster
+ * messages do not use it yet (the cluster messages only carry the ids to invalidate) so the
+ * format can still change without a compatibility concern.
+ * </p>
+ * <pre>
+ *   byte     format version
+ *   short    property count (of the bean type)
+ *   byte[]   loaded bitmap (1 bit per property index)
+ *   ...      the loaded property values in property index order
+ * </pre>
+ * <p>
+ * Properties write their own null markers (via ScalarType writeData), associated beans are
+ * written as their id values and embedded beans are written (nested) in this same format.
+ * String and JSON values are written as length prefixed UTF-8 (rather than writeUTF which is
+ * limited to 64KB) and BigDecimal values are written exactly as their scale and unscaled value.
+ * </p>
+ */
+public class CachedBeanDataCodec {
+
+  /**
+   * The version of the binary format.
+   */
+  public static final int VERSION = 1;
+
+  private final BeanDescriptor<?> desc;
+
+  /**
+   * The properties by property index (null entries for properties not held in cache data).
+   */
+  private final BeanProperty[] properties;
+
+  private final BeanProperty naturalKeyProperty;
+
+  private final boolean supported;
+
+  public CachedBeanDataCodec(BeanDescriptor<?> desc) {
+    this.desc = desc;
+    this.properties = new BeanProperty[desc.getPropertyCount()];
+
+    boolean supported = true;
+    BeanProperty naturalKey = null;
+    BeanProperty idProperty = desc.getIdProperty();
+    if (idProperty != null) {
+      properties[idProperty.getPropertyIndex()] = idProperty;
+      supported = idProperty.isCacheDataBinary();
+    }
+    for (BeanProperty prop : desc.propertiesNonMany()) {
+      properties[prop.getPropertyIndex()] = prop;
+      if (!prop.isCacheDataBinary()) {
+        supported = false;
+      }
+      if (prop.isNaturalKey()) {
+        naturalKey = prop;
+      }
+    }
+    this.naturalKeyProperty = naturalKey;
+    this.supported = supported;
+  }
+
+  /**
+   * Return true if all the properties of the bean type support the binary form.
+   */
+  public boolean isSupported() {
+    return supported;
+  }
+
+  /**
+   * Write the cached bean data.
+   */
+  public void write(DataOutput dataOutput, CachedBeanData data) throws IOException {
+
+    if (!supported) {
+      throw new IOException("Binary form not supported for " + desc.getFullName());
+    }
+    dataOutput.writeByte(VERSION);
+    dataOutput.writeShort(properties.length);
+
+    byte[] loaded = new byte[(properties.length + 7) >> 3];
+    for (int i = 0; i < properties.length; i++) {
+      if (properties[i] != null && data.isLoaded(i)) {
+        loaded[i >> 3] |= (1 << (i & 7));
+      }
+    }
+    dataOutput.write(loaded);
+
+    for (int i = 0; i < properties.length; i++) {
+      if ((loaded[i >> 3] & (1 << (i & 7))) != 0) {
+        properties[i].writeCacheData(dataOutput, data.getData(i));
+      }
+    }
+  }
+
+  /**
+   * Read the cached bean data.
+   */
+  public CachedBeanData read(DataInput dataInput) throws IOException {
+
+    int version = dataInput.readUnsignedByte();
+    if (version != VERSION) {
+      throw new IOException("Unsupported version " + version + " reading cached data for " + desc.getFullName());
+    }
+    int count = dataInput.readUnsignedShort();
+    if (count != properties.length) {
+      throw new IOException("Property count " + count + " does not match " + properties.length + " reading cached data for " + desc.getFullName());
+    }
+
+    byte[] loadedBits = new byte[(count + 7) >> 3];
+    dataInput.readFully(loadedBits);
+
+    long[] loaded = CachedBeanData.newLoaded(count);
+    Object[] data = new Object[count];
+    for (int i = 0; i < count; i++) {
+      if ((loadedBits[i >> 3] & (1 << (i & 7))) != 0) {
+        CachedBeanData.setLoaded(loaded, i);
+        data[i] = properties[i].readCacheData(dataInput);
+      }
+    }
+
+    Object naturalKey = null;
+    if (naturalKeyProperty != null) {
+      naturalKey = data[naturalKeyProperty.getPropertyIndex()];
+    }
+    return new CachedBeanData(null, loaded, data, naturalKey, null);
+  }
+
+  /**
+   * Write a text value as length prefixed UTF-8.
+   */
+  public static void writeText(DataOutput dataOutput, String value) throws IOException {
+    if (value == null) {
+      dataOutput.writeBoolean(false);
+    } else {
+      byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+      dataOutput.writeBoolean(true);
+      dataOutput.writeInt(bytes.length);
+      dataOutput.write(bytes);
+    }
+  }
+
+  /**
+   * Read a text value written by writeText().
+   */
+  public static String readText(DataInput dataInput) throws IOException {
+    if (!dataInput.readBoolean()) {
+      return null;
+    }
+    byte[] bytes = new byte[dataInput.readInt()];
+    dataInput.readFully(bytes);
+    return new String(bytes, StandardCharsets.UTF_8);
+  }
+
+  /**
+   * Write a BigDecimal value exactly as its scale and unscaled value.
+   */
+  public static void writeDecimal(DataOutput dataOutput, BigDecimal value) throws IOException {
+    if (value == null) {
+      dataOutput.writeBoolean(false);
+    } else {
+      byte[] unscaled = value.unscaledValue().toByteArray();
+      dataOutput.writeBoolean(true);
+      dataOutput.writeInt(value.scale());
+      dataOutput.writeInt(unscaled.length);
+      dataOutput.write(unscaled);
+    }
+  }
+
+  /**
+   * Read a BigDecimal value written by writeDecimal().
+   */
+  public static BigDecimal readDecimal(DataInput dataInput) throws IOException {
+    if (!dataInput.readBoolean()) {
+      return null;
+    }
+    int scale = dataInput.readInt();
+    byte[] unscaled = new byte[dataInput.readInt()];
+    dataInput.readFully(unscaled);
+    return new BigDecimal(new BigInteger(unscaled), scale);
+  }
+}
@@ -4,6 +4,7 @@ import com.avaje.ebean.bean.EntityBean;
 import com.avaje.ebean.bean.EntityBeanIntercept;
 import com.avaje.ebeaninternal.server.deploy.BeanDescriptor;
 import com.avaje.ebeaninternal.server.deploy.BeanProperty;
+import com.avaje.ebeaninternal.server.deploy.BeanPropertyAssocMany;
 
 public class CachedBeanDataFromBean {
 
@@ -13,15 +14,21 @@ public class CachedBeanDataFromBean {
     EntityBeanIntercept ebi = bean._ebean_getIntercept();
     
     Object[] data = new Object[desc.getPropertyCount()];
-    boolean[] loaded = new boolean[desc.getPropertyCount()];
-    
+
+    // copy the loaded state of the bean (excluding the many properties which are not cached)
+    long[] loaded = ebi.getLoadedBits();
+    BeanPropertyAssocMany<?>[] manys = desc.propertiesMany();
+    for (int i = 0; i < manys.length; i++) {
+      int propertyIndex = manys[i].getPropertyIndex();
+      loaded[propertyIndex >>> 6] &= ~(1L << propertyIndex);
+    }
+
     BeanProperty idProperty = desc.getIdProperty();
     if (idProperty != null) {
       int propertyIndex = idProperty.getPropertyIndex();
       if (ebi.isLoadedProperty(propertyIndex)) {
         // extract the id property value
         data[propertyIndex] = idProperty.getCacheDataValue(bean);
-        loaded[propertyIndex] = true;
       }
     }
     BeanProperty[] props = desc.propertiesNonMany();
@@ -32,9 +39,7 @@ public class CachedBeanDataFromBean {
     for (int i = 0; i < props.length; i++) {
       BeanProperty prop = props[i];
       if (ebi.isLoadedProperty(prop.getPropertyIndex())) {
-        int propertyIndex = prop.getPropertyIndex();
-        data[propertyIndex] = prop.getCacheDataValue(bean);
-        loaded[propertyIndex] = true;
+        data[prop.getPropertyIndex()] = prop.getCacheDataValue(bean);
         if (prop.isNaturalKey()) {
           naturalKey = prop.getValue(bean);
         }
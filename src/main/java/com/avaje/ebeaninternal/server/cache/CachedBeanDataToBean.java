@@ -21,8 +21,18 @@ public class CachedBeanDataToBean {
 
     // load the non-many properties
     BeanProperty[] props = desc.propertiesNonMany();
-    for (int i = 0; i < props.length; i++) {
-      loadProperty(bean, cacheBeanData, ebi, props[i]);
+    if (ebi.isNew()) {
+      // new bean so no properties other than the id are loaded
+      for (int i = 0; i < props.length; i++) {
+        int propertyIndex = props[i].getPropertyIndex();
+        if (cacheBeanData.isLoaded(propertyIndex)) {
+          props[i].setCacheDataValue(bean, cacheBeanData.getData(propertyIndex));
+        }
+      }
+    } else {
+      for (int i = 0; i < props.length; i++) {
+        loadProperty(bean, cacheBeanData, ebi, props[i]);
+      }
     }
 
     BeanPropertyAssocMany<?>[] manys = desc.propertiesMany();
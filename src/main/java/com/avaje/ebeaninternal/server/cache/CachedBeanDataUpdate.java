@@ -16,7 +16,7 @@ public class CachedBeanDataUpdate {
   public static CachedBeanData update(BeanDescriptor<?> desc, CachedBeanData existingData, EntityBean updateBean) {
 
     // take a copy of the raw data and loaded status
-    boolean[] copyLoaded = existingData.copyLoaded();
+    long[] copyLoaded = existingData.copyLoaded();
     Object[] copyData = existingData.copyData();
 
     EntityBeanIntercept ebi = updateBean._ebean_getIntercept();
@@ -34,7 +34,7 @@ public class CachedBeanDataUpdate {
         }
         // set the cache safe value for the property and mark it as loaded
         copyData[propertyIndex] = props[i].getCacheDataValue(updateBean);
-        copyLoaded[propertyIndex] = true;
+        CachedBeanData.setLoaded(copyLoaded, propertyIndex);
       }
     }
 
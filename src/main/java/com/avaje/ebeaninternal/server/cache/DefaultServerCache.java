@@ -234,6 +234,50 @@ public class DefaultServerCache implements ServerCache {
     }
   }
 
+  /**
+   * Return the values for the given keys (that are in the cache).
+   * <p>
+   * The access time is read once and the hit and miss counters are incremented once for all
+   * the keys.
+   * </p>
+   */
+  @Override
+  public Map<Object, Object> getAll(Set<Object> keys) {
+
+    long accessTime = System.currentTimeMillis();
+    Map<Object, Object> values = new LinkedHashMap<Object, Object>();
+    for (Object key : keys) {
+      CacheEntry entry = map.get(key);
+      if (entry != null) {
+        values.put(key, entry.getValue(accessTime));
+      }
+    }
+    hitCount.add(values.size());
+    missCount.add(keys.size() - values.size());
+    return values;
+  }
+
+  /**
+   * Put all the key values into the cache.
+   * <p>
+   * The entries share a single create time and the insert and update counters are incremented
+   * once for all the entries.
+   * </p>
+   */
+  @Override
+  public void putAll(Map<Object, Object> keyValues) {
+
+    long createTime = System.currentTimeMillis();
+    long updates = 0;
+    for (Map.Entry<Object, Object> entry : keyValues.entrySet()) {
+      if (map.put(entry.getKey(), new CacheEntry(entry.getKey(), entry.getValue(), createTime)) != null) {
+        updates++;
+      }
+    }
+    updateCount.add(updates);
+    insertCount.add(keyValues.size() - updates);
+  }
+
   /**
    * Remove an entry from the cache.
    */
@@ -373,9 +417,16 @@ public class DefaultServerCache implements ServerCache {
     private long lastAccessTime;
 
     public CacheEntry(Object key, Object value) {
+      this(key, value, System.currentTimeMillis());
+    }
+
+    /**
+     * Construct with a given create time (for putting many entries).
+     */
+    public CacheEntry(Object key, Object value, long createTime) {
       this.key = key;
       this.value = value;
-      this.createTime = System.currentTimeMillis();
+      this.createTime = createTime;
       this.lastAccessTime = createTime;
     }
 
@@ -395,6 +446,14 @@ public class DefaultServerCache implements ServerCache {
       return value;
     }
 
+    /**
+     * Return the entry value given the access time (for getting many entries).
+     */
+    public Object getValue(long accessTime) {
+      lastAccessTime = accessTime;
+      return value;
+    }
+
     /**
      * Return the time the entry was created.
      */
@@ -1,10 +1,13 @@
 package com.avaje.ebeaninternal.server.core;
 
+import com.avaje.ebean.config.ServerConfig;
 import com.avaje.ebeaninternal.api.ClassPathSearchService;
+import com.avaje.ebeaninternal.server.util.ClassPathSearch;
 import com.avaje.ebeaninternal.server.util.ClassPathSearchFilter;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.File;
 import java.util.*;
 
 /**
@@ -28,14 +31,20 @@ public class BootupClassPathSearch {
 
   private final String classPathReaderClassName;
 
+  private final boolean readClassFiles;
+
+  private final String scanCacheFile;
+
   /**
    * Construct and search for interesting classes.
    */
-  public BootupClassPathSearch(ClassLoader classLoader, List<String> packages, List<String> jars, String classPathReaderClassName) {
+  public BootupClassPathSearch(ClassLoader classLoader, ServerConfig serverConfig) {
     this.classLoader = (classLoader == null) ? getClass().getClassLoader() : classLoader;
-    this.packages = packages;
-    this.jars = jars;
-    this.classPathReaderClassName = classPathReaderClassName;
+    this.packages = serverConfig.getPackages();
+    this.jars = serverConfig.getJars();
+    this.classPathReaderClassName = serverConfig.getClassPathReaderClassName();
+    this.readClassFiles = serverConfig.isClassPathSearchReadClassFiles();
+    this.scanCacheFile = serverConfig.getClassPathSearchCacheFile();
 
     loadAndInitializeClassPathSearchServices();
   }
@@ -51,6 +60,34 @@ public class BootupClassPathSearch {
     }
   }
 
+  /**
+   * Return a checksum of the class files that are searched (null if not supported).
+   * <p>
+   * This is only supported when searching via the standard ClassPathSearch.
+   * </p>
+   */
+  public String getClassPathChecksum() {
+    synchronized (monitor) {
+      try {
+        ClassPathSearchFilter filter = createFilter();
+        StringBuilder checksum = new StringBuilder();
+        for (ClassPathSearchService finder : this.classPathSearchServices) {
+          if (!(finder instanceof ClassPathSearch)) {
+            return null;
+          }
+          ClassPathSearch search = new ClassPathSearch();
+          search.init(classLoader, filter, new BootupClasses(), classPathReaderClassName);
+          checksum.append(search.checksum()).append(' ');
+        }
+        return checksum.toString().trim();
+
+      } catch (Exception ex) {
+        String msg = "Error in classpath checksum";
+        throw new RuntimeException(msg, ex);
+      }
+    }
+  }
+
   /**
    * Search the classPath for the classes we are interested in.
    */
@@ -90,6 +127,10 @@ public class BootupClassPathSearch {
 
     ClassPathSearchFilter filter = new ClassPathSearchFilter();
     filter.addDefaultExcludePackages();
+    filter.setReadClassFiles(readClassFiles);
+    if (scanCacheFile != null) {
+      filter.setScanCacheFile(new File(scanCacheFile));
+    }
 
     if (packages != null && packages.size() > 0) {
       for (String packageName : packages) {
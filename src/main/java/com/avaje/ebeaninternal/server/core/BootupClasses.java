@@ -16,7 +16,7 @@ import com.avaje.ebean.event.changelog.ChangeLogRegister;
 import com.avaje.ebean.event.readaudit.ReadAuditLogger;
 import com.avaje.ebean.event.readaudit.ReadAuditPrepare;
 import com.avaje.ebeaninternal.server.type.ScalarType;
-import com.avaje.ebeaninternal.server.util.ClassPathSearchMatcher;
+import com.avaje.ebeaninternal.server.util.ClassPathSearchBytecodeMatcher;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -27,16 +27,28 @@ import java.lang.annotation.Annotation;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.Modifier;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 /**
  * Interesting classes for a EbeanServer such as Embeddable, Entity,
  * ScalarTypes, Finders, Listeners and Controllers.
  */
-public class BootupClasses implements ClassPathSearchMatcher {
+public class BootupClasses implements ClassPathSearchBytecodeMatcher {
 
   private static final Logger logger = LoggerFactory.getLogger(BootupClasses.class);
 
+  private static final List<Class<? extends Annotation>> MATCH_ANNOTATIONS
+      = Arrays.<Class<? extends Annotation>>asList(Entity.class, Table.class, Embeddable.class);
+
+  private static final List<Class<?>> MATCH_INTERFACES = Arrays.<Class<?>>asList(
+      BeanPersistController.class, BeanPostLoad.class, TransactionEventListener.class, ScalarType.class,
+      ScalarTypeConverter.class, CompoundType.class, BeanFindController.class, BeanPersistListener.class,
+      BeanQueryAdapter.class, ServerConfigStartup.class, ChangeLogListener.class, ChangeLogRegister.class,
+      ChangeLogPrepare.class, ReadAuditPrepare.class, ReadAuditLogger.class);
+
+  private final List<Class<?>> matchedList = new ArrayList<Class<?>>();
+
   private final List<Class<?>> embeddableList = new ArrayList<Class<?>>();
 
   private final List<Class<?>> entityList = new ArrayList<Class<?>>();
@@ -370,6 +382,13 @@ public class BootupClasses implements ClassPathSearchMatcher {
     return compoundTypeList;
   }
 
+  /**
+   * Return all the matched classes (entities, embeddables, listeners etc) in the order found.
+   */
+  public List<Class<?>> getMatchedClasses() {
+    return matchedList;
+  }
+
   public boolean isMatch(Class<?> cls) {
 
     if (isEmbeddable(cls)) {
@@ -378,13 +397,24 @@ public class BootupClasses implements ClassPathSearchMatcher {
     } else if (isEntity(cls)) {
       entityList.add(cls);
 
-    } else {
-      return isInterestingInterface(cls);
+    } else if (!isInterestingInterface(cls)) {
+      return false;
     }
 
+    matchedList.add(cls);
     return true;
   }
 
+  @Override
+  public List<Class<? extends Annotation>> getMatchAnnotations() {
+    return MATCH_ANNOTATIONS;
+  }
+
+  @Override
+  public List<Class<?>> getMatchInterfaces() {
+    return MATCH_INTERFACES;
+  }
+
   /**
    * Look for interesting interfaces.
    * <p>
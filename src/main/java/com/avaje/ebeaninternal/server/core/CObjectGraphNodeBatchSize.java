@@ -0,0 +1,196 @@
+package com.avaje.ebeaninternal.server.core;
+
+import com.avaje.ebean.bean.ObjectGraphNode;
+import com.avaje.ebean.meta.MetaObjectGraphNodeBatchSize;
+import com.avaje.ebeaninternal.server.util.LongAdder;
+
+/**
+ * Adaptive lazy loading batch size for a given node.
+ * <p>
+ * Collects the number of beans registered into lazy loading buffers and the number of those beans
+ * that were loaded when a buffer was lazy loaded. Assuming beans are accessed independently, the
+ * fraction of loaded beans for a batch size gives an estimate of the fraction of beans actually used.
+ * </p>
+ * <p>
+ * When most beans are used the batch size is increased (fewer lazy loading queries). When the
+ * estimated used beans are only a small part of the beans loaded the batch size is decreased
+ * (fewer rows loaded that are not used).
+ * </p>
+ */
+public class CObjectGraphNodeBatchSize {
+
+  /**
+   * The number of buffers worth of beans observed before re-evaluating the batch size.
+   */
+  private static final int SAMPLE_BUFFERS = 10;
+
+  /**
+   * Increase the batch size when the estimated usage is at least this.
+   */
+  private static final double GROW_USAGE = 0.75d;
+
+  /**
+   * Decrease the batch size when less than this fraction of the loaded beans are used.
+   */
+  private static final double SHRINK_EFFICIENCY = 0.5d;
+
+  private final ObjectGraphNode node;
+
+  private final int minBatchSize;
+
+  private final int maxBatchSize;
+
+  private final LongAdder registered = new LongAdder();
+
+  private final LongAdder loaded = new LongAdder();
+
+  private volatile int batchSize;
+
+  private volatile double usage = 1d;
+
+  private long totalRegistered;
+
+  private long totalLoaded;
+
+  private long adjustCount;
+
+  public CObjectGraphNodeBatchSize(ObjectGraphNode node, int batchSize, int minBatchSize, int maxBatchSize) {
+    this.node = node;
+    this.minBatchSize = Math.max(1, minBatchSize);
+    this.maxBatchSize = Math.max(this.minBatchSize, maxBatchSize);
+    this.batchSize = Math.min(this.maxBatchSize, Math.max(this.minBatchSize, batchSize));
+  }
+
+  /**
+   * Return the batch size to use for lazy loading at this node.
+   */
+  public int getBatchSize() {
+    return batchSize;
+  }
+
+  /**
+   * A bean has been registered into a lazy loading buffer.
+   */
+  public void register() {
+    registered.increment();
+  }
+
+  /**
+   * A buffer with the given number of beans has been lazy loaded.
+   */
+  public void loaded(int beanCount) {
+    loaded.add(beanCount);
+    checkBatchSize();
+  }
+
+  /**
+   * Re-evaluate the batch size if enough beans have been registered since the last evaluation.
+   */
+  public void checkBatchSize() {
+    if (registered.sum() >= sampleSize()) {
+      evaluate();
+    }
+  }
+
+  private long sampleSize() {
+    return (long) batchSize * SAMPLE_BUFFERS;
+  }
+
+  private synchronized void evaluate() {
+
+    long registeredCount = registered.sum();
+    if (registeredCount < sampleSize()) {
+      // another thread already evaluated
+      return;
+    }
+    long loadedCount = loaded.sum();
+    // subtract rather than reset to keep concurrent increments
+    registered.add(-registeredCount);
+    loaded.add(-loadedCount);
+    totalRegistered += registeredCount;
+    totalLoaded += loadedCount;
+
+    if (loadedCount == 0) {
+      // no lazy loading occurred so leave the batch size as is
+      return;
+    }
+
+    double loadedRatio = Math.min(1d, (double) loadedCount / registeredCount);
+    // loadedRatio = 1 - (1 - usage)^batchSize so estimate usage from that
+    usage = 1d - Math.pow(1d - loadedRatio, 1d / batchSize);
+
+    int newBatchSize = batchSize;
+    if (usage >= GROW_USAGE) {
+      newBatchSize = Math.min(maxBatchSize, batchSize * 2);
+    } else if (usage / loadedRatio < SHRINK_EFFICIENCY) {
+      newBatchSize = Math.max(minBatchSize, batchSize / 2);
+    }
+    if (newBatchSize != batchSize) {
+      adjustCount++;
+      batchSize = newBatchSize;
+    }
+  }
+
+  /**
+   * Return a snapshot of the current batch size and usage.
+   */
+  public synchronized MetaObjectGraphNodeBatchSize get() {
+    long reg = totalRegistered + registered.sum();
+    long load = totalLoaded + loaded.sum();
+    return new Snapshot(node, batchSize, reg, load, usage, adjustCount);
+  }
+
+  private static class Snapshot implements MetaObjectGraphNodeBatchSize {
+
+    private final ObjectGraphNode node;
+    private final int batchSize;
+    private final long registeredCount;
+    private final long loadedCount;
+    private final double usage;
+    private final long adjustCount;
+
+    public Snapshot(ObjectGraphNode node, int batchSize, long registeredCount, long loadedCount, double usage, long adjustCount) {
+      this.node = node;
+      this.batchSize = batchSize;
+      this.registeredCount = registeredCount;
+      this.loadedCount = loadedCount;
+      this.usage = usage;
+      this.adjustCount = adjustCount;
+    }
+
+    public String toString() {
+      return node + " batchSize[" + batchSize + "] registered[" + registeredCount + "] loaded[" + loadedCount
+          + "] usage[" + usage + "] adjust[" + adjustCount + "]";
+    }
+
+    @Override
+    public ObjectGraphNode getNode() {
+      return node;
+    }
+
+    @Override
+    public int getBatchSize() {
+      return batchSize;
+    }
+
+    @Override
+    public long getRegisteredCount() {
+      return registeredCount;
+    }
+
+    @Override
+    public long getLoadedCount() {
+      return loadedCount;
+    }
+
+    @Override
+    public double getUsage() {
+      return usage;
+    }
+
+    @Override
+    public long getAdjustCount() {
+      return adjustCount;
+    }
+  }
+}
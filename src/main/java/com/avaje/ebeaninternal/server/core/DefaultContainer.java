@@ -226,7 +226,13 @@ public class DefaultContainer implements SpiContainer {
       return new BootupClasses(serverConfig.getClasses());
     }
 
-    BootupClassPathSearch search = new BootupClassPathSearch(null, serverConfig.getPackages(), serverConfig.getJars(), serverConfig.getClassPathReaderClassName());
+    BootupClasses indexed = DeployIndex.read(null, serverConfig);
+    if (indexed != null) {
+      // use the build time generated index rather than searching
+      return indexed;
+    }
+
+    BootupClassPathSearch search = new BootupClassPathSearch(null, serverConfig);
     return search.getBootupClasses();
   }
 
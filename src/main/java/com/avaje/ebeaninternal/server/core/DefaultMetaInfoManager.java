@@ -4,9 +4,15 @@ import java.util.ArrayList;
 import java.util.List;
 
 import com.avaje.ebean.meta.MetaBeanInfo;
+import com.avaje.ebean.meta.MetaDocStoreUpdates;
 import com.avaje.ebean.meta.MetaQueryPlanStatistic;
 import com.avaje.ebean.meta.MetaInfoManager;
+import com.avaje.ebean.meta.MetaObjectGraphNodeBatchSize;
 import com.avaje.ebean.meta.MetaObjectGraphNodeStats;
+import com.avaje.ebean.meta.MetaQueryPlanMemory;
+import com.avaje.ebean.meta.MetaSlowQuery;
+import com.avaje.ebean.meta.MetaUpdatePlanStatistic;
+import com.avaje.ebeanservice.docstore.api.DocStoreUpdateProcessor;
 
 /**
  * DefaultServer based implementation of MetaInfoManager.
@@ -55,5 +61,61 @@ public class DefaultMetaInfoManager implements MetaInfoManager {
     }
     return list;
   }
-  
+
+  @Override
+  public List<MetaObjectGraphNodeBatchSize> collectNodeBatchSizes() {
+
+    List<MetaObjectGraphNodeBatchSize> list = new ArrayList<MetaObjectGraphNodeBatchSize>();
+    for (CObjectGraphNodeBatchSize nodeBatchSize : server.objectGraphBatchSize.values()) {
+      list.add(nodeBatchSize.get());
+    }
+    return list;
+  }
+
+  @Override
+  public List<MetaUpdatePlanStatistic> collectUpdatePlanStatistics(boolean reset) {
+
+    List<MetaUpdatePlanStatistic> list = new ArrayList<MetaUpdatePlanStatistic>();
+    for (MetaBeanInfo metaBeanInfo : getMetaBeanInfoList()) {
+      MetaUpdatePlanStatistic statistic = metaBeanInfo.getUpdatePlanStatistic(reset);
+      if (statistic.getSize() > 0 || statistic.getMissCount() > 0) {
+        list.add(statistic);
+      }
+    }
+    return list;
+  }
+
+  @Override
+  public List<MetaQueryPlanMemory> collectQueryPlanMemory() {
+
+    List<MetaQueryPlanMemory> list = new ArrayList<MetaQueryPlanMemory>();
+    for (MetaBeanInfo metaBeanInfo : getMetaBeanInfoList()) {
+      MetaQueryPlanMemory memory = metaBeanInfo.getQueryPlanMemory();
+      if (memory.getPlanCount() > 0) {
+        list.add(memory);
+      }
+    }
+    return list;
+  }
+
+  @Override
+  public List<MetaSlowQuery> collectSlowQueries(boolean clear) {
+    return server.getSlowQueryRecorder().getSlowQueries(clear);
+  }
+
+  @Override
+  public void setSlowQueryThreshold(long millis) {
+    server.getSlowQueryRecorder().setThreshold(millis);
+  }
+
+  @Override
+  public void setSlowQueryThreshold(String queryPlanHash, long millis) {
+    server.getSlowQueryRecorder().setThreshold(queryPlanHash, millis);
+  }
+
+  @Override
+  public MetaDocStoreUpdates getDocStoreUpdates() {
+    DocStoreUpdateProcessor processor = server.getDocStoreUpdateProcessor();
+    return (processor instanceof MetaDocStoreUpdates) ? (MetaDocStoreUpdates) processor : null;
+  }
 }
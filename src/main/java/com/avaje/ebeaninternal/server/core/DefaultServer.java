@@ -8,6 +8,7 @@ import com.avaje.ebean.bean.EntityBeanIntercept;
 import com.avaje.ebean.bean.ObjectGraphNode;
 import com.avaje.ebean.bean.PersistenceContext;
 import com.avaje.ebean.bean.PersistenceContext.WithOption;
+import com.avaje.ebean.common.BeanList;
 import com.avaje.ebean.cache.ServerCacheManager;
 import com.avaje.ebean.config.DbMigrationConfig;
 import com.avaje.ebean.config.EncryptKeyManager;
@@ -30,6 +31,8 @@ import com.avaje.ebeaninternal.api.ScopedTransaction;
 import com.avaje.ebeaninternal.api.SpiBackgroundExecutor;
 import com.avaje.ebeaninternal.api.SpiEbeanPlugin;
 import com.avaje.ebeaninternal.api.SpiEbeanServer;
+import com.avaje.ebeaninternal.api.SpiExpression;
+import com.avaje.ebeaninternal.api.SpiExpressionList;
 import com.avaje.ebeaninternal.api.SpiQuery;
 import com.avaje.ebeaninternal.api.SpiQuery.Type;
 import com.avaje.ebeaninternal.api.SpiSqlQuery;
@@ -44,6 +47,7 @@ import com.avaje.ebeaninternal.server.deploy.DeployNamedQuery;
 import com.avaje.ebeaninternal.server.deploy.DeployNamedUpdate;
 import com.avaje.ebeaninternal.server.deploy.InheritInfo;
 import com.avaje.ebeaninternal.server.el.ElFilter;
+import com.avaje.ebeaninternal.server.expression.IdInExpression;
 import com.avaje.ebeaninternal.server.lib.ShutdownManager;
 import com.avaje.ebeaninternal.server.query.CQuery;
 import com.avaje.ebeaninternal.server.query.CQueryEngine;
@@ -51,11 +55,14 @@ import com.avaje.ebeaninternal.server.query.CallableQueryIds;
 import com.avaje.ebeaninternal.server.query.CallableQueryList;
 import com.avaje.ebeaninternal.server.query.CallableQueryRowCount;
 import com.avaje.ebeaninternal.server.query.CallableSqlQueryList;
+import com.avaje.ebeaninternal.server.query.LimitKeysetPagedList;
 import com.avaje.ebeaninternal.server.query.LimitOffsetPagedList;
+import com.avaje.ebeaninternal.server.query.ParallelFindEach;
 import com.avaje.ebeaninternal.server.query.QueryFutureIds;
 import com.avaje.ebeaninternal.server.query.QueryFutureList;
 import com.avaje.ebeaninternal.server.query.QueryFutureRowCount;
 import com.avaje.ebeaninternal.server.query.SqlQueryFutureList;
+import com.avaje.ebeaninternal.server.query.SlowQueryRecorder;
 import com.avaje.ebeaninternal.server.querydefn.DefaultOrmQuery;
 import com.avaje.ebeaninternal.server.querydefn.DefaultOrmUpdate;
 import com.avaje.ebeaninternal.server.querydefn.DefaultRelationalQuery;
@@ -67,6 +74,7 @@ import com.avaje.ebeaninternal.server.transaction.TransactionScopeManager;
 import com.avaje.ebeaninternal.util.ParamTypeHelper;
 import com.avaje.ebeaninternal.util.ParamTypeHelper.TypeInfo;
 import com.avaje.ebeanservice.docstore.api.DocStoreIntegration;
+import com.avaje.ebeanservice.docstore.api.DocStoreUpdateProcessor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -77,7 +85,9 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.ServiceLoader;
@@ -155,6 +165,8 @@ public final class DefaultServer implements SpiServer, SpiEbeanServer {
 
   private final DocumentStore documentStore;
 
+  private final DocStoreUpdateProcessor docStoreUpdateProcessor;
+
   private final MetaInfoManager metaInfoManager;
   
   /**
@@ -193,6 +205,22 @@ public final class DefaultServer implements SpiServer, SpiEbeanServer {
    */
   protected final ConcurrentHashMap<ObjectGraphNode, CObjectGraphNodeStatistics> objectGraphStats;
 
+  private final boolean lazyLoadBatchSizeAdaptive;
+
+  private final int lazyLoadBatchSizeMin;
+
+  private final int lazyLoadBatchSizeMax;
+
+  /**
+   * Adaptive lazy loading batch sizes by ObjectGraphNode.
+   */
+  protected final ConcurrentHashMap<ObjectGraphNode, CObjectGraphNodeBatchSize> objectGraphBatchSize;
+
+  /**
+   * Recorder of the recent slow query executions.
+   */
+  private final SlowQueryRecorder slowQueryRecorder;
+
   /**
    * Create the DefaultServer.
    */
@@ -200,14 +228,19 @@ public final class DefaultServer implements SpiServer, SpiEbeanServer {
 
     this.serverConfig = config.getServerConfig();
     this.objectGraphStats = new ConcurrentHashMap<ObjectGraphNode, CObjectGraphNodeStatistics>();
+    this.objectGraphBatchSize = new ConcurrentHashMap<ObjectGraphNode, CObjectGraphNodeBatchSize>();
     this.metaInfoManager = new DefaultMetaInfoManager(this);
     this.serverCacheManager = cache;
     this.databasePlatform = config.getDatabasePlatform();
     this.backgroundExecutor = config.getBackgroundExecutor();
+    this.slowQueryRecorder = new SlowQueryRecorder(this, serverConfig);
 
     this.serverName = serverConfig.getName();
     this.lazyLoadBatchSize = serverConfig.getLazyLoadBatchSize();
     this.queryBatchSize = serverConfig.getQueryBatchSize();
+    this.lazyLoadBatchSizeAdaptive = serverConfig.isLazyLoadBatchSizeAdaptive();
+    this.lazyLoadBatchSizeMin = serverConfig.getLazyLoadBatchSizeMin();
+    this.lazyLoadBatchSizeMax = serverConfig.getLazyLoadBatchSizeMax();
     this.cqueryEngine = config.getCQueryEngine();
     this.expressionFactory = config.getExpressionFactory();
     this.encryptKeyManager = serverConfig.getEncryptKeyManager();
@@ -235,7 +268,8 @@ public final class DefaultServer implements SpiServer, SpiEbeanServer {
     this.jsonContext = config.createJsonContext(this);
 
     DocStoreIntegration docStoreComponents = config.createDocStoreIntegration(this);
-    this.transactionManager = config.createTransactionManager(docStoreComponents.updateProcessor());
+    this.docStoreUpdateProcessor = config.createDocStoreUpdateProcessor(this, docStoreComponents.updateProcessor());
+    this.transactionManager = config.createTransactionManager(docStoreUpdateProcessor);
     this.transactionScopeManager = config.createTransactionScopeManager(transactionManager);
     this.documentStore = docStoreComponents.documentStore();
 
@@ -299,6 +333,11 @@ public final class DefaultServer implements SpiServer, SpiEbeanServer {
     return collectQueryOrigins;
   }
 
+  @Override
+  public SlowQueryRecorder getSlowQueryRecorder() {
+    return slowQueryRecorder;
+  }
+
   @Override
   public boolean isUpdateAllPropertiesInBatch() {
     return updateAllPropertiesInBatch;
@@ -1348,6 +1387,12 @@ public final class DefaultServer implements SpiServer, SpiEbeanServer {
     return new LimitOffsetPagedList<T>(this, spiQuery);
   }
 
+  @Override
+  public <T> KeysetPagedList<T> findKeysetPagedList(Query<T> query, Transaction transaction, Object[] afterValues, int pageSize) {
+
+    return new LimitKeysetPagedList<T>(this, (SpiQuery<T>) query, afterValues, pageSize);
+  }
+
   public <T> void findEach(Query<T> query, QueryEachConsumer<T> consumer, Transaction t) {
 
     SpiOrmQueryRequest<T> request = createQueryRequest(Type.ITERATE, query, t);
@@ -1366,6 +1411,11 @@ public final class DefaultServer implements SpiServer, SpiEbeanServer {
     // no try finally - findVisit guarantee's cleanup of the transaction if required
   }
 
+  public <T> void findEachParallel(Query<T> query, ParallelConfig config, QueryEachConsumer<T> consumer) {
+
+    new ParallelFindEach<T>(this, (SpiQuery<T>) query, config, consumer).execute();
+  }
+
   public <T> QueryIterator<T> findIterate(Query<T> query, Transaction t) {
 
     SpiOrmQueryRequest<T> request = createQueryRequest(Type.ITERATE, query, t);
@@ -1396,6 +1446,129 @@ public final class DefaultServer implements SpiServer, SpiEbeanServer {
   @SuppressWarnings("unchecked")
   public <T> List<T> findList(Query<T> query, Transaction t) {
 
+    List<Object> cacheIds = beanCacheIds((SpiQuery<T>) query);
+    if (cacheIds != null) {
+      return findListWithBeanCache((SpiQuery<T>) query, cacheIds, t);
+    }
+    return findListInternal(query, t);
+  }
+
+  /**
+   * Return the ids of an idIn query that can be resolved against the bean cache (otherwise null).
+   * <p>
+   * This is a query with only an idIn predicate, no order by, max rows, joins or other options
+   * that the beans held in the bean cache do not reflect. Bean types with a BeanQueryAdapter
+   * (that can add predicates) or a BeanFindController (that replaces the query) are excluded.
+   * </p>
+   */
+  @SuppressWarnings("unchecked")
+  private <T> List<Object> beanCacheIds(SpiQuery<T> query) {
+
+    if (query.getId() != null || query.isUseQueryCache() || query.isLoadBeanCache() || query.isUseDocStore()
+        || query.isRawSql() || query.isSqlSelect() || query.isForUpdate() || query.isDistinct()
+        || query.hasMaxRowsOrFirstRow() || query.isIncludeSoftDeletes()
+        || !SpiQuery.Mode.NORMAL.equals(query.getMode())
+        || !SpiQuery.TemporalMode.CURRENT.equals(query.getTemporalMode())) {
+      return null;
+    }
+    OrderBy<T> orderBy = query.getOrderBy();
+    if (orderBy != null && !orderBy.isEmpty()) {
+      return null;
+    }
+    SpiExpressionList<T> having = query.getHavingExpressions();
+    if ((having != null && !having.isEmpty()) || !query.getDetail().isJoinsEmpty()) {
+      return null;
+    }
+    SpiExpressionList<T> where = query.getWhereExpressions();
+    if (where == null) {
+      return null;
+    }
+    List<SpiExpression> whereList = where.getUnderlyingList();
+    if (whereList.size() != 1 || !(whereList.get(0) instanceof IdInExpression)) {
+      return null;
+    }
+    BeanDescriptor<T> desc = query.getBeanDescriptor();
+    if (desc.isSoftDelete() || desc.getQueryAdapter() != null || desc.getFindController() != null
+        || !desc.calculateUseCache(query.isUseBeanCache())) {
+      return null;
+    }
+    return (List<Object>) ((IdInExpression) whereList.get(0)).getIdList();
+  }
+
+  /**
+   * Execute an idIn query getting the beans that are in the bean cache from the cache and
+   * only the missing ones from the database. The result is in the order of the ids.
+   */
+  private <T> List<T> findListWithBeanCache(SpiQuery<T> query, List<Object> ids, Transaction transaction) {
+
+    BeanDescriptor<T> desc = query.getBeanDescriptor();
+
+    SpiTransaction t = (SpiTransaction) transaction;
+    if (t == null) {
+      t = getCurrentServerTransaction();
+    }
+    PersistenceContext context = query.getPersistenceContext();
+    if (context == null) {
+      if (t != null && useTransactionPersistenceContext(query)) {
+        context = t.getPersistenceContext();
+      } else {
+        context = new DefaultPersistenceContext();
+      }
+    }
+
+    // convert the ids to the id type so that they match the cache keys and bean ids
+    Set<Object> idSet = new LinkedHashSet<Object>(ids.size());
+    for (Object id : ids) {
+      if (id != null) {
+        idSet.add(desc.convertId(id));
+      }
+    }
+    Map<Object, T> hits = desc.cacheBeanGetAll(idSet, query.isReadOnly(), context);
+    if (t != null && t.isLogSummary()) {
+      t.logSummary("BeanCache idIn " + desc.getName() + " hits[" + hits.size() + "] misses[" + (idSet.size() - hits.size()) + "]");
+    }
+    if (hits.isEmpty()) {
+      return findListInternal(query, transaction);
+    }
+
+    Map<Object, T> loaded = Collections.emptyMap();
+    if (hits.size() < idSet.size()) {
+      List<Object> missingIds = new ArrayList<Object>(idSet.size() - hits.size());
+      for (Object id : idSet) {
+        if (!hits.containsKey(id)) {
+          missingIds.add(id);
+        }
+      }
+      // query the missing ids only using the same persistence context
+      SpiQuery<T> missingQuery = query.copy();
+      missingQuery.getWhereExpressions().getUnderlyingList().set(0, new IdInExpression(missingIds));
+      missingQuery.setPersistenceContext(context);
+
+      List<T> list = findListInternal(missingQuery, transaction);
+      desc.cacheBeanPutAll(list);
+
+      loaded = new HashMap<Object, T>();
+      for (T bean : list) {
+        loaded.put(desc.getId((EntityBean) bean), bean);
+      }
+    }
+
+    List<T> result = new ArrayList<T>(idSet.size());
+    for (Object id : idSet) {
+      T bean = hits.get(id);
+      if (bean == null) {
+        bean = loaded.get(id);
+      }
+      if (bean != null) {
+        result.add(bean);
+      }
+    }
+    return new BeanList<T>(result);
+  }
+
+  @SuppressWarnings("unchecked")
+  private <T> List<T> findListInternal(Query<T> query, Transaction t) {
+
     SpiOrmQueryRequest<T> request = createQueryRequest(Type.LIST, query, t);
 
     Object result = request.getFromQueryCache();
@@ -1451,6 +1624,30 @@ public final class DefaultServer implements SpiServer, SpiEbeanServer {
     }
   }
 
+  public void findEach(SqlQuery query, QueryEachConsumer<SqlRow> consumer, Transaction t) {
+
+    RelationalQueryRequest request = new RelationalQueryRequest(this, relationalQueryEngine, query, t);
+    try {
+      request.initTransIfRequired();
+      request.findEach(consumer);
+
+    } finally {
+      request.endTransIfRequired();
+    }
+  }
+
+  public void findEachWhile(SqlQuery query, QueryEachWhileConsumer<SqlRow> consumer, Transaction t) {
+
+    RelationalQueryRequest request = new RelationalQueryRequest(this, relationalQueryEngine, query, t);
+    try {
+      request.initTransIfRequired();
+      request.findEachWhile(consumer);
+
+    } finally {
+      request.endTransIfRequired();
+    }
+  }
+
   public Set<SqlRow> findSet(SqlQuery query, Transaction t) {
 
     RelationalQueryRequest request = new RelationalQueryRequest(this, relationalQueryEngine, query, t);
@@ -1611,6 +1808,23 @@ public final class DefaultServer implements SpiServer, SpiEbeanServer {
     }
   }
 
+  @Override
+  public <T> int publishBulk(Query<T> query, Transaction transaction) {
+
+    TransWrapper wrap = initTransIfRequired(transaction);
+    try {
+      SpiTransaction trans = wrap.transaction;
+      int count = persister.publishBulk(query, trans);
+      wrap.commitIfCreated();
+
+      return count;
+
+    } catch (RuntimeException e) {
+      wrap.rollbackIfCreated();
+      throw e;
+    }
+  }
+
   @Override
   public <T> T publish(Class<T> beanType, Object id) {
     return publish(beanType, id, null);
@@ -2136,6 +2350,13 @@ public final class DefaultServer implements SpiServer, SpiEbeanServer {
     return documentStore;
   }
 
+  /**
+   * Return the document store update processor (which may be the coalescing pipeline).
+   */
+  public DocStoreUpdateProcessor getDocStoreUpdateProcessor() {
+    return docStoreUpdateProcessor;
+  }
+
   @Override
   public JsonContext json() {
     // immutable thread safe so return shared instance
@@ -2156,5 +2377,22 @@ public final class DefaultServer implements SpiServer, SpiEbeanServer {
       nodeStatistics.add(loadedBeanCount, timeMicros);
     }
   }
-  
+
+  @Override
+  public CObjectGraphNodeBatchSize getAdaptiveBatchSize(ObjectGraphNode node, int defaultBatchSize) {
+
+    if (!lazyLoadBatchSizeAdaptive || node == null || node.getOriginQueryPoint() == null) {
+      return null;
+    }
+    CObjectGraphNodeBatchSize nodeBatchSize = objectGraphBatchSize.get(node);
+    if (nodeBatchSize == null) {
+      nodeBatchSize = new CObjectGraphNodeBatchSize(node, defaultBatchSize, lazyLoadBatchSizeMin, lazyLoadBatchSizeMax);
+      CObjectGraphNodeBatchSize existing = objectGraphBatchSize.putIfAbsent(node, nodeBatchSize);
+      if (existing != null) {
+        return existing;
+      }
+    }
+    return nodeBatchSize;
+  }
+
 }
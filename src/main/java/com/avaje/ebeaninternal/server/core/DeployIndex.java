@@ -0,0 +1,189 @@
+package com.avaje.ebeaninternal.server.core;
+
+import com.avaje.ebean.config.ServerConfig;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Build time generated index of the classes found by class path search.
+ * <p>
+ * The index lists the entities, embeddables, listeners, ScalarTypes etc found by the class path
+ * search along with a checksum of the class files that were searched. The checksum covers the
+ * name and CRC of every class file in the searched packages and jars (not just the indexed
+ * classes) such that added, removed and changed classes are all detected.
+ * </p>
+ * <p>
+ * The index is only read when ServerConfig deployIndexResource is set. It is then used in place
+ * of the class path search as long as it was generated for the same packages and jars and the
+ * checksum matches. Otherwise the index is deemed stale and the class path search is used.
+ * </p>
+ * <p>
+ * The index saves parsing each class file for annotations but the checksum validation is not
+ * free. It lists the searched directories and jars and reads every class file that is in a
+ * directory to compute its CRC (the CRC of jar entries is read from the jar central directory).
+ * For classes in directories the saving over the class path search is small. The index only
+ * replaces the discovery of the classes and the deployment model (BeanDescriptors) is still
+ * built from the classes at startup.
+ * </p>
+ * <p>
+ * Generate the index as part of the build via {@link #main(String[])} or
+ * {@link #generate(ServerConfig, File)} from the same class files that are deployed (that is,
+ * after enhancement when enhancing at build time).
+ * </p>
+ */
+public class DeployIndex {
+
+  private static final Logger logger = LoggerFactory.getLogger(DeployIndex.class);
+
+  private static final String HEADER = "#ebean-deploy-index v2 ";
+
+  private static final String CHECKSUM = "#checksum ";
+
+  /**
+   * Generate the deployment index.
+   *
+   * @param args the output file followed by the packages to search
+   */
+  public static void main(String[] args) throws IOException {
+
+    if (args.length < 1) {
+      throw new IllegalArgumentException("Expected arguments <outputFile> [package ...]");
+    }
+    ServerConfig serverConfig = new ServerConfig();
+    serverConfig.setPackages(new ArrayList<String>(Arrays.asList(args).subList(1, args.length)));
+
+    File file = new File(args[0]);
+    File parent = file.getParentFile();
+    if (parent != null && !parent.exists() && !parent.mkdirs()) {
+      throw new IOException("Unable to create directory " + parent);
+    }
+    int count = generate(serverConfig, file);
+    logger.info("Generated deploy index {} with {} classes", file, count);
+  }
+
+  /**
+   * Search the class path (using the packages and jars of the serverConfig) and write the index
+   * to the given file returning the number of classes in the index.
+   */
+  public static int generate(ServerConfig serverConfig, File file) throws IOException {
+    return generate(null, serverConfig, file);
+  }
+
+  /**
+   * Search the class path of the class loader and write the index to the given file returning
+   * the number of classes in the index.
+   */
+  public static int generate(ClassLoader classLoader, ServerConfig serverConfig, File file) throws IOException {
+
+    BootupClassPathSearch search = new BootupClassPathSearch(classLoader, serverConfig);
+    String checksum = search.getClassPathChecksum();
+    if (checksum == null) {
+      throw new IOException("Class path checksum not supported by the ClassPathSearchService");
+    }
+    List<Class<?>> classes = search.getBootupClasses().getMatchedClasses();
+
+    Writer writer = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(file), "UTF-8"));
+    try {
+      writer.write(HEADER);
+      writer.write(criteria(serverConfig));
+      writer.write('\n');
+      writer.write(CHECKSUM);
+      writer.write(checksum);
+      writer.write('\n');
+      for (Class<?> cls : classes) {
+        writer.write(cls.getName());
+        writer.write('\n');
+      }
+    } finally {
+      writer.close();
+    }
+    return classes.size();
+  }
+
+  /**
+   * Return the BootupClasses from the index or null if there is no index or it is stale.
+   */
+  public static BootupClasses read(ClassLoader classLoader, ServerConfig serverConfig) {
+
+    String resource = serverConfig.getDeployIndexResource();
+    if (resource == null || resource.trim().isEmpty()) {
+      return null;
+    }
+    if (classLoader == null) {
+      classLoader = DeployIndex.class.getClassLoader();
+    }
+    InputStream is = classLoader.getResourceAsStream(resource);
+    if (is == null) {
+      return null;
+    }
+    try {
+      long st = System.currentTimeMillis();
+      List<Class<?>> classes = read(classLoader, is, serverConfig);
+      if (classes == null) {
+        return null;
+      }
+      long exeTime = System.currentTimeMillis() - st;
+      logger.info("Using deploy index {} with {} classes in [{}]", resource, classes.size(), exeTime);
+      return new BootupClasses(classes);
+
+    } catch (IOException e) {
+      logger.warn("Error reading deploy index " + resource + " - using class path search", e);
+      return null;
+    }
+  }
+
+  private static List<Class<?>> read(ClassLoader classLoader, InputStream is, ServerConfig serverConfig) throws IOException {
+
+    BufferedReader reader = new BufferedReader(new InputStreamReader(is, "UTF-8"));
+    try {
+      String header = reader.readLine();
+      if (header == null || !header.equals(HEADER + criteria(serverConfig))) {
+        logger.debug("Deploy index generated for different packages/jars - using class path search");
+        return null;
+      }
+      String checksum = reader.readLine();
+      String current = new BootupClassPathSearch(classLoader, serverConfig).getClassPathChecksum();
+      if (checksum == null || current == null || !checksum.equals(CHECKSUM + current)) {
+        logger.info("Deploy index is stale, classes have changed - using class path search");
+        return null;
+      }
+      List<Class<?>> classes = new ArrayList<Class<?>>();
+      String className;
+      while ((className = reader.readLine()) != null) {
+        if (className.isEmpty()) {
+          continue;
+        }
+        try {
+          classes.add(Class.forName(className, false, classLoader));
+        } catch (ClassNotFoundException e) {
+          logger.info("Deploy index is stale, class {} not found - using class path search", className);
+          return null;
+        }
+      }
+      return classes;
+
+    } finally {
+      reader.close();
+    }
+  }
+
+  /**
+   * The packages and jars searched (the index is only valid for the same search).
+   */
+  private static String criteria(ServerConfig serverConfig) {
+    return "packages:" + serverConfig.getPackages() + " jars:" + serverConfig.getJars();
+  }
+}
@@ -2,6 +2,7 @@ package com.avaje.ebeaninternal.server.core;
 
 import com.avaje.ebean.ExpressionFactory;
 import com.avaje.ebean.cache.ServerCacheManager;
+import com.avaje.ebean.config.DocStoreConfig;
 import com.avaje.ebean.config.ExternalTransactionManager;
 import com.avaje.ebean.config.ServerConfig;
 import com.avaje.ebean.config.dbplatform.DatabasePlatform;
@@ -50,6 +51,8 @@ import com.avaje.ebeaninternal.server.type.TypeManager;
 import com.avaje.ebeanservice.docstore.api.DocStoreFactory;
 import com.avaje.ebeanservice.docstore.api.DocStoreIntegration;
 import com.avaje.ebeanservice.docstore.api.DocStoreUpdateProcessor;
+import com.avaje.ebeanservice.docstore.api.support.DocStoreUpdatePipeline;
+import com.avaje.ebeanservice.docstore.memory.MemoryDocStoreFactory;
 import com.avaje.ebeanservice.docstore.none.NoneDocStoreFactory;
 import com.fasterxml.jackson.core.JsonFactory;
 import org.slf4j.Logger;
@@ -112,7 +115,7 @@ public class InternalConfiguration {
                                ServerCacheManager cacheManager, SpiBackgroundExecutor backgroundExecutor,
                                ServerConfig serverConfig, BootupClasses bootupClasses) {
 
-    this.docStoreFactory = initDocStoreFactory(serverConfig.service(DocStoreFactory.class));
+    this.docStoreFactory = initDocStoreFactory(serverConfig.service(DocStoreFactory.class), serverConfig.getDocStoreConfig());
     this.jsonFactory = serverConfig.getJsonFactory();
     this.xmlConfig = xmlConfig;
     this.clusterManager = clusterManager;
@@ -140,8 +143,11 @@ public class InternalConfiguration {
     this.cQueryEngine = new CQueryEngine(databasePlatform, binder, asOfTableMapping, serverConfig.getAsOfSysPeriod(), draftTableMap);
   }
 
-  private DocStoreFactory initDocStoreFactory(DocStoreFactory service) {
-    return service == null ? new NoneDocStoreFactory() : service;
+  private DocStoreFactory initDocStoreFactory(DocStoreFactory service, DocStoreConfig docStoreConfig) {
+    if (service != null) {
+      return service;
+    }
+    return docStoreConfig.isMemory() ? new MemoryDocStoreFactory() : new NoneDocStoreFactory();
   }
 
   /**
@@ -258,7 +264,7 @@ public class InternalConfiguration {
   }
 
   public RelationalQueryEngine createRelationalQueryEngine() {
-    return new DefaultRelationalQueryEngine(binder, serverConfig.getDatabaseBooleanTrue());
+    return new DefaultRelationalQueryEngine(binder, serverConfig.getDatabaseBooleanTrue(), serverConfig.getDatabasePlatform().getStreamingConfig());
   }
 
   public OrmQueryEngine createOrmQueryEngine() {
@@ -336,6 +342,17 @@ public class InternalConfiguration {
     return plugin(docStoreFactory.create(server));
   }
 
+  /**
+   * Return the DocStoreUpdateProcessor wrapped by the coalescing pipeline when configured.
+   */
+  public DocStoreUpdateProcessor createDocStoreUpdateProcessor(SpiServer server, DocStoreUpdateProcessor processor) {
+    DocStoreConfig docStoreConfig = serverConfig.getDocStoreConfig();
+    if (!docStoreConfig.isCoalesce()) {
+      return processor;
+    }
+    return plugin(new DocStoreUpdatePipeline(server, processor, docStoreConfig, backgroundExecutor));
+  }
+
   /**
    * Create the TransactionManager taking into account autoCommit mode.
    */
@@ -9,10 +9,12 @@ import com.avaje.ebean.event.BeanPersistController;
 import com.avaje.ebean.event.BeanPersistListener;
 import com.avaje.ebean.event.BeanPersistRequest;
 import com.avaje.ebean.event.changelog.BeanChange;
+import com.avaje.ebean.plugin.BeanType;
 import com.avaje.ebeaninternal.api.DerivedRelationshipData;
 import com.avaje.ebeaninternal.api.SpiEbeanServer;
 import com.avaje.ebeaninternal.api.SpiTransaction;
 import com.avaje.ebeaninternal.api.TransactionEvent;
+import com.avaje.ebeaninternal.api.TransactionEventIds;
 import com.avaje.ebeaninternal.server.deploy.BeanDescriptor;
 import com.avaje.ebeaninternal.server.deploy.BeanManager;
 import com.avaje.ebeaninternal.server.deploy.BeanProperty;
@@ -316,6 +318,14 @@ public final class PersistRequestBean<T> extends PersistRequest implements BeanP
     return beanPersistListener != null;
   }
 
+  /**
+   * Return true if only the L2 cache is interested in this request (no BeanPersistListener or
+   * document store update) such that the transaction event can hold just the id value.
+   */
+  public boolean isNotifyCacheOnly() {
+    return notifyCache && beanPersistListener == null && !isDocStoreNotify();
+  }
+
   /**
    * Notify/Update the local L2 cache after the transaction has successfully committed.
    */
@@ -338,6 +348,24 @@ public final class PersistRequestBean<T> extends PersistRequest implements BeanP
     }
   }
 
+  @Override
+  public BeanType<?> getBeanType() {
+    return beanDescriptor;
+  }
+
+  @Override
+  public Object getDocId() {
+    return idValue;
+  }
+
+  /**
+   * Return true for an update (which updates the changed properties of the document).
+   */
+  @Override
+  public boolean isPartial() {
+    return type == Type.UPDATE;
+  }
+
   /**
    * Process the persist request updating the document store.
    */
@@ -382,6 +410,14 @@ public final class PersistRequestBean<T> extends PersistRequest implements BeanP
     beanPersistMap.add(beanDescriptor, type, idValue);
   }
 
+  /**
+   * Add the id value of this request to the compact form of the transaction event.
+   */
+  public void addToEventIds(TransactionEventIds eventIds) {
+
+    eventIds.add(beanDescriptor, type, idValue);
+  }
+
   public void notifyLocalPersistListener() {
     if (beanPersistListener != null) {
       switch (type) {
@@ -941,8 +977,10 @@ public final class PersistRequestBean<T> extends PersistRequest implements BeanP
       // use the setting explicitly set on the transaction
       requestUpdateAllLoadedProps = txnUpdateAll;
     } else {
-      // if using batch use the server default setting
-      requestUpdateAllLoadedProps = isBatchThisRequest() && ebeanServer.isUpdateAllPropertiesInBatch();
+      // if using batch use the server default setting or widen the update
+      // when there are too many distinct update plans for this bean type
+      requestUpdateAllLoadedProps = (isBatchThisRequest() && ebeanServer.isUpdateAllPropertiesInBatch())
+          || beanDescriptor.isUpdatePlanWidening();
     }
 
     return requestUpdateAllLoadedProps;
@@ -975,10 +1013,12 @@ public final class PersistRequestBean<T> extends PersistRequest implements BeanP
     }
 
     if (publish) {
-      hash = hash * 31;
+      // publish writes the full JSON content to the live table
+      return hash * 31;
     }
 
-    return hash;
+    // JSON properties updated by patching the changed keys
+    return beanDescriptor.jsonPatchHash(intercept, hash);
   }
 
   /**
@@ -93,6 +93,11 @@ public interface Persister {
    */
   <T> List<T> publish(Query<T> query, Transaction transaction);
 
+  /**
+   * Publish the draft beans matching the given query using set based statements where supported.
+   */
+  <T> int publishBulk(Query<T> query, Transaction transaction);
+
   /**
    * Restore the draft beans back to the matching live beans.
    */
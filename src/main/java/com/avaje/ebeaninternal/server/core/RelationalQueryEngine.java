@@ -1,5 +1,7 @@
 package com.avaje.ebeaninternal.server.core;
 
+import com.avaje.ebean.QueryEachWhileConsumer;
+import com.avaje.ebean.SqlRow;
 
 public interface RelationalQueryEngine {
 
@@ -8,4 +10,9 @@ public interface RelationalQueryEngine {
 	 */
 	Object findMany(RelationalQueryRequest request);
 
+	/**
+	 * Process each row of the relational query until the consumer returns false.
+	 */
+	void findEach(RelationalQueryRequest request, QueryEachWhileConsumer<SqlRow> consumer);
+
 }
\ No newline at end of file
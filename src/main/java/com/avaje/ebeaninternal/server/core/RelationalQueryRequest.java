@@ -5,6 +5,8 @@ import java.util.Map;
 import java.util.Set;
 
 import com.avaje.ebean.EbeanServer;
+import com.avaje.ebean.QueryEachConsumer;
+import com.avaje.ebean.QueryEachWhileConsumer;
 import com.avaje.ebean.SqlQuery;
 import com.avaje.ebean.SqlRow;
 import com.avaje.ebean.Transaction;
@@ -81,6 +83,27 @@ public final class RelationalQueryRequest {
         return (Map<?, SqlRow>) queryEngine.findMany(this);
     }
 
+    /**
+     * Process each row of the query.
+     */
+    public void findEach(final QueryEachConsumer<SqlRow> consumer) {
+        findEachWhile(new QueryEachWhileConsumer<SqlRow>() {
+            @Override
+            public boolean accept(SqlRow row) {
+                consumer.accept(row);
+                return true;
+            }
+        });
+    }
+
+    /**
+     * Process each row of the query until the consumer returns false.
+     */
+    public void findEachWhile(QueryEachWhileConsumer<SqlRow> consumer) {
+        queryType = SpiQuery.Type.ITERATE;
+        queryEngine.findEach(this, consumer);
+    }
+
     /**
      * Return the find that is to be performed.
      */
@@ -28,7 +28,9 @@ import com.avaje.ebean.event.readaudit.ReadAuditLogger;
 import com.avaje.ebean.event.readaudit.ReadAuditPrepare;
 import com.avaje.ebean.event.readaudit.ReadEvent;
 import com.avaje.ebean.meta.MetaBeanInfo;
+import com.avaje.ebean.meta.MetaQueryPlanMemory;
 import com.avaje.ebean.meta.MetaQueryPlanStatistic;
+import com.avaje.ebean.meta.MetaUpdatePlanStatistic;
 import com.avaje.ebean.plugin.BeanDocType;
 import com.avaje.ebean.plugin.BeanType;
 import com.avaje.ebean.plugin.ExpressionPath;
@@ -57,6 +59,7 @@ import com.avaje.ebeaninternal.server.el.ElComparatorProperty;
 import com.avaje.ebeaninternal.server.el.ElPropertyChainBuilder;
 import com.avaje.ebeaninternal.server.el.ElPropertyDeploy;
 import com.avaje.ebeaninternal.server.el.ElPropertyValue;
+import com.avaje.ebeaninternal.server.expression.InBinding;
 import com.avaje.ebeaninternal.server.persist.DmlUtil;
 import com.avaje.ebeaninternal.server.query.CQueryPlan;
 import com.avaje.ebeaninternal.server.query.CQueryPlanStats.Snapshot;
@@ -77,6 +80,8 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import javax.persistence.PersistenceException;
+import java.io.DataInput;
+import java.io.DataOutput;
 import java.io.IOException;
 import java.lang.reflect.Modifier;
 import java.sql.SQLException;
@@ -87,6 +92,7 @@ import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 
 /**
@@ -96,10 +102,17 @@ public class BeanDescriptor<T> implements MetaBeanInfo, BeanType<T> {
 
   private static final Logger logger = LoggerFactory.getLogger(BeanDescriptor.class);
 
-  private final ConcurrentHashMap<Integer, SpiUpdatePlan> updatePlanCache = new ConcurrentHashMap<Integer, SpiUpdatePlan>();
+  private final UpdatePlanCache updatePlanCache;
+
+  /**
+   * SQL fragments and SqlTree structures shared by the query plans.
+   */
+  private final QueryPlanFragments queryPlanFragments;
 
   private final ConcurrentHashMap<CQueryPlanKey, CQueryPlan> queryPlanCache = new ConcurrentHashMap<CQueryPlanKey, CQueryPlan>();
 
+  private final int queryPlanCacheMaxSize;
+
   private final ConcurrentHashMap<String, ElPropertyValue> elCache = new ConcurrentHashMap<String, ElPropertyValue>();
 
   private final ConcurrentHashMap<String, ElPropertyDeploy> elDeployCache = new ConcurrentHashMap<String, ElPropertyDeploy>();
@@ -271,6 +284,11 @@ public class BeanDescriptor<T> implements MetaBeanInfo, BeanType<T> {
    */
   private final BeanProperty[] propertiesMutable;
 
+  /**
+   * JSON Map properties updated by patching the changed top level keys.
+   */
+  private final BeanProperty[] propertiesJsonPatch;
+
   
   private final BeanPropertyAssocOne<?> unidirectional;
 
@@ -412,6 +430,10 @@ public class BeanDescriptor<T> implements MetaBeanInfo, BeanType<T> {
     this.selectLastInsertedId = deploy.getSelectLastInsertedId();
     this.concurrencyMode = deploy.getConcurrencyMode();
     this.updateChangesOnly = deploy.isUpdateChangesOnly();
+    ServerConfig serverConfig = deploy.getServerConfig();
+    this.updatePlanCache = new UpdatePlanCache(beanType, serverConfig.getUpdatePlanCacheMaxSize(), serverConfig.getUpdatePlanWideningThreshold());
+    this.queryPlanFragments = new QueryPlanFragments(this, serverConfig.getQueryPlanFragmentsMaxSize());
+    this.queryPlanCacheMaxSize = serverConfig.getQueryPlanCacheMaxSize();
     this.compoundUniqueConstraints = deploy.getCompoundUniqueConstraints();
 
     this.readAuditing = deploy.isReadAuditing();
@@ -442,6 +464,7 @@ public class BeanDescriptor<T> implements MetaBeanInfo, BeanType<T> {
     this.propertiesEmbedded = listHelper.getEmbedded();
     this.propertiesLocal = listHelper.getLocal();
     this.propertiesMutable = listHelper.getMutable();
+    this.propertiesJsonPatch = listHelper.getJsonPatch();
     this.unidirectional = listHelper.getUnidirectional();
     this.propertiesOne = listHelper.getOnes();
     //this.propertiesOneExported = listHelper.getOneExported();
@@ -697,6 +720,18 @@ public class BeanDescriptor<T> implements MetaBeanInfo, BeanType<T> {
     docMapping = docStoreAdapter.createDocMapping();
   }
 
+  /**
+   * Build the set based cascade delete plans of the properties with cascade delete.
+   */
+  public void initialiseCascadeDeletePlans() {
+    for (BeanPropertyAssocOne<?> one : propertiesOneExportedDelete()) {
+      one.initialiseCascadeDeletePlan();
+    }
+    for (BeanPropertyAssocMany<?> many : propertiesManyDelete()) {
+      many.initialiseCascadeDeletePlan();
+    }
+  }
+
   public void initInheritInfo() {
     if (inheritInfo != null) {
       // need to check every BeanDescriptor in the inheritance hierarchy
@@ -723,6 +758,13 @@ public class BeanDescriptor<T> implements MetaBeanInfo, BeanType<T> {
     return ebeanServer.getReadAuditPrepare();
   }
 
+  /**
+   * Return true if changes to this bean type are included in the change log.
+   */
+  public boolean isChangeLog() {
+    return changeLogFilter != null;
+  }
+
   /**
    * Return true if this request should be included in the change log.
    */
@@ -799,14 +841,17 @@ public class BeanDescriptor<T> implements MetaBeanInfo, BeanType<T> {
    */
   private SqlUpdate deleteByIdList(List<Object> idList, boolean softDelete) {
 
+    // padded to a few distinct sizes for statement reuse
+    List<Object> bindIds = InBinding.pad(idList, ebeanServer.getDatabasePlatform().getMaxBindParameters());
+
     String baseSql = softDelete ? softDeleteByIdInSql : deleteByIdInSql;
     StringBuilder sb = new StringBuilder(baseSql);
-    String inClause = idBinder.getIdInValueExprDelete(idList.size());
+    String inClause = idBinder.getIdInValueExprDelete(bindIds.size());
     sb.append(inClause);
 
     DefaultSqlUpdate delete = new DefaultSqlUpdate(sb.toString());
-    for (int i = 0; i < idList.size(); i++) {
-      idBinder.bindId(delete, idList.get(i));
+    for (int i = 0; i < bindIds.size(); i++) {
+      idBinder.bindId(delete, bindIds.get(i));
     }
     return delete;
   }
@@ -1036,6 +1081,13 @@ public class BeanDescriptor<T> implements MetaBeanInfo, BeanType<T> {
     cacheHelp.queryCacheClear();
   }
 
+  /**
+   * Clear the natural key cache.
+   */
+  public void cacheNaturalKeyClear() {
+    cacheHelp.naturalKeyCacheClear();
+  }
+
   /**
    * Get a query result from the query cache.
    */
@@ -1090,6 +1142,30 @@ public class BeanDescriptor<T> implements MetaBeanInfo, BeanType<T> {
     cacheHelp.beanLoadData(bean, data);
   }
 
+  /**
+   * Return true if the cache data of this bean type can be written in binary form.
+   * <p>
+   * The binary form is not yet used by the bean cache or cluster messages.
+   * </p>
+   */
+  public boolean isCacheDataBinary() {
+    return cacheHelp.isDataBinary();
+  }
+
+  /**
+   * Write the raw cache data in binary form.
+   */
+  public void cacheBeanWriteData(DataOutput dataOutput, CachedBeanData data) throws IOException {
+    cacheHelp.beanWriteData(dataOutput, data);
+  }
+
+  /**
+   * Read the raw cache data from binary form.
+   */
+  public CachedBeanData cacheBeanReadData(DataInput dataInput) throws IOException {
+    return cacheHelp.beanReadData(dataInput);
+  }
+
   /**
    * Put a bean into the bean cache.
    */
@@ -1104,6 +1180,20 @@ public class BeanDescriptor<T> implements MetaBeanInfo, BeanType<T> {
     return cacheHelp.beanCacheGet(query, context);
   }
 
+  /**
+   * Return the beans from the bean cache for the given ids (keyed by id, only the beans found).
+   */
+  public Map<Object, T> cacheBeanGetAll(Set<Object> ids, Boolean readOnly, PersistenceContext context) {
+    return cacheHelp.beanCacheGetAll(ids, readOnly, context);
+  }
+
+  /**
+   * Put the beans into the bean cache.
+   */
+  public void cacheBeanPutAll(Collection<?> beans) {
+    cacheHelp.beanCachePutAll(beans);
+  }
+
   /**
    * Remove a bean from the cache given its Id.
    */
@@ -1127,6 +1217,13 @@ public class BeanDescriptor<T> implements MetaBeanInfo, BeanType<T> {
     return cacheBeanLoad(bean, ebi, id);
   }
 
+  /**
+   * Load the beans of the batch from the bean cache removing and returning the ones loaded.
+   */
+  public Set<EntityBeanIntercept> cacheBeanLoadAll(List<EntityBeanIntercept> batch) {
+    return cacheHelp.beanCacheLoadAll(batch);
+  }
+
   /**
    * Try to hit the cache using the natural key.
    */
@@ -1282,9 +1379,32 @@ public class BeanDescriptor<T> implements MetaBeanInfo, BeanType<T> {
   }
 
   public void putQueryPlan(CQueryPlanKey key, CQueryPlan plan) {
+    if (queryPlanCacheMaxSize > 0 && queryPlanCache.size() >= queryPlanCacheMaxSize) {
+      clearQueryPlans();
+    }
     queryPlanCache.put(key, plan);
   }
 
+  /**
+   * Clear the cached query plans along with the fragments they share.
+   */
+  public void clearQueryPlans() {
+    queryPlanCache.clear();
+    queryPlanFragments.clear();
+  }
+
+  /**
+   * Return the SQL fragments and SqlTree structures shared by the query plans.
+   */
+  public QueryPlanFragments getQueryPlanFragments() {
+    return queryPlanFragments;
+  }
+
+  @Override
+  public MetaQueryPlanMemory getQueryPlanMemory() {
+    return queryPlanFragments.getMemory(queryPlanCache.values());
+  }
+
   /**
    * Get a UpdatePlan for a given hash.
    */
@@ -1299,6 +1419,18 @@ public class BeanDescriptor<T> implements MetaBeanInfo, BeanType<T> {
     updatePlanCache.put(key, plan);
   }
 
+  /**
+   * Return true if updates are widened to include all loaded properties (due to the number of distinct update plans).
+   */
+  public boolean isUpdatePlanWidening() {
+    return updatePlanCache.isWidening();
+  }
+
+  @Override
+  public MetaUpdatePlanStatistic getUpdatePlanStatistic(boolean reset) {
+    return updatePlanCache.getStatistic(reset);
+  }
+
   /**
    * Return true if updates should only include changed properties. Otherwise
    * all loaded properties are included in the update.
@@ -2423,6 +2555,20 @@ public class BeanDescriptor<T> implements MetaBeanInfo, BeanType<T> {
     }
   }
   
+  /**
+   * Return the update plan hash adjusted for JSON Map properties that are updated by patching
+   * the changed top level keys (rather than writing the full document).
+   */
+  public int jsonPatchHash(EntityBeanIntercept ebi, int hash) {
+    for (int i = 0; i < propertiesJsonPatch.length; i++) {
+      BeanProperty prop = propertiesJsonPatch[i];
+      if (prop.isJsonPatchValue(prop.getValue(ebi.getOwner()))) {
+        hash = hash * 31 + prop.getPropertyIndex() + 1;
+      }
+    }
+    return hash;
+  }
+
   public ConcurrencyMode getConcurrencyMode(EntityBeanIntercept ebi) {
     
     if (!hasVersionProperty(ebi)) {
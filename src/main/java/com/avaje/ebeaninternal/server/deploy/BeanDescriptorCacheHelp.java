@@ -1,8 +1,15 @@
 package com.avaje.ebeaninternal.server.deploy;
 
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -19,6 +26,7 @@ import com.avaje.ebeaninternal.api.SpiQuery;
 import com.avaje.ebeaninternal.api.SpiTransaction;
 import com.avaje.ebeaninternal.api.TransactionEventTable.TableIUD;
 import com.avaje.ebeaninternal.server.cache.CachedBeanData;
+import com.avaje.ebeaninternal.server.cache.CachedBeanDataCodec;
 import com.avaje.ebeaninternal.server.cache.CachedBeanDataFromBean;
 import com.avaje.ebeaninternal.server.cache.CachedBeanDataToBean;
 import com.avaje.ebeaninternal.server.cache.CachedBeanDataUpdate;
@@ -62,6 +70,8 @@ public final class BeanDescriptorCacheHelp<T> {
   private ServerCache naturalKeyCache;
   private ServerCache queryCache;
 
+  private volatile CachedBeanDataCodec dataCodec;
+
   public BeanDescriptorCacheHelp(BeanDescriptor<T> desc, ServerCacheManager cacheManager, CacheOptions cacheOptions,
       boolean cacheSharableBeans, BeanPropertyAssocOne<?>[] propertiesOneImported) {
 
@@ -161,6 +171,17 @@ public final class BeanDescriptorCacheHelp<T> {
     }
   }
 
+  /**
+   * Clear the natural key cache.
+   */
+  public void naturalKeyCacheClear() {
+    if (naturalKeyCache != null) {
+      if (natLog.isDebugEnabled()) {
+        natLog.debug("   CLEAR {}", cacheName);
+      }
+      naturalKeyCache.clear();
+    }
+  }
 
   /**
    * Get a query result from the query cache.
@@ -376,6 +397,39 @@ public final class BeanDescriptorCacheHelp<T> {
   public void beanLoadData(EntityBean bean, CachedBeanData data) {
     CachedBeanDataToBean.load(desc, bean, data);
   }
+
+  /**
+   * Return the binary codec for the cached bean data (created on first use).
+   */
+  private CachedBeanDataCodec dataCodec() {
+    CachedBeanDataCodec codec = dataCodec;
+    if (codec == null) {
+      codec = new CachedBeanDataCodec(desc);
+      dataCodec = codec;
+    }
+    return codec;
+  }
+
+  /**
+   * Return true if the cached bean data supports the binary form.
+   */
+  public boolean isDataBinary() {
+    return dataCodec().isSupported();
+  }
+
+  /**
+   * Write the cached bean data in binary form.
+   */
+  public void beanWriteData(DataOutput dataOutput, CachedBeanData data) throws IOException {
+    dataCodec().write(dataOutput, data);
+  }
+
+  /**
+   * Read the cached bean data from binary form.
+   */
+  public CachedBeanData beanReadData(DataInput dataInput) throws IOException {
+    return dataCodec().read(dataInput);
+  }
   
   /**
    * Put a bean into the bean cache.
@@ -401,6 +455,43 @@ public final class BeanDescriptorCacheHelp<T> {
     }
   }
 
+  /**
+   * Put the beans into the bean cache (as a single putAll on the cache).
+   */
+  public void beanCachePutAll(Collection<?> beans) {
+
+    Map<Object, Object> idData = new LinkedHashMap<Object, Object>();
+    Map<Object, Object> naturalKeys = null;
+    for (Object bean : beans) {
+      EntityBean entityBean = (EntityBean) bean;
+      CachedBeanData beanData = beanExtractData(entityBean);
+      Object id = desc.getId(entityBean);
+      idData.put(id, beanData);
+      if (beanData.isNaturalKeyUpdate() && naturalKeyCache != null) {
+        Object naturalKey = beanData.getNaturalKey();
+        if (naturalKey != null) {
+          if (naturalKeys == null) {
+            naturalKeys = new LinkedHashMap<Object, Object>();
+          }
+          naturalKeys.put(naturalKey, id);
+        }
+      }
+    }
+    if (idData.isEmpty()) {
+      return;
+    }
+    if (beanLog.isDebugEnabled()) {
+      beanLog.debug("   PUT ALL {}({})", cacheName, idData.keySet());
+    }
+    getBeanCache().putAll(idData);
+    if (naturalKeys != null) {
+      if (natLog.isDebugEnabled()) {
+        natLog.debug(" PUT ALL {}({})", cacheName, naturalKeys);
+      }
+      naturalKeyCache.putAll(naturalKeys);
+    }
+  }
+
   public CachedBeanData beanCacheGetData(Object id) {
     return (CachedBeanData) getBeanCache().get(id);
   }
@@ -426,6 +517,46 @@ public final class BeanDescriptorCacheHelp<T> {
       }
       return null;
     }
+    return beanFromData(id, data, readOnly);
+  }
+
+  /**
+   * Return the beans from the bean cache for the given ids.
+   * <p>
+   * The returned map only contains the beans that were found in the cache (keyed by id).
+   * Beans already in the persistence context are returned in preference to building new ones.
+   * </p>
+   */
+  @SuppressWarnings("unchecked")
+  public Map<Object, T> beanCacheGetAll(Set<Object> ids, Boolean readOnly, PersistenceContext context) {
+
+    Map<Object, Object> hits = getBeanCache().getAll(ids);
+    if (beanLog.isDebugEnabled()) {
+      beanLog.debug("   GET {}({} ids) - hits:{} misses:{}", cacheName, ids.size(), hits.size(), ids.size() - hits.size());
+    }
+    Map<Object, T> beans = new LinkedHashMap<Object, T>();
+    for (Map.Entry<Object, Object> entry : hits.entrySet()) {
+      Object id = entry.getKey();
+      PersistenceContext.WithOption existing = (context == null) ? null : context.getWithOption(beanType, id);
+      if (existing != null) {
+        if (!existing.isDeleted()) {
+          beans.put(id, (T) existing.getBean());
+        }
+      } else {
+        T bean = beanFromData(id, (CachedBeanData) entry.getValue(), readOnly);
+        setupContext(bean, context);
+        beans.put(id, bean);
+      }
+    }
+    return beans;
+  }
+
+  /**
+   * Build the bean from the cached data (or return the sharable bean).
+   */
+  @SuppressWarnings("unchecked")
+  private T beanFromData(Object id, CachedBeanData data, Boolean readOnly) {
+
     if (cacheSharableBeans && !Boolean.FALSE.equals(readOnly)) {
       Object bean = data.getSharableBean();
       if (bean != null) {
@@ -501,6 +632,43 @@ public final class BeanDescriptorCacheHelp<T> {
     return true;
   }
   
+  /**
+   * Load the beans of the batch from the bean cache (using a single getAll on the cache).
+   * <p>
+   * The beans that are loaded from the cache are removed from the batch and returned.
+   * </p>
+   */
+  public Set<EntityBeanIntercept> beanCacheLoadAll(List<EntityBeanIntercept> batch) {
+
+    Map<Object, EntityBeanIntercept> byId = new LinkedHashMap<Object, EntityBeanIntercept>();
+    for (EntityBeanIntercept ebi : batch) {
+      byId.put(desc.getId(ebi.getOwner()), ebi);
+    }
+
+    Map<Object, Object> hits = getBeanCache().getAll(byId.keySet());
+    Set<EntityBeanIntercept> loaded = new HashSet<EntityBeanIntercept>();
+    for (Map.Entry<Object, Object> entry : hits.entrySet()) {
+      EntityBeanIntercept ebi = byId.get(entry.getKey());
+      CachedBeanData cacheData = (CachedBeanData) entry.getValue();
+      int lazyLoadProperty = ebi.getLazyLoadPropertyIndex();
+      if (lazyLoadProperty > -1 && !cacheData.isLoaded(lazyLoadProperty)) {
+        if (beanLog.isTraceEnabled()) {
+          beanLog.trace("   LOAD {}({}) - cache miss on property", cacheName, entry.getKey());
+        }
+      } else {
+        CachedBeanDataToBean.load(desc, ebi.getOwner(), cacheData);
+        loaded.add(ebi);
+      }
+    }
+    if (beanLog.isDebugEnabled()) {
+      beanLog.debug("   LOAD {}({} ids) - hits:{} misses:{}", cacheName, byId.size(), loaded.size(), byId.size() - loaded.size());
+    }
+    if (!loaded.isEmpty()) {
+      batch.removeAll(loaded);
+    }
+    return loaded;
+  }
+
   /**
    * Remove a bean from the cache given its Id.
    */
@@ -72,6 +72,7 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Creates BeanDescriptors.
@@ -123,7 +124,9 @@ public class BeanDescriptorManager implements BeanDescriptorMap {
 
   private final DocStoreFactory docStoreFactory;
 
-  private int enhancedClassCount;
+  private final AtomicInteger enhancedClassCount = new AtomicInteger();
+
+  private final int deployParallelism;
   
   private final boolean updateChangesOnly;
 
@@ -198,6 +201,7 @@ public class BeanDescriptorManager implements BeanDescriptorMap {
     this.databasePlatform = serverConfig.getDatabasePlatform();
     this.idBinderFactory = new IdBinderFactory(databasePlatform.isIdInExpandedForm());
     this.eagerFetchLobs = serverConfig.isEagerFetchLobs();
+    this.deployParallelism = serverConfig.getDeployParallelism();
 
     this.asOfViewSuffix = getAsOfViewSuffix(databasePlatform, serverConfig);
     String versionsBetweenSuffix = getVersionsBetweenSuffix(databasePlatform, serverConfig);
@@ -309,15 +313,24 @@ public class BeanDescriptorManager implements BeanDescriptorMap {
    */
   public Map<String,String> deploy() {
 
+    DeployPhases phases = new DeployPhases(serverName, deployParallelism);
     try {
+      phases.phase("embedded");
       createListeners();
       readEmbeddedDeployment();
-      readEntityDeploymentInitial();
+
+      // per entity annotation reading in parallel
+      phases.phase("initial");
+      readEntityDeploymentInitial(phases);
+      phases.phase("beanTable");
       readEntityBeanTable();
-      readEntityDeploymentAssociations();
+      phases.phase("associations");
+      readEntityDeploymentAssociations(phases);
       readInheritedIdGenerators();
 
-      // creates the BeanDescriptors
+      // barrier, wiring of associations between entities and
+      // creating the BeanDescriptors on a single thread
+      phases.phase("relationships");
       readEntityRelationships();
       readRawSqlQueries();
 
@@ -325,12 +338,16 @@ public class BeanDescriptorManager implements BeanDescriptorMap {
       Collections.sort(list, beanDescComparator);
       immutableDescriptorList = Collections.unmodifiableList(list);
 
+      phases.phase("initialise");
       initialiseAll();
+      // per entity DML generation in parallel
+      phases.phase("beanManagers");
+      createBeanManagers(phases);
       readForeignKeys();
 
       readTableToDescriptor();
 
-      logStatus();
+      logStatus(phases);
 
       deplyInfoMap.clear();
       deplyInfoMap = null;
@@ -341,6 +358,9 @@ public class BeanDescriptorManager implements BeanDescriptorMap {
       String msg = "Error in deployment";
       logger.error(msg, e);
       throw e;
+
+    } finally {
+      phases.shutdown();
     }
   }
 
@@ -455,14 +475,38 @@ public class BeanDescriptorManager implements BeanDescriptorMap {
       d.initialiseDocMapping();
     }
 
-    // create BeanManager for each non-embedded entity bean
+    // PASS 5:
+    // now build the set based cascade delete plans which need
+    // all the target descriptors and document mapping
+    for (BeanDescriptor<?> d : descMap.values()) {
+      d.initialiseCascadeDeletePlans();
+    }
+
+  }
+
+  /**
+   * Create the BeanManager (with the insert, update and delete meta) for each non-embedded entity bean.
+   */
+  private void createBeanManagers(DeployPhases phases) {
+
+    List<BeanDescriptor<?>> entities = new ArrayList<BeanDescriptor<?>>(descMap.size());
     for (BeanDescriptor<?> d : descMap.values()) {
       if (!d.isEmbedded()) {
-        BeanManager<?> m = beanManagerFactory.create(d);
-        beanManagerMap.put(d.getFullName(), m);
+        entities.add(d);
+      }
+    }
 
-        checkForValidEmbeddedId(d);
+    List<BeanManager<?>> managers = phases.each(entities, new DeployPhases.Task<BeanDescriptor<?>, BeanManager<?>>() {
+      @Override
+      public BeanManager<?> run(BeanDescriptor<?> desc) {
+        return beanManagerFactory.create(desc);
       }
+    });
+
+    for (int i = 0; i < entities.size(); i++) {
+      BeanDescriptor<?> d = entities.get(i);
+      beanManagerMap.put(d.getFullName(), managers.get(i));
+      checkForValidEmbeddedId(d);
     }
   }
 
@@ -527,8 +571,9 @@ public class BeanDescriptorManager implements BeanDescriptorMap {
     logger.debug("BeanPersistControllers[" + cc + "] BeanFinders[" + fc + "] BeanPersistListeners[" + lc + "] BeanQueryAdapters[" + qa + "] BeanPostLoaders[" + pl + "]");
   }
 
-  private void logStatus() {
+  private void logStatus(DeployPhases phases) {
     logger.info("Entities enhanced[" + enhancedClassCount + "]");
+    logger.info("Deploy timings " + phases.finish());
   }
 
   private <T> BeanDescriptor<T> createEmbedded(Class<T> beanClass) {
@@ -569,13 +614,19 @@ public class BeanDescriptorManager implements BeanDescriptorMap {
    * BeanTables have all been created.
    * </p>
    */
-  private void readEntityDeploymentInitial() {
+  private void readEntityDeploymentInitial(DeployPhases phases) {
 
     List<Class<?>> entityClasses = bootupClasses.getEntities();
 
-    for (Class<?> entityClass : entityClasses) {
-      DeployBeanInfo<?> info = createDeployBeanInfo(entityClass);
-      deplyInfoMap.put(entityClass, info);
+    List<DeployBeanInfo<?>> infos = phases.each(entityClasses, new DeployPhases.Task<Class<?>, DeployBeanInfo<?>>() {
+      @Override
+      public DeployBeanInfo<?> run(Class<?> entityClass) {
+        return createDeployBeanInfo(entityClass);
+      }
+    });
+
+    for (int i = 0; i < entityClasses.size(); i++) {
+      deplyInfoMap.put(entityClasses.get(i), infos.get(i));
     }
   }
 
@@ -599,11 +650,16 @@ public class BeanDescriptorManager implements BeanDescriptorMap {
    * This is determined prior to resolving relationship information.
    * </p>
    */
-  private void readEntityDeploymentAssociations() {
-
-    for (DeployBeanInfo<?> info : deplyInfoMap.values()) {
-      readDeployAssociations(info);
-    }
+  private void readEntityDeploymentAssociations(DeployPhases phases) {
+
+    List<DeployBeanInfo<?>> infos = new ArrayList<DeployBeanInfo<?>>(deplyInfoMap.values());
+    phases.each(infos, new DeployPhases.Task<DeployBeanInfo<?>, Void>() {
+      @Override
+      public Void run(DeployBeanInfo<?> info) {
+        readDeployAssociations(info);
+        return null;
+      }
+    });
   }
 
   private void readInheritedIdGenerators() {
@@ -1465,7 +1521,7 @@ public class BeanDescriptorManager implements BeanDescriptorMap {
     checkInheritedClasses(beanClass);
 
     if (!beanClass.getName().startsWith("com.avaje.ebean.meta")) {
-      enhancedClassCount++;
+      enhancedClassCount.incrementAndGet();
     }
   }
 
@@ -10,6 +10,7 @@ import com.avaje.ebeanservice.docstore.api.mapping.DocMappingBuilder;
 import com.avaje.ebeanservice.docstore.api.mapping.DocPropertyMapping;
 import com.avaje.ebean.plugin.Property;
 import com.avaje.ebean.text.StringParser;
+import com.avaje.ebeaninternal.server.cache.CachedBeanDataCodec;
 import com.avaje.ebeaninternal.server.core.InternString;
 import com.avaje.ebeaninternal.server.deploy.generatedproperty.GeneratedProperty;
 import com.avaje.ebeaninternal.server.deploy.generatedproperty.GeneratedWhenCreated;
@@ -25,8 +26,11 @@ import com.avaje.ebeaninternal.server.query.SqlJoinType;
 import com.avaje.ebeaninternal.server.text.json.ReadJson;
 import com.avaje.ebeaninternal.server.text.json.WriteJson;
 import com.avaje.ebeaninternal.server.type.DataBind;
+import com.avaje.ebeaninternal.server.type.LazyJsonMap;
 import com.avaje.ebeaninternal.server.type.ScalarType;
+import com.avaje.ebeaninternal.server.type.ScalarTypeBaseVarchar;
 import com.avaje.ebeaninternal.server.type.ScalarTypeBoolean;
+import com.avaje.ebeaninternal.server.type.ScalarTypeJsonMap;
 import com.avaje.ebeaninternal.util.ValueUtil;
 import com.avaje.ebeanservice.docstore.api.mapping.DocPropertyOptions;
 import com.avaje.ebeanservice.docstore.api.mapping.DocPropertyType;
@@ -40,6 +44,7 @@ import java.io.DataInput;
 import java.io.DataOutput;
 import java.io.IOException;
 import java.lang.reflect.Field;
+import java.math.BigDecimal;
 import java.sql.SQLException;
 import java.sql.Types;
 import java.util.List;
@@ -53,6 +58,11 @@ public class BeanProperty implements ElPropertyValue, Property {
 
   private static final Logger logger = LoggerFactory.getLogger(BeanProperty.class);
 
+  /**
+   * Jackson JsonNode type (by name as Jackson is optional).
+   */
+  private static final String JSON_NODE_TYPE = "com.fasterxml.jackson.databind.JsonNode";
+
   /**
    * Flag to mark this at part of the unique id.
    */
@@ -500,6 +510,28 @@ public class BeanProperty implements ElPropertyValue, Property {
     return scalarType != null && scalarType.isMutable();
   }
 
+  /**
+   * Return true if this is a JSON Map property updated by patching the changed top level keys.
+   */
+  public boolean isJsonPatch() {
+    return getJsonPatch() != null && !isDbEncrypted();
+  }
+
+  /**
+   * Return the expression used to update the changed top level keys of a JSON Map property
+   * (null if not supported).
+   */
+  public String getJsonPatch() {
+    return (scalarType instanceof ScalarTypeJsonMap) ? ((ScalarTypeJsonMap) scalarType).getJsonPatch() : null;
+  }
+
+  /**
+   * Return true if the JSON Map value has changes that can be applied by patching top level keys.
+   */
+  public boolean isJsonPatchValue(Object value) {
+    return value instanceof LazyJsonMap && ((LazyJsonMap) value).isPatch();
+  }
+
   /**
    * Return the encrypt key for the column matching this property.
    */
@@ -624,6 +656,54 @@ public class BeanProperty implements ElPropertyValue, Property {
     return scalarType.readData(dataInput);
   }
 
+  /**
+   * Return true if the cache data value of this property can be written in binary form.
+   */
+  public boolean isCacheDataBinary() {
+    return scalarType != null;
+  }
+
+  /**
+   * Write the cache data value (as returned by getCacheDataValue()) in binary form.
+   */
+  public void writeCacheData(DataOutput dataOutput, Object cacheData) throws IOException {
+    if (isCacheDataText()) {
+      CachedBeanDataCodec.writeText(dataOutput, (cacheData == null) ? null : scalarType.format(cacheData));
+    } else if (scalarType.getType() == BigDecimal.class) {
+      CachedBeanDataCodec.writeDecimal(dataOutput, (BigDecimal) cacheData);
+    } else {
+      writeData(dataOutput, cacheData);
+    }
+  }
+
+  /**
+   * Read the cache data value in binary form.
+   */
+  public Object readCacheData(DataInput dataInput) throws IOException {
+    if (isCacheDataText()) {
+      String text = CachedBeanDataCodec.readText(dataInput);
+      return (text == null) ? null : scalarType.parse(text);
+    } else if (scalarType.getType() == BigDecimal.class) {
+      return CachedBeanDataCodec.readDecimal(dataInput);
+    } else {
+      return readData(dataInput);
+    }
+  }
+
+  /**
+   * Return true if the cache data value is written as text.
+   * <p>
+   * The writeData() of these types uses writeUTF() which is limited to 64KB.
+   * </p>
+   */
+  private boolean isCacheDataText() {
+    Class<?> type = scalarType.getType();
+    return type == String.class
+        || Map.class.isAssignableFrom(type)
+        || JSON_NODE_TYPE.equals(type.getName())
+        || scalarType instanceof ScalarTypeBaseVarchar;
+  }
+
   public BeanProperty getBeanProperty() {
     return this;
   }
@@ -58,6 +58,11 @@ public abstract class BeanPropertyAssoc<T> extends BeanProperty {
 	 */
 	final Class<T> targetType;
 
+  /**
+   * Set based cascade delete plan (null if not supported).
+   */
+  CascadeDeletePlan cascadeDeletePlan;
+
 	/**
 	 * The join table information.
 	 */
@@ -105,6 +110,14 @@ public abstract class BeanPropertyAssoc<T> extends BeanProperty {
 		}
 	}
 	
+  /**
+   * Return the set based cascade delete plan (null if not supported).
+   */
+  public CascadeDeletePlan getCascadeDeletePlan() {
+    CascadeDeletePlan plan = cascadeDeletePlan;
+    return (plan == null || plan.isIdsRequired()) ? null : plan;
+  }
+
 	/**
      * Create a ElPropertyValue for a *ToOne or *ToMany.
      */
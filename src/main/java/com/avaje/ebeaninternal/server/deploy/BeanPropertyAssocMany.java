@@ -528,6 +528,20 @@ public class BeanPropertyAssocMany<T> extends BeanPropertyAssoc<T> {
     return manyToMany;
   }
 
+  /**
+   * Return the exported properties (the foreign key columns referencing the parent).
+   */
+  public ExportedProperty[] getExportedProperties() {
+    return exportedProperties;
+  }
+
+  /**
+   * Build the set based cascade delete plan (after all the descriptors have been initialised).
+   */
+  void initialiseCascadeDeletePlan() {
+    cascadeDeletePlan = CascadeDeletePlan.of(this);
+  }
+
   /**
    * ManyToMany only, join from local table to intersection table.
    */
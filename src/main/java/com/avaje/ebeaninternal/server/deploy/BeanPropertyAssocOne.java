@@ -22,6 +22,8 @@ import com.avaje.ebeaninternal.server.text.json.ReadJson;
 import com.avaje.ebeaninternal.server.text.json.WriteJson;
 
 import javax.persistence.PersistenceException;
+import java.io.DataInput;
+import java.io.DataOutput;
 import java.io.IOException;
 import java.sql.SQLException;
 import java.util.ArrayList;
@@ -412,6 +414,37 @@ public class BeanPropertyAssocOne<T> extends BeanPropertyAssoc<T> {
     }
   }
 
+  @Override
+  public boolean isCacheDataBinary() {
+    return !embedded || targetDescriptor.isCacheDataBinary();
+  }
+
+  @Override
+  public void writeCacheData(DataOutput dataOutput, Object cacheData) throws IOException {
+    if (cacheData == null) {
+      dataOutput.writeBoolean(false);
+    } else {
+      dataOutput.writeBoolean(true);
+      if (embedded) {
+        targetDescriptor.cacheBeanWriteData(dataOutput, (CachedBeanData) cacheData);
+      } else {
+        targetDescriptor.getIdBinder().writeData(dataOutput, cacheData);
+      }
+    }
+  }
+
+  @Override
+  public Object readCacheData(DataInput dataInput) throws IOException {
+    if (!dataInput.readBoolean()) {
+      return null;
+    }
+    if (embedded) {
+      return targetDescriptor.cacheBeanReadData(dataInput);
+    } else {
+      return targetDescriptor.getIdBinder().readData(dataInput);
+    }
+  }
+
   /**
    * Return the Id values from the given bean.
    */
@@ -476,6 +509,21 @@ public class BeanPropertyAssocOne<T> extends BeanPropertyAssoc<T> {
     return importedId;
   }
 
+  /**
+   * Return the exported properties (foreign key columns on the target table) for a OneToOne
+   * exported side (null otherwise).
+   */
+  public ExportedProperty[] getExportedProperties() {
+    return exportedProperties;
+  }
+
+  /**
+   * Build the set based cascade delete plan (after all the descriptors have been initialised).
+   */
+  void initialiseCascadeDeletePlan() {
+    cascadeDeletePlan = CascadeDeletePlan.of(this);
+  }
+
   private String deriveWhereParentIdSql(boolean inClause) {
 
     StringBuilder sb = new StringBuilder();
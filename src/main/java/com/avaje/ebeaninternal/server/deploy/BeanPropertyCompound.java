@@ -142,6 +142,11 @@ public class BeanPropertyCompound extends BeanProperty {
     sqlBeanLoad.load(this);
   }
 
+  @Override
+  public boolean isCacheDataBinary() {
+    return false;
+  }
+
   @Override
   public Object elGetReference(EntityBean bean) {
     return bean;
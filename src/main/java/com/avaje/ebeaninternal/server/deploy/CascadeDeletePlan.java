@@ -0,0 +1,222 @@
+package com.avaje.ebeaninternal.server.deploy;
+
+import com.avaje.ebean.SqlUpdate;
+import com.avaje.ebeaninternal.server.core.DefaultSqlUpdate;
+import com.avaje.ebeaninternal.server.expression.InBinding;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Set based cascade delete of the beans below a OneToMany or exported OneToOne property.
+ * <p>
+ * Rather than fetching the Id's of the children at each level (and deleting each level by
+ * Id list) a delete statement is executed per level in dependency order (deepest first) with
+ * the children identified by nested sub-queries on the parent Id's. For example:
+ * </p>
+ * <pre>{@code
+ *
+ *   delete from o_line_note where line_id in (select id from o_line where order_id in (select id from o_order where customer_id in (?,?)))
+ *   delete from o_line where order_id in (select id from o_order where customer_id in (?,?))
+ *   delete from o_order where customer_id in (?,?)
+ *
+ * }</pre>
+ * <p>
+ * This is only supported when none of the bean types below the property need the individual
+ * Id's (no L2 bean caching, persist listener or document store mapping) and there are no
+ * ManyToMany, imported OneToOne cascades, inheritance, compound foreign keys or cycles.
+ * Otherwise the cascade delete uses the Id's of the children as per normal.
+ * </p>
+ * <p>
+ * The plan is built at deploy time for the properties with cascade delete. As persist
+ * listeners can be registered and bean caching turned on after deployment the plan is not
+ * used while any of the bean types it deletes has a persist listener or bean cache.
+ * </p>
+ */
+public class CascadeDeletePlan {
+
+  private final String name;
+
+  /**
+   * The delete statements (prior to the parent Id predicate) in execution order.
+   */
+  private final String[] sqlPrefix;
+
+  /**
+   * The closing brackets of the sub-queries (after the parent Id predicate).
+   */
+  private final String[] sqlSuffix;
+
+  /**
+   * The bean types deleted by the plan.
+   */
+  private final BeanDescriptor<?>[] descriptors;
+
+  private CascadeDeletePlan(String name, List<String[]> levels, List<BeanDescriptor<?>> descriptors) {
+    this.name = name;
+    this.sqlPrefix = new String[levels.size()];
+    this.sqlSuffix = new String[levels.size()];
+    for (int i = 0; i < levels.size(); i++) {
+      sqlPrefix[i] = levels.get(i)[0];
+      sqlSuffix[i] = levels.get(i)[1];
+    }
+    this.descriptors = descriptors.toArray(new BeanDescriptor<?>[descriptors.size()]);
+  }
+
+  /**
+   * Build the plan for the OneToMany with cascade delete (null if set based delete is not supported).
+   */
+  static CascadeDeletePlan of(BeanPropertyAssocMany<?> many) {
+    if (many.isManyToMany()) {
+      return null;
+    }
+    return build(many.getFullBeanName(), many.getTargetDescriptor(), many.getExportedProperties());
+  }
+
+  /**
+   * Build the plan for the exported OneToOne with cascade delete (null if set based delete is not supported).
+   */
+  static CascadeDeletePlan of(BeanPropertyAssocOne<?> one) {
+    return build(one.getFullBeanName(), one.getTargetDescriptor(), one.getExportedProperties());
+  }
+
+  private static CascadeDeletePlan build(String name, BeanDescriptor<?> target, ExportedProperty[] exported) {
+
+    List<String[]> levels = new ArrayList<String[]>();
+    List<BeanDescriptor<?>> descriptors = new ArrayList<BeanDescriptor<?>>();
+    String fkColumn = foreignKey(exported);
+    if (fkColumn == null || !addLevels(target, fkColumn, "", levels, descriptors, new HashSet<String>())) {
+      return null;
+    }
+    return new CascadeDeletePlan(name, levels, descriptors);
+  }
+
+  /**
+   * Add the delete statements for the bean type and its children (children first).
+   * <p>
+   * Returns false if set based delete is not supported.
+   * </p>
+   */
+  private static boolean addLevels(BeanDescriptor<?> desc, String prefix, String suffix, List<String[]> levels,
+                                   List<BeanDescriptor<?>> descriptors, Set<String> path) {
+
+    if (!isSetDeletable(desc)) {
+      return false;
+    }
+    String table = desc.getBaseTable();
+    if (!path.add(table)) {
+      // cycle so depth not known
+      return false;
+    }
+
+    BeanPropertyAssocOne<?>[] expOnes = desc.propertiesOneExportedDelete();
+    BeanPropertyAssocMany<?>[] manys = desc.propertiesManyDelete();
+    if (expOnes.length + manys.length > 0) {
+      BeanProperty idProperty = desc.getIdProperty();
+      if (idProperty == null || idProperty.isEmbedded()) {
+        return false;
+      }
+      String subQuery = " in (select " + idProperty.getDbColumn() + " from " + table + " where " + prefix;
+      String childSuffix = suffix + ")";
+
+      for (BeanPropertyAssocOne<?> one : expOnes) {
+        String fkColumn = foreignKey(one.getExportedProperties());
+        if (fkColumn == null || !addLevels(one.getTargetDescriptor(), fkColumn + subQuery, childSuffix, levels, descriptors, path)) {
+          return false;
+        }
+      }
+      for (BeanPropertyAssocMany<?> many : manys) {
+        String fkColumn = many.isManyToMany() ? null : foreignKey(many.getExportedProperties());
+        if (fkColumn == null || !addLevels(many.getTargetDescriptor(), fkColumn + subQuery, childSuffix, levels, descriptors, path)) {
+          return false;
+        }
+      }
+    }
+
+    levels.add(new String[]{"delete from " + table + " where " + prefix, suffix});
+    descriptors.add(desc);
+    path.remove(table);
+    return true;
+  }
+
+  /**
+   * Return true if the bean type can be deleted without knowing the Id values.
+   * <p>
+   * The bean cache and persist listener are checked when the plan is used.
+   * </p>
+   */
+  private static boolean isSetDeletable(BeanDescriptor<?> desc) {
+    return !desc.isDocStoreMapped()
+        && desc.getInheritInfo() == null
+        && desc.propertiesOneImportedDelete().length == 0
+        && desc.propertiesManyToMany().length == 0;
+  }
+
+  /**
+   * Return the single foreign key column or null for compound foreign keys.
+   */
+  private static String foreignKey(ExportedProperty[] exported) {
+    return (exported == null || exported.length != 1) ? null : exported[0].getForeignDbColumn();
+  }
+
+  public String toString() {
+    return name;
+  }
+
+  /**
+   * Return true if any of the bean types deleted by the plan currently needs the individual
+   * Id's (has a bean cache or persist listener).
+   */
+  boolean isIdsRequired() {
+    for (BeanDescriptor<?> desc : descriptors) {
+      if (desc.isBeanCaching() || desc.getPersistListener() != null) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Return the number of delete statements (levels) in the plan.
+   */
+  public int size() {
+    return sqlPrefix.length;
+  }
+
+  /**
+   * Return the delete statements in execution order given the parent Id or list of parent Id's.
+   */
+  public List<SqlUpdate> deletes(Object parentId, List<Object> parentIdList) {
+
+    List<Object> bindValues;
+    String predicate;
+    if (parentIdList == null) {
+      bindValues = new ArrayList<Object>(1);
+      bindValues.add(parentId);
+      predicate = "=?";
+    } else {
+      bindValues = InBinding.pad(parentIdList);
+      StringBuilder sb = new StringBuilder(bindValues.size() * 2 + 6);
+      sb.append(" in (");
+      for (int i = 0; i < bindValues.size(); i++) {
+        if (i > 0) {
+          sb.append(",");
+        }
+        sb.append("?");
+      }
+      predicate = sb.append(")").toString();
+    }
+
+    List<SqlUpdate> deletes = new ArrayList<SqlUpdate>(sqlPrefix.length);
+    for (int i = 0; i < sqlPrefix.length; i++) {
+      DefaultSqlUpdate delete = new DefaultSqlUpdate(sqlPrefix[i] + predicate + sqlSuffix[i]);
+      for (Object value : bindValues) {
+        delete.addParameter(value);
+      }
+      deletes.add(delete);
+    }
+    return deletes;
+  }
+}
@@ -0,0 +1,168 @@
+package com.avaje.ebeaninternal.server.deploy;
+
+import javax.persistence.PersistenceException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs the deployment phases collecting the time taken by each phase.
+ * <p>
+ * The per entity work of a phase can be executed in parallel with {@link #each(List, Task)}
+ * which returns when all the items are processed (a barrier prior to the next phase).
+ * </p>
+ */
+class DeployPhases {
+
+  /**
+   * Per item work of a phase.
+   */
+  interface Task<T, R> {
+
+    /**
+     * Process the item returning the result.
+     */
+    R run(T item);
+  }
+
+  private final String serverName;
+
+  private final int parallelism;
+
+  private final StringBuilder timings = new StringBuilder(100);
+
+  private final long startNanos;
+
+  private ExecutorService executor;
+
+  private String phase;
+
+  private long phaseStart;
+
+  DeployPhases(String serverName, int parallelism) {
+    this.serverName = serverName;
+    this.parallelism = (parallelism < 1) ? Runtime.getRuntime().availableProcessors() : parallelism;
+    this.startNanos = System.nanoTime();
+  }
+
+  /**
+   * Return the number of threads used.
+   */
+  int getParallelism() {
+    return parallelism;
+  }
+
+  /**
+   * Start the next phase (ending the current one).
+   */
+  void phase(String phase) {
+    endPhase();
+    this.phase = phase;
+    this.phaseStart = System.nanoTime();
+  }
+
+  private void endPhase() {
+    if (phase != null) {
+      timings.append(' ').append(phase).append('[').append(millis(phaseStart)).append(']');
+      phase = null;
+    }
+  }
+
+  private static long millis(long startNanos) {
+    return (System.nanoTime() - startNanos) / 1000000L;
+  }
+
+  /**
+   * End the current phase, shutdown the threads and return the timings summary.
+   */
+  String finish() {
+    endPhase();
+    shutdown();
+    return "parallelism[" + parallelism + "]" + timings + " total[" + millis(startNanos) + "]";
+  }
+
+  /**
+   * Shutdown the threads (if any).
+   */
+  void shutdown() {
+    if (executor != null) {
+      executor.shutdown();
+      executor = null;
+    }
+  }
+
+  /**
+   * Run the task for each item returning the results in the same order as the items.
+   */
+  <T, R> List<R> each(List<T> items, final Task<T, R> task) {
+
+    List<R> results = new ArrayList<R>(items.size());
+    if (parallelism == 1 || items.size() < 2) {
+      for (T item : items) {
+        results.add(task.run(item));
+      }
+      return results;
+    }
+
+    List<Future<R>> futures = new ArrayList<Future<R>>(items.size());
+    for (final T item : items) {
+      futures.add(executor().submit(new Callable<R>() {
+        @Override
+        public R call() throws Exception {
+          return task.run(item);
+        }
+      }));
+    }
+    try {
+      for (Future<R> future : futures) {
+        results.add(future.get());
+      }
+      return results;
+
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new PersistenceException("Interrupted during deployment", e);
+
+    } catch (ExecutionException e) {
+      Throwable cause = e.getCause();
+      if (cause instanceof RuntimeException) {
+        throw (RuntimeException) cause;
+      }
+      if (cause instanceof Error) {
+        throw (Error) cause;
+      }
+      throw new PersistenceException(cause);
+    }
+  }
+
+  private ExecutorService executor() {
+    if (executor == null) {
+      executor = Executors.newFixedThreadPool(parallelism, new DeployThreadFactory(serverName));
+    }
+    return executor;
+  }
+
+  private static class DeployThreadFactory implements ThreadFactory {
+
+    private final AtomicInteger count = new AtomicInteger();
+
+    private final String namePrefix;
+
+    DeployThreadFactory(String serverName) {
+      this.namePrefix = "ebean-deploy-" + serverName + "-";
+    }
+
+    @Override
+    public Thread newThread(Runnable runnable) {
+      Thread thread = new Thread(runnable, namePrefix + count.incrementAndGet());
+      thread.setDaemon(true);
+      return thread;
+    }
+  }
+}
@@ -0,0 +1,205 @@
+package com.avaje.ebeaninternal.server.deploy;
+
+import com.avaje.ebean.meta.MetaQueryPlanMemory;
+import com.avaje.ebeaninternal.server.query.CQueryPlan;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The SQL fragments and SqlTree structures for a bean type that are shared by its query plans.
+ * <p>
+ * Query plans that differ only by their where clause or order by (the common case) have the same
+ * select clause, from clause, properties and path maps. Rather than each plan holding its own
+ * copy these are shared such that the memory per query plan is mostly the full SQL statement.
+ * </p>
+ * <p>
+ * The number of distinct strings held is bounded (by the maximum size) after which fragments are
+ * no longer shared (rather than holding an unbounded number of fragments).
+ * </p>
+ */
+public class QueryPlanFragments {
+
+  /**
+   * Approximate String overhead (object header, hash and char array header).
+   */
+  private static final int STRING_OVERHEAD = 40;
+
+  private final BeanDescriptor<?> desc;
+
+  private final int maxSize;
+
+  private final ConcurrentHashMap<String, String> sqlFragments = new ConcurrentHashMap<String, String>();
+
+  private final ConcurrentHashMap<List<BeanProperty>, BeanProperty[]> properties = new ConcurrentHashMap<List<BeanProperty>, BeanProperty[]>();
+
+  private final ConcurrentHashMap<String, Map<String, String>> pathMaps = new ConcurrentHashMap<String, Map<String, String>>();
+
+  private final AtomicLong sqlFragmentBytes = new AtomicLong();
+
+  public QueryPlanFragments(BeanDescriptor<?> desc, int maxSize) {
+    this.desc = desc;
+    this.maxSize = maxSize;
+  }
+
+  /**
+   * Return the estimated memory (bytes) of a String.
+   */
+  public static long sizeOf(String value) {
+    return value == null ? 0 : STRING_OVERHEAD + 2L * value.length();
+  }
+
+  /**
+   * Return the shared instance of the SQL fragment (select clause, from clause etc).
+   */
+  public String sql(String fragment) {
+    if (fragment == null) {
+      return null;
+    }
+    String shared = sqlFragments.get(fragment);
+    if (shared != null) {
+      return shared;
+    }
+    if (sqlFragments.size() >= maxSize) {
+      return fragment;
+    }
+    shared = sqlFragments.putIfAbsent(fragment, fragment);
+    if (shared != null) {
+      return shared;
+    }
+    sqlFragmentBytes.addAndGet(sizeOf(fragment));
+    return fragment;
+  }
+
+  /**
+   * Return the shared array of the (selected) properties.
+   */
+  public BeanProperty[] properties(BeanProperty[] props) {
+    List<BeanProperty> key = Arrays.asList(props);
+    BeanProperty[] shared = properties.get(key);
+    if (shared != null) {
+      return shared;
+    }
+    if (properties.size() >= maxSize) {
+      return props;
+    }
+    shared = properties.putIfAbsent(key, props);
+    return shared != null ? shared : props;
+  }
+
+  /**
+   * Return the shared map of the many property names to their full path for the given prefix.
+   */
+  public Map<String, String> pathMap(String prefix) {
+    String key = prefix == null ? "" : prefix;
+    Map<String, String> shared = pathMaps.get(key);
+    if (shared == null) {
+      Map<String, String> map = new HashMap<String, String>();
+      for (BeanPropertyAssocMany<?> many : desc.propertiesMany()) {
+        String name = many.getName();
+        map.put(name, prefix == null ? name : prefix + "." + name);
+      }
+      shared = Collections.unmodifiableMap(map);
+      Map<String, String> existing = pathMaps.putIfAbsent(key, shared);
+      if (existing != null) {
+        shared = existing;
+      }
+    }
+    return shared;
+  }
+
+  /**
+   * Clear the shared fragments (when the query plans are cleared).
+   */
+  public void clear() {
+    sqlFragments.clear();
+    properties.clear();
+    pathMaps.clear();
+    sqlFragmentBytes.set(0);
+  }
+
+  /**
+   * Return the number of shared SQL fragments.
+   */
+  public int getSqlFragmentCount() {
+    return sqlFragments.size();
+  }
+
+  /**
+   * Return the estimated memory (bytes) of the shared SQL fragments.
+   */
+  public long getSqlFragmentBytes() {
+    return sqlFragmentBytes.get();
+  }
+
+  /**
+   * Return the estimated memory of the given query plans and the shared fragments.
+   */
+  public MetaQueryPlanMemory getMemory(Collection<CQueryPlan> plans) {
+    int count = 0;
+    long planBytes = 0;
+    for (CQueryPlan plan : plans) {
+      count++;
+      planBytes += plan.getEstimatedBytes();
+    }
+    return new Memory(desc.getBeanType(), count, planBytes, sqlFragments.size(), sqlFragmentBytes.get());
+  }
+
+  private static class Memory implements MetaQueryPlanMemory {
+
+    private final Class<?> beanType;
+    private final int planCount;
+    private final long planBytes;
+    private final int sharedFragmentCount;
+    private final long sharedFragmentBytes;
+
+    Memory(Class<?> beanType, int planCount, long planBytes, int sharedFragmentCount, long sharedFragmentBytes) {
+      this.beanType = beanType;
+      this.planCount = planCount;
+      this.planBytes = planBytes;
+      this.sharedFragmentCount = sharedFragmentCount;
+      this.sharedFragmentBytes = sharedFragmentBytes;
+    }
+
+    public String toString() {
+      return "beanType:" + beanType.getName() + " plans:" + planCount + " planBytes:" + planBytes
+          + " sharedFragments:" + sharedFragmentCount + " sharedFragmentBytes:" + sharedFragmentBytes;
+    }
+
+    @Override
+    public Class<?> getBeanType() {
+      return beanType;
+    }
+
+    @Override
+    public int getPlanCount() {
+      return planCount;
+    }
+
+    @Override
+    public long getPlanBytes() {
+      return planBytes;
+    }
+
+    @Override
+    public int getSharedFragmentCount() {
+      return sharedFragmentCount;
+    }
+
+    @Override
+    public long getSharedFragmentBytes() {
+      return sharedFragmentBytes;
+    }
+
+    @Override
+    public long getTotalBytes() {
+      return planBytes + sharedFragmentBytes;
+    }
+  }
+}
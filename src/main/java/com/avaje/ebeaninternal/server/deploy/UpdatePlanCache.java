@@ -0,0 +1,172 @@
+package com.avaje.ebeaninternal.server.deploy;
+
+import com.avaje.ebean.meta.MetaUpdatePlanStatistic;
+import com.avaje.ebeaninternal.api.SpiUpdatePlan;
+import com.avaje.ebeaninternal.server.util.LongAdder;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded cache of the update plans for a bean type with hit and miss statistics.
+ * <p>
+ * When the cache reaches its maximum size it is cleared (update plans are cheap to build
+ * relative to holding an unbounded number of distinct update statements).
+ * </p>
+ * <p>
+ * With widening enabled, once the number of distinct update plans cached exceeds the widening
+ * threshold, updates include all the loaded properties rather than only the changed properties.
+ * The loaded properties follow the (relatively few) select clauses used to fetch the beans so this
+ * results in far fewer distinct update statements, better statement reuse and larger JDBC batches.
+ * </p>
+ * <p>
+ * The distinct update plans are counted from when the cache was last cleared such that widening
+ * switches back off after a clear and is only turned on again if the distinct plans again exceed
+ * the threshold.
+ * </p>
+ */
+public class UpdatePlanCache {
+
+  private final ConcurrentHashMap<Integer, SpiUpdatePlan> plans = new ConcurrentHashMap<Integer, SpiUpdatePlan>();
+
+  private final Class<?> beanType;
+
+  private final int maxSize;
+
+  private final int wideningThreshold;
+
+  private final LongAdder hitCount = new LongAdder();
+
+  private final LongAdder missCount = new LongAdder();
+
+  private final AtomicLong clearCount = new AtomicLong();
+
+  private volatile boolean widening;
+
+  /**
+   * Create with the maximum size and widening threshold (0 for no widening).
+   */
+  public UpdatePlanCache(Class<?> beanType, int maxSize, int wideningThreshold) {
+    this.beanType = beanType;
+    this.maxSize = maxSize;
+    this.wideningThreshold = wideningThreshold;
+  }
+
+  /**
+   * Return the update plan for the given key (null if not cached).
+   */
+  public SpiUpdatePlan get(Integer key) {
+    SpiUpdatePlan plan = plans.get(key);
+    if (plan == null) {
+      missCount.increment();
+    } else {
+      hitCount.increment();
+    }
+    return plan;
+  }
+
+  /**
+   * Add a newly built update plan.
+   */
+  public void put(Integer key, SpiUpdatePlan plan) {
+    if (maxSize > 0 && plans.size() >= maxSize) {
+      clear();
+      clearCount.incrementAndGet();
+    }
+    if (plans.put(key, plan) == null && wideningThreshold > 0 && plans.size() > wideningThreshold) {
+      widening = true;
+    }
+  }
+
+  /**
+   * Return true if updates should include all loaded properties.
+   */
+  public boolean isWidening() {
+    return widening;
+  }
+
+  /**
+   * Return the number of cached update plans.
+   */
+  public int size() {
+    return plans.size();
+  }
+
+  /**
+   * Clear the cached update plans.
+   */
+  public void clear() {
+    plans.clear();
+    widening = false;
+  }
+
+  /**
+   * Return the statistics optionally resetting the hit and miss counts.
+   */
+  public MetaUpdatePlanStatistic getStatistic(boolean reset) {
+    long hits = reset ? hitCount.sumThenReset() : hitCount.sum();
+    long misses = reset ? missCount.sumThenReset() : missCount.sum();
+    return new Snapshot(beanType, plans.size(), maxSize, hits, misses, clearCount.get(), widening);
+  }
+
+  private static class Snapshot implements MetaUpdatePlanStatistic {
+
+    private final Class<?> beanType;
+    private final int size;
+    private final int maxSize;
+    private final long hitCount;
+    private final long missCount;
+    private final long clearCount;
+    private final boolean widening;
+
+    Snapshot(Class<?> beanType, int size, int maxSize, long hitCount, long missCount, long clearCount, boolean widening) {
+      this.beanType = beanType;
+      this.size = size;
+      this.maxSize = maxSize;
+      this.hitCount = hitCount;
+      this.missCount = missCount;
+      this.clearCount = clearCount;
+      this.widening = widening;
+    }
+
+    public String toString() {
+      return "beanType:" + beanType.getName() + " size:" + size + " maxSize:" + maxSize + " hits:" + hitCount
+          + " misses:" + missCount + " clears:" + clearCount + " widening:" + widening;
+    }
+
+    @Override
+    public Class<?> getBeanType() {
+      return beanType;
+    }
+
+    @Override
+    public int getSize() {
+      return size;
+    }
+
+    @Override
+    public int getMaxSize() {
+      return maxSize;
+    }
+
+    @Override
+    public long getHitCount() {
+      return hitCount;
+    }
+
+    @Override
+    public long getMissCount() {
+      return missCount;
+    }
+
+    @Override
+    public long getClearCount() {
+      return clearCount;
+    }
+
+    @Override
+    public boolean isWidening() {
+      return widening;
+    }
+  }
+}
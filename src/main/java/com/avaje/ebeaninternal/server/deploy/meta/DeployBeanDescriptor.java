@@ -200,6 +200,13 @@ public class DeployBeanDescriptor<T> {
     this.beanType = beanType;
   }
 
+  /**
+   * Return the serverConfig.
+   */
+  public ServerConfig getServerConfig() {
+    return serverConfig;
+  }
+
   /**
    * Return true if this beanType is an abstract class.
    */
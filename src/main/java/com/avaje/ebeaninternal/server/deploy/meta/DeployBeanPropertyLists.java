@@ -42,6 +42,8 @@ public class DeployBeanPropertyLists {
 
   private final List<BeanProperty> mutable = new ArrayList<BeanProperty>();
 
+  private final List<BeanProperty> jsonPatch = new ArrayList<BeanProperty>();
+
   private final List<BeanPropertyAssocMany<?>> manys = new ArrayList<BeanPropertyAssocMany<?>>();
   
   private final List<BeanProperty> nonManys = new ArrayList<BeanProperty>();
@@ -152,6 +154,9 @@ public class DeployBeanPropertyLists {
 
     if (prop.isMutableScalarType()) {
       mutable.add(prop);
+      if (prop.isJsonPatch()) {
+        jsonPatch.add(prop);
+      }
     }
     
     if (desc.getInheritInfo() != null && prop.isLocal()) {
@@ -246,6 +251,10 @@ public class DeployBeanPropertyLists {
     return mutable.toArray(new BeanProperty[mutable.size()]);
   }
 
+  public BeanProperty[] getJsonPatch() {
+    return jsonPatch.toArray(new BeanProperty[jsonPatch.size()]);
+  }
+
   public BeanPropertyAssocOne<?>[] getEmbedded() {
     return embedded.toArray(new BeanPropertyAssocOne[embedded.size()]);
   }
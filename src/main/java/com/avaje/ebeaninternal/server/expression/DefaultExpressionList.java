@@ -234,6 +234,11 @@ public class DefaultExpressionList<T> implements SpiExpressionList<T> {
     return query.findPagedList();
   }
 
+  @Override
+  public KeysetPagedList<T> findKeysetPagedList(Object[] afterValues, int pageSize) {
+    return query.findKeysetPagedList(afterValues, pageSize);
+  }
+
   @Override
   public int findRowCount() {
     return query.findRowCount();
@@ -249,6 +254,11 @@ public class DefaultExpressionList<T> implements SpiExpressionList<T> {
     query.findEach(consumer);
   }
 
+  @Override
+  public void findEachParallel(ParallelConfig config, QueryEachConsumer<T> consumer) {
+    query.findEachParallel(config, consumer);
+  }
+
   @Override
   public void findEachWhile(QueryEachWhileConsumer<T> consumer) {
     query.findEachWhile(consumer);
@@ -4,6 +4,7 @@ import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.List;
 
+import com.avaje.ebean.config.dbplatform.DatabasePlatform;
 import com.avaje.ebeaninternal.api.SpiExpressionList;
 import com.avaje.ebeaninternal.api.SpiExpressionRequest;
 import com.avaje.ebeaninternal.server.core.JsonExpressionHandler;
@@ -19,6 +20,8 @@ public class DefaultExpressionRequest implements SpiExpressionRequest {
 
   private final BeanDescriptor<?> beanDescriptor;
 
+  private final DatabasePlatform databasePlatform;
+
   private final StringBuilder sql = new StringBuilder();
 
   private final List<Object> bindValues = new ArrayList<Object>();
@@ -36,6 +39,7 @@ public class DefaultExpressionRequest implements SpiExpressionRequest {
   public DefaultExpressionRequest(SpiOrmQueryRequest<?> queryRequest, DeployParser deployParser, Binder binder, SpiExpressionList<?> expressionList) {
     this.queryRequest = queryRequest;
     this.beanDescriptor = queryRequest.getBeanDescriptor();
+    this.databasePlatform = beanDescriptor.getEbeanServer().getDatabasePlatform();
     this.deployParser = deployParser;
     this.binder = binder;
     this.expressionList = expressionList;
@@ -45,6 +49,7 @@ public class DefaultExpressionRequest implements SpiExpressionRequest {
 
   public DefaultExpressionRequest(BeanDescriptor<?> beanDescriptor) {
     this.beanDescriptor = beanDescriptor;
+    this.databasePlatform = null;
     this.queryRequest = null;
     this.deployParser = null;
     this.binder = null;
@@ -65,7 +70,11 @@ public class DefaultExpressionRequest implements SpiExpressionRequest {
   public void bind(DataBind dataBind) throws SQLException {
     for (int i = 0; i < bindValues.size(); i++) {
       Object bindValue = bindValues.get(i);
-      binder.bindObject(dataBind, bindValue);
+      if (bindValue instanceof InBinding.ArrayValue) {
+        ((InBinding.ArrayValue) bindValue).bind(dataBind);
+      } else {
+        binder.bindObject(dataBind, bindValue);
+      }
     }
     if (bindLog != null) {
       dataBind.append(bindLog.toString());
@@ -107,6 +116,11 @@ public class DefaultExpressionRequest implements SpiExpressionRequest {
     return beanDescriptor;
   }
 
+  @Override
+  public DatabasePlatform getDatabasePlatform() {
+    return databasePlatform;
+  }
+
   @Override
   public SpiOrmQueryRequest<?> getQueryRequest() {
     return queryRequest;
@@ -1,12 +1,18 @@
 package com.avaje.ebeaninternal.server.expression;
 
+import com.avaje.ebean.config.dbplatform.DatabasePlatform;
+import com.avaje.ebean.config.dbplatform.MultiValueBind;
+import com.avaje.ebean.event.BeanQueryRequest;
 import com.avaje.ebeaninternal.api.HashQueryPlanBuilder;
 import com.avaje.ebeaninternal.api.ManyWhereJoins;
+import com.avaje.ebeaninternal.api.SpiEbeanServer;
 import com.avaje.ebeaninternal.api.SpiExpression;
 import com.avaje.ebeaninternal.api.SpiExpressionRequest;
 import com.avaje.ebeaninternal.api.SpiExpressionValidation;
+import com.avaje.ebeaninternal.api.SpiQuery;
 import com.avaje.ebeaninternal.server.deploy.BeanDescriptor;
 import com.avaje.ebeaninternal.server.deploy.id.IdBinder;
+import com.avaje.ebeaninternal.server.type.ScalarType;
 
 import java.io.IOException;
 import java.util.List;
@@ -20,10 +26,29 @@ public class IdInExpression extends NonPrepareExpression {
 
   private final List<?> idList;
 
+  private transient boolean prepared;
+
+  /**
+   * Set when prepared to true if the ids are bound as a single array parameter.
+   */
+  private transient boolean arrayBinding;
+
+  /**
+   * Set when prepared to the platform limit of bind parameters per statement.
+   */
+  private transient int maxBindParameters;
+
   public IdInExpression(List<?> idList) {
     this.idList = idList;
   }
 
+  /**
+   * Return the Id values.
+   */
+  public List<?> getIdList() {
+    return idList;
+  }
+
   @Override
   public void containsMany(BeanDescriptor<?> desc, ManyWhereJoins manyWhereJoin) {
   }
@@ -38,6 +63,59 @@ public class IdInExpression extends NonPrepareExpression {
     // always valid
   }
 
+  /**
+   * Return the scalar type of a simple (single column) id when the platform supports binding
+   * its values as a single array parameter (otherwise null).
+   */
+  private ScalarType<Object> arrayIdType(SpiExpressionRequest request) {
+    return arrayIdType(request.getDatabasePlatform(), request.getBeanDescriptor());
+  }
+
+  private static ScalarType<Object> arrayIdType(DatabasePlatform platform, BeanDescriptor<?> descriptor) {
+    if (platform == null || descriptor == null) {
+      return null;
+    }
+    IdBinder idBinder = descriptor.getIdBinder();
+    if (idBinder.isComplexId() || idBinder.getBeanProperty() == null) {
+      return null;
+    }
+    ScalarType<Object> scalarType = idBinder.getBeanProperty().getScalarType();
+    if (scalarType == null || !platform.getMultiValueBind().isTypeSupported(scalarType.getJdbcType())) {
+      return null;
+    }
+    return scalarType;
+  }
+
+  /**
+   * Determine if the ids are bound as an array and the padding limit for the query plan.
+   */
+  @Override
+  public void prepareExpression(BeanQueryRequest<?> request) {
+    DatabasePlatform platform = ((SpiEbeanServer) request.getEbeanServer()).getDatabasePlatform();
+    BeanDescriptor<?> descriptor = ((SpiQuery<?>) request.getQuery()).getBeanDescriptor();
+    this.arrayBinding = arrayIdType(platform, descriptor) != null;
+    this.maxBindParameters = platform.getMaxBindParameters();
+    this.prepared = true;
+  }
+
+  /**
+   * Return the number of bind values (0 when bound as a single array parameter).
+   * <p>
+   * Uses the actual number of ids when the expression was not prepared with the platform.
+   * </p>
+   */
+  private int planSize() {
+    if (!prepared) {
+      return idList.size();
+    }
+    return arrayBinding ? 0 : InBinding.paddedSize(idList.size(), maxBindParameters);
+  }
+
+  private int maxBindParameters(SpiExpressionRequest request) {
+    DatabasePlatform platform = request.getDatabasePlatform();
+    return (platform == null) ? 0 : platform.getMaxBindParameters();
+  }
+
   @Override
   public void addBindValues(SpiExpressionRequest request) {
 
@@ -47,8 +125,22 @@ public class IdInExpression extends NonPrepareExpression {
     BeanDescriptor<?> descriptor = r.getBeanDescriptor();
     IdBinder idBinder = descriptor.getIdBinder();
 
-    for (int i = 0; i < idList.size(); i++) {
-      idBinder.addIdInBindValue(request, idList.get(i));
+    ScalarType<Object> arrayType = arrayIdType(request);
+    if (arrayType != null) {
+      // all the values bound as a single array parameter
+      Object[] values = new Object[idList.size()];
+      for (int i = 0; i < values.length; i++) {
+        Object value = idBinder.convertSetId(idList.get(i), null);
+        values[i] = arrayType.isJdbcNative() ? value : arrayType.toJdbcType(value);
+      }
+      MultiValueBind multiValueBind = request.getDatabasePlatform().getMultiValueBind();
+      request.addBindValue(new InBinding.ArrayValue(multiValueBind, arrayType.getJdbcType(), values));
+      return;
+    }
+
+    List<Object> padded = InBinding.pad(idList, maxBindParameters(request));
+    for (int i = 0; i < padded.size(); i++) {
+      idBinder.addIdInBindValue(request, padded.get(i));
     }
   }
 
@@ -62,7 +154,7 @@ public class IdInExpression extends NonPrepareExpression {
     IdBinder idBinder = descriptor.getIdBinder();
 
     request.append(descriptor.getIdBinder().getBindIdInSql(null));
-    String inClause = idBinder.getIdInValueExpr(idList.size());
+    String inClause = idBinder.getIdInValueExpr(InBinding.paddedSize(idList.size(), maxBindParameters(request)));
     request.append(inClause);
   }
 
@@ -73,18 +165,36 @@ public class IdInExpression extends NonPrepareExpression {
     BeanDescriptor<?> descriptor = r.getBeanDescriptor();
     IdBinder idBinder = descriptor.getIdBinder();
 
+    if (arrayIdType(request) != null) {
+      request.append(descriptor.getIdBinderInLHSSql());
+      request.append(request.getDatabasePlatform().getMultiValueBind().getInExpression(false));
+      return;
+    }
+
+    int size = InBinding.paddedSize(idList.size(), maxBindParameters(request));
+    DatabasePlatform platform = request.getDatabasePlatform();
+    if (platform != null && !idBinder.isComplexId() && size > 0) {
+      // split into multiple IN expressions when more values than the platform supports
+      StringBuilder sb = new StringBuilder();
+      InBinding.appendIn(sb, descriptor.getIdBinderInLHSSql(), false, size, platform.getMaxInBinding());
+      request.append(sb.toString());
+      return;
+    }
+
     request.append(descriptor.getIdBinderInLHSSql());
-    String inClause = idBinder.getIdInValueExpr(idList.size());
+    String inClause = idBinder.getIdInValueExpr(size);
     request.append(inClause);
   }
 
   /**
-   * Incorporates the number of Id values to bind.
+   * Incorporates the number of Id values to bind (padded to the bind size) unless the ids are
+   * bound as a single array parameter.
    */
   @Override
   public void queryPlanHash(HashQueryPlanBuilder builder) {
-    builder.add(IdInExpression.class).add(idList.size());
-    builder.bind(idList.size());
+    int size = planSize();
+    builder.add(IdInExpression.class).add(size).add(arrayBinding);
+    builder.bind(arrayBinding ? 1 : size);
   }
 
   @Override
@@ -99,7 +209,7 @@ public class IdInExpression extends NonPrepareExpression {
     }
 
     IdInExpression that = (IdInExpression) other;
-    return this.idList.size() == that.idList.size();
+    return arrayBinding == that.arrayBinding && planSize() == that.planSize();
   }
 
   @Override
@@ -0,0 +1,220 @@
+package com.avaje.ebeaninternal.server.expression;
+
+import com.avaje.ebean.config.dbplatform.DatabasePlatform;
+import com.avaje.ebean.config.dbplatform.MultiValueBind;
+import com.avaje.ebeaninternal.server.type.DataBind;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Helper for binding the values of IN expressions.
+ * <p>
+ * Where values are not bound as a single array parameter the number of values is padded (by
+ * repeating the last value) up to one of a few bucket sizes. This means IN expressions with a
+ * varying number of values map to only a few distinct SQL statements, query plans and
+ * prepared statements. Padding never exceeds the platform limit on bind parameters per
+ * statement. IN expressions with more values than the platform limit per IN list (Oracle) are
+ * split into multiple IN lists and lists of ids are split into multiple statements.
+ * </p>
+ */
+public final class InBinding {
+
+  private static final int[] BUCKETS = {5, 10, 20, 50, 100, 200, 500, 1000};
+
+  private InBinding() {
+  }
+
+  /**
+   * Return the number of values to bind for the given number of values.
+   * <p>
+   * Up to 5 values are not padded, beyond that the size is padded up to 10, 20, 50, 100, 200,
+   * 500, 1000 and then multiples of 1000.
+   * </p>
+   */
+  public static int paddedSize(int size) {
+    if (size <= BUCKETS[0]) {
+      return size;
+    }
+    for (int bucket : BUCKETS) {
+      if (size <= bucket) {
+        return bucket;
+      }
+    }
+    return ((size + 999) / 1000) * 1000;
+  }
+
+  /**
+   * Return the number of values to bind given the platform limit on bind parameters per
+   * statement (0 for no limit).
+   * <p>
+   * The values are not padded when the padded size would exceed the limit.
+   * </p>
+   */
+  public static int paddedSize(int size, int maxBindParameters) {
+    int paddedSize = paddedSize(size);
+    return (maxBindParameters > 0 && paddedSize > maxBindParameters) ? size : paddedSize;
+  }
+
+  /**
+   * Return the maximum number of ids to bind in a single statement for the platform (0 for no
+   * limit).
+   * <p>
+   * This is a bucket size (such that padding does not increase it) within the limit per IN
+   * list and leaving room for other bind parameters within the limit per statement.
+   * </p>
+   */
+  public static int maxIdsPerStatement(DatabasePlatform platform) {
+    int maxIds = bucketFloor(platform.getMaxInBinding() + 1);
+    int maxBind = bucketFloor(platform.getMaxBindParameters());
+    if (maxIds < 1) {
+      return maxBind;
+    }
+    return (maxBind < 1) ? maxIds : Math.min(maxIds, maxBind);
+  }
+
+  /**
+   * Return the largest bucket size that is less than the limit (0 for no limit).
+   */
+  private static int bucketFloor(int limit) {
+    if (limit <= 1) {
+      return 0;
+    }
+    if (limit > 1000) {
+      return ((limit - 1) / 1000) * 1000;
+    }
+    for (int i = BUCKETS.length - 1; i >= 0; i--) {
+      if (BUCKETS[i] < limit) {
+        return BUCKETS[i];
+      }
+    }
+    return limit - 1;
+  }
+
+  /**
+   * Return the values padded by repeating the last value.
+   */
+  public static List<Object> pad(List<?> values) {
+    return pad(values, 0);
+  }
+
+  /**
+   * Return the values padded by repeating the last value within the limit of bind parameters
+   * per statement (0 for no limit).
+   */
+  public static List<Object> pad(List<?> values, int maxBindParameters) {
+    int paddedSize = paddedSize(values.size(), maxBindParameters);
+    List<Object> padded = new ArrayList<Object>(paddedSize);
+    padded.addAll(values);
+    if (!values.isEmpty()) {
+      Object last = values.get(values.size() - 1);
+      while (padded.size() < paddedSize) {
+        padded.add(last);
+      }
+    }
+    return padded;
+  }
+
+  /**
+   * Return the values padded by repeating the last value.
+   */
+  public static Object[] pad(Object[] values) {
+    return pad(values, 0);
+  }
+
+  /**
+   * Return the values padded by repeating the last value within the limit of bind parameters
+   * per statement (0 for no limit).
+   */
+  public static Object[] pad(Object[] values, int maxBindParameters) {
+    int paddedSize = paddedSize(values.length, maxBindParameters);
+    if (paddedSize == values.length) {
+      return values;
+    }
+    Object[] padded = Arrays.copyOf(values, paddedSize);
+    Arrays.fill(padded, values.length, paddedSize, values[values.length - 1]);
+    return padded;
+  }
+
+  /**
+   * Split the values into lists of at most maxInBinding values (0 for no limit).
+   */
+  public static List<List<Object>> chunks(List<Object> values, int maxInBinding) {
+    List<List<Object>> chunks = new ArrayList<List<Object>>();
+    if (maxInBinding < 1 || values.size() <= maxInBinding) {
+      chunks.add(values);
+    } else {
+      for (int i = 0; i < values.size(); i += maxInBinding) {
+        chunks.add(values.subList(i, Math.min(values.size(), i + maxInBinding)));
+      }
+    }
+    return chunks;
+  }
+
+  /**
+   * Append the IN expression for the given number of bind values.
+   * <p>
+   * When the number of values exceeds maxInBinding (the platform limit per IN list) the
+   * expression is split into multiple IN lists. For example
+   * <code>(id in (?,?..) or id in (?,?..))</code>.
+   * </p>
+   */
+  public static void appendIn(StringBuilder sb, String lhs, boolean not, int size, int maxInBinding) {
+
+    if (maxInBinding < 1 || size <= maxInBinding) {
+      appendIn(sb, lhs, not, size);
+      return;
+    }
+    sb.append("(");
+    for (int start = 0; start < size; start += maxInBinding) {
+      if (start > 0) {
+        sb.append(not ? " and " : " or ");
+      }
+      appendIn(sb, lhs, not, Math.min(maxInBinding, size - start));
+    }
+    sb.append(")");
+  }
+
+  private static void appendIn(StringBuilder sb, String lhs, boolean not, int size) {
+    sb.append(lhs);
+    if (not) {
+      sb.append(" not");
+    }
+    sb.append(" in (?");
+    for (int i = 1; i < size; i++) {
+      sb.append(",?");
+    }
+    sb.append(") ");
+  }
+
+  /**
+   * The values of an IN expression bound as a single array parameter.
+   */
+  public static class ArrayValue {
+
+    private final MultiValueBind multiValueBind;
+
+    private final int jdbcType;
+
+    private final Object[] values;
+
+    public ArrayValue(MultiValueBind multiValueBind, int jdbcType, Object[] values) {
+      this.multiValueBind = multiValueBind;
+      this.jdbcType = jdbcType;
+      this.values = values;
+    }
+
+    public String toString() {
+      return Arrays.toString(values);
+    }
+
+    /**
+     * Bind the values as the next parameter.
+     */
+    public void bind(DataBind dataBind) throws SQLException {
+      multiValueBind.bindMultiValues(dataBind.getPstmt(), dataBind.nextPos(), jdbcType, values);
+    }
+  }
+}
@@ -1,10 +1,17 @@
 package com.avaje.ebeaninternal.server.expression;
 
 import com.avaje.ebean.bean.EntityBean;
+import com.avaje.ebean.config.dbplatform.DatabasePlatform;
+import com.avaje.ebean.config.dbplatform.MultiValueBind;
+import com.avaje.ebean.event.BeanQueryRequest;
 import com.avaje.ebeaninternal.api.HashQueryPlanBuilder;
+import com.avaje.ebeaninternal.api.SpiEbeanServer;
 import com.avaje.ebeaninternal.api.SpiExpression;
 import com.avaje.ebeaninternal.api.SpiExpressionRequest;
+import com.avaje.ebeaninternal.api.SpiQuery;
+import com.avaje.ebeaninternal.server.deploy.BeanDescriptor;
 import com.avaje.ebeaninternal.server.el.ElPropertyValue;
+import com.avaje.ebeaninternal.server.type.ScalarType;
 
 import java.io.IOException;
 import java.util.Collection;
@@ -17,6 +24,18 @@ class InExpression extends AbstractExpression {
 
   private final Object[] values;
 
+  private transient boolean prepared;
+
+  /**
+   * Set when prepared to true if the values are bound as a single array parameter.
+   */
+  private transient boolean arrayBinding;
+
+  /**
+   * Set when prepared to the platform limit of bind parameters per statement.
+   */
+  private transient int maxBindParameters;
+
   InExpression(String propertyName, Collection<?> coll, boolean not) {
     super(propertyName);
     this.values = coll.toArray(new Object[coll.size()]);
@@ -34,21 +53,83 @@ class InExpression extends AbstractExpression {
     context.writeTerms(propName, values);
   }
 
+  /**
+   * Return the scalar type of the property when the platform supports binding its values as a
+   * single array parameter (otherwise null).
+   */
+  private ScalarType<Object> arrayType(SpiExpressionRequest request, ElPropertyValue prop) {
+    return arrayType(request.getDatabasePlatform(), prop);
+  }
+
+  private static ScalarType<Object> arrayType(DatabasePlatform platform, ElPropertyValue prop) {
+    if (platform == null || prop == null || prop.isAssocId() || prop.isDbEncrypted() || prop.getBeanProperty() == null) {
+      return null;
+    }
+    ScalarType<Object> scalarType = prop.getBeanProperty().getScalarType();
+    if (scalarType == null || !platform.getMultiValueBind().isTypeSupported(scalarType.getJdbcType())) {
+      return null;
+    }
+    return scalarType;
+  }
+
+  /**
+   * Determine if the values are bound as an array and the padding limit for the query plan.
+   */
+  @Override
+  public void prepareExpression(BeanQueryRequest<?> request) {
+    DatabasePlatform platform = ((SpiEbeanServer) request.getEbeanServer()).getDatabasePlatform();
+    BeanDescriptor<?> descriptor = ((SpiQuery<?>) request.getQuery()).getBeanDescriptor();
+    ElPropertyValue prop = (descriptor == null) ? null : descriptor.getElGetValue(propName);
+    this.arrayBinding = values.length > 0 && arrayType(platform, prop) != null;
+    this.maxBindParameters = platform.getMaxBindParameters();
+    this.prepared = true;
+  }
+
+  /**
+   * Return the number of bind values (0 when bound as a single array parameter).
+   * <p>
+   * Uses the actual number of values when the expression was not prepared with the platform.
+   * </p>
+   */
+  private int planSize() {
+    if (!prepared) {
+      return values.length;
+    }
+    return arrayBinding ? 0 : InBinding.paddedSize(values.length, maxBindParameters);
+  }
+
   @Override
   public void addBindValues(SpiExpressionRequest request) {
 
+    if (values.length == 0) {
+      return;
+    }
+
     ElPropertyValue prop = getElProp(request);
+    ScalarType<Object> arrayType = arrayType(request, prop);
+    if (arrayType != null) {
+      // all the values bound as a single array parameter
+      Object[] jdbcValues = new Object[values.length];
+      for (int i = 0; i < values.length; i++) {
+        jdbcValues[i] = arrayType.isJdbcNative() ? values[i] : arrayType.toJdbcType(values[i]);
+      }
+      MultiValueBind multiValueBind = request.getDatabasePlatform().getMultiValueBind();
+      request.addBindValue(new InBinding.ArrayValue(multiValueBind, arrayType.getJdbcType(), jdbcValues));
+      return;
+    }
+
     if (prop != null && !prop.isAssocId()) {
       prop = null;
     }
 
-    for (int i = 0; i < values.length; i++) {
+    Object[] padded = InBinding.pad(values, maxBindParameters(request));
+    for (int i = 0; i < padded.length; i++) {
       if (prop == null) {
-        request.addBindValue(values[i]);
+        request.addBindValue(padded[i]);
 
       } else {
         // extract the id values from the bean
-        Object[] ids = prop.getAssocOneIdValues((EntityBean) values[i]);
+        Object[] ids = prop.getAssocOneIdValues((EntityBean) padded[i]);
         if (ids != null) {
           for (int j = 0; j < ids.length; j++) {
             request.addBindValue(ids[j]);
@@ -68,36 +149,45 @@ class InExpression extends AbstractExpression {
     }
 
     ElPropertyValue prop = getElProp(request);
+    if (arrayType(request, prop) != null) {
+      request.append(propName);
+      request.append(request.getDatabasePlatform().getMultiValueBind().getInExpression(not));
+      return;
+    }
+
     if (prop != null && !prop.isAssocId()) {
       prop = null;
     }
 
+    int size = InBinding.paddedSize(values.length, maxBindParameters(request));
     if (prop != null) {
       request.append(prop.getAssocIdInExpr(propName));
-      String inClause = prop.getAssocIdInValueExpr(values.length);
+      String inClause = prop.getAssocIdInValueExpr(size);
       request.append(inClause);
 
     } else {
-      request.append(propName);
-      if (not) {
-        request.append(" not");
-      }
-      request.append(" in (?");
-      for (int i = 1; i < values.length; i++) {
-        request.append(", ").append("?");
-      }
-
-      request.append(" ) ");
+      DatabasePlatform platform = request.getDatabasePlatform();
+      int maxInBinding = (platform == null) ? 0 : platform.getMaxInBinding();
+      StringBuilder sb = new StringBuilder();
+      InBinding.appendIn(sb, propName, not, size, maxInBinding);
+      request.append(sb.toString());
     }
   }
 
+  private int maxBindParameters(SpiExpressionRequest request) {
+    DatabasePlatform platform = request.getDatabasePlatform();
+    return (platform == null) ? 0 : platform.getMaxBindParameters();
+  }
+
   /**
-   * Based on the number of values in the in clause.
+   * Based on the number of values in the in clause (padded to the bind size) unless the
+   * values are bound as a single array parameter.
    */
   @Override
   public void queryPlanHash(HashQueryPlanBuilder builder) {
-    builder.add(InExpression.class).add(propName).add(values.length).add(not);
-    builder.bind(values.length);
+    int size = planSize();
+    builder.add(InExpression.class).add(propName).add(size).add(not).add(arrayBinding);
+    builder.bind(arrayBinding ? 1 : size);
   }
 
   @Override
@@ -118,7 +208,8 @@ class InExpression extends AbstractExpression {
     InExpression that = (InExpression) other;
     return propName.equals(that.propName)
         && not == that.not
-        && values.length == that.values.length;
+        && arrayBinding == that.arrayBinding
+        && planSize() == that.planSize();
   }
 
   @Override
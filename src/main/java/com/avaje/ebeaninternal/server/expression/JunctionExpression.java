@@ -6,9 +6,11 @@ import com.avaje.ebean.FetchPath;
 import com.avaje.ebean.FutureIds;
 import com.avaje.ebean.FutureList;
 import com.avaje.ebean.FutureRowCount;
+import com.avaje.ebean.KeysetPagedList;
 import com.avaje.ebean.Junction;
 import com.avaje.ebean.OrderBy;
 import com.avaje.ebean.PagedList;
+import com.avaje.ebean.ParallelConfig;
 import com.avaje.ebean.Query;
 import com.avaje.ebean.QueryEachConsumer;
 import com.avaje.ebean.QueryEachWhileConsumer;
@@ -349,6 +351,11 @@ abstract class JunctionExpression<T> implements Junction<T>, SpiExpression, Expr
     exprList.findEach(consumer);
   }
 
+  @Override
+  public void findEachParallel(ParallelConfig config, QueryEachConsumer<T> consumer) {
+    exprList.findEachParallel(config, consumer);
+  }
+
   @Override
   public void findEachWhile(QueryEachWhileConsumer<T> consumer) {
     exprList.findEachWhile(consumer);
@@ -384,6 +391,11 @@ abstract class JunctionExpression<T> implements Junction<T>, SpiExpression, Expr
     return exprList.findPagedList();
   }
 
+  @Override
+  public KeysetPagedList<T> findKeysetPagedList(Object[] afterValues, int pageSize) {
+    return exprList.findKeysetPagedList(afterValues, pageSize);
+  }
+
   @Override
   public int findRowCount() {
     return exprList.findRowCount();
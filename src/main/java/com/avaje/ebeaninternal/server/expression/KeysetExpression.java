@@ -0,0 +1,178 @@
+package com.avaje.ebeaninternal.server.expression;
+
+import com.avaje.ebean.OrderBy;
+import com.avaje.ebeaninternal.api.HashQueryPlanBuilder;
+import com.avaje.ebeaninternal.api.ManyWhereJoins;
+import com.avaje.ebeaninternal.api.SpiExpression;
+import com.avaje.ebeaninternal.api.SpiExpressionRequest;
+import com.avaje.ebeaninternal.api.SpiExpressionValidation;
+import com.avaje.ebeaninternal.server.deploy.BeanDescriptor;
+import com.avaje.ebeaninternal.server.el.ElPropertyDeploy;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Keyset (seek) predicate selecting the rows after the given order by values.
+ * <p>
+ * When all the order by properties have the same direction and the platform supports row value
+ * comparison this is <code>(a, b) &gt; (?, ?)</code>. Otherwise it is the expanded (and index
+ * friendly) form of <code>(a &gt; ? or (a = ? and b &gt; ?))</code> with the comparison for
+ * each property following its order by direction.
+ * </p>
+ */
+public class KeysetExpression extends NonPrepareExpression {
+
+  private static final long serialVersionUID = -6421709271425338290L;
+
+  private final String[] properties;
+
+  private final boolean[] ascending;
+
+  private final Object[] values;
+
+  /**
+   * Create given the (unique) order by properties and the values of the last row of the prior page.
+   */
+  public KeysetExpression(List<OrderBy.Property> orderBy, Object[] values) {
+    if (values.length != orderBy.size()) {
+      throw new IllegalArgumentException("Expected " + orderBy.size() + " keyset values for order by " + orderBy + " but got " + values.length);
+    }
+    this.properties = new String[orderBy.size()];
+    this.ascending = new boolean[orderBy.size()];
+    for (int i = 0; i < properties.length; i++) {
+      properties[i] = orderBy.get(i).getProperty();
+      ascending[i] = orderBy.get(i).isAscending();
+      if (values[i] == null) {
+        throw new IllegalArgumentException("Keyset value for " + properties[i] + " is null but keyset order by properties must not be nullable");
+      }
+    }
+    this.values = values;
+  }
+
+  /**
+   * Return true if all the properties are ordered in the same direction.
+   */
+  private boolean isSameDirection() {
+    for (int i = 1; i < ascending.length; i++) {
+      if (ascending[i] != ascending[0]) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private boolean isRowValue(SpiExpressionRequest request) {
+    return properties.length > 1 && isSameDirection() && request.getDatabasePlatform().isRowValueComparison();
+  }
+
+  @Override
+  public void writeElastic(ElasticExpressionContext context) throws IOException {
+
+    context.writeBoolStart(false);
+    for (int i = 0; i < properties.length; i++) {
+      context.writeBoolMustStart();
+      for (int j = 0; j < i; j++) {
+        context.writeSimple(Op.EQ, properties[j], values[j]);
+      }
+      context.writeSimple(ascending[i] ? Op.GT : Op.LT, properties[i], values[i]);
+      context.writeBoolEnd();
+    }
+    context.writeBoolEnd();
+  }
+
+  @Override
+  public void containsMany(BeanDescriptor<?> desc, ManyWhereJoins manyWhereJoin) {
+    for (String property : properties) {
+      ElPropertyDeploy elProp = desc.getElPropertyDeploy(property);
+      if (elProp != null && elProp.containsMany()) {
+        manyWhereJoin.add(elProp);
+      }
+    }
+  }
+
+  @Override
+  public void validate(SpiExpressionValidation validation) {
+    for (String property : properties) {
+      validation.validate(property);
+    }
+  }
+
+  @Override
+  public void addSql(SpiExpressionRequest request) {
+
+    if (isRowValue(request)) {
+      request.append("(");
+      for (int i = 0; i < properties.length; i++) {
+        request.append(i == 0 ? "" : ", ").append(properties[i]);
+      }
+      request.append(ascending[0] ? ") > (" : ") < (");
+      for (int i = 0; i < properties.length; i++) {
+        request.append(i == 0 ? "?" : ", ?");
+      }
+      request.append(")");
+      return;
+    }
+
+    StringBuilder close = new StringBuilder();
+    for (int i = 0; i < properties.length; i++) {
+      if (i > 0) {
+        request.append(" or (").append(properties[i - 1]).append(" = ? and ");
+        close.append(")");
+      }
+      if (i < properties.length - 1) {
+        request.append("(");
+        close.append(")");
+      }
+      request.append(properties[i]).append(ascending[i] ? " > ?" : " < ?");
+    }
+    request.append(close.toString());
+  }
+
+  @Override
+  public void addBindValues(SpiExpressionRequest request) {
+
+    if (isRowValue(request)) {
+      for (Object value : values) {
+        request.addBindValue(value);
+      }
+      return;
+    }
+    for (int i = 0; i < values.length; i++) {
+      if (i > 0) {
+        request.addBindValue(values[i - 1]);
+      }
+      request.addBindValue(values[i]);
+    }
+  }
+
+  @Override
+  public void queryPlanHash(HashQueryPlanBuilder builder) {
+    builder.add(KeysetExpression.class);
+    for (int i = 0; i < properties.length; i++) {
+      builder.add(properties[i]).add(ascending[i]);
+    }
+    builder.bind(values.length);
+  }
+
+  @Override
+  public int queryBindHash() {
+    return Arrays.hashCode(values);
+  }
+
+  @Override
+  public boolean isSameByPlan(SpiExpression other) {
+    if (!(other instanceof KeysetExpression)) {
+      return false;
+    }
+    KeysetExpression that = (KeysetExpression) other;
+    return Arrays.equals(properties, that.properties) && Arrays.equals(ascending, that.ascending);
+  }
+
+  @Override
+  public boolean isSameByBind(SpiExpression other) {
+    KeysetExpression that = (KeysetExpression) other;
+    return Arrays.equals(values, that.values);
+  }
+}
@@ -3,6 +3,7 @@ package com.avaje.ebeaninternal.server.loadcontext;
 import com.avaje.ebean.FetchConfig;
 import com.avaje.ebean.bean.ObjectGraphNode;
 import com.avaje.ebean.bean.PersistenceContext;
+import com.avaje.ebeaninternal.server.core.CObjectGraphNodeBatchSize;
 import com.avaje.ebeaninternal.server.deploy.BeanDescriptor;
 import com.avaje.ebeaninternal.server.querydefn.OrmQueryProperties;
 
@@ -31,6 +32,11 @@ public abstract class DLoadBaseContext {
 
   protected final boolean queryFetch;
 
+  /**
+   * Adaptive batch size, null unless adaptive lazy loading batch size is on.
+   */
+  protected final CObjectGraphNodeBatchSize adaptiveBatchSize;
+
 
   public DLoadBaseContext(DLoadContext parent, BeanDescriptor<?> desc, String path, int defaultBatchSize, OrmQueryProperties queryProps) {
 
@@ -45,8 +51,42 @@ public abstract class DLoadBaseContext {
     this.objectGraphNode = parent.getObjectGraphNode(path);
 
     this.queryFetch = queryProps != null && queryProps.isQueryFetch();
-    this.firstBatchSize = initFirstBatchSize(defaultBatchSize, queryProps);
-    this.secondaryBatchSize = initSecondaryBatchSize(defaultBatchSize, firstBatchSize, queryProps);
+    this.adaptiveBatchSize = initAdaptiveBatchSize(defaultBatchSize, queryProps);
+
+    int batchSize = (adaptiveBatchSize == null) ? defaultBatchSize : adaptiveBatchSize.getBatchSize();
+    this.firstBatchSize = initFirstBatchSize(batchSize, queryProps);
+    this.secondaryBatchSize = initSecondaryBatchSize(batchSize, firstBatchSize, queryProps);
+  }
+
+  /**
+   * Return the adaptive batch size unless the batch size is explicitly defined for this path.
+   */
+  private CObjectGraphNodeBatchSize initAdaptiveBatchSize(int defaultBatchSize, OrmQueryProperties queryProps) {
+    if (queryProps != null && (queryFetch || queryProps.getLazyFetchBatch() > 0)) {
+      return null;
+    }
+    return parent.getEbeanServer().getAdaptiveBatchSize(objectGraphNode, defaultBatchSize);
+  }
+
+  /**
+   * Register a bean or collection into a load buffer with adaptive batch sizing.
+   */
+  protected void adaptiveRegister(boolean newBuffer) {
+    if (adaptiveBatchSize != null) {
+      if (newBuffer) {
+        adaptiveBatchSize.checkBatchSize();
+      }
+      adaptiveBatchSize.register();
+    }
+  }
+
+  /**
+   * A load buffer with the given number of beans or collections is being lazy loaded.
+   */
+  protected void adaptiveLoaded(int count) {
+    if (adaptiveBatchSize != null) {
+      adaptiveBatchSize.loaded(count);
+    }
   }
 
   private int initFirstBatchSize(int batchSize, OrmQueryProperties queryProps) {
@@ -12,7 +12,6 @@ import com.avaje.ebeaninternal.server.deploy.BeanDescriptor;
 import com.avaje.ebeaninternal.server.querydefn.OrmQueryProperties;
 
 import java.util.ArrayList;
-import java.util.Iterator;
 import java.util.List;
 
 /**
@@ -55,9 +54,11 @@ public class DLoadBeanContext extends DLoadBaseContext implements LoadBeanContex
 
   protected void register(EntityBeanIntercept ebi) {
 
-    if (currentBuffer.isFull()) {
+    boolean newBuffer = currentBuffer.isFull();
+    if (newBuffer) {
       currentBuffer = createBuffer(secondaryBatchSize);
     }
+    adaptiveRegister(newBuffer);
     ebi.setBeanLoader(currentBuffer, getPersistenceContext());
     currentBuffer.add(ebi);
   }
@@ -178,14 +179,12 @@ public class DLoadBeanContext extends DLoadBaseContext implements LoadBeanContex
         return;
       }
 
+      context.adaptiveLoaded(list.size());
+
       if (context.hitCache) {
-        // check each of the beans in the batch to see if they are in the L2 cache.
-        Iterator<EntityBeanIntercept> iterator = list.iterator();
-        while (iterator.hasNext()) {
-          if (context.desc.cacheBeanLoad(iterator.next())) {
-            iterator.remove();
-          }
-        }
+        // check the other beans in the batch against the L2 cache (single getAll)
+        // removing the ones loaded from the batch
+        context.desc.cacheBeanLoadAll(list);
       }
 
       LoadBeanRequest req = new LoadBeanRequest(this, ebi.getLazyLoadProperty(), context.hitCache);
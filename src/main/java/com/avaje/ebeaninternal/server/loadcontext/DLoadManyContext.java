@@ -78,9 +78,11 @@ public class DLoadManyContext extends DLoadBaseContext implements LoadManyContex
 
   public void register(BeanCollection<?> bc) {
 
-    if (currentBuffer.isFull()) {
+    boolean newBuffer = currentBuffer.isFull();
+    if (newBuffer) {
       currentBuffer = createBuffer(secondaryBatchSize);
     }
+    adaptiveRegister(newBuffer);
     currentBuffer.add(bc);
     bc.setLoader(currentBuffer);
   }
@@ -207,6 +209,8 @@ public class DLoadManyContext extends DLoadBaseContext implements LoadManyContex
           }
         }
 
+        context.adaptiveLoaded(list.size());
+
         // Should reduce the list by checking each beanCollection in the L2 first before executing the query
 
         LoadManyRequest req = new LoadManyRequest(this, onlyIds, useCache);
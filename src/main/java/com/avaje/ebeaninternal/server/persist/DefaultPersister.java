@@ -10,6 +10,7 @@ import com.avaje.ebean.bean.BeanCollection.ModifyListenMode;
 import com.avaje.ebean.bean.EntityBean;
 import com.avaje.ebean.bean.EntityBeanIntercept;
 import com.avaje.ebean.bean.PersistenceContext;
+import com.avaje.ebean.config.dbplatform.DraftPublishSql;
 import com.avaje.ebeaninternal.api.SpiEbeanServer;
 import com.avaje.ebeaninternal.api.SpiTransaction;
 import com.avaje.ebeaninternal.api.SpiUpdate;
@@ -28,8 +29,10 @@ import com.avaje.ebeaninternal.server.deploy.BeanManager;
 import com.avaje.ebeaninternal.server.deploy.BeanProperty;
 import com.avaje.ebeaninternal.server.deploy.BeanPropertyAssocMany;
 import com.avaje.ebeaninternal.server.deploy.BeanPropertyAssocOne;
+import com.avaje.ebeaninternal.server.deploy.CascadeDeletePlan;
 import com.avaje.ebeaninternal.server.deploy.IntersectionRow;
 import com.avaje.ebeaninternal.server.deploy.ManyType;
+import com.avaje.ebeaninternal.server.expression.InBinding;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -40,6 +43,7 @@ import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Persister implementation using DML.
@@ -74,6 +78,11 @@ public final class DefaultPersister implements Persister {
 
   private final boolean updatesDeleteMissingChildren;
 
+  /**
+   * Set based publish plans keyed by the full name of the draftable bean type.
+   */
+  private final ConcurrentHashMap<String, DraftPublishPlan> draftPublishPlans = new ConcurrentHashMap<String, DraftPublishPlan>();
+
   public DefaultPersister(SpiEbeanServer server, Binder binder, BeanDescriptorManager descMgr) {
     this.server = server;
     this.updatesDeleteMissingChildren = server.getServerConfig().isUpdatesDeleteMissingChildren();
@@ -218,6 +227,53 @@ public final class DefaultPersister implements Persister {
     return livePublish;
   }
 
+  /**
+   * Publish from draft to live given the query using set based statements where supported.
+   */
+  @Override
+  public <T> int publishBulk(Query<T> query, Transaction transaction) {
+
+    BeanDescriptor<T> desc = server.getBeanDescriptor(query.getBeanType());
+    DraftPublishPlan plan = draftPublishPlan(desc);
+    if (!plan.isSupported()) {
+      PUB.debug("publishBulk [{}] not supported - publish bean by bean", desc.getName());
+      return publish(query, transaction).size();
+    }
+
+    query.asDraft();
+    List<Object> ids = server.findIds(query, transaction);
+    PUB.debug("publishBulk [{}] count[{}]", desc.getName(), ids.size());
+    if (ids.isEmpty()) {
+      return 0;
+    }
+
+    SpiTransaction t = (SpiTransaction) transaction;
+    if (t.isLogSummary()) {
+      t.logSummary("-- Publish of " + plan + " by statement count[" + ids.size() + "]");
+    }
+    DraftPublishSql publishSql = server.getDatabasePlatform().getDraftPublishSql();
+    int maxIds = InBinding.maxIdsPerStatement(server.getDatabasePlatform());
+    int chunkSize = (maxIds < 1) ? 1000 : Math.min(1000, maxIds);
+    long now = System.currentTimeMillis();
+    for (List<Object> chunk : InBinding.chunks(ids, chunkSize)) {
+      for (SqlUpdate update : plan.publish(publishSql, chunk, now)) {
+        executeSqlUpdate(update, t);
+      }
+    }
+
+    PUB.debug("publishBulk - complete for [{}]", desc.getName());
+    return ids.size();
+  }
+
+  private DraftPublishPlan draftPublishPlan(BeanDescriptor<?> desc) {
+    DraftPublishPlan plan = draftPublishPlans.get(desc.getFullName());
+    if (plan == null) {
+      plan = DraftPublishPlan.of(desc);
+      draftPublishPlans.put(desc.getFullName(), plan);
+    }
+    return plan;
+  }
+
   /**
    * Helper to handle draft beans (properties reset etc).
    */
@@ -644,8 +700,14 @@ public final class DefaultPersister implements Persister {
             SqlUpdate sqlDelete = expOnes[i].deleteByParentId(id, idList);
             executeSqlUpdate(sqlDelete, t);
           } else {
-            List<Object> childIds = expOnes[i].findIdsByParentId(id, idList, t);
-            deleteChildrenById(t, targetDesc, childIds, softDelete);
+            CascadeDeletePlan plan = softDelete ? null : expOnes[i].getCascadeDeletePlan();
+            if (plan != null) {
+              // delete all the levels with set based statements
+              cascadeDeleteByPlan(plan, id, idList, t);
+            } else {
+              List<Object> childIds = expOnes[i].findIdsByParentId(id, idList, t);
+              deleteChildrenById(t, targetDesc, childIds, softDelete);
+            }
           }
         }
       }
@@ -661,10 +723,16 @@ public final class DefaultPersister implements Persister {
             SqlUpdate sqlDelete = manys[i].deleteByParentId(id, idList);
             executeSqlUpdate(sqlDelete, t);
           } else {
-            // we need to fetch the Id's to delete (recurse or notify L2 cache)
-            List<Object> childIds = manys[i].findIdsByParentId(id, idList, t, null);
-            if (!childIds.isEmpty()) {
-              delete(targetDesc, null, childIds, t, softDelete);
+            CascadeDeletePlan plan = softDelete ? null : manys[i].getCascadeDeletePlan();
+            if (plan != null) {
+              // delete all the levels with set based statements
+              cascadeDeleteByPlan(plan, id, idList, t);
+            } else {
+              // we need to fetch the Id's to delete (recurse or notify L2 cache)
+              List<Object> childIds = manys[i].findIdsByParentId(id, idList, t, null);
+              if (!childIds.isEmpty()) {
+                delete(targetDesc, null, childIds, t, softDelete);
+              }
             }
           }
         }
@@ -684,7 +752,6 @@ public final class DefaultPersister implements Persister {
     }
 
     // delete the bean(s)
-    SqlUpdate deleteById = descriptor.deleteById(id, idList, softDelete);
     if (t.isLogSummary()) {
       if (idList != null) {
         t.logSummary("-- Deleting " + descriptor.getName() + " Ids: " + idList);
@@ -694,13 +761,25 @@ public final class DefaultPersister implements Persister {
     }
 
     // use Id's to update L2 cache rather than Bulk table event
-    deleteById.setAutoTableMod(false);
     if (idList != null) {
       t.getEvent().addDeleteByIdList(descriptor, idList);
     } else {
       t.getEvent().addDeleteById(descriptor, id);
     }
-    int rows = executeSqlUpdate(deleteById, t);
+    int rows = 0;
+    if (idList == null) {
+      SqlUpdate deleteById = descriptor.deleteById(id, null, softDelete);
+      deleteById.setAutoTableMod(false);
+      rows = executeSqlUpdate(deleteById, t);
+    } else {
+      // more ids than the platform supports in a statement are deleted in chunks
+      int maxIds = InBinding.maxIdsPerStatement(server.getDatabasePlatform());
+      for (List<Object> chunk : InBinding.chunks(idList, maxIds)) {
+        SqlUpdate deleteById = descriptor.deleteById(null, chunk, softDelete);
+        deleteById.setAutoTableMod(false);
+        rows += executeSqlUpdate(deleteById, t);
+      }
+    }
 
     // Delete from the persistence context so that it can't be fetched again later
     PersistenceContext persistenceContext = t.getPersistenceContext();
@@ -714,6 +793,28 @@ public final class DefaultPersister implements Persister {
     return rows;
   }
 
+  /**
+   * Cascade delete all the levels below the parent(s) using set based delete statements.
+   */
+  private void cascadeDeleteByPlan(CascadeDeletePlan plan, Object id, List<Object> idList, SpiTransaction t) {
+
+    if (t.isLogSummary()) {
+      t.logSummary("-- Cascade delete of " + plan + " by statement levels[" + plan.size() + "]");
+    }
+    if (idList == null) {
+      for (SqlUpdate sqlDelete : plan.deletes(id, null)) {
+        executeSqlUpdate(sqlDelete, t);
+      }
+    } else {
+      int maxIds = InBinding.maxIdsPerStatement(server.getDatabasePlatform());
+      for (List<Object> chunk : InBinding.chunks(idList, maxIds)) {
+        for (SqlUpdate sqlDelete : plan.deletes(null, chunk)) {
+          executeSqlUpdate(sqlDelete, t);
+        }
+      }
+    }
+  }
+
   /**
    * We need to create and execute a query to get the foreign key values as
    * the delete cascades to them (foreign keys).
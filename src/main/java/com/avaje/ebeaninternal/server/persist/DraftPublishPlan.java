@@ -0,0 +1,291 @@
+package com.avaje.ebeaninternal.server.persist;
+
+import com.avaje.ebean.SqlUpdate;
+import com.avaje.ebean.bean.EntityBean;
+import com.avaje.ebean.config.dbplatform.DraftPublishSql;
+import com.avaje.ebeaninternal.server.core.DefaultSqlUpdate;
+import com.avaje.ebeaninternal.server.deploy.BeanDescriptor;
+import com.avaje.ebeaninternal.server.deploy.BeanProperty;
+import com.avaje.ebeaninternal.server.deploy.BeanPropertyAssocMany;
+import com.avaje.ebeaninternal.server.deploy.BeanPropertyAssocOne;
+import com.avaje.ebeaninternal.server.deploy.BeanPropertyCompound;
+import com.avaje.ebeaninternal.server.deploy.generatedproperty.GeneratedProperty;
+import com.avaje.ebeaninternal.server.expression.InBinding;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Set based publish of draft rows to the live table for a @Draftable bean type.
+ * <p>
+ * Rather than fetching the draft and live beans, copying the properties and persisting each live
+ * bean, the publish executes per chunk of Id's:
+ * </p>
+ * <pre>{@code
+ *
+ *   update link set name = ..., version = version + 1, when_modified = ? where id in (?,?) and (name <> d.name or ...)
+ *   insert into link (id, name, ..., version, when_created, when_modified) select d.id, d.name, ..., 1, ?, ? from link_draft d where d.id in (?,?) and not exists (...)
+ *   update link_draft set dirty = ?, comment = null, version = version + 1, when_modified = ? where id in (?,?) and (dirty = ? or comment is not null)
+ *
+ * }</pre>
+ * <p>
+ * This is only supported when the bean type does not need per bean processing on publish
+ * (no persist controller, persist listener, change log or document store mapping) and has no
+ * draftable relationships to publish along with it (draftable OneToMany, ManyToMany or OneToOne),
+ * embedded, compound, secondary table, encrypted or lob properties, inheritance or non integral
+ * version. Otherwise publish is performed bean by bean as per normal.
+ * </p>
+ * <p>
+ * Only the live rows that differ from their draft rows are updated (the same as publishing bean
+ * by bean where an unchanged live bean is not updated). Lob columns are not supported as they
+ * can not be compared on all databases.
+ * </p>
+ */
+class DraftPublishPlan {
+
+  private final String name;
+
+  private final boolean supported;
+
+  private final DraftPublishSql.Table table;
+
+  private final String draftTable;
+
+  private final String idColumn;
+
+  private final String versionColumn;
+
+  private final List<BeanProperty> insertGenerated = new ArrayList<BeanProperty>();
+
+  private final List<BeanProperty> updateGenerated = new ArrayList<BeanProperty>();
+
+  private final BeanProperty draftDirty;
+
+  private final List<String> resetColumns = new ArrayList<String>();
+
+  private final EntityBean prototype;
+
+  private DraftPublishPlan(BeanDescriptor<?> desc) {
+    this.name = desc.getFullName();
+    this.draftTable = desc.getDraftTable();
+    this.prototype = desc.createEntityBean();
+    this.draftDirty = desc.getDraftDirty();
+
+    BeanProperty idProperty = desc.getIdProperty();
+    BeanProperty versionProperty = desc.getVersionProperty();
+    this.idColumn = (idProperty == null) ? null : idProperty.getDbColumn();
+    this.versionColumn = (versionProperty == null) ? null : versionProperty.getDbColumn();
+
+    List<String> columns = new ArrayList<String>();
+    boolean supported = isSupported(desc) && addColumns(desc, columns);
+    this.supported = supported;
+    if (!supported) {
+      this.table = null;
+    } else {
+      this.table = new DraftPublishSql.Table(desc.getBaseTable(), draftTable, idColumn, columns, versionColumn,
+          dbColumns(insertGenerated), dbColumns(updateGenerated));
+    }
+  }
+
+  /**
+   * Build the plan for the draftable bean type.
+   */
+  static DraftPublishPlan of(BeanDescriptor<?> desc) {
+    return new DraftPublishPlan(desc);
+  }
+
+  /**
+   * Return true if the bean type does not require per bean publish.
+   */
+  private static boolean isSupported(BeanDescriptor<?> desc) {
+
+    BeanProperty idProperty = desc.getIdProperty();
+    if (!desc.isDraftable() || idProperty == null || idProperty.isEmbedded()
+        || desc.getPersistController() != null
+        || desc.getPersistListener() != null
+        || desc.isChangeLog()
+        || desc.isDocStoreMapped()
+        || desc.getInheritInfo() != null
+        || desc.propertiesEmbedded().length > 0
+        || desc.propertiesBaseCompound().length > 0) {
+      return false;
+    }
+    BeanProperty versionProperty = desc.getVersionProperty();
+    if (versionProperty != null && !isIntegral(versionProperty.getPropertyType())) {
+      return false;
+    }
+    for (BeanPropertyAssocMany<?> many : desc.propertiesMany()) {
+      if (many.getTargetDescriptor().isDraftable()) {
+        return false;
+      }
+    }
+    for (BeanPropertyAssocOne<?> one : desc.propertiesOne()) {
+      if (one.getTargetDescriptor().isDraftableElement()
+          || (one.isOneToOneExported() && one.getTargetDescriptor().isDraftable())) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static boolean isIntegral(Class<?> type) {
+    return type == Long.class || type == long.class || type == Integer.class || type == int.class;
+  }
+
+  /**
+   * Add the columns copied from draft to live returning false if a property is not supported.
+   */
+  private boolean addColumns(BeanDescriptor<?> desc, List<String> columns) {
+
+    for (BeanProperty prop : desc.propertiesNonTransient()) {
+      if (prop instanceof BeanPropertyAssocMany<?>) {
+        continue;
+      }
+      if (prop.isSecondaryTable() || prop.isDbEncrypted() || prop.isLob() || prop instanceof BeanPropertyCompound) {
+        return false;
+      }
+      if (prop instanceof BeanPropertyAssocOne<?>) {
+        BeanPropertyAssocOne<?> one = (BeanPropertyAssocOne<?>) prop;
+        if (one.isOneToOneExported()) {
+          continue;
+        }
+        if (one.getImportedId() == null || !one.getImportedId().isScalar()) {
+          return false;
+        }
+        columns.add(one.getImportedId().getDbColumn());
+        continue;
+      }
+      if (prop.isDraftOnly() || prop.isVersion() || prop.isId()) {
+        continue;
+      }
+      if (prop.isDraftReset()) {
+        resetColumns.add(prop.getDbColumn());
+      }
+      GeneratedProperty generated = prop.getGeneratedProperty();
+      if (generated != null) {
+        if (generated.includeInInsert() && prop.isDbInsertable()) {
+          insertGenerated.add(prop);
+        }
+        if (generated.includeInUpdate() && prop.isDbUpdatable()) {
+          updateGenerated.add(prop);
+        }
+        continue;
+      }
+      if (prop.isDbInsertable() && prop.isDbUpdatable()) {
+        columns.add(prop.getDbColumn());
+      } else if (prop.isDbInsertable() || prop.isDbUpdatable()) {
+        // insert only or update only column
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static List<String> dbColumns(List<BeanProperty> props) {
+    List<String> columns = new ArrayList<String>(props.size());
+    for (BeanProperty prop : props) {
+      columns.add(prop.getDbColumn());
+    }
+    return columns;
+  }
+
+  public String toString() {
+    return name;
+  }
+
+  /**
+   * Return true if set based publish is supported.
+   */
+  boolean isSupported() {
+    return supported;
+  }
+
+  /**
+   * Return the statements publishing the draft rows with the given Id's in execution order.
+   */
+  List<SqlUpdate> publish(DraftPublishSql publishSql, List<Object> ids, long now) {
+
+    List<Object> bindIds = InBinding.pad(ids);
+    StringBuilder sb = new StringBuilder(bindIds.size() * 2 + 6);
+    InBinding.appendIn(sb, "", false, bindIds.size(), 0);
+    String idIn = sb.toString();
+
+    List<SqlUpdate> updates = new ArrayList<SqlUpdate>(3);
+    updates.add(bind(new DefaultSqlUpdate(publishSql.update(table, idIn)), updateGenerated, false, now, bindIds));
+    updates.add(bind(new DefaultSqlUpdate(publishSql.insert(table, idIn)), insertGenerated, true, now, bindIds));
+
+    SqlUpdate resetDraft = resetDraft(idIn, bindIds, now);
+    if (resetDraft != null) {
+      updates.add(resetDraft);
+    }
+    return updates;
+  }
+
+  /**
+   * Return the update resetting the @DraftDirty and @DraftReset properties on the draft rows.
+   * <p>
+   * As per publish of individual beans only the draft rows that change are updated (which
+   * increments their version).
+   * </p>
+   */
+  private SqlUpdate resetDraft(String idIn, List<Object> bindIds, long now) {
+
+    if (draftDirty == null && resetColumns.isEmpty()) {
+      return null;
+    }
+    List<Object> binds = new ArrayList<Object>();
+    StringBuilder sb = new StringBuilder(100);
+    sb.append("update ").append(draftTable).append(" set ");
+    int count = 0;
+    if (draftDirty != null) {
+      count++;
+      sb.append(draftDirty.getDbColumn()).append(" = ?");
+      binds.add(Boolean.FALSE);
+    }
+    for (String column : resetColumns) {
+      if (count++ > 0) {
+        sb.append(", ");
+      }
+      sb.append(column).append(" = null");
+    }
+    if (versionColumn != null) {
+      sb.append(", ").append(versionColumn).append(" = ").append(versionColumn).append(" + 1");
+    }
+    for (BeanProperty prop : updateGenerated) {
+      sb.append(", ").append(prop.getDbColumn()).append(" = ?");
+      binds.add(prop.getGeneratedProperty().getUpdateValue(prop, prototype, now));
+    }
+    sb.append(" where ").append(idColumn).append(idIn).append(" and (");
+    binds.addAll(bindIds);
+    count = 0;
+    if (draftDirty != null) {
+      count++;
+      sb.append(draftDirty.getDbColumn()).append(" = ?");
+      binds.add(Boolean.TRUE);
+    }
+    for (String column : resetColumns) {
+      if (count++ > 0) {
+        sb.append(" or ");
+      }
+      sb.append(column).append(" is not null");
+    }
+    sb.append(")");
+
+    DefaultSqlUpdate update = new DefaultSqlUpdate(sb.toString());
+    for (Object value : binds) {
+      update.addParameter(value);
+    }
+    return update;
+  }
+
+  private DefaultSqlUpdate bind(DefaultSqlUpdate update, List<BeanProperty> generated, boolean insert, long now, List<Object> bindIds) {
+    for (BeanProperty prop : generated) {
+      GeneratedProperty gen = prop.getGeneratedProperty();
+      update.addParameter(insert ? gen.getInsertValue(prop, prototype, now) : gen.getUpdateValue(prop, prototype, now));
+    }
+    for (Object id : bindIds) {
+      update.addParameter(id);
+    }
+    return update;
+  }
+}
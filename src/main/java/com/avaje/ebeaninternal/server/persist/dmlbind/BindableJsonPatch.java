@@ -0,0 +1,106 @@
+package com.avaje.ebeaninternal.server.persist.dmlbind;
+
+import com.avaje.ebean.bean.EntityBean;
+import com.avaje.ebean.text.TextException;
+import com.avaje.ebean.text.json.EJson;
+import com.avaje.ebeaninternal.server.core.PersistRequestBean;
+import com.avaje.ebeaninternal.server.deploy.BeanProperty;
+import com.avaje.ebeaninternal.server.persist.dml.GenerateDmlRequest;
+import com.avaje.ebeaninternal.server.type.LazyJsonMap;
+
+import java.io.IOException;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.List;
+
+/**
+ * Bindable for a JSON Map property that is updated by patching the changed top level keys.
+ * <p>
+ * When only top level keys have been put or removed the update uses the platform JSON patch
+ * expression (binding the removed keys and the changed values) rather than binding the full
+ * document. Otherwise the full document is bound as per a normal property.
+ * </p>
+ */
+class BindableJsonPatch extends BindableProperty {
+
+  private final Patch patch;
+
+  BindableJsonPatch(BeanProperty prop) {
+    super(prop);
+    this.patch = new Patch(prop);
+  }
+
+  @Override
+  public void addToUpdate(PersistRequestBean<?> request, List<Bindable> list) {
+    if (request.isAddToUpdate(prop)) {
+      // matches the update plan hash (PersistRequestBean.getUpdatePlanHash)
+      if (!request.isPublish() && prop.isJsonPatchValue(prop.getValue(request.getEntityBean()))) {
+        list.add(patch);
+      } else {
+        list.add(this);
+      }
+    }
+  }
+
+  @Override
+  public void dmlBind(BindableRequest request, EntityBean bean) throws SQLException {
+    super.dmlBind(request, bean);
+    if (bean != null) {
+      resetPatch(prop.getValue(bean));
+    }
+  }
+
+  private static void resetPatch(Object value) {
+    if (value instanceof LazyJsonMap) {
+      ((LazyJsonMap) value).resetPatch();
+    }
+  }
+
+  /**
+   * Update of the changed top level keys.
+   */
+  private static class Patch implements Bindable {
+
+    private final BeanProperty prop;
+
+    private final String expression;
+
+    Patch(BeanProperty prop) {
+      this.prop = prop;
+      this.expression = prop.getJsonPatch().replace("${column}", prop.getDbColumn());
+    }
+
+    public String toString() {
+      return prop.toString() + " patch";
+    }
+
+    @Override
+    public boolean isDraftOnly() {
+      return prop.isDraftOnly();
+    }
+
+    @Override
+    public void addToUpdate(PersistRequestBean<?> request, List<Bindable> list) {
+      // not used, added by the owning BindableJsonPatch
+      throw new IllegalStateException("Not used");
+    }
+
+    @Override
+    public void dmlAppend(GenerateDmlRequest request) {
+      request.appendColumn(prop.getDbColumn(), expression);
+    }
+
+    @Override
+    public void dmlBind(BindableRequest request, EntityBean bean) throws SQLException {
+
+      LazyJsonMap value = (LazyJsonMap) prop.getValue(bean);
+      try {
+        request.bind(EJson.write(value.getPatchRemoved()), Types.VARCHAR);
+        request.bind(EJson.write(value.getPatchValues()), Types.VARCHAR);
+      } catch (IOException e) {
+        throw new TextException(e);
+      }
+      value.resetPatch();
+    }
+  }
+}
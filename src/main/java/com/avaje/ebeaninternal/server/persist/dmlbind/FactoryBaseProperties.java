@@ -48,6 +48,9 @@ public class FactoryBaseProperties {
     for (int i = 0; i < props.length; i++) {
       Bindable item = factoryProperty.create(props[i], mode, withLobs);
       if (item != null) {
+        if (DmlMode.UPDATE.equals(mode) && props[i].isJsonPatch()) {
+          item = new BindableJsonPatch(props[i]);
+        }
         list.add(item);
       }
     }
@@ -2,6 +2,7 @@ package com.avaje.ebeaninternal.server.query;
 
 import com.avaje.ebean.QueryIterator;
 import com.avaje.ebean.Version;
+import com.avaje.ebean.bean.CallStack;
 import com.avaje.ebean.bean.BeanCollection;
 import com.avaje.ebean.bean.EntityBean;
 import com.avaje.ebean.bean.EntityBeanIntercept;
@@ -9,6 +10,7 @@ import com.avaje.ebean.bean.NodeUsageCollector;
 import com.avaje.ebean.bean.NodeUsageListener;
 import com.avaje.ebean.bean.ObjectGraphNode;
 import com.avaje.ebean.bean.PersistenceContext;
+import com.avaje.ebean.config.dbplatform.StreamingConfig;
 import com.avaje.ebean.event.readaudit.ReadEvent;
 import com.avaje.ebeaninternal.api.SpiQuery;
 import com.avaje.ebeaninternal.api.SpiQuery.Mode;
@@ -175,6 +177,15 @@ public class CQuery<T> implements DbReadContext, CancelableQuery {
 
   private long executionTimeMicros;
 
+  /**
+   * True if the phases of this execution are timed (for the query plan histograms).
+   */
+  private boolean sampled;
+
+  private long executeNano;
+
+  private long rowReadNano;
+
   /**
    * Flag set when findIterate is being read audited.
    */
@@ -282,20 +293,20 @@ public class CQuery<T> implements DbReadContext, CancelableQuery {
   }
 
   /**
-   * Prepare bind and execute query with Forward only hints.
+   * Prepare bind and execute query with the platform streaming settings (forward only, fetch size).
    */
-  public boolean prepareBindExecuteQueryForwardOnly(boolean dbPlatformForwardOnlyHint) throws SQLException {
-    return prepareBindExecuteQueryWithOption(dbPlatformForwardOnlyHint);
+  public boolean prepareBindExecuteQueryStreaming(StreamingConfig streaming) throws SQLException {
+    return prepareBindExecuteQueryWithOption(streaming);
   }
 
   /**
    * Prepare bind and execute the query normally.
    */
   public boolean prepareBindExecuteQuery() throws SQLException {
-    return prepareBindExecuteQueryWithOption(false);
+    return prepareBindExecuteQueryWithOption(null);
   }
 
-  private boolean prepareBindExecuteQueryWithOption(boolean forwardOnlyHint) throws SQLException {
+  private boolean prepareBindExecuteQueryWithOption(StreamingConfig streaming) throws SQLException {
 
     synchronized (this) {
       if (cancelled || query.isCancelled()) {
@@ -305,6 +316,7 @@ public class CQuery<T> implements DbReadContext, CancelableQuery {
       }
 
       startNano = System.nanoTime();
+      sampled = queryPlan.isSampleExecution();
 
       // prepare
       SpiTransaction t = request.getTransaction();
@@ -320,20 +332,19 @@ public class CQuery<T> implements DbReadContext, CancelableQuery {
         }
       }
 
-      if (forwardOnlyHint) {
-        // Use forward only hints for large resultSet processing (Issue 56, MySql specific)
-        pstmt = conn.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
-        pstmt.setFetchSize(Integer.MIN_VALUE);
+      if (streaming != null) {
+        // Use forward only and fetch size hints for large resultSet processing (Issue 56)
+        pstmt = streaming.prepareStatement(conn, sql, query.getBufferFetchSizeHint());
       } else {
         pstmt = conn.prepareStatement(sql);
+        if (query.getBufferFetchSizeHint() > 0) {
+          pstmt.setFetchSize(query.getBufferFetchSizeHint());
+        }
       }
 
       if (query.getTimeout() > 0) {
         pstmt.setQueryTimeout(query.getTimeout());
       }
-      if (query.getBufferFetchSizeHint() > 0) {
-        pstmt.setFetchSize(query.getBufferFetchSizeHint());
-      }
 
       DataBind dataBind = new DataBind(pstmt);
 
@@ -345,6 +356,7 @@ public class CQuery<T> implements DbReadContext, CancelableQuery {
       // executeQuery
       ResultSet rset = pstmt.executeQuery();
       dataReader = queryPlan.createDataReader(rset);
+      executeNano = System.nanoTime() - startNano;
 
       return true;
     }
@@ -471,7 +483,15 @@ public class CQuery<T> implements DbReadContext, CancelableQuery {
    */
   private boolean moveToNextRow() throws SQLException {
 
-    if (!dataReader.next()) {
+    if (sampled) {
+      long start = System.nanoTime();
+      boolean next = dataReader.next();
+      rowReadNano += System.nanoTime() - start;
+      if (!next) {
+        noMoreRows = true;
+        return false;
+      }
+    } else if (!dataReader.next()) {
       noMoreRows = true;
       return false;
     }
@@ -558,6 +578,21 @@ public class CQuery<T> implements DbReadContext, CancelableQuery {
         profilingListener.collectQueryInfo(objectGraphNode, loadedBeanCount, executionTimeMicros);
       }
       queryPlan.executionTime(loadedBeanCount, executionTimeMicros, objectGraphNode);
+      long executeMicros = TimeUnit.NANOSECONDS.toMicros(executeNano);
+      long rowReadMicros = -1;
+      long beanBuildMicros = -1;
+      if (sampled) {
+        // record the phases once per execution
+        sampled = false;
+        rowReadMicros = TimeUnit.NANOSECONDS.toMicros(rowReadNano);
+        beanBuildMicros = Math.max(0, executionTimeMicros - executeMicros - rowReadMicros);
+        queryPlan.executionPhases(executeMicros, rowReadMicros, beanBuildMicros, rowCount);
+      }
+      if (queryPlan.isSlowQuery(executionTimeMicros)) {
+        CallStack origin = (objectGraphNode == null) ? null : objectGraphNode.getOriginQueryPoint().getCallStack();
+        queryPlan.slowQuery(predicates, bindLog, rowCount, loadedBeanCount, executionTimeMicros, executeMicros,
+            rowReadMicros, beanBuildMicros, origin);
+      }
 
     } catch (Exception e) {
       logger.error("Error updating execution statistics", e);
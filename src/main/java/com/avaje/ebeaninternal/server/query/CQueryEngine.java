@@ -8,6 +8,7 @@ import com.avaje.ebean.bean.BeanCollectionTouched;
 import com.avaje.ebean.bean.EntityBean;
 import com.avaje.ebean.bean.ObjectGraphNode;
 import com.avaje.ebean.config.dbplatform.DatabasePlatform;
+import com.avaje.ebean.config.dbplatform.StreamingConfig;
 import com.avaje.ebeaninternal.api.BeanIdList;
 import com.avaje.ebeaninternal.api.SpiQuery;
 import com.avaje.ebeaninternal.server.core.DiffHelp;
@@ -35,14 +36,14 @@ public class CQueryEngine {
 
   private static final String T0 = "t0";
 
-  private final boolean forwardOnlyHintOnFindIterate;
+  private final StreamingConfig streamingConfig;
 
   private final CQueryBuilder queryBuilder;
 
   private final CQueryHistorySupport historySupport;
 
   public CQueryEngine(DatabasePlatform dbPlatform, Binder binder, Map<String, String> asOfTableMapping, String asOfSysPeriod, Map<String, String> draftTableMap) {
-    this.forwardOnlyHintOnFindIterate = dbPlatform.isForwardOnlyHintOnFindIterate();
+    this.streamingConfig = dbPlatform.getStreamingConfig();
     this.historySupport = new CQueryHistorySupport(dbPlatform.getHistorySupport(), asOfTableMapping, asOfSysPeriod);
     this.queryBuilder = new CQueryBuilder(dbPlatform, binder, historySupport, new CQueryDraftSupport(draftTableMap));
   }
@@ -152,7 +153,7 @@ public class CQueryEngine {
 
     try {
 
-      if (!cquery.prepareBindExecuteQueryForwardOnly(forwardOnlyHintOnFindIterate)) {
+      if (!cquery.prepareBindExecuteQueryStreaming(streamingConfig)) {
         // query has been cancelled already
         logger.trace("Future fetch already cancelled");
         return null;
@@ -209,7 +210,8 @@ public class CQueryEngine {
 
     CQuery<T> cquery = queryBuilder.buildQuery(request);
     try {
-      cquery.prepareBindExecuteQuery();
+      // stream as the history of many beans can be large
+      cquery.prepareBindExecuteQueryStreaming(streamingConfig);
       if (request.isLogSql()) {
         logSql(cquery);
       }
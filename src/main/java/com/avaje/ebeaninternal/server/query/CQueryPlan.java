@@ -1,11 +1,13 @@
 package com.avaje.ebeaninternal.server.query;
 
+import com.avaje.ebean.bean.CallStack;
 import com.avaje.ebean.bean.ObjectGraphNode;
 import com.avaje.ebean.config.dbplatform.SqlLimitResponse;
 import com.avaje.ebeaninternal.api.CQueryPlanKey;
 import com.avaje.ebeaninternal.api.SpiEbeanServer;
 import com.avaje.ebeaninternal.server.core.OrmQueryRequest;
 import com.avaje.ebeaninternal.server.deploy.BeanProperty;
+import com.avaje.ebeaninternal.server.deploy.QueryPlanFragments;
 import com.avaje.ebeaninternal.server.query.CQueryPlanStats.Snapshot;
 import com.avaje.ebeaninternal.server.type.DataBind;
 import com.avaje.ebeaninternal.server.type.DataReader;
@@ -40,6 +42,11 @@ public class CQueryPlan {
 
   private static final Logger logger = LoggerFactory.getLogger(CQueryPlan.class);
 
+  /**
+   * Approximate memory of the plan, its statistics and the (non shared) SqlTree nodes.
+   */
+  private static final int PLAN_OVERHEAD = 400;
+
   private final SpiEbeanServer server;
 
   private final boolean autoTuned;
@@ -65,6 +72,13 @@ public class CQueryPlan {
 
   private final Class<?> beanType;
 
+  private final SlowQueryRecorder slowQueryRecorder;
+
+  /**
+   * The slow query threshold cached with the recorder version it was obtained for.
+   */
+  private volatile SlowQueryRecorder.Threshold slowQueryThreshold;
+
   /**
    * Key used to identify the query plan in audit logging.
    */
@@ -77,7 +91,7 @@ public class CQueryPlan {
 
     this.server = request.getServer();
     this.beanType = request.getBeanDescriptor().getBeanType();
-    this.stats = new CQueryPlanStats(this, server.isCollectQueryOrigins());
+    this.stats = new CQueryPlanStats(this, server.isCollectQueryOrigins(), server.getServerConfig().getQueryPlanHistogramSampling());
     this.planKey = request.getQueryPlanKey();
     this.autoTuned = request.getQuery().isAutoTuned();
     if (sqlRes != null) {
@@ -91,6 +105,7 @@ public class CQueryPlan {
     this.rawSql = rawSql;
     this.logWhereSql = logWhereSql;
     this.encryptedProps = sqlTree.getEncryptedProps();
+    this.slowQueryRecorder = server.getSlowQueryRecorder();
   }
 
   /**
@@ -101,7 +116,7 @@ public class CQueryPlan {
 
     this.server = request.getServer();
     this.beanType = request.getBeanDescriptor().getBeanType();
-    this.stats = new CQueryPlanStats(this, server.isCollectQueryOrigins());
+    this.stats = new CQueryPlanStats(this, server.isCollectQueryOrigins(), server.getServerConfig().getQueryPlanHistogramSampling());
     this.planKey = buildPlanKey(sql, rawSql, rowNumberIncluded, logWhereSql);
     this.autoTuned = false;
     this.sql = sql;
@@ -110,6 +125,7 @@ public class CQueryPlan {
     this.rowNumberIncluded = rowNumberIncluded;
     this.logWhereSql = logWhereSql;
     this.encryptedProps = sqlTree.getEncryptedProps();
+    this.slowQueryRecorder = server.getSlowQueryRecorder();
   }
 
 
@@ -210,6 +226,13 @@ public class CQueryPlan {
     return logWhereSql;
   }
 
+  /**
+   * Return the estimated memory (bytes) held by this plan excluding the shared SQL fragments.
+   */
+  public long getEstimatedBytes() {
+    return PLAN_OVERHEAD + QueryPlanFragments.sizeOf(sql) + QueryPlanFragments.sizeOf(logWhereSql);
+  }
+
   /**
    * Reset the query statistics.
    */
@@ -229,6 +252,43 @@ public class CQueryPlan {
     }
   }
 
+  /**
+   * Return true if the phases of this execution should be timed (sampled).
+   */
+  public boolean isSampleExecution() {
+    return stats.isSampleExecution();
+  }
+
+  /**
+   * Register the phase times and rows of a sampled execution.
+   */
+  public void executionPhases(long executeMicros, long rowReadMicros, long beanBuildMicros, long rows) {
+    stats.addPhases(executeMicros, rowReadMicros, beanBuildMicros, rows);
+  }
+
+  /**
+   * Return true if the execution time exceeds the slow query threshold for this plan.
+   */
+  public boolean isSlowQuery(long timeMicros) {
+    if (slowQueryRecorder == null) {
+      return false;
+    }
+    SlowQueryRecorder.Threshold threshold = slowQueryThreshold;
+    if (threshold == null || threshold.getVersion() != slowQueryRecorder.getVersion()) {
+      threshold = slowQueryRecorder.getThreshold(planKey.toString());
+      slowQueryThreshold = threshold;
+    }
+    return timeMicros >= threshold.getMicros();
+  }
+
+  /**
+   * Record the slow query execution.
+   */
+  public void slowQuery(CQueryPredicates predicates, String bindLog, long rows, long beans, long timeMicros, long executeMicros,
+                        long rowReadMicros, long beanBuildMicros, CallStack origin) {
+    slowQueryRecorder.add(predicates, this, bindLog, rows, beans, timeMicros, executeMicros, rowReadMicros, beanBuildMicros, origin);
+  }
+
   public Snapshot getSnapshot(boolean reset) {
     return stats.getSnapshot(reset);
   }
@@ -8,8 +8,10 @@ import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicLong;
 
 import com.avaje.ebean.bean.ObjectGraphNode;
+import com.avaje.ebean.meta.MetaHistogram;
 import com.avaje.ebean.meta.MetaQueryPlanOriginCount;
 import com.avaje.ebean.meta.MetaQueryPlanStatistic;
+import com.avaje.ebeaninternal.server.util.Histogram;
 import com.avaje.ebeaninternal.server.util.LongAdder;
 import com.avaje.ebeaninternal.server.util.LongMaxUpdater;
 
@@ -34,13 +36,62 @@ public final class CQueryPlanStats {
 
   private final ConcurrentHashMap<ObjectGraphNode, LongAdder> origins;
 
+  /**
+   * Record the phase histograms for 1 in sampling executions (0 for no histograms).
+   */
+  private final int sampling;
+
+  /**
+   * Not thread safe (missed increments just shift the sampling).
+   */
+  private int sampleCounter;
+
+  /**
+   * The phase histograms created on the first sampled execution (null until then).
+   */
+  private volatile PhaseHistograms histograms;
+
   /**
    * Construct for a given query plan.
    */
-  public CQueryPlanStats(CQueryPlan queryPlan, boolean collectQueryOrigins) {
+  public CQueryPlanStats(CQueryPlan queryPlan, boolean collectQueryOrigins, int sampling) {
 
     this.queryPlan = queryPlan;
     this.origins = !collectQueryOrigins ? null : new ConcurrentHashMap<ObjectGraphNode, LongAdder>();
+    this.sampling = Math.max(0, sampling);
+  }
+
+  /**
+   * Return true if the phases of this execution should be timed and recorded.
+   */
+  public boolean isSampleExecution() {
+    if (sampling == 0) {
+      return false;
+    }
+    return sampling == 1 || (++sampleCounter % sampling) == 0;
+  }
+
+  /**
+   * Add the phase times and row count of a sampled execution.
+   *
+   * @param executeMicros   the time to prepare, bind and execute the statement
+   * @param rowReadMicros   the time spent moving to the next row of the result set
+   * @param beanBuildMicros the time spent reading the columns and building the beans
+   * @param rows            the number of rows read
+   */
+  public void addPhases(long executeMicros, long rowReadMicros, long beanBuildMicros, long rows) {
+    PhaseHistograms phases = histograms;
+    if (phases == null) {
+      phases = initHistograms();
+    }
+    phases.add(executeMicros, rowReadMicros, beanBuildMicros, rows);
+  }
+
+  private synchronized PhaseHistograms initHistograms() {
+    if (histograms == null) {
+      histograms = new PhaseHistograms();
+    }
+    return histograms;
   }
 
   /**
@@ -81,6 +132,10 @@ public final class CQueryPlanStats {
     totalTime.reset();
     maxTime.reset();
     startTime.set(System.currentTimeMillis());
+    PhaseHistograms phases = histograms;
+    if (phases != null) {
+      phases.reset();
+    }
 
     if (origins != null) {
       for (LongAdder counter : origins.values()) {
@@ -105,10 +160,48 @@ public final class CQueryPlanStats {
 
     // not guaranteed to be consistent due to time gaps between getting each value out of LongAdders but can live with that
     // relative to the cost of making sure count and totalTime etc are all guaranteed to be consistent
+    MetaHistogram[] histograms = getHistograms(reset);
     if (reset) {
-      return new Snapshot(queryPlan, count.sumThenReset(), totalTime.sumThenReset(), totalBeans.sumThenReset(), maxTime.maxThenReset(), startTime.getAndSet(System.currentTimeMillis()), lastQueryTime, origins);
+      return new Snapshot(queryPlan, count.sumThenReset(), totalTime.sumThenReset(), totalBeans.sumThenReset(), maxTime.maxThenReset(), startTime.getAndSet(System.currentTimeMillis()), lastQueryTime, origins, histograms);
+    }
+    return new Snapshot(queryPlan, count.sum(), totalTime.sum(), totalBeans.sum(), maxTime.max(), startTime.get(), lastQueryTime, origins, histograms);
+  }
+
+  /**
+   * Return the execute, row read, bean build and rows histograms (null when not collected).
+   */
+  private MetaHistogram[] getHistograms(boolean reset) {
+    PhaseHistograms phases = histograms;
+    return phases == null ? null : phases.snapshot(reset);
+  }
+
+  /**
+   * The execute, row read, bean build and rows histograms of the sampled executions.
+   */
+  private static final class PhaseHistograms {
+
+    private final Histogram execute = new Histogram();
+    private final Histogram rowRead = new Histogram();
+    private final Histogram beanBuild = new Histogram();
+    private final Histogram rows = new Histogram();
+
+    void add(long executeMicros, long rowReadMicros, long beanBuildMicros, long rowCount) {
+      execute.add(executeMicros);
+      rowRead.add(rowReadMicros);
+      beanBuild.add(beanBuildMicros);
+      rows.add(rowCount);
+    }
+
+    void reset() {
+      execute.reset();
+      rowRead.reset();
+      beanBuild.reset();
+      rows.reset();
+    }
+
+    MetaHistogram[] snapshot(boolean reset) {
+      return new MetaHistogram[]{execute.snapshot(reset), rowRead.snapshot(reset), beanBuild.snapshot(reset), rows.snapshot(reset)};
     }
-    return new Snapshot(queryPlan, count.sum(), totalTime.sum(), totalBeans.sum(), maxTime.max(), startTime.get(), lastQueryTime, origins);
   }
 
   /**
@@ -171,9 +264,10 @@ public final class CQueryPlanStats {
     private final long startTime;
     private final long lastQueryTime;
     private final List<MetaQueryPlanOriginCount> origins;
+    private final MetaHistogram[] histograms;
 
     public Snapshot(CQueryPlan queryPlan, long count, long totalTime, long totalBeans, long maxTime, long startTime, long lastQueryTime,
-                    List<MetaQueryPlanOriginCount> origins) {
+                    List<MetaQueryPlanOriginCount> origins, MetaHistogram[] histograms) {
 
       this.queryPlan = queryPlan;
       this.count = count;
@@ -183,6 +277,7 @@ public final class CQueryPlanStats {
       this.startTime = startTime;
       this.lastQueryTime = lastQueryTime;
       this.origins = origins;
+      this.histograms = histograms;
     }
 
     public String toString() {
@@ -256,6 +351,26 @@ public final class CQueryPlanStats {
       return origins;
     }
 
+    @Override
+    public MetaHistogram getExecuteHistogram() {
+      return histograms == null ? null : histograms[0];
+    }
+
+    @Override
+    public MetaHistogram getRowReadHistogram() {
+      return histograms == null ? null : histograms[1];
+    }
+
+    @Override
+    public MetaHistogram getBeanBuildHistogram() {
+      return histograms == null ? null : histograms[2];
+    }
+
+    @Override
+    public MetaHistogram getRowsHistogram() {
+      return histograms == null ? null : histograms[3];
+    }
+
   }
 
 }
\ No newline at end of file
@@ -10,9 +10,7 @@ import com.avaje.ebeaninternal.api.SpiQuery;
 import com.avaje.ebeaninternal.api.SpiTransaction;
 import com.avaje.ebeaninternal.server.core.OrmQueryEngine;
 import com.avaje.ebeaninternal.server.core.OrmQueryRequest;
-import com.avaje.ebeaninternal.server.deploy.BeanDescriptor;
 
-import java.util.Collection;
 import java.util.List;
 
 /**
@@ -98,11 +96,7 @@ public class DefaultOrmQueryEngine implements OrmQueryEngine {
 
     if (query.isLoadBeanCache()) {
       // load the individual beans into the bean cache
-      BeanDescriptor<T> descriptor = request.getBeanDescriptor();
-      Collection<T> c = result.getActualDetails();
-      for (T bean : c) {
-        descriptor.cacheBeanPutData((EntityBean) bean);
-      }
+      request.getBeanDescriptor().cacheBeanPutAll(result.getActualDetails());
     }
 
     if (!result.isEmpty() && query.isUseQueryCache()) {
@@ -1,8 +1,10 @@
 package com.avaje.ebeaninternal.server.query;
 
+import com.avaje.ebean.QueryEachWhileConsumer;
 import com.avaje.ebean.SqlQueryListener;
 import com.avaje.ebean.SqlRow;
 import com.avaje.ebean.bean.BeanCollection;
+import com.avaje.ebean.config.dbplatform.StreamingConfig;
 import com.avaje.ebeaninternal.api.BindParams;
 import com.avaje.ebeaninternal.api.SpiSqlQuery;
 import com.avaje.ebeaninternal.api.SpiTransaction;
@@ -34,9 +36,12 @@ public class DefaultRelationalQueryEngine implements RelationalQueryEngine {
 
   private final String dbTrueValue;
 
-  public DefaultRelationalQueryEngine(Binder binder, String dbTrueValue) {
+  private final StreamingConfig streamingConfig;
+
+  public DefaultRelationalQueryEngine(Binder binder, String dbTrueValue, StreamingConfig streamingConfig) {
     this.binder = binder;
     this.dbTrueValue = dbTrueValue == null ? "true" : dbTrueValue;
+    this.streamingConfig = streamingConfig;
   }
 
   public Object findMany(RelationalQueryRequest request) {
@@ -72,26 +77,7 @@ public class DefaultRelationalQueryEngine implements RelationalQueryEngine {
 
         // synchronise for query.cancel() support
         pstmt = conn.prepareStatement(sql);
-
-        if (query.getTimeout() > 0) {
-          pstmt.setQueryTimeout(query.getTimeout());
-        }
-        if (query.getBufferFetchSizeHint() > 0) {
-          pstmt.setFetchSize(query.getBufferFetchSizeHint());
-        }
-
-        if (!bindParams.isEmpty()) {
-          bindLog = binder.bind(bindParams, new DataBind(pstmt));
-        }
-
-        if (request.isLogSql()) {
-          String logSql = sql;
-          if (TransactionManager.SQL_LOGGER.isTraceEnabled()) {
-            logSql = Str.add(logSql, "; --bind(", bindLog, ")");
-          }
-          t.logSql(logSql);
-        }
-
+        bindLog = bind(request, pstmt, sql, true);
         rset = pstmt.executeQuery();
 
         propNames = getPropertyNames(rset);
@@ -167,20 +153,139 @@ public class DefaultRelationalQueryEngine implements RelationalQueryEngine {
       throw new PersistenceException(m, e);
 
     } finally {
-      try {
-        if (rset != null) {
-          rset.close();
+      close(rset, pstmt);
+    }
+  }
+
+  /**
+   * Process each row of the query until the consumer returns false.
+   */
+  public void findEach(RelationalQueryRequest request, QueryEachWhileConsumer<SqlRow> consumer) {
+
+    SpiSqlQuery query = request.getQuery();
+
+    long startTime = System.currentTimeMillis();
+
+    SpiTransaction t = request.getTransaction();
+    Connection conn = t.getInternalConnection();
+    ResultSet rset = null;
+    PreparedStatement pstmt = null;
+
+    String sql = query.getQuery();
+    BindParams bindParams = query.getBindParams();
+    if (!bindParams.isEmpty()) {
+      // convert any named parameters if required
+      sql = BindParamsParser.parse(bindParams, sql);
+    }
+
+    try {
+      String bindLog;
+      IndexedSqlRow.Columns columns;
+
+      synchronized (query) {
+        if (query.isCancelled()) {
+          logger.trace("Query already cancelled");
+          return;
         }
-      } catch (SQLException e) {
-        logger.error(null, e);
+        // synchronise for query.cancel() support
+        pstmt = streamingConfig.prepareStatement(conn, sql, query.getBufferFetchSizeHint());
+        bindLog = bind(request, pstmt, sql, false);
+        rset = pstmt.executeQuery();
+        columns = new IndexedSqlRow.Columns(getPropertyNames(rset));
       }
-      try {
-        if (pstmt != null) {
-          pstmt.close();
+
+      int maxRows = query.getMaxRows() >= 1 ? query.getMaxRows() : Integer.MAX_VALUE;
+      boolean reuseRow = query.isReuseRow();
+
+      int columnCount = columns.size();
+      int loadRowCount = 0;
+      IndexedSqlRow row = null;
+
+      while (rset.next()) {
+        if (row == null || !reuseRow) {
+          row = new IndexedSqlRow(columns, dbTrueValue);
         }
-      } catch (SQLException e) {
-        logger.error(null, e);
+        synchronized (query) {
+          // synchronise for query.cancel() support
+          if (query.isCancelled()) {
+            break;
+          }
+          for (int i = 0; i < columnCount; i++) {
+            row.setValue(i, rset.getObject(i + 1));
+          }
+        }
+        loadRowCount++;
+        if (!consumer.accept(row) || loadRowCount == maxRows) {
+          break;
+        }
+      }
+
+      if (request.isLogSummary()) {
+        long exeTime = System.currentTimeMillis() - startTime;
+        String msg = "SqlQuery findEach rows[" + loadRowCount + "] time[" + exeTime + "] bind[" + bindLog + "]";
+        t.logSummary(msg);
+      }
+
+      if (query.isCancelled()) {
+        logger.debug("Query was cancelled during execution rows:" + loadRowCount);
+      }
+
+    } catch (SQLException e) {
+      String m = Message.msg("fetch.error", e.getMessage(), sql);
+      throw new PersistenceException(m, e);
+
+    } finally {
+      close(rset, pstmt);
+    }
+  }
+
+  /**
+   * Set the statement options, bind the parameters and log the sql returning the bind log.
+   * <p>
+   * The fetch size hint is not applied here when the statement was created using the streaming
+   * settings (which already apply it).
+   * </p>
+   */
+  private String bind(RelationalQueryRequest request, PreparedStatement pstmt, String sql, boolean fetchSizeHint) throws SQLException {
+
+    SpiSqlQuery query = request.getQuery();
+    if (query.getTimeout() > 0) {
+      pstmt.setQueryTimeout(query.getTimeout());
+    }
+    if (fetchSizeHint && query.getBufferFetchSizeHint() > 0) {
+      pstmt.setFetchSize(query.getBufferFetchSizeHint());
+    }
+
+    String bindLog = "";
+    BindParams bindParams = query.getBindParams();
+    if (!bindParams.isEmpty()) {
+      bindLog = binder.bind(bindParams, new DataBind(pstmt));
+    }
+
+    if (request.isLogSql()) {
+      String logSql = sql;
+      if (TransactionManager.SQL_LOGGER.isTraceEnabled()) {
+        logSql = Str.add(logSql, "; --bind(", bindLog, ")");
+      }
+      request.getTransaction().logSql(logSql);
+    }
+    return bindLog;
+  }
+
+  private void close(ResultSet rset, PreparedStatement pstmt) {
+    try {
+      if (rset != null) {
+        rset.close();
+      }
+    } catch (SQLException e) {
+      logger.error(null, e);
+    }
+    try {
+      if (pstmt != null) {
+        pstmt.close();
       }
+    } catch (SQLException e) {
+      logger.error(null, e);
     }
   }
 
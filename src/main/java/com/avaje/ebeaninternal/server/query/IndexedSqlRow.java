@@ -0,0 +1,256 @@
+package com.avaje.ebeaninternal.server.query;
+
+import com.avaje.ebean.SqlRow;
+import com.avaje.ebeaninternal.server.core.BasicTypeConverter;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * SqlRow holding the values in an array with the column names shared by all the rows of a
+ * result set.
+ * <p>
+ * This is used for SqlQuery findEach() where it avoids the per row map. The keys are fixed to
+ * the columns of the result set such that putting a value for a key that is not a column and
+ * removing keys is not supported.
+ * </p>
+ */
+public class IndexedSqlRow extends AbstractMap<String, Object> implements SqlRow {
+
+  private static final long serialVersionUID = 2513307426958436415L;
+
+  /**
+   * The (lower case) column names of a result set with their index.
+   */
+  public static class Columns implements Serializable {
+
+    private static final long serialVersionUID = -4125371064429236124L;
+
+    private final String[] names;
+
+    private final Map<String, Integer> index;
+
+    public Columns(String[] columnNames) {
+      this.names = new String[columnNames.length];
+      this.index = new HashMap<String, Integer>(columnNames.length * 2);
+      for (int i = 0; i < columnNames.length; i++) {
+        names[i] = columnNames[i].toLowerCase();
+        // last one wins for duplicate column names (as per DefaultSqlRow)
+        index.put(names[i], i);
+      }
+    }
+
+    /**
+     * Return the number of columns.
+     */
+    public int size() {
+      return names.length;
+    }
+
+    /**
+     * Return the index of the column or -1 if the name is not a column.
+     */
+    int indexOf(Object name) {
+      if (!(name instanceof String)) {
+        return -1;
+      }
+      Integer pos = index.get(((String) name).toLowerCase());
+      return pos == null ? -1 : pos;
+    }
+  }
+
+  private final Columns columns;
+
+  private final String dbTrueValue;
+
+  private final Object[] values;
+
+  public IndexedSqlRow(Columns columns, String dbTrueValue) {
+    this.columns = columns;
+    this.dbTrueValue = dbTrueValue;
+    this.values = new Object[columns.size()];
+  }
+
+  /**
+   * Set the value for the column at the given index.
+   */
+  public void setValue(int index, Object value) {
+    values[index] = value;
+  }
+
+  public Iterator<String> keys() {
+    return keySet().iterator();
+  }
+
+  @Override
+  public Object get(Object name) {
+    int pos = columns.indexOf(name);
+    return pos < 0 ? null : values[pos];
+  }
+
+  @Override
+  public boolean containsKey(Object name) {
+    return columns.indexOf(name) > -1;
+  }
+
+  @Override
+  public Object put(String name, Object value) {
+    int pos = columns.indexOf(name);
+    if (pos < 0) {
+      throw new UnsupportedOperationException("Column " + name + " is not in the query result " + keySet());
+    }
+    Object oldValue = values[pos];
+    values[pos] = value;
+    return oldValue;
+  }
+
+  public Object set(String name, Object value) {
+    return put(name, value);
+  }
+
+  @Override
+  public int size() {
+    return values.length;
+  }
+
+  @Override
+  public Set<Entry<String, Object>> entrySet() {
+    return new EntrySet();
+  }
+
+  public UUID getUUID(String name) {
+    return BasicTypeConverter.toUUID(get(name));
+  }
+
+  public Boolean getBoolean(String name) {
+    return BasicTypeConverter.toBoolean(get(name), dbTrueValue);
+  }
+
+  public Integer getInteger(String name) {
+    return BasicTypeConverter.toInteger(get(name));
+  }
+
+  public BigDecimal getBigDecimal(String name) {
+    return BasicTypeConverter.toBigDecimal(get(name));
+  }
+
+  public Long getLong(String name) {
+    return BasicTypeConverter.toLong(get(name));
+  }
+
+  public Double getDouble(String name) {
+    return BasicTypeConverter.toDouble(get(name));
+  }
+
+  public Float getFloat(String name) {
+    return BasicTypeConverter.toFloat(get(name));
+  }
+
+  public String getString(String name) {
+    return BasicTypeConverter.toString(get(name));
+  }
+
+  public java.util.Date getUtilDate(String name) {
+    return BasicTypeConverter.toUtilDate(get(name));
+  }
+
+  public Date getDate(String name) {
+    return BasicTypeConverter.toDate(get(name));
+  }
+
+  public Timestamp getTimestamp(String name) {
+    return BasicTypeConverter.toTimestamp(get(name));
+  }
+
+  private class EntrySet extends AbstractSet<Entry<String, Object>> {
+
+    @Override
+    public Iterator<Entry<String, Object>> iterator() {
+      return new EntryIterator();
+    }
+
+    @Override
+    public int size() {
+      return values.length;
+    }
+  }
+
+  private class EntryIterator implements Iterator<Entry<String, Object>> {
+
+    private int pos;
+
+    @Override
+    public boolean hasNext() {
+      return pos < values.length;
+    }
+
+    @Override
+    public Entry<String, Object> next() {
+      if (pos >= values.length) {
+        throw new NoSuchElementException();
+      }
+      return new ColumnEntry(pos++);
+    }
+
+    @Override
+    public void remove() {
+      throw new UnsupportedOperationException();
+    }
+  }
+
+  private class ColumnEntry implements Entry<String, Object> {
+
+    private final int pos;
+
+    ColumnEntry(int pos) {
+      this.pos = pos;
+    }
+
+    @Override
+    public String getKey() {
+      return columns.names[pos];
+    }
+
+    @Override
+    public Object getValue() {
+      return values[pos];
+    }
+
+    @Override
+    public Object setValue(Object value) {
+      Object oldValue = values[pos];
+      values[pos] = value;
+      return oldValue;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (!(o instanceof Entry)) {
+        return false;
+      }
+      Entry<?, ?> e = (Entry<?, ?>) o;
+      Object value = values[pos];
+      return getKey().equals(e.getKey()) && (value == null ? e.getValue() == null : value.equals(e.getValue()));
+    }
+
+    @Override
+    public int hashCode() {
+      Object value = values[pos];
+      return getKey().hashCode() ^ (value == null ? 0 : value.hashCode());
+    }
+
+    public String toString() {
+      return getKey() + "=" + values[pos];
+    }
+  }
+}
@@ -0,0 +1,195 @@
+package com.avaje.ebeaninternal.server.query;
+
+import com.avaje.ebean.EbeanServer;
+import com.avaje.ebean.KeysetPagedList;
+import com.avaje.ebean.OrderBy;
+import com.avaje.ebean.bean.EntityBean;
+import com.avaje.ebeaninternal.api.Monitor;
+import com.avaje.ebeaninternal.api.SpiQuery;
+import com.avaje.ebeaninternal.server.deploy.BeanDescriptor;
+import com.avaje.ebeaninternal.server.deploy.BeanProperty;
+import com.avaje.ebeaninternal.server.deploy.BeanPropertyAssoc;
+import com.avaje.ebeaninternal.server.el.ElPropertyValue;
+import com.avaje.ebeaninternal.server.expression.KeysetExpression;
+
+import javax.persistence.PersistenceException;
+import java.util.List;
+import java.util.concurrent.Future;
+
+/**
+ * PagedList implementation based on a keyset predicate (rows after the last row of the prior
+ * page) and limit.
+ *
+ * @param <T> the entity bean type
+ */
+public class LimitKeysetPagedList<T> implements KeysetPagedList<T> {
+
+  private final transient EbeanServer server;
+
+  private final SpiQuery<T> query;
+
+  /**
+   * The query without the keyset predicate used for the total row count.
+   */
+  private final SpiQuery<T> countQuery;
+
+  private final List<OrderBy.Property> orderBy;
+
+  private final Object[] afterValues;
+
+  private final int pageSize;
+
+  private final Monitor monitor = new Monitor();
+
+  private int foregroundTotalRowCount = -1;
+
+  private Future<Integer> futureRowCount;
+
+  private List<T> list;
+
+  private boolean hasNext;
+
+  /**
+   * Construct with the order by values of the last row of the prior page (null for the first page).
+   */
+  public LimitKeysetPagedList(EbeanServer server, SpiQuery<T> query, Object[] afterValues, int pageSize) {
+    this.server = server;
+    // copy such that the order by etc of the given query are not modified
+    this.query = query.copy();
+    this.afterValues = afterValues;
+    this.pageSize = pageSize;
+    if (pageSize < 1) {
+      throw new IllegalArgumentException("pageSize must be greater than 0 for findKeysetPagedList()");
+    }
+    if (query.getFirstRow() > 0) {
+      throw new PersistenceException("firstRow can not be used with findKeysetPagedList()");
+    }
+
+    // the order by must be unique so append the id if it is not included
+    BeanProperty idProperty = query.getBeanDescriptor().getIdProperty();
+    if (idProperty == null || idProperty.isEmbedded()) {
+      throw new PersistenceException("findKeysetPagedList() requires a single id property on " + query.getBeanDescriptor().getFullName());
+    }
+    OrderBy<T> queryOrderBy = this.query.orderBy();
+    if (!queryOrderBy.containsProperty(idProperty.getName())) {
+      queryOrderBy.asc(idProperty.getName());
+    }
+    this.orderBy = queryOrderBy.getProperties();
+    for (OrderBy.Property property : orderBy) {
+      checkNotNullable(query.getBeanDescriptor(), property.getProperty());
+    }
+    this.countQuery = this.query.copy();
+
+    if (afterValues != null) {
+      this.query.where().add(new KeysetExpression(orderBy, afterValues));
+    }
+    // fetch an extra row to determine hasNext
+    this.query.setMaxRows(pageSize + 1);
+  }
+
+  /**
+   * Check the order by property can not be null (including the path to it) as null values
+   * can not be compared in the keyset predicate and sort differently across databases.
+   */
+  private static void checkNotNullable(BeanDescriptor<?> rootDesc, String propertyPath) {
+    BeanDescriptor<?> desc = rootDesc;
+    String[] names = propertyPath.split("\\.");
+    for (String name : names) {
+      BeanProperty property = (desc == null) ? null : desc.findBeanProperty(name);
+      if (property == null) {
+        throw new PersistenceException("Unknown order by property " + propertyPath + " for keyset on " + rootDesc.getFullName());
+      }
+      if (!property.isId() && property.isNullable()) {
+        throw new PersistenceException("findKeysetPagedList() requires order by properties that can not be null but "
+            + propertyPath + " on " + rootDesc.getFullName() + " is nullable");
+      }
+      desc = (property instanceof BeanPropertyAssoc<?>) ? ((BeanPropertyAssoc<?>) property).getTargetDescriptor() : null;
+    }
+  }
+
+  public void loadRowCount() {
+    getFutureRowCount();
+  }
+
+  public Future<Integer> getFutureRowCount() {
+    synchronized (monitor) {
+      if (futureRowCount == null) {
+        futureRowCount = server.findFutureRowCount(countQuery, null);
+      }
+      return futureRowCount;
+    }
+  }
+
+  public List<T> getList() {
+    synchronized (monitor) {
+      if (list == null) {
+        list = server.findList(query, null);
+        if (list.size() > pageSize) {
+          hasNext = true;
+          list.remove(pageSize);
+        }
+      }
+      return list;
+    }
+  }
+
+  public Object[] getNextKeyset() {
+    List<T> beans = getList();
+    if (!hasNext) {
+      return null;
+    }
+    T last = beans.get(beans.size() - 1);
+    BeanDescriptor<T> desc = query.getBeanDescriptor();
+    Object[] values = new Object[orderBy.size()];
+    for (int i = 0; i < values.length; i++) {
+      ElPropertyValue elGetValue = desc.getElGetValue(orderBy.get(i).getProperty());
+      if (elGetValue == null) {
+        throw new PersistenceException("Unknown order by property " + orderBy.get(i).getProperty() + " for keyset on " + desc.getFullName());
+      }
+      values[i] = elGetValue.elGetValue((EntityBean) last);
+    }
+    return values;
+  }
+
+  public int getTotalPageCount() {
+
+    int rowCount = getTotalRowCount();
+    if (rowCount == 0) {
+      return 0;
+    } else {
+      return ((rowCount - 1) / pageSize) + 1;
+    }
+  }
+
+  public int getTotalRowCount() {
+    synchronized (monitor) {
+      if (futureRowCount != null) {
+        try {
+          // background query already initiated so get it with a wait
+          return futureRowCount.get();
+        } catch (Exception e) {
+          throw new PersistenceException(e);
+        }
+      }
+      // already fetched?
+      if (foregroundTotalRowCount > -1) return foregroundTotalRowCount;
+
+      // just using foreground thread
+      foregroundTotalRowCount = server.findRowCount(countQuery, null);
+      return foregroundTotalRowCount;
+    }
+  }
+
+  public boolean hasNext() {
+    getList();
+    return hasNext;
+  }
+
+  public boolean hasPrev() {
+    return afterValues != null;
+  }
+
+  public int getPageSize() {
+    return pageSize;
+  }
+}
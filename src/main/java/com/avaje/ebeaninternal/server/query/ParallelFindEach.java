@@ -0,0 +1,235 @@
+package com.avaje.ebeaninternal.server.query;
+
+import com.avaje.ebean.ParallelConfig;
+import com.avaje.ebean.QueryEachConsumer;
+import com.avaje.ebean.QueryEachWhileConsumer;
+import com.avaje.ebean.Transaction;
+import com.avaje.ebeaninternal.api.SpiEbeanServer;
+import com.avaje.ebeaninternal.api.SpiQuery;
+import com.avaje.ebeaninternal.server.deploy.BeanDescriptor;
+import com.avaje.ebeaninternal.server.deploy.BeanProperty;
+import com.avaje.ebeaninternal.server.lib.DaemonThreadFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.persistence.PersistenceException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Executes findEach() with the query split into partitions that are read concurrently.
+ * <p>
+ * Each partition is a copy of the query with an additional modulo predicate on the id property
+ * and is executed on its own transaction (and hence connection) by a reader thread. In unordered
+ * mode the reader threads hand the beans to a bounded pool of worker threads that invoke the
+ * consumer. When the worker queue is full the reader invokes the consumer itself which slows the
+ * reading down to the rate the beans are consumed. In ordered mode the reader threads invoke the
+ * consumer such that the beans of each partition are processed in query order.
+ * </p>
+ * <p>
+ * The first exception thrown (reading or consuming) stops the processing of all partitions and
+ * is rethrown to the caller.
+ * </p>
+ */
+public class ParallelFindEach<T> {
+
+  private static final Logger logger = LoggerFactory.getLogger(ParallelFindEach.class);
+
+  private final SpiEbeanServer server;
+
+  private final SpiQuery<T> query;
+
+  private final ParallelConfig config;
+
+  private final QueryEachConsumer<T> consumer;
+
+  private final AtomicReference<Throwable> error = new AtomicReference<Throwable>();
+
+  private final AtomicLong count = new AtomicLong();
+
+  private ThreadPoolExecutor workers;
+
+  public ParallelFindEach(SpiEbeanServer server, SpiQuery<T> query, ParallelConfig config, QueryEachConsumer<T> consumer) {
+    this.server = server;
+    this.query = query;
+    this.config = config == null ? new ParallelConfig() : config;
+    this.consumer = consumer;
+  }
+
+  /**
+   * Execute the partitions and wait for all the beans to be consumed.
+   */
+  public void execute() {
+
+    List<SpiQuery<T>> partitions = partitions();
+    if (!config.isOrdered()) {
+      workers = new ThreadPoolExecutor(config.getParallelism(), config.getParallelism(), 0L, TimeUnit.MILLISECONDS,
+          new ArrayBlockingQueue<Runnable>(config.getQueueSize()), new DaemonThreadFactory("ebean-parallel-each-"),
+          new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    ExecutorService readers = Executors.newFixedThreadPool(partitions.size(), new DaemonThreadFactory("ebean-parallel-read-"));
+    try {
+      List<Future<?>> futures = new ArrayList<Future<?>>(partitions.size());
+      for (SpiQuery<T> partition : partitions) {
+        futures.add(readers.submit(new Reader(partition)));
+      }
+      for (Future<?> future : futures) {
+        await(future);
+      }
+      if (workers != null) {
+        workers.shutdown();
+        workers.awaitTermination(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      failed(e);
+    } finally {
+      readers.shutdownNow();
+      if (workers != null) {
+        workers.shutdownNow();
+      }
+    }
+
+    Throwable e = error.get();
+    if (e instanceof RuntimeException) {
+      throw (RuntimeException) e;
+    } else if (e instanceof Error) {
+      throw (Error) e;
+    } else if (e != null) {
+      throw new PersistenceException(e);
+    }
+    if (logger.isDebugEnabled()) {
+      logger.debug("findEachParallel {} partitions:{} beans:{}", query.getBeanDescriptor().getFullName(), partitions.size(), count.get());
+    }
+  }
+
+  private void await(Future<?> future) throws InterruptedException {
+    try {
+      future.get();
+    } catch (ExecutionException e) {
+      failed(e.getCause());
+    }
+  }
+
+  /**
+   * Return the partitions of the query (a single partition if the query can not be split).
+   */
+  List<SpiQuery<T>> partitions() {
+
+    int partitionCount = config.getPartitions();
+    List<SpiQuery<T>> partitions = new ArrayList<SpiQuery<T>>(partitionCount);
+    BeanProperty idProperty = partitionProperty(query.getBeanDescriptor());
+    if (partitionCount < 2 || idProperty == null || query.getFirstRow() > 0 || query.getMaxRows() > 0) {
+      partitions.add(query);
+      return partitions;
+    }
+
+    String predicate = server.getDatabasePlatform().modulo(idProperty.getName(), "?") + " = ?";
+    for (int i = 0; i < partitionCount; i++) {
+      SpiQuery<T> partition = query.copy();
+      partition.where().raw(predicate, partitionCount, i);
+      partitions.add(partition);
+    }
+    return partitions;
+  }
+
+  /**
+   * Return the id property if it is a single integer type (that can be partitioned by modulo).
+   */
+  private static BeanProperty partitionProperty(BeanDescriptor<?> desc) {
+    BeanProperty idProperty = desc.getIdProperty();
+    if (idProperty == null || idProperty.isEmbedded()) {
+      return null;
+    }
+    Class<?> type = idProperty.getPropertyType();
+    if (type == Long.class || type == long.class || type == Integer.class || type == int.class
+        || type == Short.class || type == short.class) {
+      return idProperty;
+    }
+    return null;
+  }
+
+  /**
+   * Record the first failure which stops the processing.
+   */
+  private void failed(Throwable e) {
+    if (!error.compareAndSet(null, e) && error.get() != e) {
+      logger.debug("Additional error in findEachParallel", e);
+    }
+  }
+
+  /**
+   * Reads a partition on its own transaction.
+   */
+  private class Reader implements Runnable, QueryEachWhileConsumer<T> {
+
+    private final SpiQuery<T> partition;
+
+    Reader(SpiQuery<T> partition) {
+      this.partition = partition;
+    }
+
+    @Override
+    public void run() {
+      Transaction transaction = server.createTransaction();
+      try {
+        server.findEachWhile(partition, this, transaction);
+      } catch (Throwable e) {
+        failed(e);
+      } finally {
+        transaction.end();
+      }
+    }
+
+    @Override
+    public boolean accept(T bean) {
+      if (error.get() != null) {
+        return false;
+      }
+      if (workers == null) {
+        consume(bean);
+      } else {
+        workers.execute(new Consume(bean));
+      }
+      return true;
+    }
+  }
+
+  private void consume(T bean) {
+    try {
+      consumer.accept(bean);
+      count.incrementAndGet();
+    } catch (Throwable e) {
+      failed(e);
+    }
+  }
+
+  /**
+   * Invokes the consumer for a bean on a worker thread.
+   */
+  private class Consume implements Runnable {
+
+    private final T bean;
+
+    Consume(T bean) {
+      this.bean = bean;
+    }
+
+    @Override
+    public void run() {
+      if (error.get() == null) {
+        consume(bean);
+      }
+    }
+  }
+}
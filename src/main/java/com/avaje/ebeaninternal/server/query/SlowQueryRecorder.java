@@ -0,0 +1,333 @@
+package com.avaje.ebeaninternal.server.query;
+
+import com.avaje.ebean.Transaction;
+import com.avaje.ebean.bean.CallStack;
+import com.avaje.ebean.config.ServerConfig;
+import com.avaje.ebean.meta.MetaSlowQuery;
+import com.avaje.ebeaninternal.api.SpiEbeanServer;
+import com.avaje.ebeaninternal.server.type.DataBind;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Records the query executions that exceed a slow query threshold into a bounded ring buffer.
+ * <p>
+ * The threshold is global (ServerConfig slowQueryMillis) and can be set per query plan. Query
+ * plans cache their threshold and only look it up again when the thresholds have changed (as
+ * indicated by the version) such that the check on the query execution path is a compare.
+ * </p>
+ * <p>
+ * Optionally the platform explain is executed in the background (on a separate connection with the
+ * same bind values) the first time a query plan is recorded as slow.
+ * </p>
+ */
+public class SlowQueryRecorder {
+
+  private static final Logger logger = LoggerFactory.getLogger(SlowQueryRecorder.class);
+
+  /**
+   * Maximum number of explain outputs held.
+   */
+  private static final int MAX_EXPLAIN = 1000;
+
+  private final SpiEbeanServer server;
+
+  private final String explainPrefix;
+
+  private final AtomicReferenceArray<Entry> buffer;
+
+  private final AtomicLong position = new AtomicLong();
+
+  private final ConcurrentHashMap<String, Long> planThresholds = new ConcurrentHashMap<String, Long>();
+
+  private final ConcurrentHashMap<String, String> explains = new ConcurrentHashMap<String, String>();
+
+  private volatile long globalMicros;
+
+  private final AtomicInteger version = new AtomicInteger();
+
+  public SlowQueryRecorder(SpiEbeanServer server, ServerConfig serverConfig) {
+    this.server = server;
+    this.buffer = new AtomicReferenceArray<Entry>(Math.max(1, serverConfig.getSlowQueryBufferSize()));
+    this.globalMicros = toMicros(serverConfig.getSlowQueryMillis());
+    this.explainPrefix = serverConfig.isSlowQueryExplain() ? server.getDatabasePlatform().getExplainPrefix() : null;
+  }
+
+  private static long toMicros(long millis) {
+    return millis > 0 ? millis * 1000 : Long.MAX_VALUE;
+  }
+
+  /**
+   * Return the version of the thresholds (incremented when a threshold changes).
+   */
+  public int getVersion() {
+    return version.get();
+  }
+
+  /**
+   * Return the threshold for the given query plan hash with the version it was obtained for.
+   * <p>
+   * The version is read before the threshold such that a concurrent change results in a
+   * stale version (and hence the threshold being obtained again) rather than a stale threshold.
+   * </p>
+   */
+  public Threshold getThreshold(String queryPlanHash) {
+    int currentVersion = version.get();
+    Long micros = planThresholds.get(queryPlanHash);
+    return new Threshold(currentVersion, micros != null ? micros : globalMicros);
+  }
+
+  /**
+   * Set the global threshold (0 for none).
+   */
+  public void setThreshold(long millis) {
+    globalMicros = toMicros(millis);
+    version.incrementAndGet();
+  }
+
+  /**
+   * Set the threshold for the given query plan (0 for every execution, -1 to use the global threshold).
+   */
+  public void setThreshold(String queryPlanHash, long millis) {
+    if (millis < 0) {
+      planThresholds.remove(queryPlanHash);
+    } else {
+      planThresholds.put(queryPlanHash, millis * 1000);
+    }
+    version.incrementAndGet();
+  }
+
+  /**
+   * Record the slow query execution.
+   */
+  void add(CQueryPredicates predicates, CQueryPlan plan, String bindLog, long rows, long beans, long timeMicros,
+           long executeMicros, long rowReadMicros, long beanBuildMicros, CallStack origin) {
+
+    String planHash = plan.getPlanKey().toString();
+    Entry entry = new Entry(plan.getBeanType(), planHash, plan.getSql(), bindLog, rows, beans, timeMicros,
+        executeMicros, rowReadMicros, beanBuildMicros, origin);
+
+    int pos = (int) (position.getAndIncrement() % buffer.length());
+    buffer.set(pos, entry);
+
+    if (explainPrefix != null && !plan.isRawSql() && explains.size() < MAX_EXPLAIN && explains.putIfAbsent(planHash, "") == null) {
+      server.getBackgroundExecutor().execute(new Explain(planHash, plan, predicates));
+    }
+  }
+
+  /**
+   * Return the recorded slow queries (oldest first) optionally clearing the buffer.
+   */
+  public List<MetaSlowQuery> getSlowQueries(boolean clear) {
+    List<MetaSlowQuery> list = new ArrayList<MetaSlowQuery>(buffer.length());
+    long end = position.get();
+    long start = Math.max(0, end - buffer.length());
+    for (long i = start; i < end; i++) {
+      int pos = (int) (i % buffer.length());
+      Entry entry = clear ? buffer.getAndSet(pos, null) : buffer.get(pos);
+      if (entry != null) {
+        list.add(entry);
+      }
+    }
+    return list;
+  }
+
+  /**
+   * The slow query threshold (micros) of a query plan with the version it was obtained for.
+   */
+  public static final class Threshold {
+
+    private final int version;
+
+    private final long micros;
+
+    Threshold(int version, long micros) {
+      this.version = version;
+      this.micros = micros;
+    }
+
+    /**
+     * Return the version of the thresholds this was obtained for.
+     */
+    public int getVersion() {
+      return version;
+    }
+
+    /**
+     * Return the threshold in micros (Long.MAX_VALUE for none).
+     */
+    public long getMicros() {
+      return micros;
+    }
+  }
+
+  /**
+   * Execute the explain for the slow query plan.
+   */
+  private class Explain implements Runnable {
+
+    private final String planHash;
+    private final CQueryPlan plan;
+    private final CQueryPredicates predicates;
+
+    Explain(String planHash, CQueryPlan plan, CQueryPredicates predicates) {
+      this.planHash = planHash;
+      this.plan = plan;
+      this.predicates = predicates;
+    }
+
+    @Override
+    public void run() {
+      Transaction transaction = server.createTransaction();
+      try {
+        explains.put(planHash, explain(transaction.getConnection()));
+      } catch (Exception e) {
+        logger.warn("Error executing explain for slow query " + plan.getSql(), e);
+        explains.put(planHash, "error: " + e.getMessage());
+      } finally {
+        transaction.end();
+      }
+    }
+
+    private String explain(Connection connection) throws SQLException {
+      PreparedStatement pstmt = connection.prepareStatement(explainPrefix + plan.getSql());
+      try {
+        DataBind dataBind = new DataBind(pstmt);
+        plan.bindEncryptedProperties(dataBind);
+        predicates.bind(dataBind);
+        ResultSet rset = pstmt.executeQuery();
+        try {
+          StringBuilder sb = new StringBuilder();
+          int columns = rset.getMetaData().getColumnCount();
+          while (rset.next()) {
+            for (int i = 1; i <= columns; i++) {
+              if (i > 1) {
+                sb.append(" | ");
+              }
+              sb.append(rset.getString(i));
+            }
+            sb.append("\n");
+          }
+          return sb.toString();
+        } finally {
+          rset.close();
+        }
+      } finally {
+        pstmt.close();
+      }
+    }
+  }
+
+  private class Entry implements MetaSlowQuery {
+
+    private final long timestamp = System.currentTimeMillis();
+    private final Class<?> beanType;
+    private final String queryPlanHash;
+    private final String sql;
+    private final String bindLog;
+    private final long rows;
+    private final long beans;
+    private final long timeMicros;
+    private final long executeMicros;
+    private final long rowReadMicros;
+    private final long beanBuildMicros;
+    private final CallStack origin;
+
+    Entry(Class<?> beanType, String queryPlanHash, String sql, String bindLog, long rows, long beans, long timeMicros,
+          long executeMicros, long rowReadMicros, long beanBuildMicros, CallStack origin) {
+      this.beanType = beanType;
+      this.queryPlanHash = queryPlanHash;
+      this.sql = sql;
+      this.bindLog = bindLog;
+      this.rows = rows;
+      this.beans = beans;
+      this.timeMicros = timeMicros;
+      this.executeMicros = executeMicros;
+      this.rowReadMicros = rowReadMicros;
+      this.beanBuildMicros = beanBuildMicros;
+      this.origin = origin;
+    }
+
+    public String toString() {
+      return "beanType:" + beanType.getName() + " plan:" + queryPlanHash + " micros:" + timeMicros + " execute:" + executeMicros
+          + " rows:" + rows + " beans:" + beans + " bind:" + bindLog + " sql:" + sql;
+    }
+
+    @Override
+    public long getTimestamp() {
+      return timestamp;
+    }
+
+    @Override
+    public Class<?> getBeanType() {
+      return beanType;
+    }
+
+    @Override
+    public String getQueryPlanHash() {
+      return queryPlanHash;
+    }
+
+    @Override
+    public String getSql() {
+      return sql;
+    }
+
+    @Override
+    public String getBindLog() {
+      return bindLog;
+    }
+
+    @Override
+    public long getRows() {
+      return rows;
+    }
+
+    @Override
+    public long getBeans() {
+      return beans;
+    }
+
+    @Override
+    public long getTimeMicros() {
+      return timeMicros;
+    }
+
+    @Override
+    public long getExecuteMicros() {
+      return executeMicros;
+    }
+
+    @Override
+    public long getRowReadMicros() {
+      return rowReadMicros;
+    }
+
+    @Override
+    public long getBeanBuildMicros() {
+      return beanBuildMicros;
+    }
+
+    @Override
+    public CallStack getOrigin() {
+      return origin;
+    }
+
+    @Override
+    public String getExplain() {
+      String explain = explains.get(queryPlanHash);
+      return (explain == null || explain.isEmpty()) ? null : explain;
+    }
+  }
+}
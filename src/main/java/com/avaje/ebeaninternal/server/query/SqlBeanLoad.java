@@ -25,6 +25,13 @@ public class SqlBeanLoad {
   private final boolean lazyLoading;
   private final boolean refreshLoading;
   private final boolean rawSql;
+  private final boolean draftQuery;
+
+  /**
+   * True for the normal population of a bean (not lazy loading, refresh or inheritance) where
+   * the property values are set without any per property checks or interception.
+   */
+  private final boolean fastLoad;
 
   public SqlBeanLoad(DbReadContext ctx, Class<?> type, EntityBean bean, Mode queryMode) {
 
@@ -35,6 +42,8 @@ public class SqlBeanLoad {
     this.refreshLoading = queryMode.equals(Mode.REFRESH_BEAN);
     this.bean = bean;
     this.ebi = bean == null ? null : bean._ebean_getIntercept();
+    this.draftQuery = ctx.isDraftQuery();
+    this.fastLoad = bean != null && type == null && !lazyLoading && !refreshLoading;
   }
 
   /**
@@ -53,10 +62,20 @@ public class SqlBeanLoad {
 
   public Object load(BeanProperty prop) {
 
-    if (!rawSql && !prop.isLoadProperty(ctx.isDraftQuery())) {
+    if (!rawSql && !prop.isLoadProperty(draftQuery)) {
       return null;
     }
 
+    if (fastLoad) {
+      try {
+        Object dbVal = prop.read(ctx);
+        prop.setValue(bean, dbVal);
+        return dbVal;
+      } catch (Exception e) {
+        throw new PersistenceException("Error loading on " + prop.getFullBeanName(), e);
+      }
+    }
+
     if ((bean == null)
         || (lazyLoading && ebi.isLoadedProperty(prop.getPropertyIndex()))
         || (type != null && !prop.isAssignableFrom(type))) {
@@ -11,6 +11,7 @@ import com.avaje.ebeaninternal.server.deploy.BeanPropertyAssoc;
 import com.avaje.ebeaninternal.server.deploy.BeanPropertyAssocMany;
 import com.avaje.ebeaninternal.server.deploy.BeanPropertyAssocOne;
 import com.avaje.ebeaninternal.server.deploy.InheritInfo;
+import com.avaje.ebeaninternal.server.deploy.QueryPlanFragments;
 import com.avaje.ebeaninternal.server.deploy.TableJoin;
 import com.avaje.ebeaninternal.server.el.ElPropertyValue;
 import com.avaje.ebeaninternal.server.querydefn.OrmQueryDetail;
@@ -137,6 +138,11 @@ public class SqlTreeBuilder {
       encryptedProps = ctx.getEncryptedProps();
     }
 
+    // share the fragments with other query plans of the bean type
+    QueryPlanFragments fragments = desc.getQueryPlanFragments();
+    selectSql = fragments.sql(selectSql);
+    fromSql = fragments.sql(fromSql);
+    inheritanceWhereSql = fragments.sql(inheritanceWhereSql);
     boolean includeJoins = (alias == null) ? false : alias.isIncludeJoins();
 
     return new SqlTree(summary.toString(), rootNode, selectSql, fromSql, inheritanceWhereSql, encryptedProps,
@@ -2,7 +2,6 @@ package com.avaje.ebeaninternal.server.query;
 
 import java.sql.SQLException;
 import java.sql.Timestamp;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -131,31 +130,10 @@ public class SqlTreeNodeBean implements SqlTreeNode {
     this.disableLazyLoad = disableLazyLoad || !readId || desc.isSqlSelectBased() || temporalVersions;
 
     this.partialObject = props.isPartialObject();
-    this.properties = props.getProps();
+    this.properties = desc.getQueryPlanFragments().properties(props.getProps());
     this.children = myChildren == null ? NO_CHILDREN : myChildren.toArray(new SqlTreeNode[myChildren.size()]);
 
-    pathMap = createPathMap(prefix, desc);
-  }
-
-  private Map<String, String> createPathMap(String prefix, BeanDescriptor<?> desc) {
-
-    BeanPropertyAssocMany<?>[] manys = desc.propertiesMany();
-
-    HashMap<String, String> m = new HashMap<String, String>();
-    for (int i = 0; i < manys.length; i++) {
-      String name = manys[i].getName();
-      m.put(name, getPath(prefix, name));
-    }
-
-    return m;
-  }
-
-  private String getPath(String prefix, String propertyName) {
-    if (prefix == null) {
-      return propertyName;
-    } else {
-      return prefix + "." + propertyName;
-    }
+    this.pathMap = desc.getQueryPlanFragments().pathMap(prefix);
   }
 
   public void buildRawSqlSelectChain(List<String> selectChain) {
@@ -232,6 +210,9 @@ public class SqlTreeNodeBean implements SqlTreeNode {
 
     PersistenceContext persistenceContext = (!readId || temporalVersions) ? null : ctx.getPersistenceContext();
 
+    // false when loading into a bean that already exists in the persistence context
+    boolean newBean = true;
+
     if (readId) {
       Object id = localIdBinder.readSet(ctx, localBean);
       if (id == null) {
@@ -248,6 +229,7 @@ public class SqlTreeNodeBean implements SqlTreeNode {
           if (isLoadContextBeanNeeded(queryMode, contextBean)) {
             // refresh it anyway (lazy loading for example)
             localBean = contextBean;
+            newBean = false;
           } else {
             // ignore the DB data...
             localBean = null;
@@ -307,26 +289,31 @@ public class SqlTreeNodeBean implements SqlTreeNode {
       localDesc.postLoad(localBean);
 
       EntityBeanIntercept ebi = localBean._ebean_getIntercept();
-      ebi.setPersistenceContext(persistenceContext);
-      if (Mode.LAZYLOAD_BEAN.equals(queryMode)) {
-        // Lazy Load does not reset the dirty state
-        ebi.setLoadedLazy();
-      } else if (readId) {
-        // normal bean loading
-        ebi.setLoaded();
-      }
+      if (newBean && readId && !Mode.LAZYLOAD_BEAN.equals(queryMode)) {
+        // normal loading of a new bean (no dirty state to reset)
+        ebi.setLoadedState(persistenceContext, disableLazyLoad, !disableLazyLoad && !partialObject);
 
-      if (disableLazyLoad) {
-        // bean does not have an Id or is SqlSelect based
-        ebi.setDisableLazyLoad(true);
+      } else {
+        ebi.setPersistenceContext(persistenceContext);
+        if (Mode.LAZYLOAD_BEAN.equals(queryMode)) {
+          // Lazy Load does not reset the dirty state
+          ebi.setLoadedLazy();
+        } else if (readId) {
+          // normal bean loading
+          ebi.setLoaded();
+        }
 
-      } else if (partialObject) {
-        if (readId) {
-          // register for lazy loading
-          ctx.register(null, ebi);
+        if (disableLazyLoad) {
+          // bean does not have an Id or is SqlSelect based
+          ebi.setDisableLazyLoad(true);
+        } else if (!partialObject) {
+          ebi.setFullyLoadedBean(true);
         }
-      } else {
-        ebi.setFullyLoadedBean(true);
+      }
+
+      if (!disableLazyLoad && partialObject && readId) {
+        // register for lazy loading
+        ctx.register(null, ebi);
       }
 
       if (ctx.isAutoTuneProfiling() && !disableLazyLoad) {
@@ -1124,6 +1124,11 @@ public class DefaultOrmQuery<T> implements SpiQuery<T> {
     server.findEach(this, consumer, null);
   }
 
+  @Override
+  public void findEachParallel(ParallelConfig config, QueryEachConsumer<T> consumer) {
+    server.findEachParallel(this, config, consumer);
+  }
+
   @Override
   public List<Version<T>> findVersions() {
     this.temporalMode = TemporalMode.VERSIONS;
@@ -1189,6 +1194,11 @@ public class DefaultOrmQuery<T> implements SpiQuery<T> {
     return server.findPagedList(this, null);
   }
 
+  @Override
+  public KeysetPagedList<T> findKeysetPagedList(Object[] afterValues, int pageSize) {
+    return server.findKeysetPagedList(this, null, afterValues, pageSize);
+  }
+
   /**
    * Set an ordered bind parameter according to its position. Note that the position starts at 1 to
    * be consistent with JDBC PreparedStatement. You need to set a parameter value for each ? you
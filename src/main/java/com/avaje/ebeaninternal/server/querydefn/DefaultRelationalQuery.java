@@ -9,6 +9,8 @@ import java.util.Set;
 import javax.persistence.PersistenceException;
 
 import com.avaje.ebean.EbeanServer;
+import com.avaje.ebean.QueryEachConsumer;
+import com.avaje.ebean.QueryEachWhileConsumer;
 import com.avaje.ebean.SqlFutureList;
 import com.avaje.ebean.SqlQueryListener;
 import com.avaje.ebean.SqlRow;
@@ -38,6 +40,8 @@ public class DefaultRelationalQuery implements SpiSqlQuery {
 
   private boolean cancelled;
 
+  private boolean reuseRow;
+
   /**
    * For the purposes of cancelling the query.
    */
@@ -93,6 +97,14 @@ public class DefaultRelationalQuery implements SpiSqlQuery {
     return server.findFutureList(this, null);
   }
 
+  public void findEach(QueryEachConsumer<SqlRow> consumer) {
+    server.findEach(this, consumer, null);
+  }
+
+  public void findEachWhile(QueryEachWhileConsumer<SqlRow> consumer) {
+    server.findEachWhile(this, consumer, null);
+  }
+
   public DefaultRelationalQuery setParameter(int position, Object value) {
     bindParams.setParameter(position, value);
     return this;
@@ -123,6 +135,15 @@ public class DefaultRelationalQuery implements SpiSqlQuery {
     return this;
   }
 
+  public boolean isReuseRow() {
+    return reuseRow;
+  }
+
+  public DefaultRelationalQuery setReuseRow(boolean reuseRow) {
+    this.reuseRow = reuseRow;
+    return this;
+  }
+
   public String toString() {
     return "SqlQuery [" + query + "]";
   }
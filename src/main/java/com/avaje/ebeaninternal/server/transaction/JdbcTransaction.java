@@ -728,7 +728,7 @@ public class JdbcTransaction implements SpiTransaction {
   public TransactionEvent getEvent() {
     queryOnly = false;
     if (event == null) {
-      event = new TransactionEvent();
+      event = (manager == null) ? new TransactionEvent() : manager.createTransactionEvent();
     }
     return event;
   }
@@ -3,6 +3,7 @@ package com.avaje.ebeaninternal.server.transaction;
 import com.avaje.ebean.annotation.DocStoreEvent;
 import com.avaje.ebeaninternal.api.SpiTransaction;
 import com.avaje.ebeaninternal.api.TransactionEvent;
+import com.avaje.ebeaninternal.api.TransactionEventIds;
 import com.avaje.ebeaninternal.api.TransactionEventTable;
 import com.avaje.ebeaninternal.api.TransactionEventTable.TableIUD;
 import com.avaje.ebeanservice.docstore.api.DocStoreUpdates;
@@ -34,8 +35,6 @@ public final class PostCommitProcessing {
 
   private final List<PersistRequestBean<?>> persistBeanRequests;
 
-  private final BeanPersistIdMap beanPersistIdMap;
-
   private final RemoteTransactionEvent remoteTransactionEvent;
 
   private final DeleteByIdMap deleteByIdMap;
@@ -57,7 +56,6 @@ public final class PostCommitProcessing {
     this.event = event;
     this.deleteByIdMap = event.getDeleteByIdMap();
     this.persistBeanRequests = event.getPersistRequestBeans();
-    this.beanPersistIdMap = createBeanPersistIdMap();
     this.remoteTransactionEvent = createRemoteTransactionEvent();
   }
 
@@ -74,7 +72,6 @@ public final class PostCommitProcessing {
     this.event = transaction.getEvent();
     this.deleteByIdMap = event.getDeleteByIdMap();
     this.persistBeanRequests = event.getPersistRequestBeans();
-    this.beanPersistIdMap = createBeanPersistIdMap();
     this.remoteTransactionEvent = createRemoteTransactionEvent();
   }
 
@@ -83,6 +80,12 @@ public final class PostCommitProcessing {
     // notify cache with bulk insert/update/delete statements
     processTableEvents(event.getEventTables());
 
+    TransactionEventIds eventIds = event.getEventIds();
+    if (eventIds != null) {
+      // notify cache with the table level changes of a large transaction
+      processTableEvents(eventIds.getTables());
+    }
+
     // notify cache with bean changes
     event.notifyCache();
   }
@@ -166,13 +169,20 @@ public final class PostCommitProcessing {
 
   private BeanPersistIdMap createBeanPersistIdMap() {
 
-    if (persistBeanRequests == null) {
+    TransactionEventIds eventIds = event.getEventIds();
+    if (persistBeanRequests == null && eventIds == null) {
       return null;
     }
 
     BeanPersistIdMap m = new BeanPersistIdMap();
-    for (int i = 0; i < persistBeanRequests.size(); i++) {
-      persistBeanRequests.get(i).addToPersistMap(m);
+    if (persistBeanRequests != null) {
+      for (int i = 0; i < persistBeanRequests.size(); i++) {
+        persistBeanRequests.get(i).addToPersistMap(m);
+      }
+    }
+    if (eventIds != null) {
+      // ids of the requests released by a large transaction
+      eventIds.addToPersistMap(m);
     }
     return m;
   }
@@ -185,6 +195,7 @@ public final class PostCommitProcessing {
 
     RemoteTransactionEvent remoteTransactionEvent = new RemoteTransactionEvent(serverName);
 
+    BeanPersistIdMap beanPersistIdMap = createBeanPersistIdMap();
     if (beanPersistIdMap != null) {
       for (BeanPersistIds beanPersist : beanPersistIdMap.values()) {
         remoteTransactionEvent.addBeanPersistIds(beanPersist);
@@ -202,6 +213,13 @@ public final class PostCommitProcessing {
       }
     }
 
+    TransactionEventIds eventIds = event.getEventIds();
+    if (eventIds != null && eventIds.isTableLevel()) {
+      for (TableIUD tableIUD : eventIds.getTables().values()) {
+        remoteTransactionEvent.addTableIUD(tableIUD);
+      }
+    }
+
     return remoteTransactionEvent;
   }
 
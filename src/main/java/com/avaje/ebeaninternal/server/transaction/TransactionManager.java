@@ -83,6 +83,10 @@ public class TransactionManager {
 
   protected final PersistBatch persistBatchOnCascade;
 
+  protected final int transactionEventCompactThreshold;
+
+  protected final int transactionEventTableThreshold;
+
   /**
    * Id's for transaction logging.
    */
@@ -111,6 +115,8 @@ public class TransactionManager {
 
     this.persistBatch = config.getPersistBatch();
     this.persistBatchOnCascade = config.appliedPersistBatchOnCascade();
+    this.transactionEventCompactThreshold = config.getTransactionEventCompactThreshold();
+    this.transactionEventTableThreshold = config.getTransactionEventTableThreshold();
     this.beanDescriptorManager = descMgr;
     this.changeLogPrepare = descMgr.getChangeLogPrepare();
     this.changeLogListener = descMgr.getChangeLogListener();
@@ -162,6 +168,13 @@ public class TransactionManager {
     return persistBatch;
   }
 
+  /**
+   * Create the TransactionEvent for a transaction.
+   */
+  public TransactionEvent createTransactionEvent() {
+    return new TransactionEvent(transactionEventCompactThreshold, transactionEventTableThreshold);
+  }
+
   public PersistBatch getPersistBatchOnCascade() {
     return persistBatchOnCascade;
   }
@@ -14,7 +14,10 @@ public class DataBind {
 
   private final PreparedStatement pstmt;
 
-  private final StringBuilder bindLog = new StringBuilder();
+  /**
+   * The bind log created lazily (as DML uses its own bind log only when logging SQL).
+   */
+  private StringBuilder bindLog;
 
   private int pos;
 
@@ -26,13 +29,16 @@ public class DataBind {
    * Append an entry to the bind log.
    */
   public StringBuilder append(Object entry) {
-    return bindLog.append(entry);
+    return log().append(entry);
   }
 
   /**
-   * Return the bind log.
+   * Return the bind log (creating it if required).
    */
   public StringBuilder log() {
+    if (bindLog == null) {
+      bindLog = new StringBuilder();
+    }
     return bindLog;
   }
 
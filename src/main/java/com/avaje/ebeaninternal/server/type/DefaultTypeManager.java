@@ -173,7 +173,8 @@ public final class DefaultTypeManager implements TypeManager, KnownImmutable {
     if (isPostgres(config.getDatabasePlatform())) {
       // Postgres has special DB types for JSON/JSONB
       this.jsonMapJson = new ScalarTypeJsonMapPostgres.JSON();
-      this.jsonMapJsonb = new ScalarTypeJsonMapPostgres.JSONB();
+      String jsonPatch = config.isJsonPatchUpdate() ? config.getDatabasePlatform().getJsonPatch() : null;
+      this.jsonMapJsonb = new ScalarTypeJsonMapPostgres.JSONB(jsonPatch);
     } else {
       this.jsonMapJson = JSON_MAP_CLOB;
       this.jsonMapJsonb = JSON_MAP_CLOB;
@@ -0,0 +1,390 @@
+package com.avaje.ebeaninternal.server.type;
+
+import com.avaje.ebean.text.TextException;
+import com.avaje.ebean.text.json.EJson;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Modify aware Map for a JSON column that holds the raw JSON content and only parses it on first access.
+ * <p>
+ * Beans are often loaded without the application reading the JSON property or are written back
+ * out as JSON (JsonContext, document store). While the content is unmodified the raw JSON is used
+ * directly to bind, format and write the value (without parsing and reformatting it). Dirty state
+ * is tracked without parsing such that an unread property is never included in an update.
+ * </p>
+ * <p>
+ * With key tracking the top level keys that are put or removed are recorded such that on platforms
+ * with JSON patch operators the update can set just those keys rather than rewrite the document.
+ * Any other modification (nested maps and lists, clear, modification via the key, value or entry
+ * views) is not tracked and results in the full document being written.
+ * </p>
+ */
+public class LazyJsonMap implements Map<String, Object>, ModifyAwareOwner {
+
+  private final ModifyAwareFlag flag = new ModifyAwareFlag();
+
+  /**
+   * The raw JSON content (null when modified).
+   */
+  private String rawJson;
+
+  /**
+   * The raw JSON content as UTF-8 bytes (null if not read as bytes or when modified).
+   */
+  private byte[] rawBytes;
+
+  /**
+   * The parsed modify aware map (null until first access).
+   */
+  private Map<String, Object> map;
+
+  /**
+   * True to track the top level keys that are put or removed.
+   */
+  private final boolean trackKeys;
+
+  /**
+   * The top level keys put or removed since the last update (null when none).
+   */
+  private Set<String> patchKeys;
+
+  /**
+   * Set when there is a modification that is not tracked by key.
+   */
+  private boolean fullUpdate;
+
+  /**
+   * Create with the raw JSON content.
+   */
+  public LazyJsonMap(String rawJson) {
+    this(rawJson, false);
+  }
+
+  /**
+   * Create with the raw JSON content additionally tracking the top level keys put or removed.
+   */
+  public LazyJsonMap(String rawJson, boolean trackKeys) {
+    this.rawJson = rawJson;
+    this.trackKeys = trackKeys;
+  }
+
+  /**
+   * Create with the raw JSON content as UTF-8 bytes.
+   */
+  public LazyJsonMap(byte[] rawBytes) {
+    this.rawBytes = rawBytes;
+    this.trackKeys = false;
+  }
+
+  /**
+   * Return true if the JSON content has been parsed.
+   */
+  public boolean isParsed() {
+    return map != null;
+  }
+
+  /**
+   * Return the raw JSON content or null if the content has been modified.
+   */
+  public String getRawJson() {
+    return isModified() ? null : raw();
+  }
+
+  /**
+   * Return the raw JSON content as UTF-8 bytes or null if the content has been modified.
+   */
+  public byte[] getRawBytes() {
+    if (isModified()) {
+      return null;
+    }
+    if (rawBytes == null) {
+      rawBytes = rawJson.getBytes(StandardCharsets.UTF_8);
+    }
+    return rawBytes;
+  }
+
+  private String raw() {
+    if (rawJson == null && rawBytes != null) {
+      rawJson = new String(rawBytes, StandardCharsets.UTF_8);
+    }
+    return rawJson;
+  }
+
+  /**
+   * Return true if the content has been modified.
+   * <p>
+   * This checks the dirty state of the parsed map (and nested maps and lists) without resetting it.
+   * </p>
+   */
+  private boolean isModified() {
+    if (map == null) {
+      return flag.dirty;
+    }
+    if (rawJson == null && rawBytes == null) {
+      return true;
+    }
+    if (flag.dirty || isUntracked()) {
+      dropRaw();
+      return true;
+    }
+    return false;
+  }
+
+  /**
+   * Return true if the parsed map (and nested maps and lists) has a modification not tracked by
+   * key (without resetting the dirty state).
+   */
+  private boolean isUntracked() {
+    ModifyAwareOwner owner = (ModifyAwareOwner) map;
+    if (owner.isMarkedDirty()) {
+      owner.markAsModified();
+      return true;
+    }
+    return false;
+  }
+
+  /**
+   * Return true if the changes can be applied by setting and removing top level keys.
+   * <p>
+   * This returns false when there are no tracked changes or there is a modification that is not
+   * tracked by key (and the full document needs to be written).
+   * </p>
+   */
+  public boolean isPatch() {
+    return patchKeys != null && !fullUpdate && !isUntracked();
+  }
+
+  /**
+   * Return the top level keys that have been removed.
+   */
+  public List<String> getPatchRemoved() {
+    List<String> removed = new ArrayList<String>();
+    for (String key : patchKeys) {
+      if (!map.containsKey(key)) {
+        removed.add(key);
+      }
+    }
+    return removed;
+  }
+
+  /**
+   * Return the top level keys and values that have been put.
+   */
+  public Map<String, Object> getPatchValues() {
+    Map<String, Object> values = new LinkedHashMap<String, Object>();
+    for (String key : patchKeys) {
+      if (map.containsKey(key)) {
+        values.put(key, map.get(key));
+      }
+    }
+    return values;
+  }
+
+  /**
+   * Reset the tracked keys after the changes have been bound to an update or insert.
+   */
+  public void resetPatch() {
+    patchKeys = null;
+    fullUpdate = false;
+  }
+
+  /**
+   * Return true if the put or remove of a top level key should be tracked.
+   * <p>
+   * The dirty state of the parsed map is checked prior to the modification such that it can be
+   * reset afterwards (leaving it dirty only for modifications that are not tracked by key).
+   * </p>
+   */
+  private boolean trackKey() {
+    return trackKeys && !isUntracked();
+  }
+
+  /**
+   * Record the top level key as modified.
+   */
+  private void tracked(String key) {
+    ((ModifyAwareOwner) map).resetMarkedDirty();
+    if (patchKeys == null) {
+      patchKeys = new LinkedHashSet<String>();
+    }
+    patchKeys.add(key);
+    flag.markAsModified();
+  }
+
+  /**
+   * Drop the raw content once the parsed map has been modified.
+   */
+  private void dropRaw() {
+    rawJson = null;
+    rawBytes = null;
+  }
+
+  /**
+   * Return the parsed map (parsing the raw content on first access).
+   */
+  private Map<String, Object> map() {
+    if (map == null) {
+      try {
+        map = EJson.parseObject(raw(), true);
+      } catch (IOException e) {
+        throw new TextException(e);
+      }
+    }
+    return map;
+  }
+
+  @Override
+  public boolean isMarkedDirty() {
+    boolean dirty = flag.isMarkedDirty();
+    if (map != null) {
+      if (((ModifyAwareOwner) map).isMarkedDirty()) {
+        // a modification not tracked by key
+        fullUpdate = true;
+        dirty = true;
+      }
+      if (dirty) {
+        dropRaw();
+      }
+    }
+    return dirty;
+  }
+
+  @Override
+  public void markAsModified() {
+    flag.markAsModified();
+  }
+
+  @Override
+  public void resetMarkedDirty() {
+    flag.resetMarkedDirty();
+    resetPatch();
+    if (map != null) {
+      ((ModifyAwareOwner) map).resetMarkedDirty();
+    }
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    return o == this || map().equals(o);
+  }
+
+  @Override
+  public int hashCode() {
+    return map().hashCode();
+  }
+
+  public String toString() {
+    return map().toString();
+  }
+
+  @Override
+  public int size() {
+    return map().size();
+  }
+
+  /**
+   * Return true if the map is empty (without parsing the raw content).
+   */
+  @Override
+  public boolean isEmpty() {
+    if (map == null) {
+      String raw = getRawJson();
+      if (raw != null) {
+        return isEmptyObject(raw);
+      }
+    }
+    return map().isEmpty();
+  }
+
+  /**
+   * Return true if the raw JSON is an empty object.
+   */
+  private static boolean isEmptyObject(String raw) {
+    int pos = skipWhitespace(raw, 0);
+    if (pos >= raw.length() || raw.charAt(pos) != '{') {
+      return false;
+    }
+    pos = skipWhitespace(raw, pos + 1);
+    return pos < raw.length() && raw.charAt(pos) == '}';
+  }
+
+  private static int skipWhitespace(String raw, int pos) {
+    while (pos < raw.length() && Character.isWhitespace(raw.charAt(pos))) {
+      pos++;
+    }
+    return pos;
+  }
+
+  @Override
+  public boolean containsKey(Object key) {
+    return map().containsKey(key);
+  }
+
+  @Override
+  public boolean containsValue(Object value) {
+    return map().containsValue(value);
+  }
+
+  @Override
+  public Object get(Object key) {
+    return map().get(key);
+  }
+
+  @Override
+  public Object put(String key, Object value) {
+    Map<String, Object> map = map();
+    if (!trackKey()) {
+      return map.put(key, value);
+    }
+    Object oldValue = map.put(key, value);
+    tracked(key);
+    return oldValue;
+  }
+
+  @Override
+  public Object remove(Object key) {
+    Map<String, Object> map = map();
+    if (!(key instanceof String) || !map.containsKey(key) || !trackKey()) {
+      return map.remove(key);
+    }
+    Object oldValue = map.remove(key);
+    tracked((String) key);
+    return oldValue;
+  }
+
+  @Override
+  public void putAll(Map<? extends String, ?> m) {
+    for (Entry<? extends String, ?> entry : m.entrySet()) {
+      put(entry.getKey(), entry.getValue());
+    }
+  }
+
+  @Override
+  public void clear() {
+    map().clear();
+  }
+
+  @Override
+  public Set<String> keySet() {
+    return map().keySet();
+  }
+
+  @Override
+  public Collection<Object> values() {
+    return map().values();
+  }
+
+  @Override
+  public Set<Entry<String, Object>> entrySet() {
+    return map().entrySet();
+  }
+}
@@ -7,11 +7,11 @@ import com.avaje.ebean.text.json.JsonWriter;
 import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.core.JsonToken;
 
+import java.io.ByteArrayOutputStream;
 import java.io.DataInput;
 import java.io.DataOutput;
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.InputStreamReader;
 import java.io.Reader;
 import java.nio.charset.StandardCharsets;
 import java.sql.SQLException;
@@ -36,7 +36,7 @@ public abstract class ScalarTypeJsonMap extends ScalarTypeBase<Map> {
       if (content == null) {
         return null;
       }
-      return parse(content);
+      return new LazyJsonMap(content);
     }
   }
 
@@ -60,11 +60,10 @@ public abstract class ScalarTypeJsonMap extends ScalarTypeBase<Map> {
         return null;
       }
       try {
-        InputStreamReader reader = new InputStreamReader(is);
         try {
-          return parse(reader);
+          return new LazyJsonMap(readBytes(is));
         } finally {
-          reader.close();
+          is.close();
         }
       } catch (IOException e) {
         throw new SQLException("Error reading Blob stream from DB", e);
@@ -77,8 +76,11 @@ public abstract class ScalarTypeJsonMap extends ScalarTypeBase<Map> {
       if (value == null) {
         b.setNull(Types.BLOB);
       } else {
-        String rawJson = formatValue(value);
-        b.setBytes(rawJson.getBytes(StandardCharsets.UTF_8));
+        byte[] rawBytes = (value instanceof LazyJsonMap) ? ((LazyJsonMap) value).getRawBytes() : null;
+        if (rawBytes == null) {
+          rawBytes = formatValue(value).getBytes(StandardCharsets.UTF_8);
+        }
+        b.setBytes(rawBytes);
       }
     }
   }
@@ -87,6 +89,13 @@ public abstract class ScalarTypeJsonMap extends ScalarTypeBase<Map> {
     super(Map.class, false, jdbcType);
   }
 
+  /**
+   * Return the expression used to update the changed top level keys (null if not supported).
+   */
+  public String getJsonPatch() {
+    return null;
+  }
+
   /**
    * Map is a mutable type. Use the isDirty() method to check for dirty state.
    */
@@ -110,7 +119,21 @@ public abstract class ScalarTypeJsonMap extends ScalarTypeBase<Map> {
     if (rawJson == null) {
       return null;
     }
-    return parse(rawJson);
+    // track the top level keys modified when the update can patch them
+    return new LazyJsonMap(rawJson, getJsonPatch() != null);
+  }
+
+  /**
+   * Read all the bytes of the stream.
+   */
+  static byte[] readBytes(InputStream is) throws IOException {
+    ByteArrayOutputStream out = new ByteArrayOutputStream(1024);
+    byte[] buffer = new byte[4096];
+    int len;
+    while ((len = is.read(buffer)) != -1) {
+      out.write(buffer, 0, len);
+    }
+    return out.toByteArray();
   }
 
   @Override
@@ -136,6 +159,13 @@ public abstract class ScalarTypeJsonMap extends ScalarTypeBase<Map> {
 
   @Override
   public String formatValue(Map v) {
+    if (v instanceof LazyJsonMap) {
+      // use the raw content when unmodified
+      String rawJson = ((LazyJsonMap) v).getRawJson();
+      if (rawJson != null) {
+        return rawJson;
+      }
+    }
     try {
       return EJson.write(v);
     } catch (IOException e) {
@@ -178,7 +208,7 @@ public abstract class ScalarTypeJsonMap extends ScalarTypeBase<Map> {
       return null;
     } else {
       String json = dataInput.readUTF();
-      return parse(json);
+      return new LazyJsonMap(json);
     }
   }
 
@@ -201,7 +231,13 @@ public abstract class ScalarTypeJsonMap extends ScalarTypeBase<Map> {
     } else {
       if (!value.isEmpty() || writer.isIncludeEmpty()) {
         writer.writeFieldName(name);
-        EJson.write(value, writer.gen());
+        String rawJson = (value instanceof LazyJsonMap) ? ((LazyJsonMap) value).getRawJson() : null;
+        if (rawJson != null) {
+          // unmodified so write the raw content without parsing it
+          writer.writeRawValue(rawJson);
+        } else {
+          EJson.write(value, writer.gen());
+        }
       }
     }
   }
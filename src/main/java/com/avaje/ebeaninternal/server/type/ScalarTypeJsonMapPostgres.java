@@ -17,12 +17,21 @@ public abstract class ScalarTypeJsonMapPostgres extends ScalarTypeJsonMap {
 
   final String postgresType;
 
-  ScalarTypeJsonMapPostgres(int jdbcType, String postgresType) {
+  final String jsonPatch;
+
+  ScalarTypeJsonMapPostgres(int jdbcType, String postgresType, String jsonPatch) {
     super(jdbcType);
     this.postgresType = postgresType;
+    this.jsonPatch = jsonPatch;
+  }
+
+  @Override
+  public String getJsonPatch() {
+    return jsonPatch;
   }
 
   @Override
+  @SuppressWarnings("rawtypes")
   public void bind(DataBind b, Map value) throws SQLException {
 
     String rawJson = (value == null) ? null : formatValue(value);
@@ -39,17 +48,24 @@ public abstract class ScalarTypeJsonMapPostgres extends ScalarTypeJsonMap {
   public static class JSON extends ScalarTypeJsonMapPostgres {
 
     public JSON() {
-      super(DbType.JSON, POSTGRES_TYPE_JSON);
+      super(DbType.JSON, POSTGRES_TYPE_JSON, null);
     }
   }
 
   /**
    * ScalarType mapping java Map type to Postgres JSONB database type.
+   * <p>
+   * Given the platform JSON patch expression updates only set the changed top level keys.
+   * </p>
    */
   public static class JSONB extends ScalarTypeJsonMapPostgres {
 
     public JSONB() {
-      super(DbType.JSONB, POSTGRES_TYPE_JSONB);
+      this(null);
+    }
+
+    public JSONB(String jsonPatch) {
+      super(DbType.JSONB, POSTGRES_TYPE_JSONB, jsonPatch);
     }
   }
 }
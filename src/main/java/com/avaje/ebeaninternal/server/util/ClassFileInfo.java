@@ -0,0 +1,76 @@
+package com.avaje.ebeaninternal.server.util;
+
+import java.util.Arrays;
+
+/**
+ * The type information read from a class file without loading the class.
+ * <p>
+ * Type names use the class file internal form (e.g. com/foo/Customer).
+ * </p>
+ */
+public class ClassFileInfo {
+
+  private final String name;
+
+  private final String superName;
+
+  private final String[] interfaces;
+
+  private final boolean abstractType;
+
+  private final boolean annotated;
+
+  public ClassFileInfo(String name, String superName, String[] interfaces, boolean abstractType, boolean annotated) {
+    this.name = name;
+    this.superName = superName;
+    this.interfaces = interfaces;
+    this.abstractType = abstractType;
+    this.annotated = annotated;
+  }
+
+  public String toString() {
+    return name + " super:" + superName + " interfaces:" + Arrays.toString(interfaces) + " abstract:" + abstractType + " annotated:" + annotated;
+  }
+
+  /**
+   * Return the internal name of the class.
+   */
+  public String getName() {
+    return name;
+  }
+
+  /**
+   * Return the class name in the usual dot form (for Class.forName()).
+   */
+  public String getClassName() {
+    return name.replace('/', '.');
+  }
+
+  /**
+   * Return the internal name of the super class (null for java/lang/Object).
+   */
+  public String getSuperName() {
+    return superName;
+  }
+
+  /**
+   * Return the internal names of the directly implemented interfaces.
+   */
+  public String[] getInterfaces() {
+    return interfaces;
+  }
+
+  /**
+   * Return true if this is an abstract class or an interface.
+   */
+  public boolean isAbstractType() {
+    return abstractType;
+  }
+
+  /**
+   * Return true if the constant pool contains one of the annotations searched for.
+   */
+  public boolean isAnnotated() {
+    return annotated;
+  }
+}
@@ -0,0 +1,116 @@
+package com.avaje.ebeaninternal.server.util;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Set;
+
+/**
+ * Reads the constant pool and type hierarchy of a class file without loading the class.
+ * <p>
+ * The annotation check looks for the annotation type descriptors (e.g. Ljavax/persistence/Entity;)
+ * in the constant pool. Every annotation on the class has its descriptor in the constant pool so
+ * this never misses a match but can return a false positive (which is fine as the class is then
+ * loaded and checked by the ClassPathSearchMatcher).
+ * </p>
+ */
+public class ClassFileReader {
+
+  private static final int MAGIC = 0xCAFEBABE;
+
+  private static final int ACC_INTERFACE = 0x0200;
+
+  private static final int ACC_ABSTRACT = 0x0400;
+
+  private final Set<String> annotationDescriptors;
+
+  /**
+   * Construct with the annotation descriptors (e.g. Ljavax/persistence/Entity;) to look for.
+   */
+  public ClassFileReader(Set<String> annotationDescriptors) {
+    this.annotationDescriptors = annotationDescriptors;
+  }
+
+  /**
+   * Read the class file returning the type information.
+   */
+  public ClassFileInfo read(InputStream inputStream) throws IOException {
+
+    DataInputStream in = new DataInputStream(inputStream);
+    if (in.readInt() != MAGIC) {
+      throw new IOException("Not a class file - bad magic number");
+    }
+    // minor and major version
+    in.readUnsignedShort();
+    in.readUnsignedShort();
+
+    int poolCount = in.readUnsignedShort();
+    String[] utf8 = new String[poolCount];
+    int[] classNameIndex = new int[poolCount];
+    boolean annotated = false;
+
+    for (int i = 1; i < poolCount; i++) {
+      int tag = in.readUnsignedByte();
+      switch (tag) {
+        case 1:
+          // Utf8
+          utf8[i] = in.readUTF();
+          if (!annotated && annotationDescriptors.contains(utf8[i])) {
+            annotated = true;
+          }
+          break;
+        case 7:
+          // Class
+          classNameIndex[i] = in.readUnsignedShort();
+          break;
+        case 8:
+        case 16:
+        case 19:
+        case 20:
+          // String, MethodType, Module, Package
+          in.skipBytes(2);
+          break;
+        case 15:
+          // MethodHandle
+          in.skipBytes(3);
+          break;
+        case 3:
+        case 4:
+        case 9:
+        case 10:
+        case 11:
+        case 12:
+        case 17:
+        case 18:
+          // Integer, Float, Fieldref, Methodref, InterfaceMethodref, NameAndType, Dynamic, InvokeDynamic
+          in.skipBytes(4);
+          break;
+        case 5:
+        case 6:
+          // Long, Double take two constant pool entries
+          in.skipBytes(8);
+          i++;
+          break;
+        default:
+          throw new IOException("Unexpected constant pool tag " + tag);
+      }
+    }
+
+    int access = in.readUnsignedShort();
+    String name = className(utf8, classNameIndex, in.readUnsignedShort());
+    String superName = className(utf8, classNameIndex, in.readUnsignedShort());
+
+    int interfaceCount = in.readUnsignedShort();
+    String[] interfaces = new String[interfaceCount];
+    for (int i = 0; i < interfaceCount; i++) {
+      interfaces[i] = className(utf8, classNameIndex, in.readUnsignedShort());
+    }
+
+    boolean abstractType = (access & (ACC_INTERFACE | ACC_ABSTRACT)) != 0;
+    return new ClassFileInfo(name, superName, interfaces, abstractType, annotated);
+  }
+
+  private String className(String[] utf8, int[] classNameIndex, int classIndex) {
+    return (classIndex == 0) ? null : utf8[classNameIndex[classIndex]];
+  }
+}
@@ -0,0 +1,207 @@
+package com.avaje.ebeaninternal.server.util;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+import java.util.zip.CRC32;
+
+/**
+ * File based cache of the class file information read from jars.
+ * <p>
+ * Entries are keyed by jar and a checksum of the jar contents. The checksum is computed from
+ * the entry names and CRCs held in the jar central directory so it is cheap to compute and
+ * does not require reading the class files themselves.
+ * </p>
+ * <p>
+ * Directories are not cached as they are typically the application classes under development.
+ * </p>
+ */
+public class ClassPathScanCache {
+
+  private static final Logger logger = LoggerFactory.getLogger(ClassPathScanCache.class);
+
+  private static final String HEADER = "#ebean-classpath-scan v1 ";
+
+  private final File file;
+
+  private final String criteria;
+
+  /**
+   * Jar entries read from the cache file.
+   */
+  private final Map<String, JarEntries> loaded = new LinkedHashMap<String, JarEntries>();
+
+  /**
+   * Jar entries used in this search (and written back to the cache file).
+   */
+  private final Map<String, JarEntries> current = new LinkedHashMap<String, JarEntries>();
+
+  private boolean changed;
+
+  /**
+   * Create with the cache file and the search criteria (cache content depends on the criteria).
+   */
+  public ClassPathScanCache(File file, String criteria) {
+    this.file = file;
+    this.criteria = criteria;
+  }
+
+  /**
+   * Return the checksum of the jar computed from the central directory entries.
+   */
+  public static String checksum(File jar, JarFile jarFile) {
+
+    CRC32 crc = new CRC32();
+    Enumeration<JarEntry> entries = jarFile.entries();
+    while (entries.hasMoreElements()) {
+      JarEntry entry = entries.nextElement();
+      crc.update(entry.getName().getBytes());
+      update(crc, entry.getCrc());
+      update(crc, entry.getSize());
+    }
+    return Long.toHexString(jar.length()) + "-" + Long.toHexString(crc.getValue());
+  }
+
+  private static void update(CRC32 crc, long value) {
+    for (int i = 0; i < 8; i++) {
+      crc.update((int) (value >>> (i * 8)));
+    }
+  }
+
+  /**
+   * Return the cached class file information for the jar or null if not cached (or changed).
+   */
+  public synchronized List<ClassFileInfo> get(String jarKey, String checksum) {
+    JarEntries entries = loaded.get(jarKey);
+    if (entries == null || !entries.checksum.equals(checksum)) {
+      return null;
+    }
+    current.put(jarKey, entries);
+    return entries.classes;
+  }
+
+  /**
+   * Put the class file information read for the jar.
+   */
+  public synchronized void put(String jarKey, String checksum, List<ClassFileInfo> classes) {
+    current.put(jarKey, new JarEntries(checksum, classes));
+    changed = true;
+  }
+
+  /**
+   * Load the cache file if it exists and was created with the same search criteria.
+   */
+  public void load() {
+
+    if (!file.exists()) {
+      return;
+    }
+    try {
+      BufferedReader reader = new BufferedReader(new InputStreamReader(new FileInputStream(file), "UTF-8"));
+      try {
+        String header = reader.readLine();
+        if (header == null || !header.equals(HEADER + criteria)) {
+          logger.debug("Ignoring classpath scan cache {} with different search criteria", file);
+          return;
+        }
+        JarEntries jarEntries = null;
+        String line;
+        while ((line = reader.readLine()) != null) {
+          String[] cols = line.split("\\|", -1);
+          if ("J".equals(cols[0])) {
+            jarEntries = new JarEntries(cols[2], new ArrayList<ClassFileInfo>());
+            loaded.put(cols[1], jarEntries);
+          } else if ("C".equals(cols[0]) && jarEntries != null) {
+            jarEntries.classes.add(readClass(cols));
+          }
+        }
+      } finally {
+        reader.close();
+      }
+    } catch (Exception e) {
+      logger.warn("Error reading classpath scan cache " + file + " - ignoring it", e);
+      loaded.clear();
+    }
+  }
+
+  /**
+   * Save the cache file if there are changes.
+   */
+  public void save() {
+
+    if (!changed && current.size() == loaded.size()) {
+      return;
+    }
+    try {
+      Writer writer = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(file), "UTF-8"));
+      try {
+        writer.write(HEADER);
+        writer.write(criteria);
+        writer.write('\n');
+        for (Map.Entry<String, JarEntries> entry : current.entrySet()) {
+          writer.write("J|" + entry.getKey() + "|" + entry.getValue().checksum + "\n");
+          for (ClassFileInfo info : entry.getValue().classes) {
+            writeClass(writer, info);
+          }
+        }
+      } finally {
+        writer.close();
+      }
+    } catch (IOException e) {
+      logger.warn("Error writing classpath scan cache " + file, e);
+    }
+  }
+
+  private ClassFileInfo readClass(String[] cols) {
+    String superName = cols[2].isEmpty() ? null : cols[2];
+    String[] interfaces = cols[3].isEmpty() ? new String[0] : cols[3].split(",");
+    return new ClassFileInfo(cols[1], superName, interfaces, "1".equals(cols[4]), "1".equals(cols[5]));
+  }
+
+  private void writeClass(Writer writer, ClassFileInfo info) throws IOException {
+    writer.write("C|");
+    writer.write(info.getName());
+    writer.write('|');
+    if (info.getSuperName() != null) {
+      writer.write(info.getSuperName());
+    }
+    writer.write('|');
+    String[] interfaces = info.getInterfaces();
+    for (int i = 0; i < interfaces.length; i++) {
+      if (i > 0) {
+        writer.write(',');
+      }
+      writer.write(interfaces[i]);
+    }
+    writer.write(info.isAbstractType() ? "|1" : "|0");
+    writer.write(info.isAnnotated() ? "|1\n" : "|0\n");
+  }
+
+  private static class JarEntries {
+
+    final String checksum;
+
+    final List<ClassFileInfo> classes;
+
+    JarEntries(String checksum, List<ClassFileInfo> classes) {
+      this.checksum = checksum;
+      this.classes = classes;
+    }
+  }
+}
@@ -7,7 +7,9 @@ import org.slf4j.LoggerFactory;
 import org.springframework.boot.loader.jar.JarEntryData;
 
 import java.io.File;
+import java.io.FileInputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.UnsupportedEncodingException;
 import java.net.MalformedURLException;
 import java.net.URI;
@@ -18,13 +20,25 @@ import java.nio.charset.Charset;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Enumeration;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
 import java.util.jar.Attributes;
+import java.util.jar.JarEntry;
 import java.util.jar.JarFile;
 import java.util.jar.Manifest;
+import java.util.zip.CRC32;
 
 /**
  * Can search the class path for classes using a ClassPathSearchMatcher. A
@@ -33,6 +47,11 @@ import java.util.jar.Manifest;
  * <p>
  * For example, used to find all the Entity beans and ScalarTypes for Ebean.
  * </p>
+ * <p>
+ * When the matcher is a ClassPathSearchBytecodeMatcher and the filter has readClassFiles set the
+ * class files are read (in parallel) and only the classes that could match are loaded. The class
+ * file information read from jars can additionally be cached to a file keyed by jar checksum.
+ * </p>
  */
 public class ClassPathSearch implements ClassPathSearchService {
 
@@ -56,6 +75,49 @@ public class ClassPathSearch implements ClassPathSearchService {
 
   private final ArrayList<URI> scannedUris = new ArrayList<URI>();
 
+  /**
+   * Reads class files when searching without loading every class.
+   */
+  private ClassFileReader classFileReader;
+
+  private ClassPathSearchBytecodeMatcher bytecodeMatcher;
+
+  private ClassPathScanCache scanCache;
+
+  private ExecutorService executor;
+
+  /**
+   * Class files found in the current jar or directory that are yet to be read.
+   */
+  private final List<String> pendingEntries = new ArrayList<String>();
+
+  private final List<String> pendingClassNames = new ArrayList<String>();
+
+  /**
+   * Class file information by internal class name in search order.
+   */
+  private final Map<String, ClassFileInfo> scannedClasses = new LinkedHashMap<String, ClassFileInfo>();
+
+  /**
+   * The jar file name by internal class name.
+   */
+  private final Map<String, String> scannedJars = new HashMap<String, String>();
+
+  /**
+   * Class names where reading the class file failed and are instead loaded.
+   */
+  private final List<String> unreadClasses = new ArrayList<String>();
+
+  /**
+   * Internal names of the interfaces the matcher matches on.
+   */
+  private final Set<String> matchInterfaceNames = new HashSet<String>();
+
+  /**
+   * Types known to implement (or not) one of the match interfaces.
+   */
+  private final Map<String, Boolean> interestingTypes = new HashMap<String, Boolean>();
+
   public ClassPathSearch() {
     // Default Construct
   }
@@ -66,6 +128,42 @@ public class ClassPathSearch implements ClassPathSearchService {
     this.filter = filter;
     this.matcher = matcher;
     initClassPaths(classPathReaderClassName);
+    initClassFileReader();
+  }
+
+  /**
+   * Setup reading of class files when supported by the matcher.
+   */
+  private void initClassFileReader() {
+
+    if (!filter.isReadClassFiles() || !(matcher instanceof ClassPathSearchBytecodeMatcher)) {
+      return;
+    }
+    bytecodeMatcher = (ClassPathSearchBytecodeMatcher) matcher;
+
+    StringBuilder criteria = new StringBuilder();
+    Set<String> annotationDescriptors = new HashSet<String>();
+    for (Class<?> annotation : bytecodeMatcher.getMatchAnnotations()) {
+      String descriptor = "L" + internalName(annotation) + ";";
+      annotationDescriptors.add(descriptor);
+      criteria.append(descriptor);
+    }
+    for (Class<?> matchInterface : bytecodeMatcher.getMatchInterfaces()) {
+      matchInterfaceNames.add(internalName(matchInterface));
+      criteria.append(internalName(matchInterface)).append(",");
+    }
+    classFileReader = new ClassFileReader(annotationDescriptors);
+
+    File cacheFile = filter.getScanCacheFile();
+    if (cacheFile != null) {
+      criteria.append(filter);
+      scanCache = new ClassPathScanCache(cacheFile, Integer.toHexString(criteria.toString().hashCode()));
+      scanCache.load();
+    }
+  }
+
+  private static String internalName(Class<?> cls) {
+    return cls.getName().replace('.', '/');
   }
 
   private void initClassPaths(String classPathReaderCN) {
@@ -158,30 +256,148 @@ public class ClassPathSearch implements ClassPathSearchService {
       return matchList;
     }
 
+    if (classFileReader != null) {
+      executor = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors(), new ScanThreadFactory());
+    }
+    try {
+      int classPathSize = classPath.size();
+      for (int i = 0; i < classPathSize; i++) {
+
+        ClassPathElement element = getClassPathElement(classPath.get(i));
+
+        if (element.isDirectory()) {
+          scanDirectory(element);
+
+        } else if (element.isJarOrWar()) {
+          // search name including the ! offset if it is there
+          if (classPathSize == 1 || filter.isSearchJar(element.getJarNameWithOffset(), element.getJarOffset())) {
+            scanJar(element);
+          }
+
+        } else {
+          logger.error("Error: expected classPath entry [" + element + "] to be a directory or a .jar file but it is not either of those?");
+        }
+      }
+    } finally {
+      if (executor != null) {
+        executor.shutdown();
+      }
+    }
+
+    if (classFileReader != null) {
+      matchScannedClasses();
+      if (scanCache != null) {
+        scanCache.save();
+      }
+    }
+
+    if (matchList.isEmpty()) {
+      logger.warn("No Entities found in ClassPath using ClassPathReader [" + classPathReader + "] Classpath Searched[" + classPath + "]");
+    }
+
+    return matchList;
+  }
+
+  /**
+   * Return a checksum of the class files that are searched without reading or loading the classes
+   * where possible.
+   * <p>
+   * The checksum covers the name and CRC of each class file in the searched packages and jars
+   * such that added, removed and changed classes change the checksum. It does not depend on
+   * whether the classes are in directories or jars (the CRC of jar entries is taken from the jar
+   * central directory while class files in directories are read).
+   * </p>
+   */
+  public String checksum() throws IOException {
+
+    Map<String, Long> classCrcs = new TreeMap<String, Long>();
+    Set<URI> checkedUris = new HashSet<URI>();
+
     int classPathSize = classPath.size();
     for (int i = 0; i < classPathSize; i++) {
-
       ClassPathElement element = getClassPathElement(classPath.get(i));
-
       if (element.isDirectory()) {
-        scanDirectory(element);
+        checksumDirectory(classCrcs, element.classPath);
 
       } else if (element.isJarOrWar()) {
-        // search name including the ! offset if it is there
         if (classPathSize == 1 || filter.isSearchJar(element.getJarNameWithOffset(), element.getJarOffset())) {
-          scanJar(element);
+          checksumJar(classCrcs, checkedUris, element);
         }
+      }
+    }
 
-      } else {
-        logger.error("Error: expected classPath entry [" + element + "] to be a directory or a .jar file but it is not either of those?");
+    CRC32 crc = new CRC32();
+    for (Map.Entry<String, Long> entry : classCrcs.entrySet()) {
+      crc.update(entry.getKey().getBytes("UTF-8"));
+      long value = entry.getValue();
+      for (int i = 0; i < 8; i++) {
+        crc.update((int) (value >>> (i * 8)));
       }
     }
+    return classCrcs.size() + "-" + Long.toHexString(crc.getValue());
+  }
 
-    if (matchList.isEmpty()) {
-      logger.warn("No Entities found in ClassPath using ClassPathReader [" + classPathReader + "] Classpath Searched[" + classPath + "]");
+  private void checksumDirectory(Map<String, Long> classCrcs, File directory) throws IOException {
+
+    for (String fileName : getDirectoryFiles(directory)) {
+      if (isEntryClass(null, fileName)) {
+        String className = searchClassName(null, fileName);
+        if (className != null && !classCrcs.containsKey(className)) {
+          classCrcs.put(className, checksumFile(new File(directory, fileName)));
+        }
+      }
     }
+  }
 
-    return matchList;
+  private static long checksumFile(File file) throws IOException {
+
+    CRC32 crc = new CRC32();
+    byte[] buffer = new byte[8192];
+    InputStream is = new FileInputStream(file);
+    try {
+      int len;
+      while ((len = is.read(buffer)) != -1) {
+        crc.update(buffer, 0, len);
+      }
+    } finally {
+      is.close();
+    }
+    return crc.getValue();
+  }
+
+  private void checksumJar(Map<String, Long> classCrcs, Set<URI> checkedUris, ClassPathElement element) throws IOException {
+
+    JarFile module = new JarFile(element.classPath);
+    try {
+      for (URI uri : getClassPathFromManifest(element.classPath, module.getManifest())) {
+        if (uri.getScheme().equals("file") && checkedUris.add(uri)) {
+          File file = new File(uri);
+          if (file.isDirectory()) {
+            checksumDirectory(classCrcs, file);
+          } else if (file.exists()) {
+            checksumJar(classCrcs, checkedUris, new ClassPathElement(file));
+          }
+        }
+      }
+
+      String jarOffset = entryPrefix(element.jarOffset);
+      Enumeration<JarEntry> entries = module.entries();
+      while (entries.hasMoreElements()) {
+        JarEntry entry = entries.nextElement();
+        String entryName = entry.getName();
+        if (isEntryClass(jarOffset, entryName)) {
+          String className = searchClassName(jarOffset, entryName);
+          if (className != null && !classCrcs.containsKey(className)) {
+            classCrcs.put(className, entry.getCrc());
+          }
+        } else if (isEntryEmbeddedJar(element.classPath, entryName)) {
+          // changes to the embedded jar change its crc
+          classCrcs.put(entryName, entry.getCrc());
+        }
+      }
+    } finally {
+      module.close();
+    }
   }
 
   private ClassPathElement getClassPathElement(Object classPathEntry) throws MalformedURLException {
@@ -217,9 +433,15 @@ public class ClassPathSearch implements ClassPathSearchService {
     scanDirectory(classPathEntry.classPath);
   }
 
-  private void scanDirectory(File directory) {
+  private void scanDirectory(final File directory) {
     List<String> directoryFiles = getDirectoryFiles(directory);
     searchFiles(Collections.enumeration(directoryFiles), null, null, null);
+    readPendingClassFiles(null, new ClassFileSource() {
+      @Override
+      public InputStream open(String entryName) throws IOException {
+        return new FileInputStream(new File(directory, entryName));
+      }
+    });
   }
 
   private void scanUri(URI uri) throws IOException {
@@ -253,6 +475,7 @@ public class ClassPathSearch implements ClassPathSearchService {
       }
 
       searchFiles(module.entries(), classPathEntry.getJarName(), classPathEntry.jarOffset, file);
+      readPendingJarClassFiles(classPathEntry, module);
 
     } catch (MalformedURLException ex) {
       throw new IOException("Bad classpath error: ", ex);
@@ -312,13 +535,36 @@ public class ClassPathSearch implements ClassPathSearchService {
 
     logger.debug("searchFiles jarFileName:{}  jarOffset:{}", jarFileName, jarOffset);
 
+    jarOffset = entryPrefix(jarOffset);
+
+    while (entries.hasMoreElements()) {
+
+      Object element = entries.nextElement();
+      String entryName = element.toString();
+
+      if (isEntryEmbeddedJar(module, entryName)) {
+        scanSpringBootEmbeddedJar(jarFileName, module, entryName);
+      }
+
+      if (isEntryClass(jarOffset, entryName)) {
+        // check if it an 'interesting' class - entity etc
+        registerScannedClass(jarFileName, jarOffset, entryName, true);
+      }
+    }
+  }
+
+  /**
+   * Return the jar offset as a prefix of the jar entry names (or null).
+   */
+  private static String entryPrefix(String jarOffset) {
+
     // Strips the first character off as all entries in a jar file have no /
     // prefix. We want to come out with a name like WEB-INF/classes/ to ensure
     // we filter the contents of the war/jar file by this.
 
     if ("/".equals(jarOffset)) {
       // root level for runnable jar (spring boot etc)
-      jarOffset = null;
+      return null;
 
     } else if (jarOffset != null) {
       if (jarOffset.startsWith("/")) {
@@ -329,21 +575,7 @@ public class ClassPathSearch implements ClassPathSearchService {
         jarOffset += "/";
       }
     }
-
-    while (entries.hasMoreElements()) {
-
-      Object element = entries.nextElement();
-      String entryName = element.toString();
-
-      if (isEntryEmbeddedJar(module, entryName)) {
-        scanSpringBootEmbeddedJar(jarFileName, module, entryName);
-      }
-
-      if (isEntryClass(jarOffset, entryName)) {
-        // check if it an 'interesting' class - entity etc
-        registerScannedClass(jarFileName, jarOffset, entryName);
-      }
-    }
+    return jarOffset;
   }
 
   /**
@@ -371,7 +603,7 @@ public class ClassPathSearch implements ClassPathSearchService {
         JarEntryData jarEntryData = iterator.next();
         if (jarEntryData.getName().toString().endsWith(".class")) {
           logger.debug("... spring boot class entry:{}", jarEntryData.getName().toString());
-          registerScannedClass(jarFileName, null, jarEntryData.getName().toString());
+          registerScannedClass(jarFileName, null, jarEntryData.getName().toString(), false);
         }
       }
     } catch (IOException e) {
@@ -379,8 +611,26 @@ public class ClassPathSearch implements ClassPathSearchService {
     }
   }
 
-  private void registerScannedClass(String jarFileName, String jarOffset, String fileName) {
+  private void registerScannedClass(String jarFileName, String jarOffset, String fileName, boolean readClassFile) {
+
+    String className = searchClassName(jarOffset, fileName);
+    if (className != null) {
+      if (readClassFile && classFileReader != null) {
+        // read the class file later rather than loading the class
+        pendingEntries.add(fileName);
+        pendingClassNames.add(className);
+      } else {
+        loadAndMatch(jarFileName, className);
+      }
+    }
+  }
 
+  /**
+   * Return the class name of the class file entry if it is in a searched package (otherwise null).
+   */
+  private String searchClassName(String jarOffset, String entryName) {
+
+    String fileName = entryName;
     if (jarOffset != null) {
       // we got through here only if there is an offset and we
       // matched it, so strip it off the file
@@ -397,25 +647,194 @@ public class ClassPathSearch implements ClassPathSearchService {
     } else {
       pckgName = "";
     }
+    return filter.isSearchPackage(pckgName) ? className : null;
+  }
 
-    if (filter.isSearchPackage(pckgName)) {
-      // get the class for our class name
-      try {
-        Class<?> theClass = Class.forName(className, false, classLoader);
+  /**
+   * Load the class and check if it matches.
+   */
+  private void loadAndMatch(String jarFileName, String className) {
+    // get the class for our class name
+    try {
+      Class<?> theClass = Class.forName(className, false, classLoader);
+
+      if (matcher.isMatch(theClass)) {
+        matchList.add(theClass);
+        registerHit(jarFileName, theClass);
+      }
 
-        if (matcher.isMatch(theClass)) {
-          matchList.add(theClass);
-          registerHit(jarFileName, theClass);
+    } catch (ClassNotFoundException e) {
+      // expected to get this hence trace
+      logger.trace("Error searching classpath" + e.getMessage());
+    } catch (NoClassDefFoundError e) {
+      // expected to get this hence trace
+      logger.trace("Error searching classpath" + e.getMessage());
+    }
+  }
+
+  /**
+   * Read the pending class files of the jar using the scan cache if possible.
+   */
+  private void readPendingJarClassFiles(ClassPathElement classPathEntry, final JarFile module) {
+
+    if (classFileReader == null) {
+      return;
+    }
+    if (scanCache == null) {
+      readPendingClassFiles(classPathEntry.getJarName(), new JarClassFileSource(module));
+      return;
+    }
+
+    String jarKey = classPathEntry.getJarKey();
+    String checksum = ClassPathScanCache.checksum(classPathEntry.classPath, module);
+    List<ClassFileInfo> cached = scanCache.get(jarKey, checksum);
+    if (cached != null) {
+      logger.trace("scanJar using cached class files for {}", jarKey);
+      clearPending();
+      addScannedClasses(classPathEntry.getJarName(), cached);
+    } else {
+      List<ClassFileInfo> classes = readPendingClassFiles(classPathEntry.getJarName(), new JarClassFileSource(module));
+      scanCache.put(jarKey, checksum, classes);
+    }
+  }
+
+  /**
+   * Read the pending class files in parallel.
+   */
+  private List<ClassFileInfo> readPendingClassFiles(String jarFileName, final ClassFileSource source) {
+
+    if (classFileReader == null) {
+      return Collections.emptyList();
+    }
+    try {
+      List<Future<ClassFileInfo>> futures = new ArrayList<Future<ClassFileInfo>>(pendingEntries.size());
+      for (final String entryName : pendingEntries) {
+        futures.add(executor.submit(new Callable<ClassFileInfo>() {
+          @Override
+          public ClassFileInfo call() throws IOException {
+            InputStream is = source.open(entryName);
+            try {
+              return classFileReader.read(is);
+            } finally {
+              is.close();
+            }
+          }
+        }));
+      }
+
+      List<ClassFileInfo> classes = new ArrayList<ClassFileInfo>(futures.size());
+      for (int i = 0; i < futures.size(); i++) {
+        try {
+          classes.add(futures.get(i).get());
+        } catch (ExecutionException e) {
+          // fallback to loading the class
+          logger.debug("Error reading class file " + pendingEntries.get(i) + " " + e.getCause());
+          unreadClasses.add(pendingClassNames.get(i));
         }
+      }
+      addScannedClasses(jarFileName, classes);
+      return classes;
+
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Interrupted reading class files", e);
+
+    } finally {
+      clearPending();
+    }
+  }
+
+  private void clearPending() {
+    pendingEntries.clear();
+    pendingClassNames.clear();
+  }
+
+  private void addScannedClasses(String jarFileName, List<ClassFileInfo> classes) {
+    for (ClassFileInfo info : classes) {
+      if (!scannedClasses.containsKey(info.getName())) {
+        scannedClasses.put(info.getName(), info);
+        scannedJars.put(info.getName(), jarFileName);
+      }
+    }
+  }
+
+  /**
+   * Load the scanned classes that could match and check them using the matcher.
+   */
+  private void matchScannedClasses() {
+
+    int loadCount = 0;
+    for (ClassFileInfo info : scannedClasses.values()) {
+      if (info.isAnnotated() || (!info.isAbstractType() && isInterestingType(info.getName()))) {
+        loadCount++;
+        loadAndMatch(scannedJars.get(info.getName()), info.getClassName());
+      }
+    }
+    for (String className : unreadClasses) {
+      loadAndMatch(null, className);
+    }
+    logger.debug("Read {} class files and loaded {} classes", scannedClasses.size(), loadCount + unreadClasses.size());
+  }
+
+  /**
+   * Return true if the type is or extends/implements one of the match interfaces.
+   */
+  private boolean isInterestingType(String name) {
+
+    if (name == null) {
+      return false;
+    }
+    Boolean interesting = interestingTypes.get(name);
+    if (interesting == null) {
+      // guard against cycles while determining
+      interestingTypes.put(name, Boolean.FALSE);
+      interesting = determineInterestingType(name);
+      interestingTypes.put(name, interesting);
+    }
+    return interesting;
+  }
 
-      } catch (ClassNotFoundException e) {
-        // expected to get this hence trace
-        logger.trace("Error searching classpath" + e.getMessage());
-      } catch (NoClassDefFoundError e) {
-        // expected to get this hence trace
-        logger.trace("Error searching classpath" + e.getMessage());
+  private boolean determineInterestingType(String name) {
+
+    if (matchInterfaceNames.contains(name)) {
+      return true;
+    }
+    ClassFileInfo info = scannedClasses.get(name);
+    if (info == null) {
+      return isInterestingExternalType(name);
+    }
+    if (isInterestingType(info.getSuperName())) {
+      return true;
+    }
+    for (String interfaceName : info.getInterfaces()) {
+      if (isInterestingType(interfaceName)) {
+        return true;
       }
     }
+    return false;
+  }
+
+  /**
+   * Check a super type that was not scanned (in another jar or excluded package) by loading it.
+   */
+  private boolean isInterestingExternalType(String name) {
+
+    if (name.startsWith("java/")) {
+      return false;
+    }
+    try {
+      Class<?> cls = Class.forName(name.replace('/', '.'), false, classLoader);
+      for (Class<?> matchInterface : bytecodeMatcher.getMatchInterfaces()) {
+        if (matchInterface.isAssignableFrom(cls)) {
+          return true;
+        }
+      }
+    } catch (ClassNotFoundException e) {
+      logger.trace("Error searching classpath" + e.getMessage());
+    } catch (LinkageError e) {
+      logger.trace("Error searching classpath" + e.getMessage());
+    }
+    return false;
   }
 
   private void recursivelyListDir(List<String> fileNameList, File dir, StringBuilder relativePath) {
@@ -561,6 +980,54 @@ public class ClassPathSearch implements ClassPathSearchService {
     String getJarOffset() {
       return jarOffset;
     }
+
+    /**
+     * Return the key used for the scan cache.
+     */
+    String getJarKey() {
+      return (jarOffset == null) ? classPath.getAbsolutePath() : classPath.getAbsolutePath() + "!" + jarOffset;
+    }
+  }
+
+  /**
+   * Source of class file content for a jar or directory.
+   */
+  private interface ClassFileSource {
+
+    InputStream open(String entryName) throws IOException;
+  }
+
+  private static class JarClassFileSource implements ClassFileSource {
+
+    private final JarFile jarFile;
+
+    JarClassFileSource(JarFile jarFile) {
+      this.jarFile = jarFile;
+    }
+
+    @Override
+    public InputStream open(String entryName) throws IOException {
+      JarEntry entry = jarFile.getJarEntry(entryName);
+      if (entry == null) {
+        throw new IOException("Jar entry not found " + entryName);
+      }
+      return jarFile.getInputStream(entry);
+    }
+  }
+
+  /**
+   * Daemon threads used to read class files.
+   */
+  private static class ScanThreadFactory implements ThreadFactory {
+
+    private int count;
+
+    @Override
+    public synchronized Thread newThread(Runnable runnable) {
+      Thread thread = new Thread(runnable, "ebean-classpath-scan-" + (++count));
+      thread.setDaemon(true);
+      return thread;
+    }
   }
 
 }
\ No newline at end of file
@@ -0,0 +1,25 @@
+package com.avaje.ebeaninternal.server.util;
+
+import java.lang.annotation.Annotation;
+import java.util.List;
+
+/**
+ * A ClassPathSearchMatcher that defines the annotations and interfaces it matches on.
+ * <p>
+ * This allows the class path search to read class files and only load the classes that
+ * could possibly match rather than loading every class in the searched jars and directories.
+ * </p>
+ */
+public interface ClassPathSearchBytecodeMatcher extends ClassPathSearchMatcher {
+
+  /**
+   * Return the annotations that a matching class can be annotated with.
+   */
+  List<Class<? extends Annotation>> getMatchAnnotations();
+
+  /**
+   * Return the interfaces that a matching (non abstract) class can implement.
+   */
+  List<Class<?>> getMatchInterfaces();
+
+}
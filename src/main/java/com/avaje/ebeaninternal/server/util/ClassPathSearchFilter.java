@@ -1,5 +1,6 @@
 package com.avaje.ebeaninternal.server.util;
 
+import java.io.File;
 import java.util.HashSet;
 import java.util.Set;
 
@@ -24,10 +25,49 @@ public class ClassPathSearchFilter {
 
 	private final HashSet<String> excludeJarSet = new HashSet<String>();
 
+  private boolean readClassFiles;
+
+  private File scanCacheFile;
+
 	public ClassPathSearchFilter() {
 		addDefaultExcludePackages();
 	}
 
+  public String toString() {
+    return "include" + includePackageSet + " exclude" + excludePackageSet + " default:" + defaultPackageMatch;
+  }
+
+  /**
+   * Return true if class files should be read rather than loading every class.
+   */
+  public boolean isReadClassFiles() {
+    return readClassFiles;
+  }
+
+  /**
+   * Set to true to read class files rather than loading every class when searching.
+   * <p>
+   * This is used when the matcher is a ClassPathSearchBytecodeMatcher.
+   * </p>
+   */
+  public void setReadClassFiles(boolean readClassFiles) {
+    this.readClassFiles = readClassFiles;
+  }
+
+  /**
+   * Return the file used to cache class file information read from jars (can be null).
+   */
+  public File getScanCacheFile() {
+    return scanCacheFile;
+  }
+
+  /**
+   * Set the file used to cache class file information read from jars.
+   */
+  public void setScanCacheFile(File scanCacheFile) {
+    this.scanCacheFile = scanCacheFile;
+  }
+
 	/**
 	 * Return the explicit packages that should be searched.
 	 */
@@ -0,0 +1,118 @@
+package com.avaje.ebeaninternal.server.util;
+
+import com.avaje.ebean.meta.MetaHistogram;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Low overhead concurrent histogram with power of 2 buckets.
+ * <p>
+ * Recording a value is a leading zeros count and an atomic increment such that this is suitable
+ * for recording on the query execution path. Percentiles are accurate to within a factor of 2
+ * which is sufficient to identify tail latency.
+ * </p>
+ */
+public final class Histogram {
+
+  /**
+   * Number of buckets (values of 2^38 and above go in the last bucket).
+   */
+  static final int BUCKETS = 40;
+
+  private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+
+  private final LongMaxUpdater max = new LongMaxUpdater();
+
+  /**
+   * Return the bucket for the given (non negative) value.
+   */
+  static int bucket(long value) {
+    if (value <= 0) {
+      return 0;
+    }
+    return Math.min(BUCKETS - 1, 64 - Long.numberOfLeadingZeros(value));
+  }
+
+  /**
+   * Record a value.
+   */
+  public void add(long value) {
+    counts.incrementAndGet(bucket(value));
+    max.update(value);
+  }
+
+  /**
+   * Reset the counts.
+   */
+  public void reset() {
+    for (int i = 0; i < BUCKETS; i++) {
+      counts.set(i, 0);
+    }
+    max.reset();
+  }
+
+  /**
+   * Return a snapshot optionally resetting the counts.
+   */
+  public MetaHistogram snapshot(boolean reset) {
+    long[] values = new long[BUCKETS];
+    long total = 0;
+    for (int i = 0; i < BUCKETS; i++) {
+      values[i] = reset ? counts.getAndSet(i, 0) : counts.get(i);
+      total += values[i];
+    }
+    long maxValue = reset ? max.maxThenReset() : max.max();
+    return new Snapshot(values, total, total == 0 ? 0 : Math.max(0, maxValue));
+  }
+
+  private static final class Snapshot implements MetaHistogram {
+
+    private final long[] counts;
+
+    private final long count;
+
+    private final long max;
+
+    Snapshot(long[] counts, long count, long max) {
+      this.counts = counts;
+      this.count = count;
+      this.max = max;
+    }
+
+    public String toString() {
+      return "count:" + count + " p50:" + getPercentile(50) + " p99:" + getPercentile(99) + " max:" + max;
+    }
+
+    @Override
+    public long getCount() {
+      return count;
+    }
+
+    @Override
+    public long getMax() {
+      return max;
+    }
+
+    @Override
+    public long getPercentile(double percentile) {
+      if (count == 0) {
+        return 0;
+      }
+      long rank = (long) Math.ceil(count * Math.min(100d, Math.max(0d, percentile)) / 100d);
+      long cumulative = 0;
+      for (int i = 0; i < counts.length; i++) {
+        cumulative += counts[i];
+        if (cumulative >= rank && cumulative > 0) {
+          long upperBound = (i == 0) ? 0 : (1L << i) - 1;
+          return Math.min(upperBound, max);
+        }
+      }
+      return max;
+    }
+
+    @Override
+    public long[] getBucketCounts() {
+      return counts.clone();
+    }
+  }
+}
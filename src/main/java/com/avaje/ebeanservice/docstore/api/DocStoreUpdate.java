@@ -1,5 +1,7 @@
 package com.avaje.ebeanservice.docstore.api;
 
+import com.avaje.ebean.plugin.BeanType;
+
 import java.io.IOException;
 
 /**
@@ -7,6 +9,22 @@ import java.io.IOException;
  */
 public interface DocStoreUpdate {
 
+  /**
+   * Return the bean type of the document.
+   */
+  BeanType<?> getBeanType();
+
+  /**
+   * Return the id of the document.
+   */
+  Object getDocId();
+
+  /**
+   * Return true if this updates part of the document (the changed properties) rather than
+   * replacing or deleting the entire document.
+   */
+  boolean isPartial();
+
   /**
    * Add the event to the doc store bulk update.
    */
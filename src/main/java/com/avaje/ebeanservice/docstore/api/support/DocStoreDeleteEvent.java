@@ -21,6 +21,21 @@ public class DocStoreDeleteEvent implements DocStoreUpdate {
     this.idValue = idValue;
   }
 
+  @Override
+  public BeanType<?> getBeanType() {
+    return beanType;
+  }
+
+  @Override
+  public Object getDocId() {
+    return idValue;
+  }
+
+  @Override
+  public boolean isPartial() {
+    return false;
+  }
+
   /**
    * Add appropriate JSON content for sending to the ElasticSearch Bulk API.
    */
@@ -24,6 +24,21 @@ public class DocStoreIndexEvent<T> implements DocStoreUpdate {
     this.bean = bean;
   }
 
+  @Override
+  public BeanType<?> getBeanType() {
+    return beanType;
+  }
+
+  @Override
+  public Object getDocId() {
+    return idValue;
+  }
+
+  @Override
+  public boolean isPartial() {
+    return false;
+  }
+
   /**
    * Add appropriate JSON content for sending to the ElasticSearch Bulk API.
    */
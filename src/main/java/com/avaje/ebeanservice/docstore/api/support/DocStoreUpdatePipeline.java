@@ -0,0 +1,463 @@
+package com.avaje.ebeanservice.docstore.api.support;
+
+import com.avaje.ebean.BackgroundExecutor;
+import com.avaje.ebean.DocStoreQueueEntry;
+import com.avaje.ebean.Query;
+import com.avaje.ebean.config.DocStoreConfig;
+import com.avaje.ebean.meta.MetaDocStoreUpdates;
+import com.avaje.ebean.plugin.BeanType;
+import com.avaje.ebean.plugin.Plugin;
+import com.avaje.ebean.plugin.SpiServer;
+import com.avaje.ebeanservice.docstore.api.DocStoreQueryUpdate;
+import com.avaje.ebeanservice.docstore.api.DocStoreUpdate;
+import com.avaje.ebeanservice.docstore.api.DocStoreUpdateProcessor;
+import com.avaje.ebeanservice.docstore.api.DocStoreUpdates;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * DocStoreUpdateProcessor that coalesces the updates of committed transactions and sends them
+ * to the underlying processor in batches.
+ * <p>
+ * Pending updates are held by document (queueId and id) keeping only the latest. When a partial
+ * update (the changed properties) follows another pending update for the same document the
+ * document is instead re-indexed from the database when sent. Nested invalidations are merged
+ * by queueId and path such that each embedding bean id is only invalidated once per batch.
+ * </p>
+ * <p>
+ * The pending updates are sent when the batch size is reached or periodically (flush millis).
+ * The queue is bounded such that when it is full the committing (background) thread sends the
+ * pending updates before adding its own.
+ * </p>
+ */
+public class DocStoreUpdatePipeline implements DocStoreUpdateProcessor, MetaDocStoreUpdates, Plugin {
+
+  private static final Logger logger = LoggerFactory.getLogger(DocStoreUpdatePipeline.class);
+
+  private final SpiServer server;
+
+  private final DocStoreUpdateProcessor processor;
+
+  private final int capacity;
+
+  private final int batchSize;
+
+  private final ReentrantLock lock = new ReentrantLock();
+
+  /**
+   * Serialises sending the batches such that the updates of a document are sent in order.
+   */
+  private final Object flushMonitor = new Object();
+
+  private Map<DocKey, Pending> pending = new LinkedHashMap<DocKey, Pending>();
+
+  private Map<NestedKey, Set<Object>> nested = new LinkedHashMap<NestedKey, Set<Object>>();
+
+  private List<DocStoreQueueEntry> queueEntries = new ArrayList<DocStoreQueueEntry>();
+
+  private int depth;
+
+  private long oldestMillis;
+
+  private boolean shutdown;
+
+  private volatile long lastFlushLagMillis;
+
+  private final AtomicLong receivedCount = new AtomicLong();
+
+  private final AtomicLong coalescedCount = new AtomicLong();
+
+  private final AtomicLong processedCount = new AtomicLong();
+
+  private final AtomicLong flushCount = new AtomicLong();
+
+  private final AtomicLong backPressureCount = new AtomicLong();
+
+  public DocStoreUpdatePipeline(SpiServer server, DocStoreUpdateProcessor processor, DocStoreConfig config, BackgroundExecutor executor) {
+    this.server = server;
+    this.processor = processor;
+    this.capacity = Math.max(1, config.getQueueCapacity());
+    this.batchSize = Math.max(1, config.getBulkBatchSize());
+    long flushMillis = Math.max(1, config.getFlushMillis());
+    executor.executePeriodically(new Runnable() {
+      @Override
+      public void run() {
+        flush();
+      }
+    }, flushMillis, TimeUnit.MILLISECONDS);
+  }
+
+  @Override
+  public <T> DocStoreQueryUpdate<T> createQueryUpdate(BeanType<T> beanType, int bulkBatchSize) throws IOException {
+    return processor.createQueryUpdate(beanType, bulkBatchSize);
+  }
+
+  /**
+   * Add the updates of a committed transaction to the pending updates.
+   */
+  @Override
+  public void process(DocStoreUpdates docStoreUpdates, int bulkBatchSize) {
+
+    int incoming = docStoreUpdates.getPersistEvents().size() + docStoreUpdates.getDeleteEvents().size()
+        + docStoreUpdates.getNestedEvents().size() + docStoreUpdates.getQueueEntries().size();
+    if (incoming == 0) {
+      return;
+    }
+    receivedCount.addAndGet(incoming);
+
+    if (!offer(docStoreUpdates, incoming, false)) {
+      if (isShutdown()) {
+        processor.process(docStoreUpdates, bulkBatchSize);
+        processedCount.addAndGet(incoming);
+        return;
+      }
+      // back pressure so send the pending updates before adding these
+      backPressureCount.incrementAndGet();
+      flush();
+      offer(docStoreUpdates, incoming, true);
+    }
+    if (getQueueDepth() >= batchSize) {
+      flush();
+    }
+  }
+
+  /**
+   * Add the updates returning false if the queue is full (or shutdown) unless forced.
+   */
+  private boolean offer(DocStoreUpdates updates, int incoming, boolean force) {
+    lock.lock();
+    try {
+      if (shutdown || (!force && depth > 0 && depth + incoming > capacity)) {
+        return false;
+      }
+      if (depth == 0) {
+        oldestMillis = System.currentTimeMillis();
+      }
+      for (DocStoreUpdate event : updates.getPersistEvents()) {
+        addEvent(event, false);
+      }
+      for (DocStoreUpdate event : updates.getDeleteEvents()) {
+        addEvent(event, true);
+      }
+      for (DocStoreQueueEntry entry : updates.getNestedEvents()) {
+        addNested(entry);
+      }
+      queueEntries.addAll(updates.getQueueEntries());
+      depth += updates.getQueueEntries().size();
+      return true;
+
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  private void addEvent(DocStoreUpdate event, boolean deleteEvent) {
+
+    DocKey key = new DocKey(event.getBeanType().getDocStoreQueueId(), event.getDocId());
+    Pending existing = pending.get(key);
+    if (existing == null) {
+      pending.put(key, new Pending(event, deleteEvent));
+      depth++;
+    } else {
+      coalescedCount.incrementAndGet();
+      existing.replace(event, deleteEvent);
+    }
+  }
+
+  private void addNested(DocStoreQueueEntry entry) {
+
+    NestedKey key = new NestedKey(entry.getQueueId(), entry.getPath());
+    Set<Object> ids = nested.get(key);
+    if (ids == null) {
+      ids = new LinkedHashSet<Object>();
+      nested.put(key, ids);
+    }
+    if (ids.add(entry.getBeanId())) {
+      depth++;
+    } else {
+      coalescedCount.incrementAndGet();
+    }
+  }
+
+  /**
+   * Send the pending updates to the document store.
+   */
+  public void flush() {
+
+    synchronized (flushMonitor) {
+      Collection<Pending> flushPending;
+      Map<NestedKey, Set<Object>> flushNested;
+      List<DocStoreQueueEntry> flushQueueEntries;
+      int flushDepth;
+
+      lock.lock();
+      try {
+        if (depth == 0) {
+          return;
+        }
+        flushPending = pending.values();
+        flushNested = nested;
+        flushQueueEntries = queueEntries;
+        flushDepth = depth;
+        lastFlushLagMillis = System.currentTimeMillis() - oldestMillis;
+        pending = new LinkedHashMap<DocKey, Pending>();
+        nested = new LinkedHashMap<NestedKey, Set<Object>>();
+        queueEntries = new ArrayList<DocStoreQueueEntry>();
+        depth = 0;
+        oldestMillis = 0;
+      } finally {
+        lock.unlock();
+      }
+
+      try {
+        send(flushPending, flushNested, flushQueueEntries);
+      } catch (Exception e) {
+        logger.error("Error sending " + flushDepth + " document store updates", e);
+      }
+      flushCount.incrementAndGet();
+      processedCount.addAndGet(flushDepth);
+    }
+  }
+
+  private void send(Collection<Pending> docs, Map<NestedKey, Set<Object>> nestedIds, List<DocStoreQueueEntry> queued) throws IOException {
+
+    DocStoreUpdates updates = new DocStoreUpdates();
+    Map<BeanType<?>, List<Object>> reindex = new LinkedHashMap<BeanType<?>, List<Object>>();
+    for (Pending doc : docs) {
+      if (doc.event == null) {
+        List<Object> ids = reindex.get(doc.beanType);
+        if (ids == null) {
+          ids = new ArrayList<Object>();
+          reindex.put(doc.beanType, ids);
+        }
+        ids.add(doc.docId);
+      } else if (doc.deleteEvent) {
+        updates.addDelete(doc.event);
+      } else {
+        updates.addPersist(doc.event);
+      }
+    }
+    for (Map.Entry<NestedKey, Set<Object>> entry : nestedIds.entrySet()) {
+      NestedKey key = entry.getKey();
+      for (Object beanId : entry.getValue()) {
+        updates.addNested(key.queueId, key.path, beanId);
+      }
+    }
+    updates.getQueueEntries().addAll(queued);
+
+    for (Map.Entry<BeanType<?>, List<Object>> entry : reindex.entrySet()) {
+      reindex(entry.getKey(), entry.getValue(), updates);
+    }
+    if (!updates.isEmpty()) {
+      processor.process(updates, batchSize);
+    }
+  }
+
+  /**
+   * Re-index the documents from the database adding deletes for the ones no longer found.
+   */
+  private <T> void reindex(BeanType<T> beanType, List<Object> ids, DocStoreUpdates updates) throws IOException {
+
+    for (int start = 0; start < ids.size(); start += batchSize) {
+      List<Object> batchIds = ids.subList(start, Math.min(ids.size(), start + batchSize));
+
+      Query<T> query = server.find(beanType.getBeanType()).where().idIn(batchIds).query();
+      beanType.docStore().applyPath(query);
+
+      Set<Object> found = new HashSet<Object>();
+      DocStoreQueryUpdate<T> queryUpdate = processor.createQueryUpdate(beanType, batchSize);
+      for (T bean : query.findList()) {
+        Object id = beanType.getBeanId(bean);
+        found.add(id);
+        queryUpdate.store(id, bean);
+      }
+      queryUpdate.flush();
+
+      for (Object id : batchIds) {
+        if (!found.contains(id)) {
+          updates.addDelete(new DocStoreDeleteEvent(beanType, id));
+        }
+      }
+    }
+  }
+
+  private boolean isShutdown() {
+    lock.lock();
+    try {
+      return shutdown;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  public void configure(SpiServer server) {
+    // do nothing
+  }
+
+  @Override
+  public void online(boolean online) {
+    // do nothing
+  }
+
+  /**
+   * Send the pending updates and then send subsequent updates directly.
+   */
+  @Override
+  public void shutdown() {
+    lock.lock();
+    try {
+      shutdown = true;
+    } finally {
+      lock.unlock();
+    }
+    flush();
+  }
+
+  @Override
+  public int getQueueDepth() {
+    lock.lock();
+    try {
+      return depth;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  public long getLagMillis() {
+    lock.lock();
+    try {
+      return depth == 0 ? 0 : System.currentTimeMillis() - oldestMillis;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  public long getLastFlushLagMillis() {
+    return lastFlushLagMillis;
+  }
+
+  @Override
+  public long getReceivedCount() {
+    return receivedCount.get();
+  }
+
+  @Override
+  public long getCoalescedCount() {
+    return coalescedCount.get();
+  }
+
+  @Override
+  public long getProcessedCount() {
+    return processedCount.get();
+  }
+
+  @Override
+  public long getFlushCount() {
+    return flushCount.get();
+  }
+
+  @Override
+  public long getBackPressureCount() {
+    return backPressureCount.get();
+  }
+
+  /**
+   * The latest pending update for a document.
+   */
+  private static class Pending {
+
+    private final BeanType<?> beanType;
+
+    private final Object docId;
+
+    /**
+     * The update to send or null when the document is re-indexed from the database.
+     */
+    private DocStoreUpdate event;
+
+    private boolean deleteEvent;
+
+    Pending(DocStoreUpdate event, boolean deleteEvent) {
+      this.beanType = event.getBeanType();
+      this.docId = event.getDocId();
+      this.event = event;
+      this.deleteEvent = deleteEvent;
+    }
+
+    void replace(DocStoreUpdate newEvent, boolean newDeleteEvent) {
+      if (newEvent.isPartial()) {
+        // can not combine partial updates so re-index the document
+        event = null;
+      } else {
+        event = newEvent;
+      }
+      deleteEvent = newDeleteEvent;
+    }
+  }
+
+  private static class DocKey {
+
+    private final String queueId;
+
+    private final Object docId;
+
+    DocKey(String queueId, Object docId) {
+      this.queueId = queueId;
+      this.docId = docId;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) return true;
+      if (!(o instanceof DocKey)) return false;
+      DocKey that = (DocKey) o;
+      return queueId.equals(that.queueId) && docId.equals(that.docId);
+    }
+
+    @Override
+    public int hashCode() {
+      return 31 * queueId.hashCode() + docId.hashCode();
+    }
+  }
+
+  private static class NestedKey {
+
+    private final String queueId;
+
+    private final String path;
+
+    NestedKey(String queueId, String path) {
+      this.queueId = queueId;
+      this.path = path;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) return true;
+      if (!(o instanceof NestedKey)) return false;
+      NestedKey that = (NestedKey) o;
+      return queueId.equals(that.queueId) && path.equals(that.path);
+    }
+
+    @Override
+    public int hashCode() {
+      return 31 * queueId.hashCode() + path.hashCode();
+    }
+  }
+}
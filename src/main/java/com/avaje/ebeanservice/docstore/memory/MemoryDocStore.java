@@ -0,0 +1,204 @@
+package com.avaje.ebeanservice.docstore.memory;
+
+import com.avaje.ebean.DocStoreQueueEntry;
+import com.avaje.ebean.DocumentStore;
+import com.avaje.ebean.PagedList;
+import com.avaje.ebean.Query;
+import com.avaje.ebean.QueryEachConsumer;
+import com.avaje.ebean.plugin.BeanType;
+import com.avaje.ebean.plugin.SpiServer;
+import com.avaje.ebean.text.json.EJson;
+import com.avaje.ebeaninternal.api.SpiQuery;
+import com.avaje.ebeanservice.docstore.api.DocStoreUpdateContext;
+import org.jetbrains.annotations.Nullable;
+
+import javax.persistence.PersistenceException;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * DocumentStore that uses in memory indexes (per bean type) to answer document store queries.
+ * <p>
+ * Queries are converted to the ElasticSearch query form and evaluated against the index with the
+ * beans built from the indexed JSON documents. There is no queue so queued entries are processed
+ * immediately and the index management operations (create, drop and copy) are not supported
+ * beyond dropping (clearing) an index.
+ * </p>
+ */
+public class MemoryDocStore implements DocumentStore {
+
+  /**
+   * The context passed to the bean adapters (which do not use it).
+   */
+  static final DocStoreUpdateContext CONTEXT = new DocStoreUpdateContext() {
+  };
+
+  private final SpiServer server;
+
+  public MemoryDocStore(SpiServer server) {
+    this.server = server;
+  }
+
+  @SuppressWarnings("unchecked")
+  private <T> MemoryDocStoreBeanAdapter<T> adapter(BeanType<T> beanType) {
+    if (!beanType.isDocStoreMapped()) {
+      throw new IllegalStateException("No document store mapping for " + beanType.getFullName());
+    }
+    return (MemoryDocStoreBeanAdapter<T>) beanType.docStore();
+  }
+
+  private <T> MemoryDocStoreBeanAdapter<T> adapter(Class<T> beanType) {
+    BeanType<T> type = server.getBeanType(beanType);
+    if (type == null) {
+      throw new IllegalArgumentException("Type " + beanType + " is not an entity bean type");
+    }
+    return adapter(type);
+  }
+
+  private <T> BeanType<T> beanType(Query<T> query) {
+    return ((SpiQuery<T>) query).getBeanDescriptor();
+  }
+
+  @Override
+  public void dropIndex(String indexName) {
+    for (BeanType<?> beanType : server.getBeanTypes()) {
+      if (beanType.isDocStoreMapped()) {
+        MemoryIndex index = adapter(beanType).index();
+        if (index.getName().equals(indexName)) {
+          index.clear();
+        }
+      }
+    }
+  }
+
+  @Override
+  public void createIndex(String indexName, String alias, String mappingResource) {
+    throw new UnsupportedOperationException("The in memory indexes are created from the document mapping");
+  }
+
+  @Override
+  public long copyIndex(Class<?> beanType, String newIndex) {
+    throw new UnsupportedOperationException("copyIndex is not supported by the in memory document store");
+  }
+
+  @Override
+  public long copyIndex(Class<?> beanType, String newIndex, long epochMillis) {
+    throw new UnsupportedOperationException("copyIndex is not supported by the in memory document store");
+  }
+
+  @Override
+  public void indexAll(Class<?> beanType) {
+    indexByQuery(server.find(beanType));
+  }
+
+  @Override
+  public <T> void indexByQuery(Query<T> query) {
+    indexByQuery(query, 0);
+  }
+
+  @Override
+  public <T> void indexByQuery(Query<T> query, int bulkBatchSize) {
+
+    final BeanType<T> beanType = beanType(query);
+    final MemoryDocStoreBeanAdapter<T> adapter = adapter(beanType);
+    adapter.applyPath(query);
+    query.findEach(new QueryEachConsumer<T>() {
+      @Override
+      public void accept(T bean) {
+        try {
+          adapter.index(beanType.getBeanId(bean), bean, CONTEXT);
+        } catch (IOException e) {
+          throw new PersistenceException(e);
+        }
+      }
+    });
+  }
+
+  @Nullable
+  @Override
+  public <T> T getById(Class<T> beanType, Object id) {
+    String source = adapter(beanType).index().getSource(id);
+    return (source == null) ? null : server.json().toBean(beanType, source);
+  }
+
+  @Override
+  public <T> List<T> findList(Query<T> query) {
+    return toBeans(query, search(query));
+  }
+
+  @Override
+  public <T> PagedList<T> findPagedList(Query<T> query) {
+    SpiQuery<T> spiQuery = (SpiQuery<T>) query;
+    MemoryIndex.Hits hits = search(query);
+    return new MemoryPagedList<T>(toBeans(query, hits), hits.getTotal(), spiQuery.getFirstRow(), spiQuery.getMaxRows());
+  }
+
+  @Override
+  public <T> void findEach(Query<T> query, QueryEachConsumer<T> consumer) {
+    for (T bean : findList(query)) {
+      consumer.accept(bean);
+    }
+  }
+
+  private <T> MemoryIndex.Hits search(Query<T> query) {
+    MemoryIndex index = adapter(beanType(query)).index();
+    try {
+      Map<String, Object> elasticQuery = EJson.parseObject(query.asElasticQuery());
+      return index.search(elasticQuery);
+    } catch (IOException e) {
+      throw new PersistenceException(e);
+    }
+  }
+
+  private <T> List<T> toBeans(Query<T> query, MemoryIndex.Hits hits) {
+    Class<T> type = beanType(query).getBeanType();
+    List<T> list = new ArrayList<T>(hits.getSources().size());
+    for (String source : hits.getSources()) {
+      list.add(server.json().toBean(type, source));
+    }
+    return list;
+  }
+
+  /**
+   * Process the entries immediately (rather than queue them) returning the number processed.
+   */
+  @Override
+  public long process(List<DocStoreQueueEntry> queueEntries) throws IOException {
+
+    for (DocStoreQueueEntry entry : queueEntries) {
+      BeanType<?> beanType = server.getBeanTypeForQueueId(entry.getQueueId());
+      if (beanType == null) {
+        throw new IllegalStateException("No bean type found for queueId " + entry.getQueueId());
+      }
+      process(beanType, entry);
+    }
+    return queueEntries.size();
+  }
+
+  private <T> void process(BeanType<T> beanType, DocStoreQueueEntry entry) throws IOException {
+    MemoryDocStoreBeanAdapter<T> adapter = adapter(beanType);
+    switch (entry.getType()) {
+      case INDEX:
+        Query<T> query = server.find(beanType.getBeanType()).setId(entry.getBeanId());
+        adapter.applyPath(query);
+        T bean = query.findUnique();
+        if (bean == null) {
+          adapter.deleteById(entry.getBeanId(), CONTEXT);
+        } else {
+          adapter.index(entry.getBeanId(), bean, CONTEXT);
+        }
+        break;
+      case DELETE:
+        adapter.deleteById(entry.getBeanId(), CONTEXT);
+        break;
+      case NESTED:
+        // re-index the documents that embed the changed bean
+        indexByQuery(server.find(beanType.getBeanType()).where().eq(entry.getPath(), entry.getBeanId()).query());
+        break;
+      default:
+        throw new IllegalStateException("Unexpected action " + entry.getType());
+    }
+  }
+}
@@ -0,0 +1,75 @@
+package com.avaje.ebeanservice.docstore.memory;
+
+import com.avaje.ebeaninternal.server.core.PersistRequestBean;
+import com.avaje.ebeaninternal.server.deploy.BeanDescriptor;
+import com.avaje.ebeaninternal.server.deploy.meta.DeployBeanDescriptor;
+import com.avaje.ebeanservice.docstore.api.DocStoreUpdateContext;
+import com.avaje.ebeanservice.docstore.api.mapping.DocumentMapping;
+import com.avaje.ebeanservice.docstore.api.support.DocStoreBeanBaseAdapter;
+
+import java.io.IOException;
+
+/**
+ * DocStoreBeanAdapter that maintains an in memory index for the bean type.
+ */
+public class MemoryDocStoreBeanAdapter<T> extends DocStoreBeanBaseAdapter<T> {
+
+  private MemoryIndex index;
+
+  public MemoryDocStoreBeanAdapter(BeanDescriptor<T> desc, DeployBeanDescriptor<T> deploy) {
+    super(desc, deploy);
+  }
+
+  @Override
+  public DocumentMapping createDocMapping() {
+    DocumentMapping mapping = super.createDocMapping();
+    if (mapping != null) {
+      index = new MemoryIndex(mapping);
+    }
+    return mapping;
+  }
+
+  /**
+   * Return the in memory index for the bean type.
+   */
+  MemoryIndex index() {
+    if (index == null) {
+      throw new IllegalStateException("No document store mapping for " + desc.getFullName());
+    }
+    return index;
+  }
+
+  /**
+   * Return the bean as JSON using the document structure.
+   */
+  String source(T bean) {
+    // the server is set on the descriptor after the adapter is created
+    return desc.getEbeanServer().json().toJson(bean, docStructure.doc());
+  }
+
+  @Override
+  public void deleteById(Object idValue, DocStoreUpdateContext txn) throws IOException {
+    index().delete(idValue);
+  }
+
+  @Override
+  public void index(Object idValue, T entityBean, DocStoreUpdateContext txn) throws IOException {
+    index().index(idValue, source(entityBean));
+  }
+
+  @Override
+  public void insert(Object idValue, PersistRequestBean<T> persistRequest, DocStoreUpdateContext txn) throws IOException {
+    index().index(idValue, source(persistRequest.getBean()));
+  }
+
+  @Override
+  public void update(Object idValue, PersistRequestBean<T> persistRequest, DocStoreUpdateContext txn) throws IOException {
+    // the bean may be partially loaded so merge with the existing document
+    index().merge(idValue, source(persistRequest.getBean()));
+  }
+
+  @Override
+  public void updateEmbedded(Object idValue, String embeddedProperty, String embeddedRawContent, DocStoreUpdateContext txn) throws IOException {
+    index().updateEmbedded(idValue, embeddedProperty, embeddedRawContent);
+  }
+}
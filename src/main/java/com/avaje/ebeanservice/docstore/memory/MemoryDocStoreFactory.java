@@ -0,0 +1,53 @@
+package com.avaje.ebeanservice.docstore.memory;
+
+import com.avaje.ebean.DocumentStore;
+import com.avaje.ebean.plugin.SpiServer;
+import com.avaje.ebeaninternal.server.deploy.BeanDescriptor;
+import com.avaje.ebeaninternal.server.deploy.meta.DeployBeanDescriptor;
+import com.avaje.ebeanservice.docstore.api.DocStoreBeanAdapter;
+import com.avaje.ebeanservice.docstore.api.DocStoreFactory;
+import com.avaje.ebeanservice.docstore.api.DocStoreIntegration;
+import com.avaje.ebeanservice.docstore.api.DocStoreUpdateProcessor;
+
+/**
+ * DocStoreFactory for the embedded in memory document store.
+ * <p>
+ * This maintains an in memory index for each bean type with a document store mapping and can
+ * be used in tests or small deployments rather than an external ElasticSearch cluster. It is
+ * used when <code>docstore.memory</code> is set and no other DocStoreFactory is in the class path.
+ * </p>
+ */
+public class MemoryDocStoreFactory implements DocStoreFactory {
+
+  @Override
+  public DocStoreIntegration create(SpiServer server) {
+    return new MemoryIntegration(new MemoryDocStore(server));
+  }
+
+  @Override
+  public <T> DocStoreBeanAdapter<T> createAdapter(BeanDescriptor<T> desc, DeployBeanDescriptor<T> deploy) {
+    return new MemoryDocStoreBeanAdapter<T>(desc, deploy);
+  }
+
+  static class MemoryIntegration implements DocStoreIntegration {
+
+    private final MemoryDocStore documentStore;
+
+    private final MemoryDocStoreUpdateProcessor updateProcessor;
+
+    MemoryIntegration(MemoryDocStore documentStore) {
+      this.documentStore = documentStore;
+      this.updateProcessor = new MemoryDocStoreUpdateProcessor(documentStore);
+    }
+
+    @Override
+    public DocStoreUpdateProcessor updateProcessor() {
+      return updateProcessor;
+    }
+
+    @Override
+    public DocumentStore documentStore() {
+      return documentStore;
+    }
+  }
+}
@@ -0,0 +1,65 @@
+package com.avaje.ebeanservice.docstore.memory;
+
+import com.avaje.ebean.plugin.BeanType;
+import com.avaje.ebeanservice.docstore.api.DocStoreQueryUpdate;
+import com.avaje.ebeanservice.docstore.api.DocStoreUpdate;
+import com.avaje.ebeanservice.docstore.api.DocStoreUpdateProcessor;
+import com.avaje.ebeanservice.docstore.api.DocStoreUpdates;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * DocStoreUpdateProcessor that applies the updates to the in memory indexes.
+ * <p>
+ * The nested and queue entries are processed immediately (there is no queue).
+ * </p>
+ */
+public class MemoryDocStoreUpdateProcessor implements DocStoreUpdateProcessor {
+
+  private static final Logger logger = LoggerFactory.getLogger(MemoryDocStoreUpdateProcessor.class);
+
+  private final MemoryDocStore documentStore;
+
+  public MemoryDocStoreUpdateProcessor(MemoryDocStore documentStore) {
+    this.documentStore = documentStore;
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public <T> DocStoreQueryUpdate<T> createQueryUpdate(BeanType<T> beanType, int bulkBatchSize) throws IOException {
+    final MemoryDocStoreBeanAdapter<T> adapter = (MemoryDocStoreBeanAdapter<T>) beanType.docStore();
+    return new DocStoreQueryUpdate<T>() {
+      @Override
+      public void store(Object idValue, T bean) throws IOException {
+        adapter.index(idValue, bean, MemoryDocStore.CONTEXT);
+      }
+
+      @Override
+      public void flush() throws IOException {
+        // nothing to flush
+      }
+    };
+  }
+
+  @Override
+  public void process(DocStoreUpdates docStoreUpdates, int bulkBatchSize) {
+    try {
+      process(docStoreUpdates.getPersistEvents());
+      process(docStoreUpdates.getDeleteEvents());
+      documentStore.process(docStoreUpdates.getNestedEvents());
+      documentStore.process(docStoreUpdates.getQueueEntries());
+
+    } catch (Exception e) {
+      logger.error("Error updating the in memory document store", e);
+    }
+  }
+
+  private void process(List<DocStoreUpdate> events) throws IOException {
+    for (DocStoreUpdate event : events) {
+      event.docStoreUpdate(MemoryDocStore.CONTEXT);
+    }
+  }
+}
@@ -0,0 +1,312 @@
+package com.avaje.ebeanservice.docstore.memory;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * The index of a single (flattened) document field.
+ * <p>
+ * Holds an inverted index of the exact values (and for analysed text fields the lower case
+ * tokens) to the matching document numbers as MemoryPostings along with a column of the values
+ * by document number which is used for sorting. Range predicates are evaluated over the distinct
+ * values and exists uses the postings of the documents that have any value.
+ * </p>
+ * <p>
+ * This is not thread safe and relies on the owning MemoryIndex for locking.
+ * </p>
+ */
+class MemoryField {
+
+  private static final Object[] EMPTY = new Object[0];
+
+  private final String name;
+
+  private final boolean analysed;
+
+  /**
+   * Exact (normalised) value to document numbers.
+   */
+  private final Map<Object, MemoryPostings> terms = new HashMap<Object, MemoryPostings>();
+
+  /**
+   * Lower case token to document numbers (analysed text fields only).
+   */
+  private final Map<String, MemoryPostings> tokens;
+
+  /**
+   * The documents that have a value.
+   */
+  private final MemoryPostings present = new MemoryPostings();
+
+  /**
+   * The values by document number (a single value or an Object[] when multi-valued).
+   */
+  private Object[] column = new Object[16];
+
+  MemoryField(String name, boolean analysed) {
+    this.name = name;
+    this.analysed = analysed;
+    this.tokens = analysed ? new HashMap<String, MemoryPostings>() : null;
+  }
+
+  public String toString() {
+    return name + " terms:" + terms.size() + (analysed ? " tokens:" + tokens.size() : "");
+  }
+
+  /**
+   * Add the values for the given document.
+   */
+  void add(int docNo, List<Object> values) {
+
+    if (docNo >= column.length) {
+      column = Arrays.copyOf(column, Math.max(docNo + 1, column.length * 2));
+    }
+    column[docNo] = (values.size() == 1) ? values.get(0) : values.toArray();
+    present.add(docNo);
+    for (Object value : values) {
+      postings(terms, value).add(docNo);
+      if (analysed && value instanceof String) {
+        for (String token : tokenize((String) value)) {
+          postings(tokens, token).add(docNo);
+        }
+      }
+    }
+  }
+
+  /**
+   * Remove the values of the given document.
+   */
+  void remove(int docNo) {
+
+    Object[] values = values(docNo);
+    if (values.length == 0) {
+      return;
+    }
+    column[docNo] = null;
+    present.remove(docNo);
+    for (Object value : values) {
+      clear(terms, value, docNo);
+      if (analysed && value instanceof String) {
+        for (String token : tokenize((String) value)) {
+          clear(tokens, token, docNo);
+        }
+      }
+    }
+  }
+
+  /**
+   * Return the values for the given document (empty when there are none).
+   */
+  Object[] values(int docNo) {
+    Object value = (docNo < column.length) ? column[docNo] : null;
+    if (value == null) {
+      return EMPTY;
+    }
+    return (value instanceof Object[]) ? (Object[]) value : new Object[]{value};
+  }
+
+  /**
+   * Return the documents with the exact value.
+   */
+  BitSet term(Object value) {
+    MemoryPostings postings = terms.get(MemoryIndex.normalise(value));
+    return postings == null ? new BitSet() : postings.toBitSet();
+  }
+
+  /**
+   * Return the documents with any of the tokens of the value (or the exact value when not analysed).
+   */
+  BitSet match(Object value) {
+    if (!analysed || !(value instanceof String)) {
+      return term(value);
+    }
+    BitSet result = new BitSet();
+    for (String token : tokenize((String) value)) {
+      MemoryPostings postings = tokens.get(token);
+      if (postings != null) {
+        postings.orInto(result);
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Return the documents with a token (or exact value when not analysed) starting with the prefix.
+   */
+  BitSet prefix(String prefix) {
+    BitSet result = new BitSet();
+    if (analysed) {
+      String lowerPrefix = prefix.toLowerCase();
+      for (Map.Entry<String, MemoryPostings> entry : tokens.entrySet()) {
+        if (entry.getKey().startsWith(lowerPrefix)) {
+          entry.getValue().orInto(result);
+        }
+      }
+    } else {
+      for (Map.Entry<Object, MemoryPostings> entry : terms.entrySet()) {
+        if (entry.getKey() instanceof String && ((String) entry.getKey()).startsWith(prefix)) {
+          entry.getValue().orInto(result);
+        }
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Return the documents with a token (or exact value when not analysed) matching the wildcard
+   * pattern where '*' (or '%') matches any characters and '?' matches a single character.
+   */
+  BitSet wildcard(String wildcard) {
+    BitSet result = new BitSet();
+    if (analysed) {
+      Pattern pattern = wildcardPattern(wildcard.toLowerCase());
+      for (Map.Entry<String, MemoryPostings> entry : tokens.entrySet()) {
+        if (pattern.matcher(entry.getKey()).matches()) {
+          entry.getValue().orInto(result);
+        }
+      }
+    } else {
+      Pattern pattern = wildcardPattern(wildcard);
+      for (Map.Entry<Object, MemoryPostings> entry : terms.entrySet()) {
+        if (entry.getKey() instanceof String && pattern.matcher((String) entry.getKey()).matches()) {
+          entry.getValue().orInto(result);
+        }
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Return the documents that have a value for this field.
+   */
+  BitSet exists() {
+    return present.toBitSet();
+  }
+
+  /**
+   * Return the documents with a value in the range.
+   */
+  BitSet range(Map<String, Object> bounds) {
+
+    BitSet result = new BitSet();
+    for (Map.Entry<Object, MemoryPostings> entry : terms.entrySet()) {
+      if (inRange(entry.getKey(), bounds)) {
+        entry.getValue().orInto(result);
+      }
+    }
+    return result;
+  }
+
+  private static boolean inRange(Object value, Map<String, Object> bounds) {
+
+    for (Map.Entry<String, Object> bound : bounds.entrySet()) {
+      Object boundValue = MemoryIndex.normalise(bound.getValue());
+      if (boundValue == null) {
+        continue;
+      }
+      int compare = compare(value, boundValue);
+      String op = bound.getKey();
+      if ("gt".equals(op)) {
+        if (compare <= 0) return false;
+      } else if ("gte".equals(op)) {
+        if (compare < 0) return false;
+      } else if ("lt".equals(op)) {
+        if (compare >= 0) return false;
+      } else if ("lte".equals(op)) {
+        if (compare > 0) return false;
+      } else {
+        throw new IllegalArgumentException("Unsupported range operator " + op);
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Compare values with nulls last.
+   */
+  @SuppressWarnings("unchecked")
+  static int compare(Object value1, Object value2) {
+    if (value1 == null) {
+      return value2 == null ? 0 : 1;
+    } else if (value2 == null) {
+      return -1;
+    }
+    if (value1 instanceof Number && value2 instanceof Number) {
+      if (value1 instanceof Long && value2 instanceof Long) {
+        return ((Long) value1).compareTo((Long) value2);
+      }
+      return Double.compare(((Number) value1).doubleValue(), ((Number) value2).doubleValue());
+    }
+    if (value1.getClass().equals(value2.getClass()) && value1 instanceof Comparable) {
+      return ((Comparable<Object>) value1).compareTo(value2);
+    }
+    return value1.toString().compareTo(value2.toString());
+  }
+
+  /**
+   * Split the text into lower case tokens on non letter or digit characters.
+   */
+  static List<String> tokenize(String text) {
+
+    List<String> list = new ArrayList<String>();
+    int start = -1;
+    for (int i = 0; i <= text.length(); i++) {
+      boolean tokenChar = i < text.length() && Character.isLetterOrDigit(text.charAt(i));
+      if (tokenChar) {
+        if (start < 0) {
+          start = i;
+        }
+      } else if (start > -1) {
+        list.add(text.substring(start, i).toLowerCase());
+        start = -1;
+      }
+    }
+    return list;
+  }
+
+  private static Pattern wildcardPattern(String wildcard) {
+
+    StringBuilder sb = new StringBuilder(wildcard.length() + 10);
+    StringBuilder literal = new StringBuilder();
+    for (int i = 0; i < wildcard.length(); i++) {
+      char ch = wildcard.charAt(i);
+      if (ch == '*' || ch == '%' || ch == '?') {
+        if (literal.length() > 0) {
+          sb.append(Pattern.quote(literal.toString()));
+          literal.setLength(0);
+        }
+        sb.append(ch == '?' ? "." : ".*");
+      } else {
+        literal.append(ch);
+      }
+    }
+    if (literal.length() > 0) {
+      sb.append(Pattern.quote(literal.toString()));
+    }
+    return Pattern.compile(sb.toString(), Pattern.DOTALL);
+  }
+
+  private static <K> MemoryPostings postings(Map<K, MemoryPostings> map, K key) {
+    MemoryPostings postings = map.get(key);
+    if (postings == null) {
+      postings = new MemoryPostings();
+      map.put(key, postings);
+    }
+    return postings;
+  }
+
+  private static <K> void clear(Map<K, MemoryPostings> map, K key, int docNo) {
+    MemoryPostings postings = map.get(key);
+    if (postings != null) {
+      postings.remove(docNo);
+      if (postings.isEmpty()) {
+        map.remove(key);
+      }
+    }
+  }
+}
@@ -0,0 +1,548 @@
+package com.avaje.ebeanservice.docstore.memory;
+
+import com.avaje.ebean.text.json.EJson;
+import com.avaje.ebeanservice.docstore.api.mapping.DocPropertyAdapter;
+import com.avaje.ebeanservice.docstore.api.mapping.DocPropertyMapping;
+import com.avaje.ebeanservice.docstore.api.mapping.DocPropertyType;
+import com.avaje.ebeanservice.docstore.api.mapping.DocumentMapping;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In memory index of the documents of a bean type.
+ * <p>
+ * Each document is given a document number with the document source held as JSON. The
+ * document is flattened into dot separated field paths (with the values of nested lists
+ * becoming multi-valued fields) and each field is held as a MemoryField with an inverted index
+ * and a column of values.
+ * </p>
+ * <p>
+ * Queries are in the form generated by ElasticExpressionContext and support bool (must, should
+ * and must_not), term, terms, range, ids, prefix, match, wildcard, exists, nested, filtered and
+ * match_all along with sort, from and size. A nested filter is evaluated against the flattened
+ * values of the nested documents rather than per nested document.
+ * </p>
+ */
+class MemoryIndex {
+
+  private static final String RAW_SUFFIX = ".raw";
+
+  private final String name;
+
+  /**
+   * The full paths of the analysed (text) fields.
+   */
+  private final Set<String> analysedFields;
+
+  private final Map<String, MemoryField> fields = new HashMap<String, MemoryField>();
+
+  private final Map<Object, Integer> docNoById = new HashMap<Object, Integer>();
+
+  private final List<Object> ids = new ArrayList<Object>();
+
+  private final List<String> sources = new ArrayList<String>();
+
+  private final BitSet live = new BitSet();
+
+  private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+  MemoryIndex(DocumentMapping mapping) {
+    this(mapping.getName(), analysedFields(mapping));
+  }
+
+  MemoryIndex(String name, Set<String> analysedFields) {
+    this.name = name;
+    this.analysedFields = analysedFields;
+  }
+
+  public String toString() {
+    return name + " size:" + size();
+  }
+
+  /**
+   * Return the index name.
+   */
+  String getName() {
+    return name;
+  }
+
+  /**
+   * Return the number of documents in the index.
+   */
+  int size() {
+    lock.readLock().lock();
+    try {
+      return docNoById.size();
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  /**
+   * Remove all the documents.
+   */
+  void clear() {
+    lock.writeLock().lock();
+    try {
+      fields.clear();
+      docNoById.clear();
+      ids.clear();
+      sources.clear();
+      live.clear();
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  /**
+   * Return the source of the document with the given id or null if it is not in the index.
+   */
+  String getSource(Object id) {
+    lock.readLock().lock();
+    try {
+      Integer docNo = docNoById.get(normalise(id));
+      return docNo == null ? null : sources.get(docNo);
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  /**
+   * Add or replace the document.
+   */
+  void index(Object id, String source) throws IOException {
+    Map<String, Object> document = EJson.parseObject(source);
+    lock.writeLock().lock();
+    try {
+      put(normalise(id), source, document);
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  /**
+   * Merge the top level properties of the partial document into the existing document.
+   */
+  void merge(Object id, String partialSource) throws IOException {
+    Map<String, Object> partial = EJson.parseObject(partialSource);
+    lock.writeLock().lock();
+    try {
+      Object key = normalise(id);
+      Integer docNo = docNoById.get(key);
+      if (docNo == null) {
+        put(key, partialSource, partial);
+      } else {
+        Map<String, Object> document = EJson.parseObject(sources.get(docNo));
+        document.putAll(partial);
+        put(key, EJson.write(document), document);
+      }
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  /**
+   * Replace the embedded property of an existing document.
+   */
+  void updateEmbedded(Object id, String embeddedProperty, String embeddedRawContent) throws IOException {
+    Object embedded = EJson.parse(embeddedRawContent);
+    lock.writeLock().lock();
+    try {
+      Object key = normalise(id);
+      Integer docNo = docNoById.get(key);
+      if (docNo != null) {
+        Map<String, Object> document = EJson.parseObject(sources.get(docNo));
+        document.put(embeddedProperty, embedded);
+        put(key, EJson.write(document), document);
+      }
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  /**
+   * Remove the document returning true if it was in the index.
+   */
+  boolean delete(Object id) {
+    lock.writeLock().lock();
+    try {
+      Integer docNo = docNoById.remove(normalise(id));
+      if (docNo == null) {
+        return false;
+      }
+      removeFields(docNo);
+      ids.set(docNo, null);
+      sources.set(docNo, null);
+      live.clear(docNo);
+      return true;
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  private void put(Object key, String source, Map<String, Object> document) {
+
+    Integer docNo = docNoById.get(key);
+    if (docNo != null) {
+      removeFields(docNo);
+    } else {
+      // reuse the document number of a deleted document
+      docNo = live.nextClearBit(0);
+      docNoById.put(key, docNo);
+      live.set(docNo);
+      if (docNo == ids.size()) {
+        ids.add(key);
+        sources.add(source);
+      }
+    }
+    ids.set(docNo, key);
+    sources.set(docNo, source);
+
+    Map<String, List<Object>> values = new LinkedHashMap<String, List<Object>>();
+    flatten(null, document, values);
+    for (Map.Entry<String, List<Object>> entry : values.entrySet()) {
+      field(entry.getKey()).add(docNo, entry.getValue());
+    }
+  }
+
+  private void removeFields(int docNo) {
+    for (MemoryField field : fields.values()) {
+      field.remove(docNo);
+    }
+  }
+
+  private MemoryField field(String path) {
+    MemoryField field = fields.get(path);
+    if (field == null) {
+      field = new MemoryField(path, analysedFields.contains(path));
+      fields.put(path, field);
+    }
+    return field;
+  }
+
+  /**
+   * Return the field for the path used in a query (mapping 'raw' properties to their field).
+   */
+  private MemoryField queryField(String path) {
+    MemoryField field = fields.get(path);
+    if (field == null && path.endsWith(RAW_SUFFIX)) {
+      field = fields.get(path.substring(0, path.length() - RAW_SUFFIX.length()));
+    }
+    return field;
+  }
+
+  @SuppressWarnings("unchecked")
+  private static void flatten(String prefix, Object value, Map<String, List<Object>> values) {
+
+    if (value instanceof Map) {
+      for (Map.Entry<String, Object> entry : ((Map<String, Object>) value).entrySet()) {
+        String path = (prefix == null) ? entry.getKey() : prefix + "." + entry.getKey();
+        flatten(path, entry.getValue(), values);
+      }
+    } else if (value instanceof List) {
+      for (Object element : (List<Object>) value) {
+        flatten(prefix, element, values);
+      }
+    } else if (value != null && prefix != null) {
+      List<Object> list = values.get(prefix);
+      if (list == null) {
+        list = new ArrayList<Object>(2);
+        values.put(prefix, list);
+      }
+      list.add(normalise(value));
+    }
+  }
+
+  /**
+   * Execute the query returning the total number of matching documents and the sources of the
+   * documents for the requested page.
+   */
+  @SuppressWarnings("unchecked")
+  Hits search(Map<String, Object> query) {
+
+    lock.readLock().lock();
+    try {
+      Map<String, Object> expression = (Map<String, Object>) query.get("query");
+      BitSet matches = (expression == null) ? (BitSet) live.clone() : eval(expression);
+
+      List<Integer> docNos = new ArrayList<Integer>(matches.cardinality());
+      for (int docNo = matches.nextSetBit(0); docNo >= 0; docNo = matches.nextSetBit(docNo + 1)) {
+        docNos.add(docNo);
+      }
+      List<Object> sort = (List<Object>) query.get("sort");
+      if (sort != null && !sort.isEmpty()) {
+        Collections.sort(docNos, new SortComparator(sort));
+      }
+
+      int total = docNos.size();
+      int from = intValue(query.get("from"), 0);
+      int size = intValue(query.get("size"), total);
+      int end = (int) Math.min((long) from + size, total);
+
+      List<String> page = new ArrayList<String>(Math.max(0, end - from));
+      for (int i = from; i < end; i++) {
+        page.add(sources.get(docNos.get(i)));
+      }
+      return new Hits(total, page);
+
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  @SuppressWarnings("unchecked")
+  private BitSet eval(Map<String, Object> expression) {
+
+    if (expression.size() != 1) {
+      throw new IllegalArgumentException("Expected a single expression but got " + expression.keySet());
+    }
+    Map.Entry<String, Object> entry = expression.entrySet().iterator().next();
+    String type = entry.getKey();
+    Object body = entry.getValue();
+
+    BitSet result;
+    if ("match_all".equals(type)) {
+      result = (BitSet) live.clone();
+
+    } else if ("filtered".equals(type) || "nested".equals(type)) {
+      Map<String, Object> filter = (Map<String, Object>) ((Map<String, Object>) body).get("filter");
+      result = (filter == null) ? (BitSet) live.clone() : eval(filter);
+
+    } else if ("bool".equals(type)) {
+      result = evalBool((Map<String, Object>) body);
+
+    } else if ("ids".equals(type)) {
+      result = new BitSet();
+      for (Object id : (List<Object>) ((Map<String, Object>) body).get("values")) {
+        Integer docNo = docNoById.get(normalise(id));
+        if (docNo != null) {
+          result.set(docNo);
+        }
+      }
+
+    } else if ("exists".equals(type)) {
+      MemoryField field = queryField((String) ((Map<String, Object>) body).get("field"));
+      result = (field == null) ? new BitSet() : field.exists();
+
+    } else {
+      Map.Entry<String, Object> fieldEntry = fieldEntry(type, body);
+      MemoryField field = queryField(fieldEntry.getKey());
+      if (field == null) {
+        return new BitSet();
+      }
+      Object value = fieldEntry.getValue();
+      if ("term".equals(type)) {
+        result = field.term(value);
+      } else if ("terms".equals(type)) {
+        result = new BitSet();
+        for (Object termValue : (List<Object>) value) {
+          result.or(field.term(termValue));
+        }
+      } else if ("range".equals(type)) {
+        result = field.range((Map<String, Object>) value);
+      } else if ("match".equals(type)) {
+        result = field.match(value);
+      } else if ("prefix".equals(type)) {
+        result = field.prefix(String.valueOf(value));
+      } else if ("wildcard".equals(type)) {
+        result = field.wildcard(String.valueOf(value));
+      } else {
+        throw new IllegalArgumentException("Unsupported expression type " + type);
+      }
+    }
+    result.and(live);
+    return result;
+  }
+
+  @SuppressWarnings("unchecked")
+  private BitSet evalBool(Map<String, Object> bool) {
+
+    BitSet result = (BitSet) live.clone();
+    List<Object> must = (List<Object>) bool.get("must");
+    if (must != null) {
+      for (Object expression : must) {
+        result.and(eval((Map<String, Object>) expression));
+      }
+    }
+    List<Object> should = (List<Object>) bool.get("should");
+    if (should != null && !should.isEmpty() && (must == null || must.isEmpty())) {
+      BitSet any = new BitSet();
+      for (Object expression : should) {
+        any.or(eval((Map<String, Object>) expression));
+      }
+      result.and(any);
+    }
+    List<Object> mustNot = (List<Object>) bool.get("must_not");
+    if (mustNot != null) {
+      for (Object expression : mustNot) {
+        result.andNot(eval((Map<String, Object>) expression));
+      }
+    }
+    return result;
+  }
+
+  @SuppressWarnings("unchecked")
+  private static Map.Entry<String, Object> fieldEntry(String type, Object body) {
+    Map<String, Object> map = (Map<String, Object>) body;
+    if (map.size() != 1) {
+      throw new IllegalArgumentException("Expected a single field for " + type + " but got " + map.keySet());
+    }
+    return map.entrySet().iterator().next();
+  }
+
+  private static int intValue(Object value, int defaultValue) {
+    return (value instanceof Number) ? ((Number) value).intValue() : defaultValue;
+  }
+
+  /**
+   * Normalise the value such that values from beans, parsed JSON and queries compare equal.
+   */
+  static Object normalise(Object value) {
+
+    if (value == null || value instanceof String || value instanceof Boolean) {
+      return value;
+    }
+    if (value instanceof Long) {
+      return value;
+    }
+    if (value instanceof Integer || value instanceof Short || value instanceof Byte) {
+      return ((Number) value).longValue();
+    }
+    if (value instanceof BigInteger) {
+      BigInteger bigInteger = (BigInteger) value;
+      return (bigInteger.bitLength() < 64) ? (Object) bigInteger.longValue() : bigInteger.doubleValue();
+    }
+    if (value instanceof Number) {
+      double doubleValue = ((Number) value).doubleValue();
+      if (value instanceof BigDecimal) {
+        BigDecimal decimal = (BigDecimal) value;
+        if (decimal.signum() == 0 || decimal.scale() <= 0 || decimal.stripTrailingZeros().scale() <= 0) {
+          if (decimal.abs().compareTo(BigDecimal.valueOf(Long.MAX_VALUE)) <= 0) {
+            return decimal.longValue();
+          }
+        }
+        return doubleValue;
+      }
+      if (doubleValue == Math.rint(doubleValue) && Math.abs(doubleValue) < Long.MAX_VALUE) {
+        return (long) doubleValue;
+      }
+      return doubleValue;
+    }
+    return value.toString();
+  }
+
+  /**
+   * Return the full paths of the analysed (not code) string properties of the mapping.
+   */
+  private static Set<String> analysedFields(DocumentMapping mapping) {
+    AnalysedVisitor visitor = new AnalysedVisitor();
+    mapping.visit(visitor);
+    return visitor.analysed;
+  }
+
+  private static class AnalysedVisitor extends DocPropertyAdapter {
+
+    private final Set<String> analysed = new HashSet<String>();
+
+    @Override
+    public void visitBeginObject(DocPropertyMapping property) {
+      pathStack.pushPathKey(property.getName());
+    }
+
+    @Override
+    public void visitBeginList(DocPropertyMapping property) {
+      pathStack.pushPathKey(property.getName());
+    }
+
+    @Override
+    public void visitProperty(DocPropertyMapping property) {
+      if (property.getType() == DocPropertyType.STRING && !Boolean.TRUE.equals(property.getOptions().getCode())) {
+        analysed.add(pathStack.peekFullPath(property.getName()));
+      }
+    }
+  }
+
+  /**
+   * Sorts document numbers by the sort fields of the query (nulls last).
+   */
+  private class SortComparator implements Comparator<Integer> {
+
+    private final MemoryField[] sortFields;
+
+    private final boolean[] descending;
+
+    @SuppressWarnings("unchecked")
+    SortComparator(List<Object> sort) {
+      this.sortFields = new MemoryField[sort.size()];
+      this.descending = new boolean[sort.size()];
+      for (int i = 0; i < sortFields.length; i++) {
+        Map.Entry<String, Object> entry = fieldEntry("sort", sort.get(i));
+        sortFields[i] = queryField(entry.getKey());
+        Object order = (entry.getValue() instanceof Map) ? ((Map<String, Object>) entry.getValue()).get("order") : entry.getValue();
+        descending[i] = "desc".equals(order);
+      }
+    }
+
+    @Override
+    public int compare(Integer docNo1, Integer docNo2) {
+      for (int i = 0; i < sortFields.length; i++) {
+        if (sortFields[i] != null) {
+          Object value1 = sortValue(sortFields[i].values(docNo1));
+          Object value2 = sortValue(sortFields[i].values(docNo2));
+          int compare = MemoryField.compare(value1, value2);
+          if (compare != 0) {
+            // nulls remain last when descending
+            return (descending[i] && value1 != null && value2 != null) ? -compare : compare;
+          }
+        }
+      }
+      return docNo1.compareTo(docNo2);
+    }
+
+    private Object sortValue(Object[] values) {
+      return values.length == 0 ? null : values[0];
+    }
+  }
+
+  /**
+   * The result of a search.
+   */
+  static class Hits {
+
+    private final int total;
+
+    private final List<String> sources;
+
+    Hits(int total, List<String> sources) {
+      this.total = total;
+      this.sources = sources;
+    }
+
+    /**
+     * Return the total number of matching documents.
+     */
+    int getTotal() {
+      return total;
+    }
+
+    /**
+     * Return the sources of the documents in the requested page.
+     */
+    List<String> getSources() {
+      return sources;
+    }
+  }
+}
@@ -0,0 +1,93 @@
+package com.avaje.ebeanservice.docstore.memory;
+
+import com.avaje.ebean.PagedList;
+
+import java.util.List;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+
+/**
+ * PagedList for a document store query where the list and total row count are already known.
+ */
+class MemoryPagedList<T> implements PagedList<T> {
+
+  private final List<T> list;
+
+  private final int totalRowCount;
+
+  private final int firstRow;
+
+  private final int maxRows;
+
+  MemoryPagedList(List<T> list, int totalRowCount, int firstRow, int maxRows) {
+    this.list = list;
+    this.totalRowCount = totalRowCount;
+    this.firstRow = firstRow;
+    this.maxRows = maxRows;
+  }
+
+  @Override
+  public void loadRowCount() {
+    // already known
+  }
+
+  @Override
+  public Future<Integer> getFutureRowCount() {
+    FutureTask<Integer> future = new FutureTask<Integer>(new Runnable() {
+      @Override
+      public void run() {
+        // already known
+      }
+    }, totalRowCount);
+    future.run();
+    return future;
+  }
+
+  @Override
+  public List<T> getList() {
+    return list;
+  }
+
+  @Override
+  public int getTotalRowCount() {
+    return totalRowCount;
+  }
+
+  @Override
+  public int getTotalPageCount() {
+    if (totalRowCount == 0) {
+      return 0;
+    } else if (maxRows <= 0) {
+      return 1;
+    } else {
+      return ((totalRowCount - 1) / maxRows) + 1;
+    }
+  }
+
+  @Override
+  public int getPageIndex() {
+    return (maxRows <= 0) ? 0 : firstRow / maxRows;
+  }
+
+  @Override
+  public int getPageSize() {
+    return maxRows;
+  }
+
+  @Override
+  public boolean hasNext() {
+    return maxRows > 0 && (firstRow + maxRows) < totalRowCount;
+  }
+
+  @Override
+  public boolean hasPrev() {
+    return firstRow > 0;
+  }
+
+  @Override
+  public String getDisplayXtoYofZ(String to, String of) {
+    int first = firstRow + 1;
+    int last = firstRow + list.size();
+    return first + to + last + of + totalRowCount;
+  }
+}
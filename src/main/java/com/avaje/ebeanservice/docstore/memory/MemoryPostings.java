@@ -0,0 +1,158 @@
+package com.avaje.ebeanservice.docstore.memory;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * The document numbers of a term (a postings list).
+ * <p>
+ * Held as a sorted int array and switched to a BitSet only when dense, that is when the bitset
+ * (one bit per document number up to the highest) is smaller than the array (32 bits per
+ * document). This keeps the memory of the many rare terms of a field proportional to the number
+ * of documents that contain them rather than to the highest document number.
+ * </p>
+ * <p>
+ * This is not thread safe and relies on the owning MemoryIndex for locking.
+ * </p>
+ */
+class MemoryPostings {
+
+  /**
+   * The minimum number of documents before considering switching to a BitSet.
+   */
+  private static final int MIN_DENSE = 64;
+
+  private int[] docs = new int[2];
+
+  private int size;
+
+  /**
+   * The document numbers when dense (and then docs is not used).
+   */
+  private BitSet bits;
+
+  public String toString() {
+    return "size:" + size + (bits != null ? " dense" : "");
+  }
+
+  /**
+   * Return the number of documents.
+   */
+  int size() {
+    return size;
+  }
+
+  /**
+   * Return true if there are no documents.
+   */
+  boolean isEmpty() {
+    return size == 0;
+  }
+
+  /**
+   * Return true if held as a BitSet.
+   */
+  boolean isDense() {
+    return bits != null;
+  }
+
+  /**
+   * Return true if the document is included.
+   */
+  boolean contains(int docNo) {
+    if (bits != null) {
+      return bits.get(docNo);
+    }
+    return Arrays.binarySearch(docs, 0, size, docNo) >= 0;
+  }
+
+  /**
+   * Add the document.
+   */
+  void add(int docNo) {
+
+    if (bits != null) {
+      if (!bits.get(docNo)) {
+        bits.set(docNo);
+        size++;
+      }
+      return;
+    }
+    int pos = Arrays.binarySearch(docs, 0, size, docNo);
+    if (pos >= 0) {
+      return;
+    }
+    pos = -pos - 1;
+    if (size == docs.length) {
+      docs = Arrays.copyOf(docs, size * 2);
+    }
+    System.arraycopy(docs, pos, docs, pos + 1, size - pos);
+    docs[pos] = docNo;
+    size++;
+    if (size >= MIN_DENSE && size * Integer.SIZE > docs[size - 1] + 1) {
+      toBits();
+    }
+  }
+
+  /**
+   * Remove the document.
+   */
+  void remove(int docNo) {
+
+    if (bits != null) {
+      if (bits.get(docNo)) {
+        bits.clear(docNo);
+        size--;
+        // switch back at half the density to avoid flipping on add and remove
+        if (size * Integer.SIZE * 2 < bits.length()) {
+          toArray();
+        }
+      }
+      return;
+    }
+    int pos = Arrays.binarySearch(docs, 0, size, docNo);
+    if (pos >= 0) {
+      System.arraycopy(docs, pos + 1, docs, pos, size - pos - 1);
+      size--;
+    }
+  }
+
+  /**
+   * Add the documents to the result.
+   */
+  void orInto(BitSet result) {
+    if (bits != null) {
+      result.or(bits);
+    } else {
+      for (int i = 0; i < size; i++) {
+        result.set(docs[i]);
+      }
+    }
+  }
+
+  /**
+   * Return the documents as a new BitSet.
+   */
+  BitSet toBitSet() {
+    BitSet result = new BitSet();
+    orInto(result);
+    return result;
+  }
+
+  private void toBits() {
+    bits = new BitSet(docs[size - 1] + 1);
+    for (int i = 0; i < size; i++) {
+      bits.set(docs[i]);
+    }
+    docs = null;
+  }
+
+  private void toArray() {
+    docs = new int[Math.max(2, size)];
+    int i = 0;
+    for (int docNo = bits.nextSetBit(0); docNo >= 0; docNo = bits.nextSetBit(docNo + 1)) {
+      docs[i++] = docNo;
+    }
+    bits = null;
+  }
+}
@@ -31,6 +31,11 @@ public class BaseTestCase {
     return spi.getDatabasePlatform().getName().equals("h2");
   }
 
+  public boolean isPostgres() {
+    SpiEbeanServer spi = (SpiEbeanServer)Ebean.getDefaultServer();
+    return spi.getDatabasePlatform().getName().equals("postgres");
+  }
+
   protected <T> BeanDescriptor<T> getBeanDescriptor(Class<T> cls) {
     return spiEbeanServer().getBeanDescriptor(cls);
   }
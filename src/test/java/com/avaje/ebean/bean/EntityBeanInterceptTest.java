@@ -76,4 +76,90 @@ public class EntityBeanInterceptTest extends BaseTestCase {
     assertThat(ebi.isPartial()).isFalse();
   }
 
-}
\ No newline at end of file
+  @Test
+  public void hasIdOnly() {
+
+    EBasic basic = new EBasic();
+    EntityBeanIntercept ebi = ((EntityBean) basic)._ebean_getIntercept();
+    int idIndex = ebi.findProperty("id");
+    assertThat(ebi.hasIdOnly(idIndex)).isFalse();
+
+    basic.setId(42);
+    assertThat(ebi.hasIdOnly(idIndex)).isTrue();
+
+    basic.setName("some");
+    assertThat(ebi.hasIdOnly(idIndex)).isFalse();
+  }
+
+  @Test
+  public void loadedBits() {
+
+    EBasic basic = new EBasic();
+    basic.setName("some");
+    EntityBeanIntercept ebi = ((EntityBean) basic)._ebean_getIntercept();
+    int nameIndex = ebi.findProperty("name");
+
+    assertThat(ebi.getLoadedBits()).containsExactly(1L << nameIndex);
+    assertThat(ebi.getLoaded()[nameIndex]).isTrue();
+    assertThat(ebi.getLoadedPropertyNames()).containsExactly("name");
+
+    ebi.setPropertyUnloaded(nameIndex);
+    assertThat(ebi.isLoadedProperty(nameIndex)).isFalse();
+    assertThat(ebi.getLoadedBits()).containsExactly(0L);
+  }
+
+  @Test
+  public void nextDirtyProperty() {
+
+    EBasic basic = new EBasic();
+    basic.setId(42);
+    basic.setName("some");
+    basic.setDescription("desc");
+    EntityBeanIntercept ebi = ((EntityBean) basic)._ebean_getIntercept();
+    ebi.setLoaded();
+    assertThat(ebi.getChanged()).isNull();
+    assertThat(ebi.nextDirtyProperty(0)).isEqualTo(-1);
+
+    basic.setDescription("changed");
+    basic.setName("changed");
+
+    int nameIndex = ebi.findProperty("name");
+    int descIndex = ebi.findProperty("description");
+    int first = Math.min(nameIndex, descIndex);
+    int second = Math.max(nameIndex, descIndex);
+
+    assertThat(ebi.nextDirtyProperty(0)).isEqualTo(first);
+    assertThat(ebi.nextDirtyProperty(first + 1)).isEqualTo(second);
+    assertThat(ebi.nextDirtyProperty(second + 1)).isEqualTo(-1);
+    assertThat(ebi.getDirtyPropertyNames()).containsOnly("name", "description");
+    assertThat(ebi.getChanged()[nameIndex]).isTrue();
+  }
+
+  @Test
+  public void loadedState_when_builtFromQuery() {
+
+    ResetBasicData.reset();
+
+    List<Customer> list = Ebean.find(Customer.class)
+        .setReadOnly(true)
+        .setDisableLazyLoading(true)
+        .findList();
+
+    EntityBeanIntercept ebi = ((EntityBean) list.get(0))._ebean_getIntercept();
+    assertThat(ebi.isLoaded()).isTrue();
+    assertThat(ebi.isReadOnly()).isTrue();
+    assertThat(ebi.isDisableLazyLoad()).isTrue();
+    assertThat(ebi.isDirty()).isFalse();
+    assertThat(ebi.getDirtyPropertyNames()).isEmpty();
+    assertThat(ebi.getPersistenceContext()).isNotNull();
+
+    List<Customer> partial = Ebean.find(Customer.class).select("name").findList();
+    ebi = ((EntityBean) partial.get(0))._ebean_getIntercept();
+    assertThat(ebi.isLoaded()).isTrue();
+    assertThat(ebi.isFullyLoadedBean()).isFalse();
+    assertThat(ebi.isPartial()).isTrue();
+
+    // lazy loading still works on the partially loaded bean
+    assertThat(partial.get(0).getStatus()).isNotNull();
+  }
+}
@@ -0,0 +1,53 @@
+package com.avaje.ebean.config.dbplatform;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class DraftPublishSqlTest {
+
+  private DraftPublishSql.Table table() {
+    return new DraftPublishSql.Table("link", "link_draft", "id", Arrays.asList("name", "url"), "version",
+        Collections.singletonList("when_created"), Collections.singletonList("when_modified"));
+  }
+
+  @Test
+  public void update_expect_onlyDifferentRows() {
+
+    String sql = new DraftPublishSql().update(table(), " in (?,?)");
+    assertThat(sql).startsWith("update link set name = (select d.name from link_draft d where d.id = link.id)");
+    assertThat(sql).contains(", version = version + 1, when_modified = ? where id in (?,?)");
+    assertThat(sql).endsWith(" and exists (select 1 from link_draft d where d.id = link.id and "
+        + "(link.name <> d.name or (link.name is null and d.name is not null) or (link.name is not null and d.name is null)"
+        + " or link.url <> d.url or (link.url is null and d.url is not null) or (link.url is not null and d.url is null)))");
+  }
+
+  @Test
+  public void update_postgres() {
+
+    String sql = new PostgresDraftPublishSql().update(table(), " in (?,?)");
+    assertThat(sql).isEqualTo("update link t set name = d.name, url = d.url, version = t.version + 1, when_modified = ?"
+        + " from link_draft d where d.id = t.id and t.id in (?,?) and "
+        + "(t.name <> d.name or (t.name is null and d.name is not null) or (t.name is not null and d.name is null)"
+        + " or t.url <> d.url or (t.url is null and d.url is not null) or (t.url is not null and d.url is null))");
+  }
+
+  @Test
+  public void update_mysql() {
+
+    String sql = new MySqlDraftPublishSql().update(table(), " in (?,?)");
+    assertThat(sql).startsWith("update link t join link_draft d on d.id = t.id set t.name = d.name, t.url = d.url, t.version = t.version + 1");
+    assertThat(sql).contains(" where t.id in (?,?) and (t.name <> d.name or ");
+  }
+
+  @Test
+  public void update_when_noColumns_expect_noRows() {
+
+    DraftPublishSql.Table table = new DraftPublishSql.Table("link", "link_draft", "id", Collections.<String>emptyList(), "version",
+        Collections.<String>emptyList(), Collections.<String>emptyList());
+    assertThat(new DraftPublishSql().update(table, " in (?)")).endsWith(" and 1 = 0)");
+  }
+}
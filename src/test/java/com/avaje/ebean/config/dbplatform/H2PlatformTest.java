@@ -22,4 +22,10 @@ public class H2PlatformTest {
     assertThat(ddl.convert("bit", false)).isEqualTo("bit");
   }
 
-}
\ No newline at end of file
+  @Test
+  public void testStreamingConfig() {
+    StreamingConfig streaming = mySqlPlatform.getStreamingConfig();
+    assertThat(streaming.getFetchSize()).isEqualTo(0);
+    assertThat(streaming.isForwardOnly()).isTrue();
+  }
+}
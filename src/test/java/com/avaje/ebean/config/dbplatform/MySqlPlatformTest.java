@@ -20,4 +20,23 @@ public class MySqlPlatformTest {
     assertThat(ddl.convert("bit", false)).isEqualTo("tinyint(1) default 0");
   }
 
-}
\ No newline at end of file
+  @Test
+  public void testStreamingConfig() {
+    StreamingConfig streaming = mySqlPlatform.getStreamingConfig();
+    assertThat(streaming.getFetchSize()).isEqualTo(Integer.MIN_VALUE);
+    assertThat(streaming.isForwardOnly()).isTrue();
+    assertThat(streaming.isCursorRequiresTransaction()).isFalse();
+  }
+
+  @SuppressWarnings("deprecation")
+  @Test
+  public void testForwardOnlyHintOnFindIterate_false_resetsFetchSize() {
+    MySqlPlatform platform = new MySqlPlatform();
+    platform.setForwardOnlyHintOnFindIterate(false);
+    assertThat(platform.isForwardOnlyHintOnFindIterate()).isFalse();
+    assertThat(platform.getStreamingConfig().getFetchSize()).isEqualTo(0);
+
+    platform.setForwardOnlyHintOnFindIterate(true);
+    assertThat(platform.getStreamingConfig().getFetchSize()).isEqualTo(Integer.MIN_VALUE);
+  }
+}
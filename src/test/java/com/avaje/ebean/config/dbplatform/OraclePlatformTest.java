@@ -29,4 +29,8 @@ public class OraclePlatformTest {
 
   }
 
-}
\ No newline at end of file
+  @Test
+  public void testStreamingConfig() {
+    assertThat(platform.getStreamingConfig().getFetchSize()).isEqualTo(100);
+  }
+}
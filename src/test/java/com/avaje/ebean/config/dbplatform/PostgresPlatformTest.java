@@ -30,4 +30,11 @@ public class PostgresPlatformTest {
 
   }
 
-}
\ No newline at end of file
+  @Test
+  public void testStreamingConfig() {
+    StreamingConfig streaming = platform.getStreamingConfig();
+    assertThat(streaming.getFetchSize()).isGreaterThan(0);
+    assertThat(streaming.isForwardOnly()).isTrue();
+    assertThat(streaming.isCursorRequiresTransaction()).isTrue();
+  }
+}
@@ -0,0 +1,89 @@
+package com.avaje.ebean.config.dbplatform;
+
+import org.junit.Test;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class StreamingConfigTest {
+
+  /**
+   * Records the JDBC calls made on the connection and statement.
+   */
+  static class Recorder implements InvocationHandler {
+
+    final List<String> calls = new ArrayList<String>();
+
+    final boolean autoCommit;
+
+    Recorder(boolean autoCommit) {
+      this.autoCommit = autoCommit;
+    }
+
+    Connection connection() {
+      return (Connection) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{Connection.class}, this);
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+      String name = method.getName();
+      if ("getAutoCommit".equals(name)) {
+        return autoCommit;
+      }
+      calls.add(args == null ? name : name + Arrays.asList(args).subList(args.length > 1 ? 1 : 0, args.length));
+      if ("prepareStatement".equals(name)) {
+        return Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{PreparedStatement.class}, this);
+      }
+      return null;
+    }
+  }
+
+  @Test
+  public void prepareStatement_default() throws Exception {
+
+    Recorder recorder = new Recorder(false);
+    new StreamingConfig().prepareStatement(recorder.connection(), "select 1", 0);
+
+    assertThat(recorder.calls).containsExactly("prepareStatement[" + ResultSet.TYPE_FORWARD_ONLY + ", " + ResultSet.CONCUR_READ_ONLY + "]");
+  }
+
+  @Test
+  public void prepareStatement_notForwardOnly() throws Exception {
+
+    StreamingConfig streaming = new StreamingConfig();
+    streaming.setForwardOnly(false);
+    streaming.setFetchSize(50);
+
+    Recorder recorder = new Recorder(false);
+    streaming.prepareStatement(recorder.connection(), "select 1", 0);
+
+    assertThat(recorder.calls).containsExactly("prepareStatement[select 1]", "setFetchSize[50]");
+  }
+
+  @Test
+  public void prepareStatement_mysql() throws Exception {
+
+    Recorder recorder = new Recorder(true);
+    new MySqlPlatform().getStreamingConfig().prepareStatement(recorder.connection(), "select 1", 0);
+
+    assertThat(recorder.calls).contains("setFetchSize[" + Integer.MIN_VALUE + "]");
+  }
+
+  @Test
+  public void prepareStatement_queryHintTakesPrecedence() throws Exception {
+
+    Recorder recorder = new Recorder(false);
+    new PostgresPlatform().getStreamingConfig().prepareStatement(recorder.connection(), "select 1", 20);
+
+    assertThat(recorder.calls).contains("setFetchSize[20]");
+  }
+}
@@ -9,7 +9,9 @@ import com.avaje.ebean.config.ServerConfig;
 import com.avaje.tests.model.basic.EBasic;
 import org.junit.Test;
 
+import java.util.Collections;
 import java.util.List;
+import java.util.Properties;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
@@ -61,6 +63,43 @@ public class BeanFindControllerTest extends BaseTestCase {
     assertEquals("47", eBasic.getName());
   }
 
+  @Test
+  public void idIn_when_beanCached_expect_findControllerUsed() {
+
+    ServerConfig config = new ServerConfig();
+
+    config.setName("findIdIn");
+
+    Properties properties = new Properties();
+    properties.setProperty("datasource.findIdIn.username", "sa");
+    properties.setProperty("datasource.findIdIn.password", "");
+    properties.setProperty("datasource.findIdIn.databaseUrl", "jdbc:h2:mem:findIdIn;");
+    properties.setProperty("datasource.findIdIn.databaseDriver", "org.h2.Driver");
+    config.loadFromProperties(properties);
+    config.setDdlGenerate(true);
+    config.setDdlRun(true);
+    config.setRegister(false);
+    config.setDefaultServer(false);
+    config.getClasses().add(EBasic.class);
+
+    EBasicFindController findController = new EBasicFindController();
+    config.getFindControllers().add(findController);
+
+    EbeanServer ebeanServer = EbeanServerFactory.create(config);
+
+    EBasic bean = new EBasic();
+    bean.setName("cached");
+    ebeanServer.save(bean);
+    ebeanServer.find(EBasic.class).setUseCache(true).setId(bean.getId()).findUnique();
+    assertEquals(1, ebeanServer.getServerCacheManager().getBeanCache(EBasic.class).size());
+
+    // the idIn query is not resolved from the bean cache bypassing the find controller
+    findController.findManyIntercept = true;
+    List<EBasic> list = ebeanServer.find(EBasic.class).setUseCache(true).where().idIn(Collections.singletonList(bean.getId())).findList();
+    assertEquals(1, list.size());
+    assertEquals(Integer.valueOf(47), list.get(0).getId());
+  }
+
   static class EBasicFindController implements BeanFindController {
 
     boolean findIntercept;
@@ -14,8 +14,10 @@ import com.avaje.ebean.meta.MetaInfoManager;
 import com.avaje.ebean.plugin.SpiServer;
 import com.avaje.ebean.text.csv.CsvReader;
 import com.avaje.ebean.text.json.JsonContext;
+import com.avaje.ebeaninternal.server.core.CObjectGraphNodeBatchSize;
 import com.avaje.ebeaninternal.server.deploy.BeanDescriptor;
 import com.avaje.ebeaninternal.server.query.CQuery;
+import com.avaje.ebeaninternal.server.query.SlowQueryRecorder;
 import com.avaje.ebeaninternal.server.transaction.RemoteTransactionEvent;
 
 import javax.persistence.OptimisticLockException;
@@ -54,6 +56,11 @@ public class TDSpiEbeanServer implements SpiEbeanServer {
     return false;
   }
 
+  @Override
+  public SlowQueryRecorder getSlowQueryRecorder() {
+    return null;
+  }
+
   @Override
   public boolean isUpdateAllPropertiesInBatch() {
     return false;
@@ -204,6 +211,11 @@ public class TDSpiEbeanServer implements SpiEbeanServer {
 
   }
 
+  @Override
+  public CObjectGraphNodeBatchSize getAdaptiveBatchSize(ObjectGraphNode objectGraphNode, int defaultBatchSize) {
+    return null;
+  }
+
   @Override
   public void loadMany(BeanCollection<?> collection, boolean onlyIds) {
 
@@ -364,6 +376,11 @@ public class TDSpiEbeanServer implements SpiEbeanServer {
     return null;
   }
 
+  @Override
+  public <T> int publishBulk(Query<T> query, Transaction transaction) {
+    return 0;
+  }
+
   @Override
   public <T> T draftRestore(Class<T> beanType, Object id, Transaction transaction) {
     return null;
@@ -474,6 +491,11 @@ public class TDSpiEbeanServer implements SpiEbeanServer {
 
   }
 
+  @Override
+  public <T> void findEachParallel(Query<T> query, ParallelConfig config, QueryEachConsumer<T> consumer) {
+
+  }
+
   @Override
   public <T> List<T> findList(Query<T> query, Transaction transaction) {
     return null;
@@ -509,6 +531,11 @@ public class TDSpiEbeanServer implements SpiEbeanServer {
     return null;
   }
 
+  @Override
+  public <T> KeysetPagedList<T> findKeysetPagedList(Query<T> query, Transaction transaction, Object[] afterValues, int pageSize) {
+    return null;
+  }
+
   @Override
   public <T> Set<T> findSet(Query<T> query, Transaction transaction) {
     return null;
@@ -544,6 +571,16 @@ public class TDSpiEbeanServer implements SpiEbeanServer {
     return null;
   }
 
+  @Override
+  public void findEach(SqlQuery query, QueryEachConsumer<SqlRow> consumer, Transaction transaction) {
+
+  }
+
+  @Override
+  public void findEachWhile(SqlQuery query, QueryEachWhileConsumer<SqlRow> consumer, Transaction transaction) {
+
+  }
+
   @Override
   public void save(Object bean) throws OptimisticLockException {
 
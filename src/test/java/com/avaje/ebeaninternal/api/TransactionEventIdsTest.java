@@ -0,0 +1,82 @@
+package com.avaje.ebeaninternal.api;
+
+import com.avaje.ebean.BaseTestCase;
+import com.avaje.ebeaninternal.api.TransactionEventTable.TableIUD;
+import com.avaje.ebeaninternal.server.core.PersistRequest;
+import com.avaje.ebeaninternal.server.deploy.BeanDescriptor;
+import com.avaje.ebeaninternal.server.transaction.BeanPersistIdMap;
+import com.avaje.ebeaninternal.server.transaction.BeanPersistIds;
+import com.avaje.tests.model.basic.Customer;
+import com.avaje.tests.model.basic.Order;
+import org.junit.Test;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class TransactionEventIdsTest extends BaseTestCase {
+
+  private final BeanDescriptor<Order> orderDesc = spiEbeanServer().getBeanDescriptor(Order.class);
+
+  private final BeanDescriptor<Customer> customerDesc = spiEbeanServer().getBeanDescriptor(Customer.class);
+
+  @Test
+  public void add_holdsIdsPerBeanType() {
+
+    TransactionEventIds eventIds = new TransactionEventIds(0);
+    eventIds.add(orderDesc, PersistRequest.Type.INSERT, 1);
+    eventIds.add(orderDesc, PersistRequest.Type.UPDATE, 2);
+    eventIds.add(orderDesc, PersistRequest.Type.DELETE, 3);
+    eventIds.add(orderDesc, PersistRequest.Type.DELETE, 4L);
+    eventIds.add(customerDesc, PersistRequest.Type.UPDATE, 5);
+
+    assertThat(eventIds.size()).isEqualTo(5);
+    assertThat(eventIds.isTableLevel()).isFalse();
+    assertThat(eventIds.getTables()).isNull();
+
+    BeanPersistIdMap persistIdMap = new BeanPersistIdMap();
+    eventIds.addToPersistMap(persistIdMap);
+
+    List<BeanPersistIds> persistIds = new ArrayList<BeanPersistIds>(persistIdMap.values());
+    assertThat(persistIds).hasSize(2);
+    // ids held as longs are converted back to the id type
+    List<Serializable> deleteIds = persistIds.get(0).getDeleteIds();
+    assertThat(deleteIds).containsExactly(3, 4);
+    assertThat(deleteIds.get(1)).isInstanceOf(Integer.class);
+
+    eventIds.notifyCache();
+  }
+
+  @Test
+  public void add_tableLevelWhenThresholdReached() {
+
+    TransactionEventIds eventIds = new TransactionEventIds(3);
+    eventIds.add(orderDesc, PersistRequest.Type.INSERT, 1);
+    eventIds.add(customerDesc, PersistRequest.Type.INSERT, 2);
+    assertThat(eventIds.isTableLevel()).isFalse();
+
+    eventIds.add(orderDesc, PersistRequest.Type.INSERT, 3);
+    assertThat(eventIds.isTableLevel()).isTrue();
+    assertThat(eventIds.size()).isEqualTo(0);
+
+    eventIds.add(customerDesc, PersistRequest.Type.UPDATE, 4);
+
+    BeanPersistIdMap persistIdMap = new BeanPersistIdMap();
+    eventIds.addToPersistMap(persistIdMap);
+    assertThat(persistIdMap.isEmpty()).isTrue();
+
+    List<TableIUD> tables = new ArrayList<TableIUD>(eventIds.getTables().values());
+    assertThat(tables).hasSize(2);
+    for (TableIUD tableIUD : tables) {
+      if (tableIUD.getTableName().equalsIgnoreCase(orderDesc.getBaseTable())) {
+        assertThat(tableIUD.isInsert()).isTrue();
+        assertThat(tableIUD.isUpdateOrDelete()).isFalse();
+      } else {
+        assertThat(tableIUD.getTableName()).isEqualToIgnoringCase(customerDesc.getBaseTable());
+        assertThat(tableIUD.isUpdateOrDelete()).isTrue();
+      }
+    }
+  }
+}
@@ -0,0 +1,175 @@
+package com.avaje.ebeaninternal.server.cache;
+
+import com.avaje.ebean.BaseTestCase;
+import com.avaje.ebean.Ebean;
+import com.avaje.ebean.bean.EntityBean;
+import com.avaje.ebeaninternal.api.SpiEbeanServer;
+import com.avaje.ebeaninternal.server.deploy.BeanDescriptor;
+import com.avaje.tests.model.basic.Address;
+import com.avaje.tests.model.basic.Country;
+import com.avaje.tests.model.basic.Customer;
+import com.avaje.tests.model.embedded.EAddress;
+import com.avaje.tests.model.embedded.EPerson;
+import com.avaje.tests.model.json.EBasicJsonMap;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class CachedBeanDataCodecTest extends BaseTestCase {
+
+  SpiEbeanServer server = (SpiEbeanServer) Ebean.getServer(null);
+
+  @Test
+  public void testWriteRead() throws IOException {
+
+    BeanDescriptor<Customer> desc = server.getBeanDescriptor(Customer.class);
+    assertThat(desc.isCacheDataBinary()).isTrue();
+
+    Customer customer = new Customer();
+    customer.setId(98989);
+    customer.setName("Rob");
+    customer.setCretime(new Timestamp(System.currentTimeMillis()));
+    customer.setStatus(Customer.Status.ACTIVE);
+
+    Address billingAddress = new Address();
+    billingAddress.setId((short) 12);
+    billingAddress.setCountry(server.getReference(Country.class, "NZ"));
+    customer.setBillingAddress(billingAddress);
+    ((EntityBean) customer)._ebean_getIntercept().setNewBeanForUpdate();
+
+    CachedBeanData data = desc.cacheBeanExtractData((EntityBean) customer);
+    byte[] bytes = write(desc, data);
+
+    CachedBeanData read = desc.cacheBeanReadData(new DataInputStream(new ByteArrayInputStream(bytes)));
+
+    Customer newCustomer = new Customer();
+    desc.cacheBeanLoadData((EntityBean) newCustomer, read);
+
+    assertThat(newCustomer.getId()).isEqualTo(customer.getId());
+    assertThat(newCustomer.getName()).isEqualTo("Rob");
+    assertThat(newCustomer.getStatus()).isEqualTo(Customer.Status.ACTIVE);
+    assertThat(newCustomer.getCretime()).isEqualTo(customer.getCretime());
+    assertThat(newCustomer.getBillingAddress().getId()).isEqualTo((short) 12);
+    for (int i = 0; i < desc.getPropertyCount(); i++) {
+      assertThat(read.isLoaded(i)).isEqualTo(data.isLoaded(i));
+    }
+
+    // smaller than java serialisation of the same data
+    ByteArrayOutputStream os = new ByteArrayOutputStream();
+    ObjectOutputStream oos = new ObjectOutputStream(os);
+    Object[] values = new Object[desc.getPropertyCount()];
+    boolean[] loaded = new boolean[values.length];
+    for (int i = 0; i < values.length; i++) {
+      values[i] = data.getData(i);
+      loaded[i] = data.isLoaded(i);
+    }
+    oos.writeObject(values);
+    oos.writeObject(loaded);
+    oos.close();
+    assertThat(bytes.length).isLessThan(os.size());
+  }
+
+  @Test
+  public void testWriteRead_withEmbedded() throws IOException {
+
+    BeanDescriptor<EPerson> desc = server.getBeanDescriptor(EPerson.class);
+
+    EAddress address = new EAddress();
+    address.setStreet("92 Someplace Else");
+    address.setCity("Auckland");
+
+    EPerson person = new EPerson();
+    person.setId(98989L);
+    person.setName("Rob");
+    person.setAddress(address);
+
+    CachedBeanData data = desc.cacheBeanExtractData((EntityBean) person);
+    byte[] bytes = write(desc, data);
+
+    EPerson newPerson = new EPerson();
+    desc.cacheBeanLoadData((EntityBean) newPerson, desc.cacheBeanReadData(new DataInputStream(new ByteArrayInputStream(bytes))));
+
+    assertThat(newPerson.getId()).isEqualTo(98989L);
+    assertThat(newPerson.getName()).isEqualTo("Rob");
+    assertThat(newPerson.getAddress().getStreet()).isEqualTo("92 Someplace Else");
+    assertThat(newPerson.getAddress().getCity()).isEqualTo("Auckland");
+    assertThat(Ebean.getBeanState(newPerson.getAddress()).getLoadedProps()).doesNotContain("suburb");
+  }
+
+  @Test
+  public void testWriteRead_largeText() throws IOException {
+
+    StringBuilder sb = new StringBuilder(70000);
+    for (int i = 0; i < 70000; i++) {
+      sb.append((char) ('a' + (i % 26)));
+    }
+    String large = sb.toString();
+
+    Map<String, Object> content = new LinkedHashMap<String, Object>();
+    content.put("text", large);
+
+    EBasicJsonMap bean = new EBasicJsonMap();
+    bean.setId(42L);
+    bean.setName(large);
+    bean.setContent(content);
+
+    BeanDescriptor<EBasicJsonMap> desc = server.getBeanDescriptor(EBasicJsonMap.class);
+    assertThat(desc.isCacheDataBinary()).isTrue();
+
+    CachedBeanData data = desc.cacheBeanExtractData((EntityBean) bean);
+    byte[] bytes = write(desc, data);
+
+    EBasicJsonMap newBean = new EBasicJsonMap();
+    desc.cacheBeanLoadData((EntityBean) newBean, desc.cacheBeanReadData(new DataInputStream(new ByteArrayInputStream(bytes))));
+
+    assertThat(newBean.getName()).isEqualTo(large);
+    assertThat(newBean.getContent().get("text")).isEqualTo(large);
+  }
+
+  @Test
+  public void testWriteRead_decimal() throws IOException {
+
+    BigDecimal price = new BigDecimal("12345678901234567890.10");
+    BigDecimal tenth = new BigDecimal("0.1");
+
+    ByteArrayOutputStream os = new ByteArrayOutputStream();
+    DataOutputStream out = new DataOutputStream(os);
+    CachedBeanDataCodec.writeDecimal(out, price);
+    CachedBeanDataCodec.writeDecimal(out, null);
+    CachedBeanDataCodec.writeDecimal(out, tenth);
+    out.close();
+
+    DataInputStream in = new DataInputStream(new ByteArrayInputStream(os.toByteArray()));
+
+    // same value and scale (not via double)
+    assertThat(CachedBeanDataCodec.readDecimal(in)).isEqualTo(price);
+    assertThat(CachedBeanDataCodec.readDecimal(in)).isNull();
+    assertThat(CachedBeanDataCodec.readDecimal(in)).isEqualTo(tenth);
+  }
+
+  @Test(expected = IOException.class)
+  public void testRead_unknownVersion() throws IOException {
+
+    BeanDescriptor<Customer> desc = server.getBeanDescriptor(Customer.class);
+    desc.cacheBeanReadData(new DataInputStream(new ByteArrayInputStream(new byte[]{99, 0, 0})));
+  }
+
+  private byte[] write(BeanDescriptor<?> desc, CachedBeanData data) throws IOException {
+    ByteArrayOutputStream os = new ByteArrayOutputStream();
+    DataOutputStream out = new DataOutputStream(os);
+    desc.cacheBeanWriteData(out, data);
+    out.close();
+    return os.toByteArray();
+  }
+}
@@ -3,6 +3,11 @@ package com.avaje.ebeaninternal.server.cache;
 import com.avaje.ebean.cache.ServerCacheOptions;
 import org.junit.Test;
 
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+
 import static org.junit.Assert.*;
 
 public class DefaultServerCacheTest {
@@ -56,4 +61,31 @@ public class DefaultServerCacheTest {
     DefaultServerCache cache = createCache();
     assertEquals(90, cache.getTrimSize());
   }
-}
\ No newline at end of file
+
+  @Test
+  public void testGetAllPutAll() throws Exception {
+
+    DefaultServerCache cache = createCache();
+
+    Map<Object, Object> values = new LinkedHashMap<Object, Object>();
+    values.put("A", "a");
+    values.put("B", "b");
+    cache.putAll(values);
+    assertEquals(2, cache.size());
+
+    Map<Object, Object> found = cache.getAll(new LinkedHashSet<Object>(Arrays.<Object>asList("A", "B", "C")));
+    assertEquals(2, found.size());
+    assertEquals("a", found.get("A"));
+    assertEquals("b", found.get("B"));
+    assertFalse(found.containsKey("C"));
+
+    assertEquals(2, cache.getStatistics(false).getHitCount());
+    assertEquals(1, cache.getStatistics(false).getMissCount());
+
+    values.put("C", "c");
+    cache.putAll(values);
+    assertEquals(3, cache.size());
+    assertEquals(3, cache.getStatistics(false).getInsertCount());
+    assertEquals(2, cache.getStatistics(false).getUpdateCount());
+  }
+}
@@ -0,0 +1,90 @@
+package com.avaje.ebeaninternal.server.core;
+
+import com.avaje.ebean.bean.CallStack;
+import com.avaje.ebean.bean.ObjectGraphNode;
+import com.avaje.ebean.bean.ObjectGraphOrigin;
+import com.avaje.ebean.meta.MetaObjectGraphNodeBatchSize;
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class CObjectGraphNodeBatchSizeTest {
+
+  private CObjectGraphNodeBatchSize create(int batchSize) {
+    ObjectGraphOrigin origin = new ObjectGraphOrigin(1, new CallStack(new StackTraceElement[0], 1, 1), "Order");
+    return new CObjectGraphNodeBatchSize(new ObjectGraphNode(origin, "customer"), batchSize, 1, 100);
+  }
+
+  /**
+   * Register beans in buffers of the current batch size lazy loading every nth buffer.
+   */
+  private void simulate(CObjectGraphNodeBatchSize nodeBatchSize, int buffers, int loadEvery) {
+    for (int i = 0; i < buffers; i++) {
+      // check on creating a new buffer
+      nodeBatchSize.checkBatchSize();
+      int batchSize = nodeBatchSize.getBatchSize();
+      for (int j = 0; j < batchSize; j++) {
+        nodeBatchSize.register();
+      }
+      if (i % loadEvery == 0) {
+        nodeBatchSize.loaded(batchSize);
+      }
+    }
+    nodeBatchSize.checkBatchSize();
+  }
+
+  @Test
+  public void when_allBuffersLoaded_expect_grow() {
+
+    CObjectGraphNodeBatchSize nodeBatchSize = create(10);
+    simulate(nodeBatchSize, 10, 1);
+
+    assertThat(nodeBatchSize.getBatchSize()).isEqualTo(20);
+
+    simulate(nodeBatchSize, 100, 1);
+    assertThat(nodeBatchSize.getBatchSize()).isEqualTo(100);
+
+    MetaObjectGraphNodeBatchSize meta = nodeBatchSize.get();
+    assertThat(meta.getBatchSize()).isEqualTo(100);
+    assertThat(meta.getAdjustCount()).isEqualTo(4);
+    assertThat(meta.getLoadedCount()).isEqualTo(meta.getRegisteredCount());
+  }
+
+  @Test
+  public void when_fewBuffersLoaded_expect_shrink() {
+
+    CObjectGraphNodeBatchSize nodeBatchSize = create(10);
+    simulate(nodeBatchSize, 10, 5);
+
+    assertThat(nodeBatchSize.getBatchSize()).isEqualTo(5);
+
+    // stable at 2 where half the loaded beans are estimated to be used
+    simulate(nodeBatchSize, 200, 5);
+    assertThat(nodeBatchSize.getBatchSize()).isEqualTo(2);
+    assertThat(nodeBatchSize.get().getUsage()).isLessThan(0.5d);
+  }
+
+  @Test
+  public void when_noLazyLoading_expect_unchanged() {
+
+    CObjectGraphNodeBatchSize nodeBatchSize = create(10);
+    for (int i = 0; i < 1000; i++) {
+      nodeBatchSize.register();
+    }
+    nodeBatchSize.checkBatchSize();
+
+    assertThat(nodeBatchSize.getBatchSize()).isEqualTo(10);
+    assertThat(nodeBatchSize.get().getRegisteredCount()).isEqualTo(1000);
+    assertThat(nodeBatchSize.get().getAdjustCount()).isEqualTo(0);
+  }
+
+  @Test
+  public void construct_expect_withinBounds() {
+
+    ObjectGraphOrigin origin = new ObjectGraphOrigin(1, new CallStack(new StackTraceElement[0], 1, 1), "Order");
+    ObjectGraphNode node = new ObjectGraphNode(origin, "customer");
+
+    assertThat(new CObjectGraphNodeBatchSize(node, 500, 1, 100).getBatchSize()).isEqualTo(100);
+    assertThat(new CObjectGraphNodeBatchSize(node, 2, 5, 100).getBatchSize()).isEqualTo(5);
+  }
+}
@@ -0,0 +1,125 @@
+package com.avaje.ebeaninternal.server.core;
+
+import com.avaje.ebean.config.ServerConfig;
+import com.avaje.tests.model.basic.Customer;
+import com.avaje.tests.model.basic.Order;
+import org.apache.commons.io.FileUtils;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class DeployIndexTest {
+
+  private ServerConfig serverConfig(String resource) {
+    ServerConfig serverConfig = new ServerConfig();
+    List<String> packages = new ArrayList<String>();
+    packages.add("com.avaje.tests.model.basic");
+    serverConfig.setPackages(packages);
+    serverConfig.setDeployIndexResource(resource);
+    return serverConfig;
+  }
+
+  /**
+   * Class loader for the directory holding the index and the class path.
+   */
+  private ClassLoader classLoader(File dir) throws IOException {
+    List<URL> urls = new ArrayList<URL>();
+    urls.add(dir.toURI().toURL());
+    for (String path : System.getProperty("java.class.path").split(File.pathSeparator)) {
+      urls.add(new File(path).toURI().toURL());
+    }
+    return new URLClassLoader(urls.toArray(new URL[urls.size()]), getClass().getClassLoader());
+  }
+
+  private void copyClassFile(Class<?> cls, File dir, String className) throws IOException {
+    InputStream is = getClass().getClassLoader().getResourceAsStream(cls.getName().replace('.', '/') + ".class");
+    try {
+      FileUtils.copyInputStreamToFile(is, new File(dir, className.replace('.', '/') + ".class"));
+    } finally {
+      is.close();
+    }
+  }
+
+  @Test
+  public void generateAndRead() throws IOException {
+
+    File dir = createTempDir();
+    try {
+      ServerConfig serverConfig = serverConfig("test-deploy.idx");
+      File file = new File(dir, "test-deploy.idx");
+      int count = DeployIndex.generate(classLoader(dir), serverConfig, file);
+      assertThat(count).isGreaterThan(0);
+
+      BootupClasses bootupClasses = DeployIndex.read(classLoader(dir), serverConfig);
+      assertThat(bootupClasses).isNotNull();
+      assertThat(bootupClasses.getMatchedClasses()).hasSize(count);
+      assertThat(bootupClasses.getEntities()).contains(Customer.class, Order.class);
+
+      // index generated for different packages is not used
+      ServerConfig otherPackages = serverConfig("test-deploy.idx");
+      otherPackages.setPackages(Collections.singletonList("com.avaje.tests.model"));
+      assertThat(DeployIndex.read(classLoader(dir), otherPackages)).isNull();
+
+      // no index resource
+      assertThat(DeployIndex.read(classLoader(dir), serverConfig("does-not-exist.idx"))).isNull();
+      assertThat(DeployIndex.read(classLoader(dir), serverConfig(null))).isNull();
+
+      // the index is opt-in
+      assertThat(new ServerConfig().getDeployIndexResource()).isNull();
+
+    } finally {
+      FileUtils.deleteDirectory(dir);
+    }
+  }
+
+  @Test
+  public void read_when_classAdded() throws IOException {
+
+    File dir = createTempDir();
+    try {
+      ServerConfig serverConfig = serverConfig("test-deploy.idx");
+      DeployIndex.generate(classLoader(dir), serverConfig, new File(dir, "test-deploy.idx"));
+      assertThat(DeployIndex.read(classLoader(dir), serverConfig)).isNotNull();
+
+      // a class not in the index is added to a searched package
+      copyClassFile(Customer.class, dir, "com.avaje.tests.model.basic.AddedCustomer");
+      assertThat(DeployIndex.read(classLoader(dir), serverConfig)).isNull();
+
+    } finally {
+      FileUtils.deleteDirectory(dir);
+    }
+  }
+
+  @Test
+  public void read_when_classChanged() throws IOException {
+
+    File dir = createTempDir();
+    try {
+      ServerConfig serverConfig = serverConfig("test-deploy.idx");
+      DeployIndex.generate(classLoader(dir), serverConfig, new File(dir, "test-deploy.idx"));
+
+      // the directory is first in the class path so this class file takes precedence
+      copyClassFile(Order.class, dir, Customer.class.getName());
+      assertThat(DeployIndex.read(classLoader(dir), serverConfig)).isNull();
+
+    } finally {
+      FileUtils.deleteDirectory(dir);
+    }
+  }
+
+  private File createTempDir() throws IOException {
+    File file = File.createTempFile("deploy-index", "");
+    file.delete();
+    file.mkdirs();
+    return file;
+  }
+}
@@ -0,0 +1,84 @@
+package com.avaje.ebeaninternal.server.deploy;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.Assert.fail;
+
+public class DeployPhasesTest {
+
+  private List<Integer> items(int count) {
+    List<Integer> items = new ArrayList<Integer>();
+    for (int i = 0; i < count; i++) {
+      items.add(i);
+    }
+    return items;
+  }
+
+  private final DeployPhases.Task<Integer, String> toStringTask = new DeployPhases.Task<Integer, String>() {
+    @Override
+    public String run(Integer item) {
+      return "v" + item;
+    }
+  };
+
+  @Test
+  public void each_parallel_resultsInOrder() {
+
+    DeployPhases phases = new DeployPhases("test", 4);
+    try {
+      List<String> results = phases.each(items(100), toStringTask);
+      assertThat(results).hasSize(100);
+      for (int i = 0; i < 100; i++) {
+        assertThat(results.get(i)).isEqualTo("v" + i);
+      }
+    } finally {
+      phases.shutdown();
+    }
+  }
+
+  @Test
+  public void each_serial() {
+
+    DeployPhases phases = new DeployPhases("test", 1);
+    List<String> results = phases.each(items(3), toStringTask);
+    assertThat(results).containsExactly("v0", "v1", "v2");
+  }
+
+  @Test
+  public void each_exceptionRethrown() {
+
+    DeployPhases phases = new DeployPhases("test", 2);
+    try {
+      phases.each(items(10), new DeployPhases.Task<Integer, String>() {
+        @Override
+        public String run(Integer item) {
+          if (item == 5) {
+            throw new IllegalStateException("bad " + item);
+          }
+          return "v" + item;
+        }
+      });
+      fail("expected exception");
+    } catch (IllegalStateException e) {
+      assertThat(e.getMessage()).isEqualTo("bad 5");
+    } finally {
+      phases.shutdown();
+    }
+  }
+
+  @Test
+  public void finish_timings() {
+
+    DeployPhases phases = new DeployPhases("test", 0);
+    assertThat(phases.getParallelism()).isEqualTo(Runtime.getRuntime().availableProcessors());
+    phases.phase("one");
+    phases.phase("two");
+    String summary = phases.finish();
+    assertThat(summary).startsWith("parallelism[");
+    assertThat(summary).contains(" one[", " two[", " total[");
+  }
+}
@@ -0,0 +1,78 @@
+package com.avaje.ebeaninternal.server.deploy;
+
+import com.avaje.ebean.BaseTestCase;
+import com.avaje.ebean.Ebean;
+import com.avaje.ebeaninternal.api.SpiEbeanServer;
+import com.avaje.tests.model.basic.Order;
+import org.junit.Test;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class QueryPlanFragmentsTest extends BaseTestCase {
+
+  private BeanDescriptor<Order> desc() {
+    return ((SpiEbeanServer) Ebean.getDefaultServer()).getBeanDescriptor(Order.class);
+  }
+
+  @Test
+  public void sql_shared() {
+
+    QueryPlanFragments fragments = new QueryPlanFragments(desc(), 2);
+
+    String first = fragments.sql(new String("select t0.id"));
+    assertThat(fragments.sql(new String("select t0.id"))).isSameAs(first);
+    assertThat(fragments.sql(null)).isNull();
+    assertThat(fragments.getSqlFragmentCount()).isEqualTo(1);
+    assertThat(fragments.getSqlFragmentBytes()).isEqualTo(QueryPlanFragments.sizeOf("select t0.id"));
+  }
+
+  @Test
+  public void sql_maxSize() {
+
+    QueryPlanFragments fragments = new QueryPlanFragments(desc(), 2);
+    fragments.sql("a");
+    fragments.sql("b");
+
+    String c = new String("c");
+    assertThat(fragments.sql(c)).isSameAs(c);
+    assertThat(fragments.sql(new String("c"))).isNotSameAs(c);
+    assertThat(fragments.getSqlFragmentCount()).isEqualTo(2);
+  }
+
+  @Test
+  public void clear() {
+
+    QueryPlanFragments fragments = new QueryPlanFragments(desc(), 2);
+    String first = fragments.sql(new String("select t0.id"));
+    fragments.pathMap(null);
+    fragments.clear();
+
+    assertThat(fragments.getSqlFragmentCount()).isEqualTo(0);
+    assertThat(fragments.getSqlFragmentBytes()).isEqualTo(0);
+    assertThat(fragments.sql(new String("select t0.id"))).isNotSameAs(first);
+  }
+
+  @Test
+  public void properties_shared() {
+
+    BeanDescriptor<Order> desc = desc();
+    QueryPlanFragments fragments = new QueryPlanFragments(desc, 10);
+
+    BeanProperty[] props = desc.propertiesBaseScalar();
+    BeanProperty[] first = fragments.properties(props.clone());
+    assertThat(fragments.properties(props.clone())).isSameAs(first);
+  }
+
+  @Test
+  public void pathMap_shared() {
+
+    QueryPlanFragments fragments = new QueryPlanFragments(desc(), 10);
+
+    Map<String, String> root = fragments.pathMap(null);
+    assertThat(root.get("details")).isEqualTo("details");
+    assertThat(fragments.pathMap(null)).isSameAs(root);
+    assertThat(fragments.pathMap("orders").get("details")).isEqualTo("orders.details");
+  }
+}
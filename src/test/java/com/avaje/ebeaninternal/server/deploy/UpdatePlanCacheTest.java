@@ -0,0 +1,104 @@
+package com.avaje.ebeaninternal.server.deploy;
+
+import com.avaje.ebean.annotation.ConcurrencyMode;
+import com.avaje.ebean.meta.MetaUpdatePlanStatistic;
+import com.avaje.ebeaninternal.api.SpiUpdatePlan;
+import com.avaje.ebeaninternal.server.persist.dml.UpdatePlan;
+import com.avaje.ebeaninternal.server.persist.dmlbind.Bindable;
+import com.avaje.ebeaninternal.server.persist.dmlbind.BindableList;
+import com.avaje.tests.model.basic.EBasic;
+import org.junit.Test;
+
+import java.util.ArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class UpdatePlanCacheTest {
+
+  private final SpiUpdatePlan plan = new UpdatePlan(ConcurrencyMode.NONE, "update e_basic set name=? where id=?", new BindableList(new ArrayList<Bindable>()));
+
+  @Test
+  public void getPut_statistics() {
+
+    UpdatePlanCache cache = new UpdatePlanCache(EBasic.class, 10, 0);
+    assertThat(cache.get(1)).isNull();
+    cache.put(1, plan);
+    assertThat(cache.get(1)).isSameAs(plan);
+    assertThat(cache.get(1)).isSameAs(plan);
+
+    MetaUpdatePlanStatistic statistic = cache.getStatistic(true);
+    assertThat(statistic.getBeanType()).isEqualTo(EBasic.class);
+    assertThat(statistic.getSize()).isEqualTo(1);
+    assertThat(statistic.getMaxSize()).isEqualTo(10);
+    assertThat(statistic.getHitCount()).isEqualTo(2);
+    assertThat(statistic.getMissCount()).isEqualTo(1);
+    assertThat(statistic.isWidening()).isFalse();
+
+    statistic = cache.getStatistic(false);
+    assertThat(statistic.getHitCount()).isEqualTo(0);
+    assertThat(statistic.getMissCount()).isEqualTo(0);
+    assertThat(statistic.getSize()).isEqualTo(1);
+  }
+
+  @Test
+  public void put_when_maxSize_expect_cleared() {
+
+    UpdatePlanCache cache = new UpdatePlanCache(EBasic.class, 3, 0);
+    for (int i = 0; i < 3; i++) {
+      cache.put(i, plan);
+    }
+    assertThat(cache.size()).isEqualTo(3);
+
+    cache.put(3, plan);
+    assertThat(cache.size()).isEqualTo(1);
+    assertThat(cache.get(3)).isSameAs(plan);
+    assertThat(cache.getStatistic(false).getClearCount()).isEqualTo(1);
+  }
+
+  @Test
+  public void put_when_wideningThreshold_expect_widening() {
+
+    UpdatePlanCache cache = new UpdatePlanCache(EBasic.class, 100, 2);
+    cache.put(1, plan);
+    cache.put(2, plan);
+    assertThat(cache.isWidening()).isFalse();
+
+    cache.put(3, plan);
+    assertThat(cache.isWidening()).isTrue();
+    assertThat(cache.getStatistic(false).isWidening()).isTrue();
+  }
+
+  @Test
+  public void put_when_sameKey_expect_notCountedForWidening() {
+
+    UpdatePlanCache cache = new UpdatePlanCache(EBasic.class, 100, 2);
+    for (int i = 0; i < 5; i++) {
+      cache.put(1, plan);
+      cache.put(2, plan);
+    }
+    assertThat(cache.isWidening()).isFalse();
+  }
+
+  @Test
+  public void put_when_clearedByMaxSize_expect_wideningSwitchedOff() {
+
+    UpdatePlanCache cache = new UpdatePlanCache(EBasic.class, 4, 2);
+    for (int i = 0; i < 4; i++) {
+      cache.put(i, plan);
+    }
+    assertThat(cache.isWidening()).isTrue();
+
+    // the clear resets the distinct plans counted
+    cache.put(4, plan);
+    assertThat(cache.size()).isEqualTo(1);
+    assertThat(cache.isWidening()).isFalse();
+
+    cache.put(5, plan);
+    assertThat(cache.isWidening()).isFalse();
+    cache.put(6, plan);
+    assertThat(cache.isWidening()).isTrue();
+
+    cache.clear();
+    assertThat(cache.isWidening()).isFalse();
+  }
+}
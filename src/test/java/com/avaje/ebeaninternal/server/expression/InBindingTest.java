@@ -0,0 +1,109 @@
+package com.avaje.ebeaninternal.server.expression;
+
+import com.avaje.ebean.config.dbplatform.H2Platform;
+import com.avaje.ebean.config.dbplatform.MsSqlServer2005Platform;
+import com.avaje.ebean.config.dbplatform.OraclePlatform;
+import com.avaje.ebean.config.dbplatform.SQLitePlatform;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class InBindingTest {
+
+  @Test
+  public void paddedSize() {
+
+    assertThat(InBinding.paddedSize(1)).isEqualTo(1);
+    assertThat(InBinding.paddedSize(5)).isEqualTo(5);
+    assertThat(InBinding.paddedSize(6)).isEqualTo(10);
+    assertThat(InBinding.paddedSize(11)).isEqualTo(20);
+    assertThat(InBinding.paddedSize(21)).isEqualTo(50);
+    assertThat(InBinding.paddedSize(101)).isEqualTo(200);
+    assertThat(InBinding.paddedSize(1000)).isEqualTo(1000);
+    assertThat(InBinding.paddedSize(1001)).isEqualTo(2000);
+  }
+
+  @Test
+  public void paddedSize_withinMaxBindParameters() {
+
+    assertThat(InBinding.paddedSize(7, 999)).isEqualTo(10);
+    assertThat(InBinding.paddedSize(500, 999)).isEqualTo(500);
+    assertThat(InBinding.paddedSize(600, 999)).isEqualTo(600);
+    assertThat(InBinding.paddedSize(1500, 2100)).isEqualTo(2000);
+    assertThat(InBinding.paddedSize(2050, 2100)).isEqualTo(2050);
+    assertThat(InBinding.paddedSize(2050, 0)).isEqualTo(3000);
+  }
+
+  @Test
+  public void maxIdsPerStatement() {
+
+    assertThat(InBinding.maxIdsPerStatement(new SQLitePlatform())).isEqualTo(500);
+    assertThat(InBinding.maxIdsPerStatement(new MsSqlServer2005Platform())).isEqualTo(2000);
+    assertThat(InBinding.maxIdsPerStatement(new OraclePlatform())).isEqualTo(1000);
+    assertThat(InBinding.maxIdsPerStatement(new H2Platform())).isEqualTo(0);
+  }
+
+  @Test
+  public void pad_list_withinMaxBindParameters() {
+
+    List<Object> values = new ArrayList<Object>();
+    for (int i = 0; i < 600; i++) {
+      values.add(i);
+    }
+    assertThat(InBinding.pad(values, 999)).hasSize(600);
+    assertThat(InBinding.pad(values, 0)).hasSize(1000);
+  }
+
+  @Test
+  public void pad_list() {
+
+    List<Object> padded = InBinding.pad(Arrays.asList(1, 2, 3, 4, 5, 6));
+    assertThat(padded).hasSize(10);
+    assertThat(padded).containsExactly(1, 2, 3, 4, 5, 6, 6, 6, 6, 6);
+
+    assertThat(InBinding.pad(Arrays.asList(1, 2))).containsExactly(1, 2);
+    assertThat(InBinding.pad(new ArrayList<Object>())).isEmpty();
+  }
+
+  @Test
+  public void pad_array() {
+
+    Object[] values = {1, 2};
+    assertThat(InBinding.pad(values)).isSameAs(values);
+    assertThat(InBinding.pad(new Object[]{1, 2, 3, 4, 5, 6, 7})).containsExactly(1, 2, 3, 4, 5, 6, 7, 7, 7, 7);
+  }
+
+  @Test
+  public void chunks() {
+
+    List<Object> values = new ArrayList<Object>(Arrays.<Object>asList(1, 2, 3, 4, 5, 6, 7));
+
+    assertThat(InBinding.chunks(values, 0)).hasSize(1);
+    assertThat(InBinding.chunks(values, 7)).hasSize(1);
+
+    List<List<Object>> chunks = InBinding.chunks(values, 3);
+    assertThat(chunks).hasSize(3);
+    assertThat(chunks.get(0)).containsExactly(1, 2, 3);
+    assertThat(chunks.get(2)).containsExactly(7);
+  }
+
+  @Test
+  public void appendIn() {
+
+    StringBuilder sb = new StringBuilder();
+    InBinding.appendIn(sb, "t0.id", false, 3, 0);
+    assertThat(sb.toString()).isEqualTo("t0.id in (?,?,?) ");
+
+    sb = new StringBuilder();
+    InBinding.appendIn(sb, "t0.id", false, 5, 2);
+    assertThat(sb.toString()).isEqualTo("(t0.id in (?,?)  or t0.id in (?,?)  or t0.id in (?) )");
+
+    sb = new StringBuilder();
+    InBinding.appendIn(sb, "t0.id", true, 3, 2);
+    assertThat(sb.toString()).isEqualTo("(t0.id not in (?,?)  and t0.id not in (?) )");
+  }
+}
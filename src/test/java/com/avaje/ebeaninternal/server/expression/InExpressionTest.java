@@ -1,6 +1,16 @@
 package com.avaje.ebeaninternal.server.expression;
 
+import com.avaje.ebean.BaseTestCase;
+import com.avaje.ebean.EbeanServer;
+import com.avaje.ebean.Query;
+import com.avaje.ebean.Transaction;
+import com.avaje.ebean.config.dbplatform.DatabasePlatform;
+import com.avaje.ebean.config.dbplatform.PostgresPlatform;
+import com.avaje.ebean.config.dbplatform.SQLitePlatform;
+import com.avaje.ebean.event.BeanQueryRequest;
 import com.avaje.ebeaninternal.api.HashQueryPlanBuilder;
+import com.avaje.ebeaninternal.api.TDSpiEbeanServer;
+import com.avaje.tests.model.basic.Customer;
 import org.jetbrains.annotations.NotNull;
 import org.junit.Test;
 
@@ -12,7 +22,7 @@ import static org.assertj.core.api.StrictAssertions.assertThat;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotEquals;
 
-public class InExpressionTest {
+public class InExpressionTest extends BaseTestCase {
 
 
   @Test
@@ -85,7 +95,7 @@ public class InExpressionTest {
   }
 
   List<Integer> values(int... vals) {
-    ArrayList list = new ArrayList<Integer>();
+    List<Integer> list = new ArrayList<Integer>();
     for (int i = 0; i < vals.length; i++) {
       list.add(vals[i]);
     }
@@ -157,4 +167,70 @@ public class InExpressionTest {
     assertThat(exp("a", false, 10, "ABC").isSameByBind(exp("a", false, 10, "ABC", 30))).isFalse();
   }
 
-}
\ No newline at end of file
+  private InExpression prepared(DatabasePlatform platform, int size) {
+    List<Integer> values = new ArrayList<Integer>();
+    for (int i = 0; i < size; i++) {
+      values.add(i);
+    }
+    InExpression expression = new InExpression("name", values, false);
+    expression.prepareExpression(new TDQueryRequest(platform));
+    return expression;
+  }
+
+  private String planHash(InExpression expression) {
+    HashQueryPlanBuilder builder = new HashQueryPlanBuilder();
+    expression.queryPlanHash(builder);
+    return builder.build();
+  }
+
+  @Test
+  public void queryPlanHash_when_arrayBinding_should_ignoreSize() {
+
+    PostgresPlatform platform = new PostgresPlatform();
+    InExpression ex1 = prepared(platform, 7);
+    InExpression ex2 = prepared(platform, 30);
+
+    assertThat(planHash(ex1)).isEqualTo(planHash(ex2));
+    assertThat(ex1.isSameByPlan(ex2)).isTrue();
+  }
+
+  @Test
+  public void queryPlanHash_when_padded_should_paddedSize() {
+
+    SQLitePlatform platform = new SQLitePlatform();
+    assertThat(planHash(prepared(platform, 7))).isEqualTo(planHash(prepared(platform, 9)));
+    assertThat(prepared(platform, 7).isSameByPlan(prepared(platform, 9))).isTrue();
+
+    // not padded beyond the limit of bind parameters per statement
+    assertThat(prepared(platform, 600).isSameByPlan(prepared(platform, 601))).isFalse();
+  }
+
+  private class TDQueryRequest implements BeanQueryRequest<Customer> {
+
+    private final TDSpiEbeanServer server;
+
+    TDQueryRequest(final DatabasePlatform platform) {
+      this.server = new TDSpiEbeanServer("in") {
+        @Override
+        public DatabasePlatform getDatabasePlatform() {
+          return platform;
+        }
+      };
+    }
+
+    @Override
+    public EbeanServer getEbeanServer() {
+      return server;
+    }
+
+    @Override
+    public Transaction getTransaction() {
+      return null;
+    }
+
+    @Override
+    public Query<Customer> getQuery() {
+      return spiEbeanServer().createQuery(Customer.class);
+    }
+  }
+}
@@ -0,0 +1,101 @@
+package com.avaje.ebeaninternal.server.expression;
+
+import com.avaje.ebean.OrderBy;
+import com.avaje.ebean.config.dbplatform.DatabasePlatform;
+import com.avaje.ebean.config.dbplatform.H2Platform;
+import com.avaje.ebean.config.dbplatform.PostgresPlatform;
+import com.avaje.ebeaninternal.api.SpiExpressionRequest;
+import org.junit.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class KeysetExpressionTest {
+
+  private static class Request extends TDSpiExpressionRequest {
+
+    final StringBuilder sql = new StringBuilder();
+
+    final DatabasePlatform platform;
+
+    Request(DatabasePlatform platform) {
+      super(null);
+      this.platform = platform;
+    }
+
+    @Override
+    public DatabasePlatform getDatabasePlatform() {
+      return platform;
+    }
+
+    @Override
+    public SpiExpressionRequest append(String sql) {
+      this.sql.append(sql);
+      return this;
+    }
+  }
+
+  private List<OrderBy.Property> orderBy(String orderBy) {
+    return new OrderBy<Object>(orderBy).getProperties();
+  }
+
+  private Request addSql(KeysetExpression expr, DatabasePlatform platform) {
+    Request request = new Request(platform);
+    expr.addSql(request);
+    expr.addBindValues(request);
+    return request;
+  }
+
+  @Test
+  public void single() {
+
+    KeysetExpression expr = new KeysetExpression(orderBy("id"), new Object[]{10});
+    Request request = addSql(expr, new PostgresPlatform());
+    assertThat(request.sql.toString()).isEqualTo("id > ?");
+    assertThat(request.bindValues).containsExactly(10);
+  }
+
+  @Test
+  public void expanded() {
+
+    KeysetExpression expr = new KeysetExpression(orderBy("name, when desc, id"), new Object[]{"a", 5, 10});
+    Request request = addSql(expr, new H2Platform());
+    assertThat(request.sql.toString()).isEqualTo("(name > ? or (name = ? and (when < ? or (when = ? and id > ?))))");
+    assertThat(request.bindValues).containsExactly("a", "a", 5, 5, 10);
+  }
+
+  @Test
+  public void rowValue() {
+
+    KeysetExpression expr = new KeysetExpression(orderBy("name desc, id desc"), new Object[]{"a", 10});
+    Request request = addSql(expr, new PostgresPlatform());
+    assertThat(request.sql.toString()).isEqualTo("(name, id) < (?, ?)");
+    assertThat(request.bindValues).containsExactly("a", 10);
+  }
+
+  @Test
+  public void rowValue_mixedDirection_expanded() {
+
+    KeysetExpression expr = new KeysetExpression(orderBy("name desc, id"), new Object[]{"a", 10});
+    Request request = addSql(expr, new PostgresPlatform());
+    assertThat(request.sql.toString()).isEqualTo("(name < ? or (name = ? and id > ?))");
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void valueCountMismatch() {
+    new KeysetExpression(orderBy("name, id"), new Object[]{"a"});
+  }
+
+  @Test
+  public void samePlan() {
+
+    KeysetExpression expr0 = new KeysetExpression(orderBy("name, id"), new Object[]{"a", 1});
+    KeysetExpression expr1 = new KeysetExpression(orderBy("name, id"), new Object[]{"b", 2});
+    KeysetExpression expr2 = new KeysetExpression(orderBy("name desc, id"), new Object[]{"a", 1});
+
+    assertThat(expr0.isSameByPlan(expr1)).isTrue();
+    assertThat(expr0.isSameByBind(expr1)).isFalse();
+    assertThat(expr0.isSameByPlan(expr2)).isFalse();
+  }
+}
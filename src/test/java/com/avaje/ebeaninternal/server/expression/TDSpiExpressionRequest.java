@@ -1,5 +1,6 @@
 package com.avaje.ebeaninternal.server.expression;
 
+import com.avaje.ebean.config.dbplatform.DatabasePlatform;
 import com.avaje.ebeaninternal.api.SpiExpressionRequest;
 import com.avaje.ebeaninternal.server.core.JsonExpressionHandler;
 import com.avaje.ebeaninternal.server.core.SpiOrmQueryRequest;
@@ -36,6 +37,11 @@ public class TDSpiExpressionRequest implements SpiExpressionRequest {
     return descriptor;
   }
 
+  @Override
+  public DatabasePlatform getDatabasePlatform() {
+    return null;
+  }
+
   @Override
   public SpiOrmQueryRequest<?> getQueryRequest() {
     return null;
@@ -0,0 +1,41 @@
+package com.avaje.ebeaninternal.server.query;
+
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class CQueryPlanStatsTest {
+
+  @Test
+  public void isSampleExecution_when_sampling() {
+
+    CQueryPlanStats stats = new CQueryPlanStats(null, false, 100);
+    for (int i = 1; i < 100; i++) {
+      assertThat(stats.isSampleExecution()).isFalse();
+    }
+    assertThat(stats.isSampleExecution()).isTrue();
+    assertThat(stats.isSampleExecution()).isFalse();
+  }
+
+  @Test
+  public void isSampleExecution_when_off() {
+
+    CQueryPlanStats stats = new CQueryPlanStats(null, false, 0);
+    assertThat(stats.isSampleExecution()).isFalse();
+    assertThat(stats.getSnapshot(false).getExecuteHistogram()).isNull();
+  }
+
+  @Test
+  public void histograms_when_notSampled_expect_notCreated() {
+
+    CQueryPlanStats stats = new CQueryPlanStats(null, false, 100);
+    assertThat(stats.getSnapshot(false).getExecuteHistogram()).isNull();
+
+    stats.addPhases(10, 20, 30, 4);
+    CQueryPlanStats.Snapshot snapshot = stats.getSnapshot(true);
+    assertThat(snapshot.getExecuteHistogram().getCount()).isEqualTo(1);
+    assertThat(snapshot.getRowsHistogram().getMax()).isGreaterThanOrEqualTo(4);
+
+    assertThat(stats.getSnapshot(false).getExecuteHistogram().getCount()).isEqualTo(0);
+  }
+}
@@ -0,0 +1,61 @@
+package com.avaje.ebeaninternal.server.query;
+
+import com.avaje.ebean.config.ServerConfig;
+import com.avaje.ebeaninternal.api.TDSpiEbeanServer;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class SlowQueryRecorderTest {
+
+  private SlowQueryRecorder recorder() {
+    ServerConfig serverConfig = new ServerConfig();
+    serverConfig.setSlowQueryMillis(100);
+    return new SlowQueryRecorder(new TDSpiEbeanServer(), serverConfig);
+  }
+
+  @Test
+  public void getThreshold() {
+
+    SlowQueryRecorder recorder = recorder();
+    SlowQueryRecorder.Threshold threshold = recorder.getThreshold("plan1");
+    assertThat(threshold.getVersion()).isEqualTo(0);
+    assertThat(threshold.getMicros()).isEqualTo(100000);
+
+    recorder.setThreshold("plan1", 5);
+    threshold = recorder.getThreshold("plan1");
+    assertThat(threshold.getVersion()).isEqualTo(1);
+    assertThat(threshold.getMicros()).isEqualTo(5000);
+    assertThat(recorder.getThreshold("plan2").getMicros()).isEqualTo(100000);
+
+    recorder.setThreshold(0);
+    assertThat(recorder.getThreshold("plan2").getMicros()).isEqualTo(Long.MAX_VALUE);
+    assertThat(recorder.getVersion()).isEqualTo(2);
+  }
+
+  @Test
+  public void setThreshold_concurrent_expect_noLostVersions() throws InterruptedException {
+
+    final SlowQueryRecorder recorder = recorder();
+    List<Thread> threads = new ArrayList<Thread>();
+    for (int i = 0; i < 4; i++) {
+      Thread thread = new Thread(new Runnable() {
+        @Override
+        public void run() {
+          for (int j = 0; j < 1000; j++) {
+            recorder.setThreshold(j);
+          }
+        }
+      });
+      threads.add(thread);
+      thread.start();
+    }
+    for (Thread thread : threads) {
+      thread.join();
+    }
+    assertThat(recorder.getVersion()).isEqualTo(4000);
+  }
+}
@@ -0,0 +1,87 @@
+package com.avaje.ebeaninternal.server.transaction;
+
+import com.avaje.ebean.BaseTestCase;
+import com.avaje.ebean.annotation.DocStoreEvent;
+import com.avaje.ebean.cache.ServerCache;
+import com.avaje.ebean.config.ContainerConfig;
+import com.avaje.ebeaninternal.api.SpiEbeanServer;
+import com.avaje.ebeaninternal.api.SpiTransaction;
+import com.avaje.ebeaninternal.api.TransactionEvent;
+import com.avaje.ebeaninternal.server.cluster.ClusterManager;
+import com.avaje.ebeaninternal.server.core.PersistRequest;
+import com.avaje.ebeaninternal.server.core.PersistRequestBean;
+import com.avaje.ebeaninternal.server.deploy.BeanManager;
+import com.avaje.tests.model.basic.Contact;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class PostCommitProcessingTest extends BaseTestCase {
+
+  private final SpiEbeanServer server = spiEbeanServer();
+
+  private PersistRequestBean<Contact> updateRequest(BeanManager<Contact> beanManager, SpiTransaction transaction, int id) {
+    Contact contact = new Contact();
+    contact.setId(id);
+    contact.setEmail("contact" + id + "@example.com");
+    PersistRequestBean<Contact> request = new PersistRequestBean<Contact>(server, contact, null, beanManager, transaction, null, PersistRequest.Type.UPDATE, false, false);
+    request.setBoundId(id);
+    return request;
+  }
+
+  @Test
+  public void compactedIds_sentToClusterAndInvalidateNaturalKeys() {
+
+    // only the cache is interested in the requests (no document store update)
+    JdbcTransaction transaction = (JdbcTransaction) server.createTransaction();
+    transaction.setDocStoreUpdateMode(DocStoreEvent.IGNORE);
+    transaction.end();
+
+    TransactionManager manager = transaction.manager;
+    BeanManager<Contact> beanManager = manager.getBeanDescriptorManager().getBeanManager(Contact.class);
+
+    // compact from the first request
+    TransactionEvent event = new TransactionEvent(1, 0);
+    event.add(updateRequest(beanManager, transaction, 10));
+    event.add(updateRequest(beanManager, transaction, 11));
+    assertThat(event.getEventIds()).isNotNull();
+    assertThat(event.getEventIds().size()).isEqualTo(2);
+    assertThat(event.getPersistRequestBeans()).isEmpty();
+
+    TDClusterManager clusterManager = new TDClusterManager();
+    PostCommitProcessing postCommit = new PostCommitProcessing(clusterManager, manager, event);
+    postCommit.notifyCluster();
+
+    assertThat(clusterManager.events).hasSize(1);
+    List<BeanPersistIds> persistIds = clusterManager.events.get(0).getBeanPersistList();
+    assertThat(persistIds).hasSize(1);
+    assertThat(persistIds.get(0).toString()).contains("updateIds:[10, 11]");
+
+    ServerCache naturalKeyCache = server.getServerCacheManager().getNaturalKeyCache(Contact.class);
+    naturalKeyCache.put("contact10@example.com", 10);
+    postCommit.notifyLocalCacheIndex();
+    assertThat(naturalKeyCache.get("contact10@example.com")).isNull();
+  }
+
+  static class TDClusterManager extends ClusterManager {
+
+    final List<RemoteTransactionEvent> events = new ArrayList<RemoteTransactionEvent>();
+
+    TDClusterManager() {
+      super(new ContainerConfig());
+    }
+
+    @Override
+    public boolean isClustering() {
+      return true;
+    }
+
+    @Override
+    public void broadcast(RemoteTransactionEvent remoteTransEvent) {
+      events.add(remoteTransEvent);
+    }
+  }
+}
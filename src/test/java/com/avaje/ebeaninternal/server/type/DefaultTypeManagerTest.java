@@ -1,10 +1,13 @@
 package com.avaje.ebeaninternal.server.type;
 
 import com.avaje.ebean.config.ServerConfig;
+import com.avaje.ebean.config.dbplatform.DbType;
 import com.avaje.ebean.config.dbplatform.PostgresPlatform;
 import com.avaje.ebeaninternal.server.core.BootupClasses;
 import org.junit.Test;
 
+import java.util.Map;
+
 import static org.junit.Assert.*;
 
 public class DefaultTypeManagerTest {
@@ -32,4 +35,18 @@ public class DefaultTypeManagerTest {
     assertFalse(typeManager.isIntegerType(" A"));
   }
 
-}
\ No newline at end of file
+  @Test
+  public void jsonMapJsonb_jsonPatch_when_enabled() {
+
+    ScalarTypeJsonMap jsonb = (ScalarTypeJsonMap) typeManager.getJsonScalarType(Map.class, DbType.JSONB);
+    assertNull(jsonb.getJsonPatch());
+
+    ServerConfig serverConfig = new ServerConfig();
+    serverConfig.setDatabasePlatform(new PostgresPlatform());
+    serverConfig.setJsonPatchUpdate(true);
+    DefaultTypeManager patchTypeManager = new DefaultTypeManager(serverConfig, new BootupClasses());
+
+    jsonb = (ScalarTypeJsonMap) patchTypeManager.getJsonScalarType(Map.class, DbType.JSONB);
+    assertEquals(new PostgresPlatform().getJsonPatch(), jsonb.getJsonPatch());
+  }
+}
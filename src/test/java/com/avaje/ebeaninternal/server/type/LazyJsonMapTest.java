@@ -0,0 +1,123 @@
+package com.avaje.ebeaninternal.server.type;
+
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class LazyJsonMapTest {
+
+  private static final String RAW = "{\"a\":1, \"b\":{\"c\":\"x\"}}";
+
+  @Test
+  public void rawJson_when_unread() {
+
+    LazyJsonMap map = new LazyJsonMap(RAW);
+    assertThat(map.isMarkedDirty()).isFalse();
+    assertThat(map.getRawJson()).isEqualTo(RAW);
+    assertThat(map.isEmpty()).isFalse();
+    assertThat(map.isParsed()).isFalse();
+  }
+
+  @Test
+  public void rawJson_when_readOnly() {
+
+    LazyJsonMap map = new LazyJsonMap(RAW.getBytes(StandardCharsets.UTF_8));
+    assertThat(map.get("a")).isEqualTo(1L);
+    assertThat(map.isParsed()).isTrue();
+    assertThat(map.isMarkedDirty()).isFalse();
+    assertThat(map.getRawJson()).isEqualTo(RAW);
+    assertThat(map.getRawBytes()).isEqualTo(RAW.getBytes(StandardCharsets.UTF_8));
+  }
+
+  @SuppressWarnings("unchecked")
+  @Test
+  public void dirty_when_nestedModified() {
+
+    LazyJsonMap map = new LazyJsonMap(RAW);
+    Map<String, Object> nested = (Map<String, Object>) map.get("b");
+    nested.put("c", "y");
+
+    // checking for the raw content does not reset the dirty state
+    assertThat(map.getRawJson()).isNull();
+    assertThat(map.isMarkedDirty()).isTrue();
+    assertThat(map.isMarkedDirty()).isFalse();
+    assertThat(map.getRawJson()).isNull();
+  }
+
+  @Test
+  public void dirty_when_put() {
+
+    LazyJsonMap map = new LazyJsonMap(RAW);
+    map.put("d", "new");
+    assertThat(map.isMarkedDirty()).isTrue();
+    assertThat(map.getRawBytes()).isNull();
+    assertThat(map).containsKeys("a", "b", "d");
+  }
+
+  @Test
+  public void isEmpty_when_emptyObject() {
+
+    LazyJsonMap map = new LazyJsonMap(" { } ");
+    assertThat(map.isEmpty()).isTrue();
+    assertThat(map.isParsed()).isFalse();
+  }
+
+  @Test
+  public void patch_when_topLevelKeysPutAndRemoved() {
+
+    LazyJsonMap map = new LazyJsonMap(RAW, true);
+    map.put("a", 2L);
+    map.put("d", "new");
+    map.remove("b");
+    map.remove("notAKey");
+
+    // isMarkedDirty() (checking mutable properties) retains the tracked keys
+    assertThat(map.isMarkedDirty()).isTrue();
+    assertThat(map.isPatch()).isTrue();
+    assertThat(map.getPatchRemoved()).containsExactly("b");
+    assertThat(map.getPatchValues()).containsOnlyKeys("a", "d");
+    assertThat(map.getPatchValues().get("a")).isEqualTo(2L);
+
+    map.resetPatch();
+    assertThat(map.isPatch()).isFalse();
+    assertThat(map.isMarkedDirty()).isFalse();
+  }
+
+  @SuppressWarnings("unchecked")
+  @Test
+  public void patch_notUsed_when_nestedModified() {
+
+    LazyJsonMap map = new LazyJsonMap(RAW, true);
+    map.put("d", "new");
+    ((Map<String, Object>) map.get("b")).put("c", "y");
+
+    assertThat(map.isPatch()).isFalse();
+    assertThat(map.isMarkedDirty()).isTrue();
+    assertThat(map.isPatch()).isFalse();
+  }
+
+  @Test
+  public void patch_notUsed_when_cleared() {
+
+    LazyJsonMap map = new LazyJsonMap(RAW, true);
+    map.clear();
+    map.put("d", "new");
+
+    assertThat(map.isMarkedDirty()).isTrue();
+    assertThat(map.isPatch()).isFalse();
+    assertThat(map).containsOnlyKeys("d");
+  }
+
+  @Test
+  public void patch_notUsed_when_notTrackingKeys() {
+
+    LazyJsonMap map = new LazyJsonMap(RAW);
+    map.put("d", "new");
+
+    assertThat(map.isMarkedDirty()).isTrue();
+    assertThat(map.isPatch()).isFalse();
+  }
+}
@@ -0,0 +1,53 @@
+package com.avaje.ebeaninternal.server.util;
+
+import com.avaje.tests.model.basic.Customer;
+import com.avaje.tests.model.basic.event.CustomerPersistAdapter;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Collections;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ClassFileReaderTest {
+
+  private static final Set<String> ENTITY = Collections.singleton("Ljavax/persistence/Entity;");
+
+  private ClassFileInfo read(Class<?> cls) throws IOException {
+    InputStream is = cls.getClassLoader().getResourceAsStream(cls.getName().replace('.', '/') + ".class");
+    try {
+      return new ClassFileReader(ENTITY).read(is);
+    } finally {
+      is.close();
+    }
+  }
+
+  @Test
+  public void read_entity() throws IOException {
+
+    ClassFileInfo info = read(Customer.class);
+    assertThat(info.getName()).isEqualTo("com/avaje/tests/model/basic/Customer");
+    assertThat(info.getClassName()).isEqualTo(Customer.class.getName());
+    assertThat(info.isAnnotated()).isTrue();
+    assertThat(info.isAbstractType()).isFalse();
+  }
+
+  @Test
+  public void read_notAnnotated() throws IOException {
+
+    ClassFileInfo info = read(CustomerPersistAdapter.class);
+    assertThat(info.isAnnotated()).isFalse();
+    assertThat(info.isAbstractType()).isFalse();
+    assertThat(info.getSuperName()).isEqualTo("com/avaje/ebean/event/BeanPersistAdapter");
+  }
+
+  @Test
+  public void read_interfaces() throws IOException {
+
+    ClassFileInfo info = read(ClassPathSearchBytecodeMatcher.class);
+    assertThat(info.isAbstractType()).isTrue();
+    assertThat(info.getInterfaces()).containsExactly("com/avaje/ebeaninternal/server/util/ClassPathSearchMatcher");
+  }
+}
@@ -0,0 +1,47 @@
+package com.avaje.ebeaninternal.server.util;
+
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ClassPathScanCacheTest {
+
+  @Test
+  public void saveAndLoad() throws IOException {
+
+    File file = File.createTempFile("ebean-scan", ".txt");
+    file.delete();
+    try {
+      List<ClassFileInfo> classes = new ArrayList<ClassFileInfo>();
+      classes.add(new ClassFileInfo("org/Foo", "org/Base", new String[]{"org/A", "org/B"}, false, true));
+      classes.add(new ClassFileInfo("org/Bar", null, new String[0], true, false));
+
+      ClassPathScanCache cache = new ClassPathScanCache(file, "criteria");
+      cache.load();
+      assertThat(cache.get("foo.jar", "1")).isNull();
+      cache.put("foo.jar", "1", classes);
+      cache.save();
+      assertThat(file.exists()).isTrue();
+
+      ClassPathScanCache reload = new ClassPathScanCache(file, "criteria");
+      reload.load();
+      assertThat(reload.get("foo.jar", "2")).isNull();
+      List<ClassFileInfo> cached = reload.get("foo.jar", "1");
+      assertThat(cached).hasSize(2);
+      assertThat(cached.get(0).toString()).isEqualTo(classes.get(0).toString());
+      assertThat(cached.get(1).toString()).isEqualTo(classes.get(1).toString());
+
+      ClassPathScanCache otherCriteria = new ClassPathScanCache(file, "other");
+      otherCriteria.load();
+      assertThat(otherCriteria.get("foo.jar", "1")).isNull();
+
+    } finally {
+      file.delete();
+    }
+  }
+}
@@ -0,0 +1,55 @@
+package com.avaje.ebeaninternal.server.util;
+
+import com.avaje.ebean.meta.MetaHistogram;
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class HistogramTest {
+
+  @Test
+  public void bucket() {
+    assertThat(Histogram.bucket(-1)).isEqualTo(0);
+    assertThat(Histogram.bucket(0)).isEqualTo(0);
+    assertThat(Histogram.bucket(1)).isEqualTo(1);
+    assertThat(Histogram.bucket(2)).isEqualTo(2);
+    assertThat(Histogram.bucket(3)).isEqualTo(2);
+    assertThat(Histogram.bucket(4)).isEqualTo(3);
+    assertThat(Histogram.bucket(1023)).isEqualTo(10);
+    assertThat(Histogram.bucket(1024)).isEqualTo(11);
+    assertThat(Histogram.bucket(Long.MAX_VALUE)).isEqualTo(Histogram.BUCKETS - 1);
+  }
+
+  @Test
+  public void percentiles() {
+
+    Histogram histogram = new Histogram();
+    for (int i = 0; i < 99; i++) {
+      histogram.add(10);
+    }
+    histogram.add(5000);
+
+    MetaHistogram snapshot = histogram.snapshot(false);
+    assertThat(snapshot.getCount()).isEqualTo(100);
+    assertThat(snapshot.getMax()).isEqualTo(5000);
+    // 10 is in the bucket 8 to 15
+    assertThat(snapshot.getPercentile(50)).isEqualTo(15);
+    assertThat(snapshot.getPercentile(99)).isEqualTo(15);
+    // limited to the max value rather than the bucket upper bound of 8191
+    assertThat(snapshot.getPercentile(100)).isEqualTo(5000);
+  }
+
+  @Test
+  public void snapshot_reset() {
+
+    Histogram histogram = new Histogram();
+    histogram.add(7);
+
+    assertThat(histogram.snapshot(true).getCount()).isEqualTo(1);
+
+    MetaHistogram empty = histogram.snapshot(false);
+    assertThat(empty.getCount()).isEqualTo(0);
+    assertThat(empty.getMax()).isEqualTo(0);
+    assertThat(empty.getPercentile(99)).isEqualTo(0);
+  }
+}
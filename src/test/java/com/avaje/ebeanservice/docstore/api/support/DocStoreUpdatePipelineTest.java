@@ -0,0 +1,229 @@
+package com.avaje.ebeanservice.docstore.api.support;
+
+import com.avaje.ebean.BackgroundExecutor;
+import com.avaje.ebean.BaseTestCase;
+import com.avaje.ebean.Ebean;
+import com.avaje.ebean.config.DocStoreConfig;
+import com.avaje.ebean.plugin.BeanType;
+import com.avaje.ebean.plugin.SpiServer;
+import com.avaje.ebeanservice.docstore.api.DocStoreQueryUpdate;
+import com.avaje.ebeanservice.docstore.api.DocStoreUpdate;
+import com.avaje.ebeanservice.docstore.api.DocStoreUpdateContext;
+import com.avaje.ebeanservice.docstore.api.DocStoreUpdateProcessor;
+import com.avaje.ebeanservice.docstore.api.DocStoreUpdates;
+import com.avaje.tests.model.basic.Order;
+import com.avaje.tests.model.basic.ResetBasicData;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class DocStoreUpdatePipelineTest extends BaseTestCase {
+
+  private final SpiServer server = spiEbeanServer().getPluginApi();
+
+  private final BeanType<Order> orderType = server.getBeanType(Order.class);
+
+  private DocStoreUpdatePipeline pipeline(TDProcessor processor, int capacity, int batchSize) {
+    DocStoreConfig config = new DocStoreConfig();
+    config.setQueueCapacity(capacity);
+    config.setBulkBatchSize(batchSize);
+    return new DocStoreUpdatePipeline(server, processor, config, new TDExecutor());
+  }
+
+  private DocStoreUpdates updates(DocStoreUpdate... events) {
+    DocStoreUpdates updates = new DocStoreUpdates();
+    for (DocStoreUpdate event : events) {
+      if (event instanceof DocStoreDeleteEvent) {
+        updates.addDelete(event);
+      } else {
+        updates.addPersist(event);
+      }
+    }
+    return updates;
+  }
+
+  @Test
+  public void process_coalescesLatestPerDocument() {
+
+    TDProcessor processor = new TDProcessor();
+    DocStoreUpdatePipeline pipeline = pipeline(processor, 100, 100);
+
+    DocStoreIndexEvent<Order> index1 = new DocStoreIndexEvent<Order>(orderType, 1, null);
+    DocStoreIndexEvent<Order> index2 = new DocStoreIndexEvent<Order>(orderType, 2, null);
+    DocStoreDeleteEvent delete1 = new DocStoreDeleteEvent(orderType, 1);
+
+    pipeline.process(updates(index1, index2), 10);
+    pipeline.process(updates(delete1), 10);
+    assertThat(pipeline.getQueueDepth()).isEqualTo(2);
+    assertThat(processor.batches).isEmpty();
+
+    pipeline.flush();
+    assertThat(pipeline.getQueueDepth()).isEqualTo(0);
+    assertThat(processor.batches).hasSize(1);
+    DocStoreUpdates sent = processor.batches.get(0);
+    assertThat(sent.getPersistEvents()).containsExactly(index2);
+    assertThat(sent.getDeleteEvents()).containsExactly(delete1);
+
+    assertThat(pipeline.getReceivedCount()).isEqualTo(3);
+    assertThat(pipeline.getCoalescedCount()).isEqualTo(1);
+    assertThat(pipeline.getProcessedCount()).isEqualTo(2);
+    assertThat(pipeline.getFlushCount()).isEqualTo(1);
+  }
+
+  @Test
+  public void process_mergesNestedByPath() {
+
+    TDProcessor processor = new TDProcessor();
+    DocStoreUpdatePipeline pipeline = pipeline(processor, 100, 100);
+
+    DocStoreUpdates updates = new DocStoreUpdates();
+    updates.addNested("order", "customer.id", 1);
+    updates.addNested("order", "customer.id", 2);
+    pipeline.process(updates, 10);
+
+    DocStoreUpdates more = new DocStoreUpdates();
+    more.addNested("order", "customer.id", 1);
+    more.addNested("order", "details.product.id", 1);
+    pipeline.process(more, 10);
+
+    assertThat(pipeline.getQueueDepth()).isEqualTo(3);
+    pipeline.flush();
+    assertThat(processor.batches.get(0).getNestedEvents()).hasSize(3);
+  }
+
+  @Test
+  public void process_flushWhenBatchSizeOrCapacityReached() {
+
+    TDProcessor processor = new TDProcessor();
+    DocStoreUpdatePipeline pipeline = pipeline(processor, 3, 100);
+
+    pipeline.process(updates(new DocStoreIndexEvent<Order>(orderType, 1, null), new DocStoreIndexEvent<Order>(orderType, 2, null)), 10);
+    assertThat(processor.batches).isEmpty();
+
+    // queue full so the pending updates are sent first
+    pipeline.process(updates(new DocStoreIndexEvent<Order>(orderType, 3, null), new DocStoreIndexEvent<Order>(orderType, 4, null)), 10);
+    assertThat(processor.batches).hasSize(1);
+    assertThat(pipeline.getBackPressureCount()).isEqualTo(1);
+    assertThat(pipeline.getQueueDepth()).isEqualTo(2);
+    assertThat(pipeline.getLagMillis()).isGreaterThanOrEqualTo(0);
+
+    TDProcessor batchProcessor = new TDProcessor();
+    DocStoreUpdatePipeline batchPipeline = pipeline(batchProcessor, 100, 2);
+    batchPipeline.process(updates(new DocStoreIndexEvent<Order>(orderType, 1, null), new DocStoreIndexEvent<Order>(orderType, 2, null)), 10);
+    assertThat(batchProcessor.batches).hasSize(1);
+    assertThat(batchPipeline.getQueueDepth()).isEqualTo(0);
+  }
+
+  @Test
+  public void process_partialUpdatesReindexed() {
+
+    ResetBasicData.reset();
+    Order order = Ebean.find(Order.class).setMaxRows(1).orderBy("id").findUnique();
+
+    TDProcessor processor = new TDProcessor();
+    DocStoreUpdatePipeline pipeline = pipeline(processor, 100, 100);
+
+    pipeline.process(updates(new TDPartialUpdate(orderType, order.getId())), 10);
+    pipeline.process(updates(new TDPartialUpdate(orderType, order.getId())), 10);
+    pipeline.process(updates(new TDPartialUpdate(orderType, 999999)), 10);
+    pipeline.process(updates(new TDPartialUpdate(orderType, 999999)), 10);
+    pipeline.flush();
+
+    // re-indexed from the database with the missing one deleted
+    assertThat(processor.stored).containsExactly(order.getId());
+    DocStoreUpdates sent = processor.batches.get(0);
+    assertThat(sent.getPersistEvents()).isEmpty();
+    assertThat(sent.getDeleteEvents()).hasSize(1);
+  }
+
+  @Test
+  public void shutdown_flushesAndThenProcessesDirectly() {
+
+    TDProcessor processor = new TDProcessor();
+    DocStoreUpdatePipeline pipeline = pipeline(processor, 100, 100);
+
+    pipeline.process(updates(new DocStoreIndexEvent<Order>(orderType, 1, null)), 10);
+    pipeline.shutdown();
+    assertThat(processor.batches).hasSize(1);
+
+    pipeline.process(updates(new DocStoreIndexEvent<Order>(orderType, 2, null)), 10);
+    assertThat(processor.batches).hasSize(2);
+    assertThat(pipeline.getQueueDepth()).isEqualTo(0);
+  }
+
+  static class TDPartialUpdate implements DocStoreUpdate {
+
+    final BeanType<?> beanType;
+    final Object id;
+
+    TDPartialUpdate(BeanType<?> beanType, Object id) {
+      this.beanType = beanType;
+      this.id = id;
+    }
+
+    @Override
+    public BeanType<?> getBeanType() {
+      return beanType;
+    }
+
+    @Override
+    public Object getDocId() {
+      return id;
+    }
+
+    @Override
+    public boolean isPartial() {
+      return true;
+    }
+
+    @Override
+    public void docStoreUpdate(DocStoreUpdateContext txn) throws IOException {
+    }
+
+    @Override
+    public void addToQueue(DocStoreUpdates docStoreUpdates) {
+    }
+  }
+
+  static class TDProcessor implements DocStoreUpdateProcessor {
+
+    final List<DocStoreUpdates> batches = new ArrayList<DocStoreUpdates>();
+
+    final List<Object> stored = new ArrayList<Object>();
+
+    @Override
+    public <T> DocStoreQueryUpdate<T> createQueryUpdate(BeanType<T> beanType, int bulkBatchSize) throws IOException {
+      return new DocStoreQueryUpdate<T>() {
+        @Override
+        public void store(Object idValue, T bean) throws IOException {
+          stored.add(idValue);
+        }
+
+        @Override
+        public void flush() throws IOException {
+        }
+      };
+    }
+
+    @Override
+    public void process(DocStoreUpdates docStoreUpdates, int bulkBatchSize) {
+      batches.add(docStoreUpdates);
+    }
+  }
+
+  static class TDExecutor implements BackgroundExecutor {
+
+    @Override
+    public void execute(Runnable r) {
+    }
+
+    @Override
+    public void executePeriodically(Runnable r, long delay, TimeUnit unit) {
+    }
+  }
+}
@@ -0,0 +1,118 @@
+package com.avaje.ebeanservice.docstore.memory;
+
+import com.avaje.ebean.BaseTestCase;
+import com.avaje.ebean.EbeanServer;
+import com.avaje.ebean.EbeanServerFactory;
+import com.avaje.ebean.PagedList;
+import com.avaje.ebean.Query;
+import com.avaje.ebean.config.ContainerConfig;
+import com.avaje.ebean.config.ServerConfig;
+import com.avaje.tests.model.basic.Product;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class MemoryDocStoreTest extends BaseTestCase {
+
+  @Test
+  public void save_update_delete_expect_docStoreQueriesReflectChanges() throws InterruptedException {
+
+    EbeanServer server = create();
+    try {
+      assertThat(server.docStore()).isInstanceOf(MemoryDocStore.class);
+
+      Product desk = product(server, "D1", "Desk");
+      Product chair = product(server, "C1", "Desk chair");
+      Product lamp = product(server, "L1", "Lamp");
+      awaitDocs(server, 3);
+
+      assertThat(names(server.find(Product.class).setUseDocStore(true).where().eq("sku", "C1").findList())).containsOnly("Desk chair");
+      assertThat(names(server.find(Product.class).setUseDocStore(true).where().contains("name", "desk").orderBy("sku").findList())).containsExactly("Desk chair", "Desk");
+
+      PagedList<Product> pagedList = server.find(Product.class).setUseDocStore(true).orderBy("sku").setMaxRows(2).findPagedList();
+      assertThat(pagedList.getTotalRowCount()).isEqualTo(3);
+      assertThat(names(pagedList.getList())).containsExactly("Desk chair", "Desk");
+
+      // partial update of a reference bean merges with the existing document
+      Product ref = server.getReference(Product.class, lamp.getId());
+      ref.setName("Desk lamp");
+      server.save(ref);
+      awaitDocs(server.find(Product.class).setUseDocStore(true).where().contains("name", "desk").query(), 3);
+
+      Product lampDoc = server.docStore().getById(Product.class, lamp.getId());
+      assertThat(lampDoc.getName()).isEqualTo("Desk lamp");
+      assertThat(lampDoc.getSku()).isEqualTo("L1");
+
+      server.delete(desk);
+      awaitDocs(server, 2);
+      assertThat(server.docStore().getById(Product.class, desk.getId())).isNull();
+      assertThat(names(server.find(Product.class).setUseDocStore(true).orderBy("sku").findList())).containsExactly("Desk chair", "Desk lamp");
+      assertThat(server.docStore().getById(Product.class, chair.getId()).getName()).isEqualTo("Desk chair");
+
+    } finally {
+      server.shutdown(false, false);
+    }
+  }
+
+  private static Product product(EbeanServer server, String sku, String name) {
+    Product product = new Product();
+    product.setSku(sku);
+    product.setName(name);
+    server.save(product);
+    return product;
+  }
+
+  private static List<String> names(List<Product> products) {
+    List<String> names = new ArrayList<String>();
+    for (Product product : products) {
+      names.add(product.getName());
+    }
+    return names;
+  }
+
+  private static void awaitDocs(EbeanServer server, int count) throws InterruptedException {
+    awaitDocs(server.find(Product.class).setUseDocStore(true), count);
+  }
+
+  /**
+   * Wait for the document store updates which are processed in the background after commit.
+   */
+  private static void awaitDocs(Query<Product> query, int count) throws InterruptedException {
+    for (int i = 0; i < 100; i++) {
+      if (query.findList().size() == count) {
+        return;
+      }
+      Thread.sleep(50);
+    }
+    assertThat(query.findList()).hasSize(count);
+  }
+
+  private static EbeanServer create() {
+
+    ServerConfig config = new ServerConfig();
+    config.setName("memDocStore");
+
+    Properties properties = new Properties();
+    properties.setProperty("datasource.memDocStore.username", "sa");
+    properties.setProperty("datasource.memDocStore.password", "");
+    properties.setProperty("datasource.memDocStore.databaseUrl", "jdbc:h2:mem:memDocStore;");
+    properties.setProperty("datasource.memDocStore.databaseDriver", "org.h2.Driver");
+    properties.setProperty("ebean.memDocStore.docstore.active", "true");
+    properties.setProperty("ebean.memDocStore.docstore.memory", "true");
+
+    config.loadFromProperties(properties);
+    config.setContainerConfig(new ContainerConfig());
+    config.setDdlGenerate(true);
+    config.setDdlRun(true);
+    config.setDefaultServer(false);
+    config.setRegister(false);
+
+    config.addClass(Product.class);
+
+    return EbeanServerFactory.create(config);
+  }
+}
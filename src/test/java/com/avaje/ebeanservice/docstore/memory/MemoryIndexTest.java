@@ -0,0 +1,125 @@
+package com.avaje.ebeanservice.docstore.memory;
+
+import com.avaje.ebean.BaseTestCase;
+import com.avaje.ebean.Ebean;
+import com.avaje.ebean.Query;
+import com.avaje.ebean.text.json.EJson;
+import com.avaje.tests.model.basic.Order;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class MemoryIndexTest extends BaseTestCase {
+
+  private MemoryIndex createIndex() throws IOException {
+
+    MemoryIndex index = new MemoryIndex("order", new HashSet<String>(Arrays.asList("customer.name", "details.product.name")));
+    index.index(1, "{\"id\":1,\"customer\":{\"id\":1,\"name\":\"Rob Bygrave\"},\"details\":[{\"orderQty\":5,\"product\":{\"name\":\"Desk chair\"}}]}");
+    index.index(2, "{\"id\":2,\"customer\":{\"id\":2,\"name\":\"Fiona Black\"},\"details\":[{\"orderQty\":2,\"product\":{\"name\":\"Desk\"}},{\"orderQty\":7,\"product\":{\"name\":\"Lamp\"}}]}");
+    index.index(3, "{\"id\":3,\"customer\":{\"id\":1,\"name\":\"Rob Bygrave\"},\"shipDate\":1450000000000}");
+    return index;
+  }
+
+  private List<Object> ids(MemoryIndex index, Query<Order> query) throws IOException {
+
+    Map<String, Object> elasticQuery = EJson.parseObject(query.asElasticQuery());
+    List<Object> ids = new ArrayList<Object>();
+    for (String source : index.search(elasticQuery).getSources()) {
+      ids.add(EJson.parseObject(source).get("id"));
+    }
+    return ids;
+  }
+
+  @Test
+  public void search_term_and_match() throws IOException {
+
+    MemoryIndex index = createIndex();
+
+    assertThat(ids(index, Ebean.find(Order.class).where().eq("customer.name", "Rob Bygrave").query())).containsOnly(1L, 3L);
+    assertThat(ids(index, Ebean.find(Order.class).where().eq("customer.name", "rob").query())).isEmpty();
+    assertThat(ids(index, Ebean.find(Order.class).where().contains("customer.name", "black").query())).containsOnly(2L);
+    assertThat(ids(index, Ebean.find(Order.class).where().startsWith("details.product.name", "des").query())).containsOnly(1L, 2L);
+    assertThat(ids(index, Ebean.find(Order.class).where().like("details.product.name", "l*p").query())).containsOnly(2L);
+  }
+
+  @Test
+  public void search_range_ids_and_bool() throws IOException {
+
+    MemoryIndex index = createIndex();
+
+    assertThat(ids(index, Ebean.find(Order.class).where().gt("details.orderQty", 6).query())).containsOnly(2L);
+    assertThat(ids(index, Ebean.find(Order.class).where().between("details.orderQty", 1, 5).query())).containsOnly(1L, 2L);
+    assertThat(ids(index, Ebean.find(Order.class).setId(2))).containsOnly(2L);
+    assertThat(ids(index, Ebean.find(Order.class).where().in("customer.id", 2, 5).query())).containsOnly(2L);
+    assertThat(ids(index, Ebean.find(Order.class).where().isNotNull("shipDate").query())).containsOnly(3L);
+    assertThat(ids(index, Ebean.find(Order.class).where().isNull("shipDate").query())).containsOnly(1L, 2L);
+    assertThat(ids(index, Ebean.find(Order.class).where().ne("customer.id", 1).query())).containsOnly(2L);
+    assertThat(ids(index, Ebean.find(Order.class).where().eq("customer.id", 1).gt("id", 1).query())).containsOnly(3L);
+    assertThat(ids(index, Ebean.find(Order.class).where().or(Ebean.getExpressionFactory().eq("id", 1), Ebean.getExpressionFactory().eq("id", 2)).query())).containsOnly(1L, 2L);
+  }
+
+  @Test
+  public void search_sort_and_page() throws IOException {
+
+    MemoryIndex index = createIndex();
+
+    assertThat(ids(index, Ebean.find(Order.class).orderBy("id desc"))).containsExactly(3L, 2L, 1L);
+    assertThat(ids(index, Ebean.find(Order.class).orderBy("customer.name, id desc").setFirstRow(1).setMaxRows(1))).containsExactly(3L);
+
+    Map<String, Object> elasticQuery = EJson.parseObject(Ebean.find(Order.class).setMaxRows(2).asElasticQuery());
+    MemoryIndex.Hits hits = index.search(elasticQuery);
+    assertThat(hits.getTotal()).isEqualTo(3);
+    assertThat(hits.getSources()).hasSize(2);
+  }
+
+  @Test
+  public void update_merge_and_delete() throws IOException {
+
+    MemoryIndex index = createIndex();
+    assertThat(index.size()).isEqualTo(3);
+
+    index.merge(1, "{\"customer\":{\"id\":2,\"name\":\"Fiona Black\"}}");
+    assertThat(ids(index, Ebean.find(Order.class).where().eq("customer.id", 2).query())).containsOnly(1L, 2L);
+    assertThat(ids(index, Ebean.find(Order.class).where().gt("details.orderQty", 4).query())).containsOnly(1L, 2L);
+
+    index.updateEmbedded(2, "customer", "{\"id\":1,\"name\":\"Rob Bygrave\"}");
+    assertThat(ids(index, Ebean.find(Order.class).where().contains("customer.name", "rob").query())).containsOnly(2L, 3L);
+
+    assertThat(index.delete(3)).isTrue();
+    assertThat(index.delete(3)).isFalse();
+    assertThat(index.getSource(3)).isNull();
+    assertThat(index.size()).isEqualTo(2);
+    assertThat(ids(index, Ebean.find(Order.class).where().isNotNull("shipDate").query())).isEmpty();
+
+    // document number of the deleted document is reused
+    index.index(4L, "{\"id\":4,\"customer\":{\"id\":3,\"name\":\"Jim\"}}");
+    assertThat(ids(index, Ebean.find(Order.class).orderBy("id"))).containsExactly(1L, 2L, 4L);
+  }
+
+  @Test
+  public void search_when_manyDocuments() throws IOException {
+
+    MemoryIndex index = new MemoryIndex("order", new HashSet<String>(Arrays.asList("customer.name")));
+    for (int i = 1; i <= 2000; i++) {
+      index.index(i, "{\"id\":" + i + ",\"status\":\"" + (i % 2 == 0 ? "NEW" : "SHIPPED") + "\",\"customer\":{\"id\":" + i + ",\"name\":\"Name" + i + "\"}}");
+    }
+
+    assertThat(ids(index, Ebean.find(Order.class).where().eq("customer.id", 1500).query())).containsOnly(1500L);
+    assertThat(ids(index, Ebean.find(Order.class).where().eq("status", "NEW").gt("id", 1990).query())).containsOnly(1992L, 1994L, 1996L, 1998L, 2000L);
+    assertThat(ids(index, Ebean.find(Order.class).where().between("customer.id", 10, 12).query())).containsOnly(10L, 11L, 12L);
+    assertThat(ids(index, Ebean.find(Order.class).where().isNotNull("status").query())).hasSize(2000);
+
+    for (int i = 1; i <= 2000; i += 2) {
+      index.delete(i);
+    }
+    assertThat(ids(index, Ebean.find(Order.class).where().eq("status", "SHIPPED").query())).isEmpty();
+    assertThat(ids(index, Ebean.find(Order.class).where().isNotNull("status").query())).hasSize(1000);
+  }
+}
@@ -0,0 +1,73 @@
+package com.avaje.ebeanservice.docstore.memory;
+
+import org.junit.Test;
+
+import java.util.BitSet;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class MemoryPostingsTest {
+
+  @Test
+  public void add_remove_when_sparse() {
+
+    MemoryPostings postings = new MemoryPostings();
+    postings.add(100000);
+    postings.add(5);
+    postings.add(70);
+    postings.add(5);
+
+    assertThat(postings.size()).isEqualTo(3);
+    assertThat(postings.isDense()).isFalse();
+    assertThat(postings.contains(70)).isTrue();
+    assertThat(postings.contains(71)).isFalse();
+    assertThat(postings.toBitSet().toString()).isEqualTo("{5, 70, 100000}");
+
+    postings.remove(70);
+    postings.remove(71);
+    assertThat(postings.size()).isEqualTo(2);
+    assertThat(postings.toBitSet().toString()).isEqualTo("{5, 100000}");
+
+    postings.remove(5);
+    postings.remove(100000);
+    assertThat(postings.isEmpty()).isTrue();
+  }
+
+  @Test
+  public void add_when_manySparse_expect_notDense() {
+
+    MemoryPostings postings = new MemoryPostings();
+    for (int i = 0; i < 1000; i++) {
+      postings.add(i * 100);
+    }
+    assertThat(postings.isDense()).isFalse();
+    assertThat(postings.toBitSet().cardinality()).isEqualTo(1000);
+  }
+
+  @Test
+  public void add_remove_when_dense() {
+
+    MemoryPostings postings = new MemoryPostings();
+    for (int i = 0; i < 1000; i++) {
+      postings.add(i);
+    }
+    assertThat(postings.isDense()).isTrue();
+    assertThat(postings.size()).isEqualTo(1000);
+    postings.add(10);
+    assertThat(postings.size()).isEqualTo(1000);
+
+    BitSet result = new BitSet();
+    result.set(5000);
+    postings.orInto(result);
+    assertThat(result.cardinality()).isEqualTo(1001);
+
+    // back to the sorted array when no longer dense
+    for (int i = 0; i < 990; i++) {
+      postings.remove(i);
+    }
+    assertThat(postings.isDense()).isFalse();
+    assertThat(postings.size()).isEqualTo(10);
+    assertThat(postings.contains(995)).isTrue();
+    assertThat(postings.toBitSet().toString()).isEqualTo("{990, 991, 992, 993, 994, 995, 996, 997, 998, 999}");
+  }
+}
@@ -0,0 +1,84 @@
+package com.avaje.tests.cache;
+
+import com.avaje.ebean.BaseTestCase;
+import com.avaje.ebean.EbeanServer;
+import com.avaje.ebean.EbeanServerFactory;
+import com.avaje.ebean.config.ContainerConfig;
+import com.avaje.ebean.config.ServerConfig;
+import com.avaje.ebean.meta.MetaObjectGraphNodeBatchSize;
+import com.avaje.tests.model.basic.Country;
+import com.avaje.tests.model.basic.OCachedBean;
+import com.avaje.tests.model.basic.OCachedBeanChild;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.Properties;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class TestCacheAdaptiveLazyLoad extends BaseTestCase {
+
+  @Test
+  public void lazyLoad_when_beanCacheHits_expect_notCountedAsLoaded() {
+
+    EbeanServer server = create();
+    try {
+      for (int i = 0; i < 10; i++) {
+        OCachedBean parent = new OCachedBean();
+        parent.setName("p" + i);
+        server.save(parent);
+        OCachedBeanChild child = new OCachedBeanChild();
+        child.setCachedBean(parent);
+        server.save(child);
+      }
+
+      // load all the parents into the bean cache
+      for (OCachedBean parent : server.find(OCachedBean.class).setLoadBeanCache(true).findList()) {
+        assertThat(server.find(OCachedBean.class, parent.getId())).isNotNull();
+      }
+
+      List<OCachedBeanChild> children = server.find(OCachedBeanChild.class).findList();
+      assertThat(children).hasSize(10);
+      for (OCachedBeanChild child : children) {
+        // lazy loading the parent hits the bean cache
+        assertThat(child.getCachedBean().getName()).startsWith("p");
+      }
+
+      long loaded = 0;
+      for (MetaObjectGraphNodeBatchSize nodeBatchSize : server.getMetaInfoManager().collectNodeBatchSizes()) {
+        loaded += nodeBatchSize.getLoadedCount();
+      }
+      // beans loaded from the bean cache are not counted as lazy loaded by the buffer
+      assertThat(loaded).isEqualTo(0);
+
+    } finally {
+      server.shutdown(false, false);
+    }
+  }
+
+  private static EbeanServer create() {
+
+    ServerConfig config = new ServerConfig();
+    config.setName("adaptiveCache");
+
+    Properties properties = new Properties();
+    properties.setProperty("datasource.adaptiveCache.username", "sa");
+    properties.setProperty("datasource.adaptiveCache.password", "");
+    properties.setProperty("datasource.adaptiveCache.databaseUrl", "jdbc:h2:mem:adaptiveCache;");
+    properties.setProperty("datasource.adaptiveCache.databaseDriver", "org.h2.Driver");
+
+    config.loadFromProperties(properties);
+    config.setContainerConfig(new ContainerConfig());
+    config.setDdlGenerate(true);
+    config.setDdlRun(true);
+    config.setDefaultServer(false);
+    config.setRegister(false);
+    config.setLazyLoadBatchSizeAdaptive(true);
+
+    config.addClass(Country.class);
+    config.addClass(OCachedBean.class);
+    config.addClass(OCachedBeanChild.class);
+
+    return EbeanServerFactory.create(config);
+  }
+}
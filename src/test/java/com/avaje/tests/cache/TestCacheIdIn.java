@@ -0,0 +1,94 @@
+package com.avaje.tests.cache;
+
+import com.avaje.ebean.BaseTestCase;
+import com.avaje.ebean.Ebean;
+import com.avaje.ebean.cache.ServerCache;
+import com.avaje.ebean.cache.ServerCacheStatistics;
+import com.avaje.tests.model.basic.Country;
+import com.avaje.tests.model.basic.Product;
+import com.avaje.tests.model.basic.ResetBasicData;
+import org.avaje.ebeantest.LoggedSqlCollector;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class TestCacheIdIn extends BaseTestCase {
+
+  @Test
+  public void test() {
+
+    ResetBasicData.reset();
+
+    ServerCache countryCache = Ebean.getServerCacheManager().getBeanCache(Country.class);
+    countryCache.clear();
+
+    // load NZ into the bean cache
+    Ebean.find(Country.class, "NZ");
+    assertThat(countryCache.size()).isEqualTo(1);
+    countryCache.getStatistics(true);
+
+    LoggedSqlCollector.start();
+    List<Country> countries = Ebean.find(Country.class).where().idIn(Arrays.asList("AU", "NZ", "XX")).findList();
+    List<String> sql = LoggedSqlCollector.stop();
+
+    // in the order of the ids, NZ from the cache and only AU and XX queried
+    assertThat(countries).extracting("code").containsExactly("AU", "NZ");
+    assertThat(sql).hasSize(1);
+    assertThat(sql.get(0)).contains(" in (?,?)");
+
+    ServerCacheStatistics statistics = countryCache.getStatistics(true);
+    assertThat(statistics.getHitCount()).isEqualTo(1);
+    assertThat(statistics.getMissCount()).isEqualTo(2);
+
+    // AU was put into the bean cache so now all the found ids are hits
+    LoggedSqlCollector.start();
+    countries = Ebean.find(Country.class).where().idIn(Arrays.asList("NZ", "AU")).findList();
+    sql = LoggedSqlCollector.stop();
+
+    assertThat(countries).extracting("code").containsExactly("NZ", "AU");
+    assertThat(sql).isEmpty();
+    assertThat(countryCache.getStatistics(false).getHitCount()).isEqualTo(2);
+  }
+
+  @Test
+  public void test_whenLongIds_expect_convertedToIdType() {
+
+    ResetBasicData.reset();
+
+    Product product = Ebean.find(Product.class).setMaxRows(1).findUnique();
+    Integer id = product.getId();
+
+    ServerCache productCache = Ebean.getServerCacheManager().getBeanCache(Product.class);
+    productCache.clear();
+    Ebean.find(Product.class, id);
+    productCache.getStatistics(true);
+
+    // Long ids for an Integer id type with a partial hit
+    LoggedSqlCollector.start();
+    List<Product> products = Ebean.find(Product.class).where().idIn(Arrays.<Object>asList(id.longValue(), 999999L)).findList();
+    List<String> sql = LoggedSqlCollector.stop();
+
+    assertThat(products).extracting("id").containsExactly(id);
+    assertThat(sql).hasSize(1);
+    assertThat(productCache.getStatistics(false).getHitCount()).isEqualTo(1);
+  }
+
+  @Test
+  public void test_whenOrderBy_expect_notUsingBeanCache() {
+
+    ResetBasicData.reset();
+
+    ServerCache countryCache = Ebean.getServerCacheManager().getBeanCache(Country.class);
+    countryCache.clear();
+    Ebean.find(Country.class, "NZ");
+    countryCache.getStatistics(true);
+
+    List<Country> countries = Ebean.find(Country.class).where().idIn(Arrays.asList("AU", "NZ")).order("code").findList();
+
+    assertThat(countries).extracting("code").containsExactly("AU", "NZ");
+    assertThat(countryCache.getStatistics(false).getHitCount()).isEqualTo(0);
+  }
+}
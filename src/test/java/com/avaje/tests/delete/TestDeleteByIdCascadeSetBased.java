@@ -0,0 +1,124 @@
+package com.avaje.tests.delete;
+
+import com.avaje.ebean.BaseTestCase;
+import com.avaje.ebean.Ebean;
+import com.avaje.ebean.event.AbstractBeanPersistListener;
+import com.avaje.ebeaninternal.server.deploy.BeanDescriptor;
+import com.avaje.tests.model.basic.Article;
+import com.avaje.tests.model.basic.Section;
+import com.avaje.tests.model.basic.SubSection;
+import com.avaje.tests.model.cascade.CascadeLeaf;
+import com.avaje.tests.model.cascade.CascadeMid;
+import com.avaje.tests.model.cascade.CascadeRoot;
+import org.avaje.ebeantest.LoggedSqlCollector;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class TestDeleteByIdCascadeSetBased extends BaseTestCase {
+
+  private CascadeRoot createRoot(String name) {
+
+    CascadeRoot root = new CascadeRoot(name);
+    for (int i = 0; i < 2; i++) {
+      CascadeMid mid = new CascadeMid(name + "-mid" + i);
+      mid.getLeaves().add(new CascadeLeaf(name + "-leaf" + i + "a"));
+      mid.getLeaves().add(new CascadeLeaf(name + "-leaf" + i + "b"));
+      root.getMids().add(mid);
+    }
+    Ebean.save(root);
+    return root;
+  }
+
+  @Test
+  public void deleteById_multiLevel_usesSetBasedStatements() {
+
+    CascadeRoot root = createRoot("single");
+    CascadeRoot other = createRoot("other");
+
+    LoggedSqlCollector.start();
+    Ebean.delete(CascadeRoot.class, root.getId());
+    List<String> sql = LoggedSqlCollector.stop();
+
+    // no queries to fetch child ids, one delete per level
+    assertThat(sql).hasSize(3);
+    assertThat(sql.get(0)).contains("delete from cascade_leaf where mid_id in (select id from cascade_mid where root_id=?)");
+    assertThat(sql.get(1)).contains("delete from cascade_mid where root_id=?");
+    assertThat(sql.get(2)).contains("delete from cascade_root where id");
+
+    assertThat(Ebean.find(CascadeMid.class).where().eq("root.id", root.getId()).findRowCount()).isEqualTo(0);
+    assertThat(Ebean.find(CascadeLeaf.class).where().eq("mid.root.id", root.getId()).findRowCount()).isEqualTo(0);
+    assertThat(Ebean.find(CascadeLeaf.class).where().eq("mid.root.id", other.getId()).findRowCount()).isEqualTo(4);
+  }
+
+  @Test
+  public void deleteByIds_multiLevel_usesSetBasedStatements() {
+
+    CascadeRoot root0 = createRoot("list0");
+    CascadeRoot root1 = createRoot("list1");
+
+    LoggedSqlCollector.start();
+    Ebean.deleteAll(CascadeRoot.class, Arrays.asList(root0.getId(), root1.getId()));
+    List<String> sql = LoggedSqlCollector.stop();
+
+    assertThat(sql).hasSize(3);
+    assertThat(sql.get(0)).contains("delete from cascade_leaf where mid_id in (select id from cascade_mid where root_id in (?,?))");
+    assertThat(sql.get(1)).contains("delete from cascade_mid where root_id in (?,?)");
+
+    assertThat(Ebean.find(CascadeRoot.class).where().idIn(Arrays.asList(root0.getId(), root1.getId())).findRowCount()).isEqualTo(0);
+    assertThat(Ebean.find(CascadeLeaf.class).where().in("mid.root.id", root0.getId(), root1.getId()).findRowCount()).isEqualTo(0);
+  }
+
+  @Test
+  public void deleteById_persistListenerRegistered_fetchesIds() {
+
+    CascadeRoot root = createRoot("listener");
+
+    BeanDescriptor<CascadeLeaf> leafDesc = spiEbeanServer().getBeanDescriptor(CascadeLeaf.class);
+    LeafListener listener = new LeafListener();
+    leafDesc.register(listener);
+    try {
+      LoggedSqlCollector.start();
+      Ebean.delete(CascadeRoot.class, root.getId());
+      List<String> sql = LoggedSqlCollector.stop();
+
+      // the listener needs the ids of the deleted leaves
+      assertThat(sql.get(0)).contains("select t0.id from cascade_mid");
+      for (String statement : sql) {
+        assertThat(statement).doesNotContain("in (select id from cascade_mid");
+      }
+    } finally {
+      leafDesc.deregister(listener);
+    }
+    assertThat(Ebean.find(CascadeLeaf.class).where().eq("mid.root.id", root.getId()).findRowCount()).isEqualTo(0);
+  }
+
+  @Test
+  public void deleteById_beanCachedChildren_fetchesIds() {
+
+    Article article = new Article("set based", "author");
+    Section section = new Section("section");
+    section.addSubSection(new SubSection("sub"));
+    article.addSection(section);
+    Ebean.save(article);
+
+    LoggedSqlCollector.start();
+    Ebean.delete(Article.class, article.getId());
+    List<String> sql = LoggedSqlCollector.stop();
+
+    // ids fetched (L2 cache notified by id)
+    assertThat(sql.get(0)).contains("select t0.id from section");
+    assertThat(Ebean.find(Section.class, section.getId())).isNull();
+  }
+
+  static class LeafListener extends AbstractBeanPersistListener {
+
+    @Override
+    public boolean isRegisterFor(Class<?> cls) {
+      return CascadeLeaf.class.equals(cls);
+    }
+  }
+}
@@ -0,0 +1,103 @@
+package com.avaje.tests.draftable;
+
+import com.avaje.ebean.BaseTestCase;
+import com.avaje.ebean.Ebean;
+import com.avaje.ebean.EbeanServer;
+import com.avaje.ebean.Query;
+import com.avaje.tests.model.draftable.CatalogueItem;
+import com.avaje.tests.model.draftable.Link;
+import com.avaje.tests.model.draftable.Organisation;
+import org.avaje.ebeantest.LoggedSqlCollector;
+import org.junit.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class CatalogueItemPublishBulkTest extends BaseTestCase {
+
+  private final EbeanServer server = Ebean.getDefaultServer();
+
+  @Test
+  public void publishBulk() {
+
+    Organisation org = new Organisation("bulkOrg");
+    org.save();
+
+    for (int i = 0; i < 12; i++) {
+      CatalogueItem item = new CatalogueItem("bulk" + i, new BigDecimal(i));
+      item.setOrganisation(org);
+      item.setNotes("draft notes");
+      item.setComment("comment" + i);
+      item.save();
+    }
+
+    LoggedSqlCollector.start();
+    int count = server.publishBulk(query(), null);
+    List<String> sql = LoggedSqlCollector.stop();
+
+    assertThat(count).isEqualTo(12);
+    // update live, insert live, reset draft (rather than statements per bean)
+    assertThat(sql).hasSize(4);
+    assertThat(sql.get(1)).contains("update catalogue_item set");
+    assertThat(sql.get(2)).contains("insert into catalogue_item (").contains("from catalogue_item_draft d");
+    assertThat(sql.get(3)).contains("update catalogue_item_draft set");
+
+    List<CatalogueItem> live = server.find(CatalogueItem.class).where().startsWith("name", "bulk").order().asc("id").findList();
+    assertThat(live).hasSize(12);
+    CatalogueItem liveItem = live.get(3);
+    assertThat(liveItem.getName()).isEqualTo("bulk3");
+    assertThat(liveItem.getPrice()).isEqualByComparingTo(new BigDecimal(3));
+    assertThat(liveItem.getOrganisation().getId()).isEqualTo(org.getId());
+    assertThat(liveItem.getComment()).isEqualTo("comment3");
+    assertThat(liveItem.getVersion()).isEqualTo(1L);
+    assertThat(liveItem.getWhenCreated()).isNotNull();
+    assertThat(liveItem.getWhenModified()).isNotNull();
+
+    CatalogueItem draftItem = server.find(CatalogueItem.class).asDraft().where().idEq(liveItem.getId()).findUnique();
+    assertThat(draftItem.isDirty()).isFalse();
+    assertThat(draftItem.getComment()).isNull();
+    assertThat(draftItem.getNotes()).isEqualTo("draft notes");
+
+    // modify a draft and publish again updating the existing live rows
+    draftItem.setName("bulk3-mod");
+    draftItem.save();
+
+    assertThat(server.publishBulk(query(), null)).isEqualTo(12);
+
+    CatalogueItem updated = server.find(CatalogueItem.class, liveItem.getId());
+    assertThat(updated.getName()).isEqualTo("bulk3-mod");
+    assertThat(updated.getVersion()).isEqualTo(2L);
+
+    // publish again with no changes (the reset comment was published above)
+    List<CatalogueItem> before = server.find(CatalogueItem.class).where().startsWith("name", "bulk").order().asc("id").findList();
+    LoggedSqlCollector.start();
+    assertThat(server.publishBulk(query(), null)).isEqualTo(12);
+    sql = LoggedSqlCollector.stop();
+    assertThat(sql.get(1)).contains("update catalogue_item set").contains(" <> ");
+
+    // unchanged live rows are not updated (keeping their version for optimistic locking)
+    List<CatalogueItem> after = server.find(CatalogueItem.class).where().startsWith("name", "bulk").order().asc("id").findList();
+    for (int i = 0; i < before.size(); i++) {
+      assertThat(after.get(i).getVersion()).isEqualTo(before.get(i).getVersion());
+      assertThat(after.get(i).getWhenModified()).isEqualTo(before.get(i).getWhenModified());
+    }
+    assertThat(server.find(CatalogueItem.class).where().startsWith("name", "bulk").findRowCount()).isEqualTo(12);
+  }
+
+  @Test
+  public void publishBulk_when_notSupported_expect_perBeanPublish() {
+
+    Link link = new Link("bulkLink");
+    link.save();
+
+    int count = server.publishBulk(server.find(Link.class).where().idEq(link.getId()).query(), null);
+    assertThat(count).isEqualTo(1);
+    assertThat(server.find(Link.class, link.getId()).getName()).isEqualTo("bulkLink");
+  }
+
+  private Query<CatalogueItem> query() {
+    return server.find(CatalogueItem.class).where().startsWith("name", "bulk").query();
+  }
+}
@@ -0,0 +1,47 @@
+package com.avaje.tests.history;
+
+import com.avaje.ebean.BaseTestCase;
+import com.avaje.ebean.Ebean;
+import com.avaje.ebean.config.dbplatform.StreamingConfig;
+import com.avaje.ebeaninternal.api.SpiEbeanServer;
+import com.avaje.tests.model.converstation.User;
+import org.junit.Test;
+
+import javax.persistence.PersistenceException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.Assert.fail;
+
+public class TestHistoryFindVersionsStreaming extends BaseTestCase {
+
+  @Test
+  public void findVersions_expect_streamingConfigUsed() {
+
+    if (!isH2()) {
+      return;
+    }
+
+    User user = new User();
+    user.setName("streaming");
+    user.setEmail("streaming@email.com");
+    Ebean.save(user);
+
+    assertThat(Ebean.find(User.class).setId(user.getId()).findVersions()).hasSize(1);
+
+    // an invalid streaming fetch size fails only queries that use the streaming config
+    StreamingConfig streamingConfig = ((SpiEbeanServer) Ebean.getDefaultServer()).getDatabasePlatform().getStreamingConfig();
+    int fetchSize = streamingConfig.getFetchSize();
+    streamingConfig.setFetchSize(-1);
+    try {
+      assertThat(Ebean.find(User.class).setId(user.getId()).findList()).hasSize(1);
+      try {
+        Ebean.find(User.class).setId(user.getId()).findVersions();
+        fail("expected findVersions to use the streaming config");
+      } catch (PersistenceException e) {
+        // expected
+      }
+    } finally {
+      streamingConfig.setFetchSize(fetchSize);
+    }
+  }
+}
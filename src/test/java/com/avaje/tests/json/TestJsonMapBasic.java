@@ -3,12 +3,16 @@ package com.avaje.tests.json;
 import com.avaje.ebean.BaseTestCase;
 import com.avaje.ebean.Ebean;
 import com.avaje.ebean.text.json.EJson;
+import com.avaje.ebeaninternal.server.type.LazyJsonMap;
 import com.avaje.tests.model.json.EBasicJsonMap;
+import org.avaje.ebeantest.LoggedSqlCollector;
 import org.junit.Test;
 
 import java.io.IOException;
+import java.util.List;
 import java.util.Map;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.Assert.assertEquals;
 
 public class TestJsonMapBasic extends BaseTestCase {
@@ -62,4 +66,30 @@ public class TestJsonMapBasic extends BaseTestCase {
     assertEquals(99L, bean3.getContent().get("docId"));
     assertEquals("modValue", bean3.getContent().get("additional"));
   }
+
+  @Test
+  public void testLazyParse() throws IOException {
+
+    EBasicJsonMap bean = new EBasicJsonMap();
+    bean.setName("lazy");
+    bean.setContent(EJson.parseObject("{\"docId\":20,\"tags\":[\"a\",\"b\"]}"));
+    Ebean.save(bean);
+
+    EBasicJsonMap found = Ebean.find(EBasicJsonMap.class, bean.getId());
+    LazyJsonMap content = (LazyJsonMap) found.getContent();
+
+    // written to JSON without parsing the content
+    String asJson = Ebean.json().toJson(found);
+    assertThat(asJson).contains("\"content\":{\"docId\":20,\"tags\":[\"a\",\"b\"]}");
+    assertThat(content.isParsed()).isFalse();
+
+    // unread content is not included in the update
+    found.setName("lazy2");
+    LoggedSqlCollector.start();
+    Ebean.save(found);
+    List<String> sql = LoggedSqlCollector.stop();
+    assertThat(sql).hasSize(1);
+    assertThat(sql.get(0)).contains("set name=?").doesNotContain("content");
+    assertThat(content.isParsed()).isFalse();
+  }
 }
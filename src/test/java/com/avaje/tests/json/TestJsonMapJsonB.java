@@ -2,6 +2,10 @@ package com.avaje.tests.json;
 
 import com.avaje.ebean.BaseTestCase;
 import com.avaje.ebean.Ebean;
+import com.avaje.ebean.EbeanServer;
+import com.avaje.ebean.EbeanServerFactory;
+import com.avaje.ebean.config.ContainerConfig;
+import com.avaje.ebean.config.ServerConfig;
 import com.avaje.ebean.text.json.EJson;
 import com.avaje.tests.model.json.EBasicJsonMapJsonB;
 import org.junit.Test;
@@ -10,6 +14,7 @@ import java.io.IOException;
 import java.util.Map;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 
 public class TestJsonMapJsonB extends BaseTestCase {
 
@@ -36,4 +41,45 @@ public class TestJsonMapJsonB extends BaseTestCase {
     bean1.setName("just change name");
     Ebean.save(bean1);
   }
+
+  /**
+   * Runs the JSON patch update against the database (Postgres only).
+   */
+  @Test
+  public void testUpdateJsonPatch() throws IOException {
+
+    if (!isPostgres()) {
+      return;
+    }
+
+    ServerConfig config = new ServerConfig();
+    config.setName("jsonPatch");
+    config.setDataSource(spiEbeanServer().getServerConfig().getDataSource());
+    config.setDatabasePlatform(spiEbeanServer().getDatabasePlatform());
+    config.setContainerConfig(new ContainerConfig());
+    config.setRegister(false);
+    config.setDefaultServer(false);
+    config.setJsonPatchUpdate(true);
+    config.addClass(EBasicJsonMapJsonB.class);
+    EbeanServer server = EbeanServerFactory.create(config);
+
+    EBasicJsonMapJsonB bean = new EBasicJsonMapJsonB();
+    bean.setName("patch");
+    bean.setContent(EJson.parseObject("{\"a\":1,\"b\":\"two\",\"c\":{\"d\":true}}"));
+    server.save(bean);
+
+    EBasicJsonMapJsonB found = server.find(EBasicJsonMapJsonB.class, bean.getId());
+    found.getContent().put("a", 10);
+    found.getContent().put("e", "five");
+    found.getContent().remove("b");
+    server.save(found);
+
+    Map<String, Object> content = server.find(EBasicJsonMapJsonB.class, bean.getId()).getContent();
+    assertEquals(10L, content.get("a"));
+    assertEquals("five", content.get("e"));
+    assertFalse(content.containsKey("b"));
+    assertEquals(EJson.parseObject("{\"d\":true}"), content.get("c"));
+
+    server.delete(found);
+  }
 }
@@ -0,0 +1,45 @@
+package com.avaje.tests.model.cascade;
+
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.ManyToOne;
+
+@Entity
+public class CascadeLeaf {
+
+  @Id
+  Long id;
+
+  String name;
+
+  @ManyToOne
+  CascadeMid mid;
+
+  public CascadeLeaf(String name) {
+    this.name = name;
+  }
+
+  public Long getId() {
+    return id;
+  }
+
+  public void setId(Long id) {
+    this.id = id;
+  }
+
+  public String getName() {
+    return name;
+  }
+
+  public void setName(String name) {
+    this.name = name;
+  }
+
+  public CascadeMid getMid() {
+    return mid;
+  }
+
+  public void setMid(CascadeMid mid) {
+    this.mid = mid;
+  }
+}
@@ -0,0 +1,60 @@
+package com.avaje.tests.model.cascade;
+
+import javax.persistence.CascadeType;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.ManyToOne;
+import javax.persistence.OneToMany;
+import java.util.ArrayList;
+import java.util.List;
+
+@Entity
+public class CascadeMid {
+
+  @Id
+  Long id;
+
+  String name;
+
+  @ManyToOne
+  CascadeRoot root;
+
+  @OneToMany(mappedBy = "mid", cascade = CascadeType.ALL)
+  List<CascadeLeaf> leaves = new ArrayList<CascadeLeaf>();
+
+  public CascadeMid(String name) {
+    this.name = name;
+  }
+
+  public Long getId() {
+    return id;
+  }
+
+  public void setId(Long id) {
+    this.id = id;
+  }
+
+  public String getName() {
+    return name;
+  }
+
+  public void setName(String name) {
+    this.name = name;
+  }
+
+  public CascadeRoot getRoot() {
+    return root;
+  }
+
+  public void setRoot(CascadeRoot root) {
+    this.root = root;
+  }
+
+  public List<CascadeLeaf> getLeaves() {
+    return leaves;
+  }
+
+  public void setLeaves(List<CascadeLeaf> leaves) {
+    this.leaves = leaves;
+  }
+}
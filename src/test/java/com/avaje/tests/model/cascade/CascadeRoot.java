@@ -0,0 +1,48 @@
+package com.avaje.tests.model.cascade;
+
+import javax.persistence.CascadeType;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.OneToMany;
+import java.util.ArrayList;
+import java.util.List;
+
+@Entity
+public class CascadeRoot {
+
+  @Id
+  Long id;
+
+  String name;
+
+  @OneToMany(mappedBy = "root", cascade = CascadeType.ALL)
+  List<CascadeMid> mids = new ArrayList<CascadeMid>();
+
+  public CascadeRoot(String name) {
+    this.name = name;
+  }
+
+  public Long getId() {
+    return id;
+  }
+
+  public void setId(Long id) {
+    this.id = id;
+  }
+
+  public String getName() {
+    return name;
+  }
+
+  public void setName(String name) {
+    this.name = name;
+  }
+
+  public List<CascadeMid> getMids() {
+    return mids;
+  }
+
+  public void setMids(List<CascadeMid> mids) {
+    this.mids = mids;
+  }
+}
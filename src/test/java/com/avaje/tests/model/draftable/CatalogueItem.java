@@ -0,0 +1,102 @@
+package com.avaje.tests.model.draftable;
+
+import com.avaje.ebean.annotation.Draft;
+import com.avaje.ebean.annotation.DraftDirty;
+import com.avaje.ebean.annotation.DraftOnly;
+import com.avaje.ebean.annotation.DraftReset;
+import com.avaje.ebean.annotation.Draftable;
+
+import javax.persistence.Entity;
+import javax.persistence.ManyToOne;
+import java.math.BigDecimal;
+
+/**
+ * Draftable with no draftable relationships (supports set based publish).
+ */
+@Draftable
+@Entity
+public class CatalogueItem extends BaseDomain {
+
+  String name;
+
+  BigDecimal price;
+
+  @ManyToOne
+  Organisation organisation;
+
+  @DraftOnly
+  String notes;
+
+  @DraftReset
+  String comment;
+
+  @Draft
+  boolean draft;
+
+  @DraftDirty
+  boolean dirty;
+
+  public CatalogueItem(String name, BigDecimal price) {
+    this.name = name;
+    this.price = price;
+  }
+
+  public CatalogueItem() {
+  }
+
+  public String getName() {
+    return name;
+  }
+
+  public void setName(String name) {
+    this.name = name;
+  }
+
+  public BigDecimal getPrice() {
+    return price;
+  }
+
+  public void setPrice(BigDecimal price) {
+    this.price = price;
+  }
+
+  public Organisation getOrganisation() {
+    return organisation;
+  }
+
+  public void setOrganisation(Organisation organisation) {
+    this.organisation = organisation;
+  }
+
+  public String getNotes() {
+    return notes;
+  }
+
+  public void setNotes(String notes) {
+    this.notes = notes;
+  }
+
+  public String getComment() {
+    return comment;
+  }
+
+  public void setComment(String comment) {
+    this.comment = comment;
+  }
+
+  public boolean isDraft() {
+    return draft;
+  }
+
+  public void setDraft(boolean draft) {
+    this.draft = draft;
+  }
+
+  public boolean isDirty() {
+    return dirty;
+  }
+
+  public void setDirty(boolean dirty) {
+    this.dirty = dirty;
+  }
+}
@@ -0,0 +1,127 @@
+package com.avaje.tests.query;
+
+import com.avaje.ebean.BaseTestCase;
+import com.avaje.ebean.Ebean;
+import com.avaje.ebean.ParallelConfig;
+import com.avaje.ebean.QueryEachConsumer;
+import com.avaje.tests.model.basic.Customer;
+import com.avaje.tests.model.basic.ResetBasicData;
+import org.avaje.ebeantest.LoggedSqlCollector;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.Assert.fail;
+
+public class TestQueryFindEachParallel extends BaseTestCase {
+
+  @Test
+  public void unordered() {
+
+    ResetBasicData.reset();
+
+    List<Object> expectedIds = Ebean.find(Customer.class).where().gt("id", 0).findIds();
+
+    final Map<Object, Integer> counts = new ConcurrentHashMap<Object, Integer>();
+
+    LoggedSqlCollector.start();
+    Ebean.find(Customer.class)
+        .where().gt("id", 0)
+        .findEachParallel(new ParallelConfig().parallelism(3), new QueryEachConsumer<Customer>() {
+          @Override
+          public void accept(Customer customer) {
+            Integer prev = counts.put(customer.getId(), 1);
+            assertThat(prev).isNull();
+          }
+        });
+
+    List<String> sql = LoggedSqlCollector.stop();
+    assertThat(sql).hasSize(3);
+    if (isH2()) {
+      assertThat(sql.get(0)).contains("abs(mod(t0.id, ?)) = ?");
+    }
+    assertThat(counts.keySet()).containsOnlyElementsOf(expectedIds);
+    assertThat(counts).hasSize(expectedIds.size());
+  }
+
+  @Test
+  public void ordered_perPartition() {
+
+    ResetBasicData.reset();
+
+    int expectedCount = Ebean.find(Customer.class).findRowCount();
+
+    final Map<String, List<Integer>> idsByThread = new ConcurrentHashMap<String, List<Integer>>();
+
+    Ebean.find(Customer.class)
+        .orderBy().asc("id")
+        .findEachParallel(new ParallelConfig().parallelism(2).ordered(), new QueryEachConsumer<Customer>() {
+          @Override
+          public void accept(Customer customer) {
+            String thread = Thread.currentThread().getName();
+            List<Integer> ids = idsByThread.get(thread);
+            if (ids == null) {
+              ids = new ArrayList<Integer>();
+              idsByThread.put(thread, ids);
+            }
+            ids.add(customer.getId());
+          }
+        });
+
+    int total = 0;
+    for (List<Integer> ids : idsByThread.values()) {
+      List<Integer> sorted = new ArrayList<Integer>(ids);
+      Collections.sort(sorted);
+      assertThat(ids).isEqualTo(sorted);
+      total += ids.size();
+    }
+    assertThat(total).isEqualTo(expectedCount);
+  }
+
+  @Test
+  public void maxRows_singlePartition() {
+
+    ResetBasicData.reset();
+
+    final Map<Object, Integer> counts = new ConcurrentHashMap<Object, Integer>();
+
+    LoggedSqlCollector.start();
+    Ebean.find(Customer.class)
+        .orderBy().asc("id")
+        .setMaxRows(2)
+        .findEachParallel(new ParallelConfig().parallelism(4), new QueryEachConsumer<Customer>() {
+          @Override
+          public void accept(Customer customer) {
+            counts.put(customer.getId(), 1);
+          }
+        });
+
+    List<String> sql = LoggedSqlCollector.stop();
+    assertThat(sql).hasSize(1);
+    assertThat(counts).hasSize(2);
+  }
+
+  @Test
+  public void consumerException_isRethrown() {
+
+    ResetBasicData.reset();
+
+    try {
+      Ebean.find(Customer.class)
+          .findEachParallel(new ParallelConfig().parallelism(2), new QueryEachConsumer<Customer>() {
+            @Override
+            public void accept(Customer customer) {
+              throw new IllegalStateException("cause a failure");
+            }
+          });
+      fail("expected IllegalStateException");
+    } catch (IllegalStateException e) {
+      assertThat(e.getMessage()).isEqualTo("cause a failure");
+    }
+  }
+}
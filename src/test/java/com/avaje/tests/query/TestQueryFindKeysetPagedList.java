@@ -0,0 +1,127 @@
+package com.avaje.tests.query;
+
+import com.avaje.ebean.BaseTestCase;
+import com.avaje.ebean.Ebean;
+import com.avaje.ebean.KeysetPagedList;
+import com.avaje.ebean.Query;
+import com.avaje.tests.model.basic.Customer;
+import com.avaje.tests.model.basic.ResetBasicData;
+import org.avaje.ebeantest.LoggedSqlCollector;
+import org.junit.Test;
+
+import javax.persistence.PersistenceException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.Assert.fail;
+
+public class TestQueryFindKeysetPagedList extends BaseTestCase {
+
+  @Test
+  public void pageThrough() {
+
+    ResetBasicData.reset();
+
+    List<Integer> expectedIds = new ArrayList<Integer>();
+    for (Customer customer : Ebean.find(Customer.class).order().asc("name").order().asc("id").findList()) {
+      expectedIds.add(customer.getId());
+    }
+
+    List<Integer> ids = new ArrayList<Integer>();
+    Object[] keyset = null;
+    int pages = 0;
+    do {
+      KeysetPagedList<Customer> page = Ebean.find(Customer.class)
+          .order().asc("name")
+          .findKeysetPagedList(keyset, 2);
+
+      for (Customer customer : page.getList()) {
+        ids.add(customer.getId());
+      }
+      assertThat(page.getList().size()).isLessThanOrEqualTo(2);
+      assertThat(page.hasPrev()).isEqualTo(keyset != null);
+      keyset = page.getNextKeyset();
+      assertThat(keyset == null).isEqualTo(!page.hasNext());
+      pages++;
+    } while (keyset != null);
+
+    assertThat(ids).isEqualTo(expectedIds);
+    assertThat(pages).isEqualTo((expectedIds.size() + 1) / 2);
+  }
+
+  @Test
+  public void sql() {
+
+    ResetBasicData.reset();
+
+    KeysetPagedList<Customer> first = Ebean.find(Customer.class)
+        .where().gt("id", 0)
+        .order().desc("name")
+        .findKeysetPagedList(null, 2);
+
+    Object[] keyset = first.getNextKeyset();
+    assertThat(keyset).hasSize(2);
+
+    LoggedSqlCollector.start();
+    KeysetPagedList<Customer> second = Ebean.find(Customer.class)
+        .where().gt("id", 0)
+        .order().desc("name")
+        .findKeysetPagedList(keyset, 2);
+
+    second.getList();
+    int total = second.getTotalRowCount();
+    List<String> sql = LoggedSqlCollector.stop();
+
+    assertThat(total).isEqualTo(Ebean.find(Customer.class).where().gt("id", 0).findRowCount());
+    assertThat(sql).hasSize(2);
+    if (isH2()) {
+      assertThat(sql.get(0)).contains("(t0.name < ? or (t0.name = ? and t0.id > ?))");
+      assertThat(sql.get(0)).contains("order by t0.name desc, t0.id");
+      assertThat(sql.get(0)).contains("limit 3");
+    }
+    // the count query does not include the keyset predicate
+    assertThat(sql.get(1)).doesNotContain("t0.name < ?");
+  }
+
+  @Test
+  public void queryNotModified() {
+
+    ResetBasicData.reset();
+
+    Query<Customer> query = Ebean.find(Customer.class)
+        .where().gt("id", 0)
+        .order().asc("name");
+
+    KeysetPagedList<Customer> first = query.findKeysetPagedList(null, 2);
+    first.getList();
+    query.findKeysetPagedList(first.getNextKeyset(), 2).getList();
+
+    // the id is appended to a copy of the order by
+    assertThat(query.orderBy().toStringFormat()).isEqualTo("name");
+    assertThat(query.getMaxRows()).isEqualTo(0);
+    assertThat(query.findList()).hasSize(Ebean.find(Customer.class).where().gt("id", 0).findRowCount());
+  }
+
+  @Test
+  public void nullableOrderBy_expect_rejected() {
+
+    try {
+      Ebean.find(Customer.class).order().asc("smallnote").findKeysetPagedList(null, 2);
+      fail("expected nullable order by property to be rejected");
+    } catch (PersistenceException e) {
+      assertThat(e.getMessage()).contains("smallnote").contains("nullable");
+    }
+  }
+
+  @Test
+  public void nullableAssocOrderBy_expect_rejected() {
+
+    try {
+      Ebean.find(Customer.class).order().asc("billingAddress.city").findKeysetPagedList(null, 2);
+      fail("expected order by through a nullable association to be rejected");
+    } catch (PersistenceException e) {
+      assertThat(e.getMessage()).contains("billingAddress.city");
+    }
+  }
+}
@@ -0,0 +1,51 @@
+package com.avaje.tests.query;
+
+import com.avaje.ebean.BaseTestCase;
+import com.avaje.ebean.Ebean;
+import com.avaje.tests.model.basic.Customer;
+import com.avaje.tests.model.basic.EBasic;
+import com.avaje.tests.model.basic.ResetBasicData;
+import org.avaje.ebeantest.LoggedSqlCollector;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class TestQueryInPadding extends BaseTestCase {
+
+  @Test
+  public void idIn_padded() {
+
+    LoggedSqlCollector.start();
+    Ebean.find(EBasic.class)
+        .where().idIn(Arrays.asList(1, 2, 3, 4, 5, 6, 7))
+        .findList();
+
+    List<String> sql = LoggedSqlCollector.stop();
+
+    assertThat(sql).hasSize(1);
+    if (isH2()) {
+      assertThat(sql.get(0)).contains(" in (?,?,?,?,?,?,?,?,?,?)");
+    }
+  }
+
+  @Test
+  public void in_padded() {
+
+    ResetBasicData.reset();
+
+    LoggedSqlCollector.start();
+    List<Customer> list = Ebean.find(Customer.class)
+        .where().in("name", "Rob", "Cust NoAddress", "Fiona", "NotThere1", "NotThere2", "NotThere3")
+        .findList();
+
+    List<String> sql = LoggedSqlCollector.stop();
+
+    assertThat(list).extracting("name").contains("Rob", "Cust NoAddress", "Fiona");
+    if (isH2()) {
+      assertThat(sql.get(0)).contains(" in (?,?,?,?,?,?,?,?,?,?)");
+    }
+  }
+}
@@ -0,0 +1,77 @@
+package com.avaje.tests.query.other;
+
+import com.avaje.ebean.BaseTestCase;
+import com.avaje.ebean.Ebean;
+import com.avaje.ebean.meta.MetaHistogram;
+import com.avaje.ebean.meta.MetaQueryPlanStatistic;
+import com.avaje.ebean.meta.QueryPlanMetrics;
+import com.avaje.tests.model.basic.EBasic;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class TestQueryPlanHistograms extends BaseTestCase {
+
+  @Test
+  public void phases() {
+
+    for (int i = 0; i < 3; i++) {
+      EBasic bean = new EBasic();
+      bean.setName("histogram" + i);
+      Ebean.save(bean);
+    }
+
+    // reset the statistics
+    Ebean.getDefaultServer().getMetaInfoManager().collectQueryPlanStatistics(true);
+
+    for (int i = 0; i < 5; i++) {
+      Ebean.find(EBasic.class).where().startsWith("name", "histogram").findList();
+    }
+
+    MetaQueryPlanStatistic statistic = find(Ebean.getDefaultServer().getMetaInfoManager().collectQueryPlanStatistics(false));
+    assertThat(statistic).isNotNull();
+    assertThat(statistic.getExecutionCount()).isEqualTo(5);
+
+    MetaHistogram execute = statistic.getExecuteHistogram();
+    assertThat(execute.getCount()).isEqualTo(5);
+    assertThat(statistic.getRowReadHistogram().getCount()).isEqualTo(5);
+    assertThat(statistic.getBeanBuildHistogram().getCount()).isEqualTo(5);
+
+    MetaHistogram rows = statistic.getRowsHistogram();
+    assertThat(rows.getMax()).isGreaterThanOrEqualTo(3);
+    assertThat(rows.getPercentile(50)).isGreaterThanOrEqualTo(3);
+  }
+
+  @Test
+  public void metrics() {
+
+    Ebean.find(EBasic.class).where().endsWith("name", "metrics").findList();
+
+    QueryPlanMetrics metrics = new QueryPlanMetrics(Ebean.getDefaultServer().getMetaInfoManager(), "ebean.query");
+    Map<String, Long> values = metrics.collect(true);
+
+    assertThat(values).isNotEmpty();
+    boolean found = false;
+    for (String name : values.keySet()) {
+      if (name.startsWith("ebean.query.EBasic.") && name.endsWith(".execute.p99")) {
+        found = true;
+      }
+    }
+    assertThat(found).isTrue();
+
+    // reset so no executions since
+    assertThat(metrics.collect(false)).isEmpty();
+  }
+
+  private MetaQueryPlanStatistic find(List<MetaQueryPlanStatistic> list) {
+    for (MetaQueryPlanStatistic statistic : list) {
+      if (statistic.getBeanType().equals(EBasic.class) && statistic.getSql().contains("like")) {
+        return statistic;
+      }
+    }
+    return null;
+  }
+}
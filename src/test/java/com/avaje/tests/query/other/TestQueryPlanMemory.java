@@ -0,0 +1,44 @@
+package com.avaje.tests.query.other;
+
+import com.avaje.ebean.BaseTestCase;
+import com.avaje.ebean.Ebean;
+import com.avaje.ebean.meta.MetaQueryPlanMemory;
+import com.avaje.tests.model.basic.EBasic;
+import org.junit.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class TestQueryPlanMemory extends BaseTestCase {
+
+  @Test
+  public void sharedFragments() {
+
+    Ebean.find(EBasic.class).where().startsWith("name", "plan-memory").findList();
+    MetaQueryPlanMemory before = find(Ebean.getDefaultServer().getMetaInfoManager().collectQueryPlanMemory());
+    assertThat(before).isNotNull();
+    assertThat(before.getPlanCount()).isGreaterThan(0);
+    assertThat(before.getPlanBytes()).isGreaterThan(0);
+    assertThat(before.getSharedFragmentCount()).isGreaterThan(0);
+
+    // same select and from clauses with a different where clause
+    Ebean.find(EBasic.class).where().endsWith("name", "plan-memory").lt("id", 1000).findList();
+    MetaQueryPlanMemory after = find(Ebean.getDefaultServer().getMetaInfoManager().collectQueryPlanMemory());
+
+    assertThat(after.getPlanCount()).isEqualTo(before.getPlanCount() + 1);
+    assertThat(after.getPlanBytes()).isGreaterThan(before.getPlanBytes());
+    assertThat(after.getSharedFragmentCount()).isEqualTo(before.getSharedFragmentCount());
+    assertThat(after.getSharedFragmentBytes()).isEqualTo(before.getSharedFragmentBytes());
+    assertThat(after.getTotalBytes()).isEqualTo(after.getPlanBytes() + after.getSharedFragmentBytes());
+  }
+
+  private MetaQueryPlanMemory find(List<MetaQueryPlanMemory> list) {
+    for (MetaQueryPlanMemory memory : list) {
+      if (memory.getBeanType().equals(EBasic.class)) {
+        return memory;
+      }
+    }
+    return null;
+  }
+}
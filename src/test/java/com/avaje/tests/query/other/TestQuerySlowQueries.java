@@ -0,0 +1,76 @@
+package com.avaje.tests.query.other;
+
+import com.avaje.ebean.BaseTestCase;
+import com.avaje.ebean.Ebean;
+import com.avaje.ebean.meta.MetaInfoManager;
+import com.avaje.ebean.meta.MetaQueryPlanStatistic;
+import com.avaje.ebean.meta.MetaSlowQuery;
+import com.avaje.tests.model.basic.EBasic;
+import org.junit.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class TestQuerySlowQueries extends BaseTestCase {
+
+  @Test
+  public void perPlanThreshold() {
+
+    EBasic bean = new EBasic();
+    bean.setName("slowQuery");
+    Ebean.save(bean);
+
+    MetaInfoManager metaInfoManager = Ebean.getDefaultServer().getMetaInfoManager();
+    metaInfoManager.collectQueryPlanStatistics(true);
+    Ebean.find(EBasic.class).where().startsWith("name", "slowQ").order().desc("id").findList();
+
+    // the only query plan executed since the statistics were reset
+    String planHash = planHash(metaInfoManager.collectQueryPlanStatistics(false));
+    assertThat(planHash).isNotNull();
+
+    // record every execution of the query plan
+    metaInfoManager.setSlowQueryThreshold(planHash, 0);
+    try {
+      metaInfoManager.collectSlowQueries(true);
+      Ebean.find(EBasic.class).where().startsWith("name", "slowQ").order().desc("id").findList();
+
+      List<MetaSlowQuery> slowQueries = metaInfoManager.collectSlowQueries(true);
+      assertThat(slowQueries).hasSize(1);
+
+      MetaSlowQuery slowQuery = slowQueries.get(0);
+      assertThat(slowQuery.getBeanType()).isEqualTo(EBasic.class);
+      assertThat(slowQuery.getQueryPlanHash()).isEqualTo(planHash);
+      assertThat(slowQuery.getSql()).contains("order by");
+      assertThat(slowQuery.getBindLog()).contains("slowQ");
+      assertThat(slowQuery.getRows()).isGreaterThanOrEqualTo(1);
+      assertThat(slowQuery.getBeans()).isGreaterThanOrEqualTo(1);
+      assertThat(slowQuery.getTimeMicros()).isGreaterThanOrEqualTo(slowQuery.getExecuteMicros());
+      assertThat(slowQuery.getOrigin()).isNotNull();
+
+      // cleared on collection
+      assertThat(metaInfoManager.collectSlowQueries(false)).isEmpty();
+
+      // bounded to the buffer size (default 100)
+      for (int i = 0; i < 110; i++) {
+        Ebean.find(EBasic.class).where().startsWith("name", "slowQ").order().desc("id").findList();
+      }
+      assertThat(metaInfoManager.collectSlowQueries(true)).hasSize(100);
+
+    } finally {
+      metaInfoManager.setSlowQueryThreshold(planHash, -1);
+    }
+
+    Ebean.find(EBasic.class).where().startsWith("name", "slowQ").order().desc("id").findList();
+    assertThat(metaInfoManager.collectSlowQueries(true)).isEmpty();
+  }
+
+  private String planHash(List<MetaQueryPlanStatistic> list) {
+    for (MetaQueryPlanStatistic statistic : list) {
+      if (statistic.getBeanType().equals(EBasic.class) && statistic.getExecutionCount() > 0) {
+        return statistic.getQueryPlanHash();
+      }
+    }
+    return null;
+  }
+}
@@ -0,0 +1,91 @@
+package com.avaje.tests.sqlquery;
+
+import com.avaje.ebean.BaseTestCase;
+import com.avaje.ebean.Ebean;
+import com.avaje.ebean.QueryEachConsumer;
+import com.avaje.ebean.QueryEachWhileConsumer;
+import com.avaje.ebean.SqlRow;
+import com.avaje.tests.model.basic.ResetBasicData;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class TestSqlQueryFindEach extends BaseTestCase {
+
+  @Test
+  public void findEach() {
+
+    ResetBasicData.reset();
+
+    int expected = Ebean.createSqlQuery("select id, name from o_customer").findList().size();
+
+    final List<SqlRow> rows = new ArrayList<SqlRow>();
+    Ebean.createSqlQuery("select id, name from o_customer order by id")
+        .findEach(new QueryEachConsumer<SqlRow>() {
+          @Override
+          public void accept(SqlRow row) {
+            rows.add(row);
+          }
+        });
+
+    assertThat(rows).hasSize(expected);
+    SqlRow first = rows.get(0);
+    assertThat(first.getLong("ID")).isNotNull();
+    assertThat(first.getString("name")).isNotNull();
+    assertThat(first.keySet()).containsExactly("id", "name");
+    assertThat(first.containsKey("Name")).isTrue();
+    assertThat(first.get("notAColumn")).isNull();
+    // rows are distinct instances by default
+    assertThat(rows.get(1)).isNotSameAs(first);
+  }
+
+  @Test
+  public void findEachWhile_reuseRow() {
+
+    ResetBasicData.reset();
+
+    final Set<SqlRow> instances = Collections.newSetFromMap(new IdentityHashMap<SqlRow, Boolean>());
+    final List<Long> ids = new ArrayList<Long>();
+
+    Ebean.createSqlQuery("select id from o_customer order by id")
+        .setReuseRow(true)
+        .findEachWhile(new QueryEachWhileConsumer<SqlRow>() {
+          @Override
+          public boolean accept(SqlRow row) {
+            instances.add(row);
+            ids.add(row.getLong("id"));
+            return ids.size() < 2;
+          }
+        });
+
+    assertThat(ids).hasSize(2);
+    assertThat(ids.get(0)).isNotEqualTo(ids.get(1));
+    assertThat(instances).hasSize(1);
+  }
+
+  @Test
+  public void findEach_largeResult() {
+
+    if (!isH2()) {
+      return;
+    }
+    final long[] count = new long[1];
+    Ebean.createSqlQuery("select x from system_range(1, 200000)")
+        .setReuseRow(true)
+        .setBufferFetchSizeHint(1000)
+        .findEach(new QueryEachConsumer<SqlRow>() {
+          @Override
+          public void accept(SqlRow row) {
+            count[0] += row.getLong("x");
+          }
+        });
+
+    assertThat(count[0]).isEqualTo(200000L * 200001L / 2);
+  }
+}
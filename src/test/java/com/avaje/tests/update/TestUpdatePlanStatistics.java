@@ -0,0 +1,49 @@
+package com.avaje.tests.update;
+
+import com.avaje.ebean.BaseTestCase;
+import com.avaje.ebean.Ebean;
+import com.avaje.ebean.meta.MetaUpdatePlanStatistic;
+import com.avaje.tests.model.basic.EBasic;
+import org.junit.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class TestUpdatePlanStatistics extends BaseTestCase {
+
+  @Test
+  public void test() {
+
+    EBasic bean0 = new EBasic();
+    bean0.setName("plan0");
+    Ebean.save(bean0);
+
+    EBasic bean1 = new EBasic();
+    bean1.setName("plan1");
+    Ebean.save(bean1);
+
+    // reset the statistics
+    Ebean.getDefaultServer().getMetaInfoManager().collectUpdatePlanStatistics(true);
+
+    bean0.setName("plan0-mod");
+    Ebean.save(bean0);
+    bean1.setName("plan1-mod");
+    Ebean.save(bean1);
+
+    MetaUpdatePlanStatistic statistic = find(Ebean.getDefaultServer().getMetaInfoManager().collectUpdatePlanStatistics(false));
+    assertThat(statistic).isNotNull();
+    assertThat(statistic.getSize()).isGreaterThan(0);
+    assertThat(statistic.getHitCount()).isGreaterThanOrEqualTo(1);
+    assertThat(statistic.isWidening()).isFalse();
+  }
+
+  private MetaUpdatePlanStatistic find(List<MetaUpdatePlanStatistic> list) {
+    for (MetaUpdatePlanStatistic statistic : list) {
+      if (statistic.getBeanType().equals(EBasic.class)) {
+        return statistic;
+      }
+    }
+    return null;
+  }
+}